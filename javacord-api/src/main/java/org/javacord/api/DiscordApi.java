@@ -21,9 +21,11 @@ import org.javacord.api.entity.channel.VoiceChannel;
 import org.javacord.api.entity.emoji.CustomEmoji;
 import org.javacord.api.entity.emoji.KnownCustomEmoji;
 import org.javacord.api.entity.intent.Intent;
+import org.javacord.api.entity.message.HistoryRange;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.entity.message.MessageBuilder;
 import org.javacord.api.entity.message.MessageSet;
+import org.javacord.api.entity.message.MessageSink;
 import org.javacord.api.entity.message.UncachedMessageUtil;
 import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.entity.permission.Permissions;
@@ -48,6 +50,7 @@ import org.javacord.api.interaction.UserContextMenu;
 import org.javacord.api.listener.GloballyAttachableListenerManager;
 import org.javacord.api.util.DiscordRegexPattern;
 import org.javacord.api.util.concurrent.ThreadPool;
+import org.javacord.api.util.event.SlowListenerHandler;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 
@@ -56,6 +59,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
@@ -117,6 +121,16 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
      */
     boolean canDispatchEvents();
 
+    /**
+     * Sets a handler which is notified about listener tasks with an unusually long execution time.
+     *
+     * <p>Slow listener tasks are always logged, the handler can be used to additionally report them, e.g. with the
+     * stack trace of the listener thread.
+     *
+     * @param slowListenerHandler The handler or {@code null} to only log slow listener tasks.
+     */
+    void setSlowListenerHandler(SlowListenerHandler slowListenerHandler);
+
     /**
      * Controls who will be mentioned if mentions exist in a message.
      * This is overriden with {@link MessageBuilder#setAllowedMentions(AllowedMentions)}
@@ -348,7 +362,7 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
      *
      * <p>If you did not provide a ratelimiter yourself, this method will return a {@link LocalRatelimiter}
      * which is set to allow one gateway identify request per 5500ms and is shared with every bot with the same token
-     * in the same Java program.
+     * and the same identify bucket ({@code shard_id % max_concurrency}) in the same Java program.
      *
      * @return The current gateway identify ratelimiter.
      */
@@ -459,6 +473,27 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
      */
     boolean isDefaultAutomaticMessageCacheCleanupEnabled();
 
+    /**
+     * Sets how many batches of messages are requested ahead while a message stream, like
+     * {@link TextChannel#getMessagesAsStream()}, is consumed.
+     *
+     * <p>The next batch is requested in the background as soon as the previous one was received, so consuming the
+     * messages does not have to wait for Discord. Higher values help if the consumer is slower than the requests,
+     * but cause more unnecessary requests if a stream is not consumed completely. {@code 0} disables prefetching,
+     * so a batch is only requested once the previous one is consumed. The default is {@code 1}.
+     *
+     * @param batches The amount of batches of 100 messages which are requested ahead.
+     */
+    void setMessageHistoryPrefetchDepth(int batches);
+
+    /**
+     * Gets how many batches of messages are requested ahead while a message stream is consumed.
+     *
+     * @return The amount of batches of 100 messages which are requested ahead.
+     * @see #setMessageHistoryPrefetchDepth(int)
+     */
+    int getMessageHistoryPrefetchDepth();
+
     /**
      * Gets the current shard of the bot, starting with <code>0</code>.
      *
@@ -1276,6 +1311,44 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
                 .filter(message -> message.getChannel().getIdAsString().equals(matcher.group("channel")));
     }
 
+    /**
+     * Exports the message history of the given channels.
+     *
+     * <p>The history of each channel is requested page by page from oldest to newest and every page is passed to the
+     * sink as soon as it was received. Up to 10 channels are exported at the same time, see
+     * {@link #exportHistory(Collection, HistoryRange, MessageSink, int)}.
+     *
+     * @param channels The channels to export.
+     * @param range The range of the history to export.
+     * @param sink The sink which receives the messages.
+     * @return A future which is completed once all channels were exported.
+     */
+    default CompletableFuture<Void> exportHistory(
+            Collection<? extends TextChannel> channels, HistoryRange range, MessageSink sink) {
+        return exportHistory(channels, range, sink, 10);
+    }
+
+    /**
+     * Exports the message history of the given channels.
+     *
+     * <p>The history of each channel is requested page by page from oldest to newest and every page is passed to the
+     * sink as soon as it was received. The next page of a channel is requested once the sink finished processing the
+     * previous one. The given amount of channels is exported at the same time. Each of them has its own ratelimit
+     * bucket, so a channel that has to wait for its ratelimit does not hold back the others. At most one page per
+     * exported channel is held in memory, no matter how large the channels are.
+     *
+     * <p>If a page cannot be requested, for example because the bot is not allowed to read the history of a channel,
+     * the export stops and the returned future completes exceptionally.
+     *
+     * @param channels The channels to export.
+     * @param range The range of the history to export.
+     * @param sink The sink which receives the messages.
+     * @param parallelism The maximum amount of channels which are exported at the same time.
+     * @return A future which is completed once all channels were exported.
+     */
+    CompletableFuture<Void> exportHistory(
+            Collection<? extends TextChannel> channels, HistoryRange range, MessageSink sink, int parallelism);
+
     /**
      * Gets all servers the bot is in.
      *
@@ -8,9 +8,16 @@ import org.javacord.api.internal.DiscordApiBuilderDelegate;
 import org.javacord.api.listener.ChainableGloballyAttachableListenerManager;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.cache.MessageCacheStorageMode;
+import org.javacord.api.util.gateway.GatewayEncoding;
 import org.javacord.api.util.internal.DelegateFactory;
+import org.javacord.api.util.ratelimit.FileRatelimitStore;
+import org.javacord.api.util.ratelimit.InMemoryRatelimitStore;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
+import org.javacord.api.util.ratelimit.RatelimitStore;
 import org.javacord.api.util.ratelimit.Ratelimiter;
+import org.javacord.api.util.ratelimit.SharedRatelimiter;
 
 import java.net.Proxy;
 import java.net.ProxySelector;
@@ -486,6 +493,210 @@ public class DiscordApiBuilder implements ChainableGloballyAttachableListenerMan
         return delegate.isUserCacheEnabled();
     }
 
+    /**
+     * Sets the backend that is used to cache entities like channels, members and user presences.
+     *
+     * <p>By default, the {@link EntityCacheBackend#IMMUTABLE immutable} backend is used. Bots with a lot of servers
+     * and members might want to use the {@link EntityCacheBackend#CONCURRENT concurrent} backend instead, which
+     * causes a lot less garbage when entities are updated.
+     *
+     * @param backend The backend of the entity cache.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setEntityCacheBackend(EntityCacheBackend backend) {
+        delegate.setEntityCacheBackend(backend);
+        return this;
+    }
+
+    /**
+     * Gets the backend that is used to cache entities like channels, members and user presences.
+     *
+     * @return The backend of the entity cache.
+     */
+    public EntityCacheBackend getEntityCacheBackend() {
+        return delegate.getEntityCacheBackend();
+    }
+
+    /**
+     * Sets the amount of threads that handle packets received from the gateway.
+     *
+     * <p>By default, all packets are handled by a single thread. If more threads are used, packets of different
+     * servers are handled in parallel, while packets of the same server are still handled in the order in which they
+     * were received. This can help bots with a lot of servers to keep up with the amount of received packets.
+     *
+     * <p>Note that events of different servers might be dispatched in a different order than they were received
+     * when using more than one thread.
+     *
+     * @param threadCount The amount of threads. Must be at least {@code 1}.
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If the thread count is less than {@code 1}.
+     */
+    public DiscordApiBuilder setPacketHandlerThreadCount(int threadCount) {
+        delegate.setPacketHandlerThreadCount(threadCount);
+        return this;
+    }
+
+    /**
+     * Gets the amount of threads that handle packets received from the gateway.
+     *
+     * @return The amount of threads that handle packets received from the gateway.
+     */
+    public int getPacketHandlerThreadCount() {
+        return delegate.getPacketHandlerThreadCount();
+    }
+
+    /**
+     * Sets the store that keeps the state of REST ratelimits.
+     *
+     * <p>By default, all bots with the same token in the same Java program share an {@link InMemoryRatelimitStore}.
+     * If your bot runs in multiple processes, you can use a store that is shared by all processes, e.g. a
+     * {@link FileRatelimitStore}, so that the processes see each other's consumption. To also share the global and
+     * gateway identify ratelimits, use a {@link SharedRatelimiter} with the same store.
+     *
+     * @param store The store that keeps the state of REST ratelimits.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setRatelimitStore(RatelimitStore store) {
+        delegate.setRatelimitStore(store);
+        return this;
+    }
+
+    /**
+     * Gets the store that keeps the state of REST ratelimits.
+     *
+     * @return The store that keeps the state of REST ratelimits.
+     */
+    public Optional<RatelimitStore> getRatelimitStore() {
+        return delegate.getRatelimitStore();
+    }
+
+    /**
+     * Sets the amount of shards that are allowed to identify with the gateway at the same time.
+     *
+     * <p>Large bots are allowed to start several shards in parallel. Shards are put into buckets by
+     * {@code shard_id % maxConcurrency}, and every bucket may identify once per 5 seconds. This value is set
+     * automatically by {@link #setRecommendedTotalShards()}, so you usually do not have to set it yourself.
+     * The default is {@code 1}, which starts one shard after another.
+     *
+     * <p>This only affects the default gateway identify ratelimiter. If you set a custom ratelimiter with
+     * {@link #setGatewayIdentifyRatelimiter(Ratelimiter)}, it is used for all shards.
+     *
+     * @param maxConcurrency The amount of shards that may identify at the same time. Must be at least {@code 1}.
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If the max concurrency is less than {@code 1}.
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#sharding-max-concurrency">API docs</a>
+     */
+    public DiscordApiBuilder setMaxConcurrency(int maxConcurrency) {
+        delegate.setMaxConcurrency(maxConcurrency);
+        return this;
+    }
+
+    /**
+     * Gets the amount of shards that are allowed to identify with the gateway at the same time.
+     *
+     * @return The amount of shards that are allowed to identify at the same time.
+     */
+    public int getMaxConcurrency() {
+        return delegate.getMaxConcurrency();
+    }
+
+    /**
+     * Sets whether the connection to the gateway should be compressed with a shared zlib context.
+     *
+     * <p>By default, only some large payloads are compressed by Discord. If transport compression is enabled, all
+     * data received from the gateway is compressed as one continuous stream, which greatly reduces the used
+     * bandwidth at the cost of a bit more CPU time.
+     *
+     * @param enabled Whether transport compression should be enabled.
+     * @return The current instance in order to chain call methods.
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#transport-compression">API docs</a>
+     */
+    public DiscordApiBuilder setTransportCompressionEnabled(boolean enabled) {
+        delegate.setTransportCompressionEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Gets whether the connection to the gateway is compressed with a shared zlib context.
+     *
+     * @return Whether transport compression is enabled.
+     */
+    public boolean isTransportCompressionEnabled() {
+        return delegate.isTransportCompressionEnabled();
+    }
+
+    /**
+     * Sets the encoding of the packets that are exchanged with the gateway.
+     *
+     * <p>By default, packets are encoded as JSON. The binary {@link GatewayEncoding#ETF} encoding produces smaller
+     * packets that are faster to decode.
+     *
+     * @param encoding The encoding of the gateway packets.
+     * @return The current instance in order to chain call methods.
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#encoding-and-compression">API docs</a>
+     */
+    public DiscordApiBuilder setGatewayEncoding(GatewayEncoding encoding) {
+        delegate.setGatewayEncoding(encoding);
+        return this;
+    }
+
+    /**
+     * Gets the encoding of the packets that are exchanged with the gateway.
+     *
+     * @return The encoding of the gateway packets.
+     */
+    public GatewayEncoding getGatewayEncoding() {
+        return delegate.getGatewayEncoding();
+    }
+
+    /**
+     * Sets how messages are stored in the message caches of channels.
+     *
+     * <p>By default, messages are stored as objects. Bots that cache a lot of messages might want to use the
+     * {@link MessageCacheStorageMode#SERIALIZED serialized} mode instead, which stores messages outside the heap and
+     * recreates them when they are accessed.
+     *
+     * @param storageMode The storage mode of the message caches.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setMessageCacheStorageMode(MessageCacheStorageMode storageMode) {
+        delegate.setMessageCacheStorageMode(storageMode);
+        return this;
+    }
+
+    /**
+     * Gets how messages are stored in the message caches of channels.
+     *
+     * @return The storage mode of the message caches.
+     */
+    public MessageCacheStorageMode getMessageCacheStorageMode() {
+        return delegate.getMessageCacheStorageMode();
+    }
+
+    /**
+     * Sets the maximum total size of the files which are kept in the cdn cache.
+     *
+     * <p>Files like attachments, icons and embed images are downloaded from Discord's CDN every time they are
+     * requested by default. If the cdn cache is enabled, downloaded files are cached by their url and the least
+     * recently used files are evicted when the cache is full.
+     *
+     * @param maxSize The maximum size of the cdn cache in bytes. {@code 0} disables the cache.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setCdnCacheSize(long maxSize) {
+        delegate.setCdnCacheSize(maxSize);
+        return this;
+    }
+
+    /**
+     * Gets the maximum total size of the files which are kept in the cdn cache.
+     *
+     * @return The maximum size of the cdn cache in bytes.
+     */
+    public long getCdnCacheSize() {
+        return delegate.getCdnCacheSize();
+    }
+
     /**
      * Retrieves the recommended shards count from the Discord API and sets it in this builder.
      * Sharding allows you to split your bot into several independent instances.
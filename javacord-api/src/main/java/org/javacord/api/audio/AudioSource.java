@@ -46,6 +46,11 @@ public interface AudioSource extends AudioSourceAttachableListenerManager, Speci
     /**
      * Polls for the next 20ms of audio from the source.
      *
+     * <p>This method is called every 20ms on a thread that is shared with the audio connections of other servers, so
+     * it must return immediately and must not block, e.g. by reading from a file or the network. Sources that have to
+     * wait for their audio should prepare their frames ahead of time in a separate thread. A source that takes too long
+     * anyway delays the audio of other connections until its connection is moved to a thread of its own.
+     *
      * @return A byte array containing 20ms of audio, or null if {@link #hasNextFrame()} is false.
      */
     byte[] getNextFrame();
@@ -56,6 +61,8 @@ public interface AudioSource extends AudioSourceAttachableListenerManager, Speci
      * <p>If there is no frame available, but the source has not been finished, it will
      * play a silent sound instead.
      *
+     * <p>Like {@link #getNextFrame()}, this method must return immediately and must not block.
+     *
      * @return Whether there is a frame available to be polled.
      */
     boolean hasNextFrame();
@@ -0,0 +1,120 @@
+package org.javacord.api.entity.message;
+
+/**
+ * A range of the message history of a channel, bounded by message ids.
+ * Both bounds are exclusive.
+ */
+public final class HistoryRange {
+
+    private static final HistoryRange ALL = new HistoryRange(0, Long.MAX_VALUE);
+
+    private final long after;
+    private final long before;
+
+    /**
+     * Creates a new history range.
+     *
+     * @param after The id of the message after which the range starts.
+     * @param before The id of the message before which the range ends.
+     */
+    private HistoryRange(long after, long before) {
+        if (after >= before) {
+            throw new IllegalArgumentException("The start of the range must be before its end!");
+        }
+        this.after = after;
+        this.before = before;
+    }
+
+    /**
+     * Gets a range of the whole message history.
+     *
+     * @return A range of the whole message history.
+     */
+    public static HistoryRange all() {
+        return ALL;
+    }
+
+    /**
+     * Gets a range of all messages after the message with the given id.
+     *
+     * @param messageId The id of the message after which the range starts.
+     * @return A range of all messages after the given message.
+     */
+    public static HistoryRange after(long messageId) {
+        return new HistoryRange(messageId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Gets a range of all messages before the message with the given id.
+     *
+     * @param messageId The id of the message before which the range ends.
+     * @return A range of all messages before the given message.
+     */
+    public static HistoryRange before(long messageId) {
+        return new HistoryRange(0, messageId);
+    }
+
+    /**
+     * Gets a range of all messages between the messages with the given ids.
+     *
+     * @param after The id of the message after which the range starts.
+     * @param before The id of the message before which the range ends.
+     * @return A range of all messages between the given messages.
+     */
+    public static HistoryRange between(long after, long before) {
+        return new HistoryRange(after, before);
+    }
+
+    /**
+     * Gets the id of the message after which the range starts.
+     * This is {@code 0} if the range starts with the first message of a channel.
+     *
+     * @return The id of the message after which the range starts.
+     */
+    public long getAfter() {
+        return after;
+    }
+
+    /**
+     * Gets the id of the message before which the range ends.
+     * This is {@link Long#MAX_VALUE} if the range ends with the newest message of a channel.
+     *
+     * @return The id of the message before which the range ends.
+     */
+    public long getBefore() {
+        return before;
+    }
+
+    /**
+     * Checks if the message with the given id is in this range.
+     *
+     * @param messageId The id of the message.
+     * @return Whether the message is in this range.
+     */
+    public boolean contains(long messageId) {
+        return messageId > after && messageId < before;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HistoryRange that = (HistoryRange) o;
+        return after == that.after && before == that.before;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(after) + Long.hashCode(before);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HistoryRange (after: %d, before: %d)", after, before);
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.javacord.api.entity.message;
+
+import org.javacord.api.entity.channel.TextChannel;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives the messages of a history export page by page.
+ *
+ * @see org.javacord.api.DiscordApi#exportHistory(java.util.Collection, HistoryRange, MessageSink)
+ */
+@FunctionalInterface
+public interface MessageSink {
+
+    /**
+     * Receives a page of messages of a channel.
+     *
+     * <p>The next page of the channel is not requested before the returned future is completed, so a slow sink slows
+     * the export down instead of letting pages pile up in memory. Pages of different channels may be received
+     * concurrently, but the pages of one channel are received one after another, from oldest to newest.
+     *
+     * @param channel The channel of the messages.
+     * @param messages The messages of the page.
+     * @return A future which is completed once the page was processed. If it completes exceptionally, the export fails.
+     */
+    CompletableFuture<Void> accept(TextChannel channel, MessageSet messages);
+
+}
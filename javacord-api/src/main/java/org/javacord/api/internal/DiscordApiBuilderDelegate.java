@@ -7,6 +7,10 @@ import org.javacord.api.entity.message.MessageBuilder;
 import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.cache.MessageCacheStorageMode;
+import org.javacord.api.util.gateway.GatewayEncoding;
+import org.javacord.api.util.ratelimit.RatelimitStore;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 
 import java.net.Proxy;
@@ -203,6 +207,118 @@ public interface DiscordApiBuilderDelegate {
      */
     boolean isUserCacheEnabled();
 
+    /**
+     * Sets the backend that is used to cache entities like channels, members and user presences.
+     *
+     * @param backend The backend of the entity cache.
+     */
+    void setEntityCacheBackend(EntityCacheBackend backend);
+
+    /**
+     * Gets the backend that is used to cache entities like channels, members and user presences.
+     *
+     * @return The backend of the entity cache.
+     */
+    EntityCacheBackend getEntityCacheBackend();
+
+    /**
+     * Sets the amount of threads that handle packets received from the gateway.
+     *
+     * @param threadCount The amount of threads.
+     */
+    void setPacketHandlerThreadCount(int threadCount);
+
+    /**
+     * Gets the amount of threads that handle packets received from the gateway.
+     *
+     * @return The amount of threads that handle packets received from the gateway.
+     */
+    int getPacketHandlerThreadCount();
+
+    /**
+     * Sets the store that keeps the state of REST ratelimits.
+     *
+     * @param store The store that keeps the state of REST ratelimits.
+     */
+    void setRatelimitStore(RatelimitStore store);
+
+    /**
+     * Gets the store that keeps the state of REST ratelimits.
+     *
+     * @return The store that keeps the state of REST ratelimits.
+     */
+    Optional<RatelimitStore> getRatelimitStore();
+
+    /**
+     * Sets the amount of shards that are allowed to identify with the gateway at the same time.
+     *
+     * @param maxConcurrency The amount of shards that are allowed to identify at the same time.
+     */
+    void setMaxConcurrency(int maxConcurrency);
+
+    /**
+     * Gets the amount of shards that are allowed to identify with the gateway at the same time.
+     *
+     * @return The amount of shards that are allowed to identify at the same time.
+     */
+    int getMaxConcurrency();
+
+    /**
+     * Sets whether the connection to the gateway should be compressed with a shared zlib context.
+     *
+     * @param enabled Whether transport compression should be enabled.
+     */
+    void setTransportCompressionEnabled(boolean enabled);
+
+    /**
+     * Gets whether the connection to the gateway is compressed with a shared zlib context.
+     *
+     * @return Whether transport compression is enabled.
+     */
+    boolean isTransportCompressionEnabled();
+
+    /**
+     * Sets the encoding of the packets that are exchanged with the gateway.
+     *
+     * @param encoding The encoding of the gateway packets.
+     */
+    void setGatewayEncoding(GatewayEncoding encoding);
+
+    /**
+     * Gets the encoding of the packets that are exchanged with the gateway.
+     *
+     * @return The encoding of the gateway packets.
+     */
+    GatewayEncoding getGatewayEncoding();
+
+    /**
+     * Sets how messages are stored in the message caches of channels.
+     *
+     * @param storageMode The storage mode of the message caches.
+     */
+    void setMessageCacheStorageMode(MessageCacheStorageMode storageMode);
+
+    /**
+     * Gets how messages are stored in the message caches of channels.
+     *
+     * @return The storage mode of the message caches.
+     */
+    MessageCacheStorageMode getMessageCacheStorageMode();
+
+    /**
+     * Sets the maximum total size of the files which are kept in the cdn cache.
+     *
+     * @param maxSize The maximum size of the cdn cache in bytes.
+     */
+    void setCdnCacheSize(long maxSize);
+
+    /**
+     * Gets the maximum total size of the files which are kept in the cdn cache.
+     *
+     * @return The maximum size of the cdn cache in bytes.
+     */
+    long getCdnCacheSize();
+
     /**
      * Logs the bot in.
      *
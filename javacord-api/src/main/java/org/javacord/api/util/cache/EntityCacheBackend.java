@@ -0,0 +1,25 @@
+package org.javacord.api.util.cache;
+
+/**
+ * The backend that is used to store cached entities like channels, members and user presences.
+ */
+public enum EntityCacheBackend {
+
+    /**
+     * A cache based on persistent, immutable collections.
+     *
+     * <p>Every modification creates a new version of the cache and readers always see a consistent snapshot.
+     * This is the default and works well for most bots.
+     */
+    IMMUTABLE,
+
+    /**
+     * A cache based on concurrent, lock-striped mutable maps.
+     *
+     * <p>Modifications are applied in place, which causes a lot less garbage for bots with many servers and members,
+     * e.g. while member chunks are received. Readers might observe partially applied modifications and queries return
+     * copies of the matching entities.
+     */
+    CONCURRENT
+
+}
@@ -0,0 +1,25 @@
+package org.javacord.api.util.cache;
+
+/**
+ * The way messages are stored in the message caches of channels.
+ */
+public enum MessageCacheStorageMode {
+
+    /**
+     * Messages are stored as message objects.
+     *
+     * <p>This is the default.
+     */
+    OBJECTS,
+
+    /**
+     * Messages are stored as serialized JSON data in a pool of direct buffers outside the heap.
+     *
+     * <p>Message objects are only kept while they are in use and are recreated from the serialized data when they are
+     * accessed again. This greatly reduces the heap usage of large message caches at the cost of some CPU time for
+     * every access of a message that is no longer in use. Messages whose reactions changed or that are cached forever
+     * are kept as objects.
+     */
+    SERIALIZED
+
+}
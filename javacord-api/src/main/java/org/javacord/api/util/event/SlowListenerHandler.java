@@ -0,0 +1,26 @@
+package org.javacord.api.util.event;
+
+import java.time.Duration;
+
+/**
+ * A handler that is notified about listener tasks with an unusually long execution time.
+ *
+ * <p>Listener tasks are checked periodically. The handler is called once when a task has been running for over
+ * 500 milliseconds, once when it has been running for over 10 seconds and once when it gets interrupted after
+ * 2 minutes. The handler is called in addition to the log messages Javacord writes in these cases.
+ *
+ * <p>The handler is called on a scheduler thread while the listener task is still running, so it can for example
+ * inspect the stack trace of the listener thread. It should return quickly and must not block.
+ */
+@FunctionalInterface
+public interface SlowListenerHandler {
+
+    /**
+     * Called when a listener task exceeds one of the execution time thresholds.
+     *
+     * @param listenerThread The thread which executes the listener task.
+     * @param executionTime The time the listener task is running for.
+     */
+    void onSlowListener(Thread listenerThread, Duration executionTime);
+
+}
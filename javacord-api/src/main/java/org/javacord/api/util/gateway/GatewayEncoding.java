@@ -0,0 +1,23 @@
+package org.javacord.api.util.gateway;
+
+/**
+ * The encoding of the packets that are exchanged with the gateway.
+ */
+public enum GatewayEncoding {
+
+    /**
+     * Packets are encoded as JSON text.
+     *
+     * <p>This is the default.
+     */
+    JSON,
+
+    /**
+     * Packets are encoded in the binary Erlang External Term Format.
+     *
+     * <p>Packets are smaller and faster to decode than JSON, which reduces the bandwidth and CPU usage of busy
+     * shards. Snowflakes are received as integers instead of strings.
+     */
+    ETF
+
+}
@@ -0,0 +1,480 @@
+package org.javacord.api.util.ratelimit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of {@code RatelimitStore} that shares the state with other processes on the same machine.
+ *
+ * <p>The state is stored in a memory mapped file, so all processes that use a store with the same file see each
+ * other's consumption. The file consists of a fixed amount of slots with a fixed size, one for every bucket and global
+ * ratelimit, which are found by the SHA-256 hash of their key. A modification only changes the affected slot in place,
+ * and accesses that do not change the state (e.g. acquiring a request of a bucket without a known limit) do not write
+ * anything at all. It's up to the operating system when the changes are written to the disk, which does not matter
+ * for the processes that share the file, as they all see the same mapped memory.
+ *
+ * <p>Every access is guarded by a {@link FileLock} on the file. Reads only take a shared lock, modifications an
+ * exclusive lock. The slots of entries that are expired for a while are reused for new entries. If all slots are
+ * used by active ratelimits, which is very unlikely with the default amount of slots, modifications that need a new
+ * slot fail with an {@link IllegalStateException}.
+ *
+ * <p>All processes that share the file must use the same file system that supports file locks and memory mapped
+ * files, e.g. a local disk.
+ */
+public class FileRatelimitStore implements RatelimitStore, Closeable {
+
+    /**
+     * The default amount of slots of a newly created file.
+     */
+    public static final int DEFAULT_SLOTS = 4096;
+
+    /**
+     * How long expired entries are kept, to compensate for different clocks.
+     */
+    private static final long EXPIRED_ENTRY_RETENTION_MILLIS = 60_000;
+
+    /**
+     * The prefix of the keys of global ratelimits.
+     */
+    private static final String GLOBAL_PREFIX = "global:";
+
+    /**
+     * The prefix of the keys of buckets.
+     */
+    private static final String BUCKET_PREFIX = "bucket:";
+
+    /**
+     * The magic number at the start of the file, which identifies it as a ratelimit store file.
+     */
+    private static final int MAGIC = 0x4a435253;
+
+    /**
+     * The version of the file layout.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the header, i.e. the magic number, the version and the amount of slots, with padding.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The size of the SHA-256 hash of a key.
+     */
+    private static final int HASH_SIZE = 32;
+
+    /**
+     * The offset of the reset timestamp within a slot.
+     */
+    private static final int RESET_TIMESTAMP_OFFSET = HASH_SIZE;
+
+    /**
+     * The offset of the remaining requests within a slot.
+     */
+    private static final int REMAINING_OFFSET = RESET_TIMESTAMP_OFFSET + Long.BYTES;
+
+    /**
+     * The offset of the flag which marks a slot as used.
+     */
+    private static final int USED_OFFSET = REMAINING_OFFSET + Integer.BYTES;
+
+    /**
+     * The size of a slot.
+     */
+    private static final int SLOT_SIZE = USED_OFFSET + Integer.BYTES;
+
+    /**
+     * The locks that guard the files within this Java program.
+     *
+     * <p>File locks are held on behalf of the whole Java program, so stores that use the same file in the same
+     * program must not try to lock the file at the same time.
+     */
+    private static final Map<Path, Object> localLocks = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Object localLock;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+
+    private FileChannel channel;
+
+    /**
+     * Creates a new file ratelimit store.
+     *
+     * <p>If the file does not exist yet, it's created with {@link #DEFAULT_SLOTS} slots.
+     *
+     * @param file The file that is shared by all processes.
+     * @throws IOException If the file could not be opened or is not a ratelimit store file.
+     */
+    public FileRatelimitStore(Path file) throws IOException {
+        this(file, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Creates a new file ratelimit store.
+     *
+     * @param file The file that is shared by all processes.
+     * @param slots The amount of slots if the file does not exist yet, i.e. how many buckets and global ratelimits
+     *              can be active at the same time. Existing files keep the amount of slots they were created with.
+     * @throws IOException If the file could not be opened or is not a ratelimit store file.
+     */
+    public FileRatelimitStore(Path file, int slots) throws IOException {
+        if (slots <= 0 || slots > (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE) {
+            throw new IllegalArgumentException("The amount of slots must be between 1 and "
+                    + (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE);
+        }
+        this.file = file;
+        channel = openChannel();
+        try {
+            localLock = localLocks.computeIfAbsent(file.toRealPath(), key -> new Object());
+            synchronized (localLock) {
+                try (FileLock ignored = channel.lock()) {
+                    if (channel.size() == 0) {
+                        ByteBuffer newHeader = ByteBuffer.allocate(HEADER_SIZE);
+                        newHeader.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION).putInt(2 * Integer.BYTES, slots);
+                        writeFully(newHeader, 0);
+                    }
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                    if (readFully(header, 0) < HEADER_SIZE
+                            || header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+                        throw new IOException("The file " + file + " is not a ratelimit store file");
+                    }
+                    this.slots = header.getInt(2 * Integer.BYTES);
+                    buffer = channel.map(
+                            FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) this.slots * SLOT_SIZE);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the file that is shared by all processes.
+     *
+     * @return The file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the amount of slots of the file.
+     *
+     * @return The amount of slots.
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    @Override
+    public long tryAcquire(String key, long currentTimestamp, int limit, long period) {
+        byte[] hash = hash(BUCKET_PREFIX + key);
+        // Most acquisitions can be answered without a modification, e.g. for buckets without a known limit
+        Long waitTime = access(false, () -> {
+            int slot = findSlot(hash);
+            if (slot < 0 || currentTimestamp >= getResetTimestamp(slot)) {
+                return period <= 0 ? 0L : null;
+            }
+            return getRemaining(slot) > 0 ? null : getResetTimestamp(slot) - currentTimestamp;
+        });
+        if (waitTime != null) {
+            return waitTime;
+        }
+        return access(true, () -> {
+            int slot = findSlot(hash);
+            if (slot < 0 || currentTimestamp >= getResetTimestamp(slot)) {
+                // A window without a period would already be expired, so it's the same as no window at all
+                if (period > 0) {
+                    setEntry(slot < 0 ? claimSlot(hash) : slot, limit - 1, currentTimestamp + period);
+                }
+                return 0L;
+            }
+            int remaining = getRemaining(slot);
+            if (remaining > 0) {
+                buffer.putInt(getOffset(slot) + REMAINING_OFFSET, remaining - 1);
+                return 0L;
+            }
+            return getResetTimestamp(slot) - currentTimestamp;
+        });
+    }
+
+    @Override
+    public void update(String key, int remaining, long resetTimestamp) {
+        putEntry(hash(BUCKET_PREFIX + key), remaining, resetTimestamp);
+    }
+
+    @Override
+    public long getGlobalRatelimitResetTimestamp(String scope) {
+        byte[] hash = hash(GLOBAL_PREFIX + scope);
+        return access(false, () -> {
+            int slot = findSlot(hash);
+            return slot < 0 ? 0L : getResetTimestamp(slot);
+        });
+    }
+
+    @Override
+    public void setGlobalRatelimitResetTimestamp(String scope, long resetTimestamp) {
+        putEntry(hash(GLOBAL_PREFIX + scope), 0, resetTimestamp);
+    }
+
+    /**
+     * Sets the entry with the given hash, if it does not already have the given values.
+     *
+     * @param hash The hash of the key.
+     * @param remaining The remaining requests.
+     * @param resetTimestamp The reset timestamp.
+     */
+    private void putEntry(byte[] hash, int remaining, long resetTimestamp) {
+        Supplier<Boolean> unchanged = () -> {
+            int slot = findSlot(hash);
+            return slot >= 0 && getRemaining(slot) == remaining && getResetTimestamp(slot) == resetTimestamp;
+        };
+        if (access(false, unchanged)) {
+            return;
+        }
+        access(true, () -> {
+            if (!unchanged.get()) {
+                int slot = findSlot(hash);
+                setEntry(slot < 0 ? claimSlot(hash) : slot, remaining, resetTimestamp);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Applies the given function while holding the file lock.
+     *
+     * @param exclusive Whether an exclusive lock should be taken. If {@code false}, only a shared lock is taken and
+     *                  the function must not modify the file.
+     * @param function The function that reads and possibly modifies the slots.
+     * @param <T> The type of the return value.
+     * @return The return value of the function.
+     */
+    private <T> T access(boolean exclusive, Supplier<T> function) {
+        synchronized (localLock) {
+            try {
+                if (!channel.isOpen()) {
+                    // File channels are closed if a thread gets interrupted while accessing them
+                    channel = openChannel();
+                }
+                try (FileLock ignored = channel.lock(0, Long.MAX_VALUE, !exclusive)) {
+                    return function.get();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to access the ratelimit store file " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of the entry with the given hash.
+     *
+     * <p>Entries are stored in the first unused or reusable slot, starting at the slot that is derived from their
+     * hash. As slots are never marked as unused again, the search can stop at the first unused slot.
+     *
+     * @param hash The hash of the key.
+     * @return The slot or {@code -1} if there is no entry with the given hash.
+     */
+    private int findSlot(byte[] hash) {
+        int firstSlot = getFirstSlot(hash);
+        for (int i = 0; i < slots; i++) {
+            int slot = (firstSlot + i) % slots;
+            if (!isUsed(slot)) {
+                return -1;
+            }
+            if (hasHash(slot, hash)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Claims a slot for a new entry with the given hash. Must only be called with an exclusive lock if there is no
+     * entry with the given hash yet.
+     *
+     * @param hash The hash of the key.
+     * @return The claimed slot.
+     */
+    private int claimSlot(byte[] hash) {
+        long threshold = System.currentTimeMillis() - EXPIRED_ENTRY_RETENTION_MILLIS;
+        int firstSlot = getFirstSlot(hash);
+        for (int i = 0; i < slots; i++) {
+            int slot = (firstSlot + i) % slots;
+            // Expired entries behave exactly like unknown ones, so their slots can be reused
+            if (!isUsed(slot) || getResetTimestamp(slot) < threshold) {
+                int offset = getOffset(slot);
+                for (int j = 0; j < HASH_SIZE; j++) {
+                    buffer.put(offset + j, hash[j]);
+                }
+                return slot;
+            }
+        }
+        throw new IllegalStateException("All " + slots + " slots of the ratelimit store file " + file + " are used");
+    }
+
+    /**
+     * Sets the values of the given slot and marks it as used.
+     *
+     * @param slot The slot.
+     * @param remaining The remaining requests.
+     * @param resetTimestamp The reset timestamp.
+     */
+    private void setEntry(int slot, int remaining, long resetTimestamp) {
+        int offset = getOffset(slot);
+        buffer.putLong(offset + RESET_TIMESTAMP_OFFSET, resetTimestamp);
+        buffer.putInt(offset + REMAINING_OFFSET, remaining);
+        buffer.putInt(offset + USED_OFFSET, 1);
+    }
+
+    /**
+     * Checks if the given slot is used.
+     *
+     * @param slot The slot.
+     * @return Whether the slot is used.
+     */
+    private boolean isUsed(int slot) {
+        return buffer.getInt(getOffset(slot) + USED_OFFSET) != 0;
+    }
+
+    /**
+     * Checks if the given slot belongs to the entry with the given hash.
+     *
+     * @param slot The slot.
+     * @param hash The hash of the key.
+     * @return Whether the slot belongs to the entry with the given hash.
+     */
+    private boolean hasHash(int slot, byte[] hash) {
+        int offset = getOffset(slot);
+        for (int i = 0; i < HASH_SIZE; i++) {
+            if (buffer.get(offset + i) != hash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the remaining requests of the given slot.
+     *
+     * @param slot The slot.
+     * @return The remaining requests.
+     */
+    private int getRemaining(int slot) {
+        return buffer.getInt(getOffset(slot) + REMAINING_OFFSET);
+    }
+
+    /**
+     * Gets the reset timestamp of the given slot.
+     *
+     * @param slot The slot.
+     * @return The reset timestamp.
+     */
+    private long getResetTimestamp(int slot) {
+        return buffer.getLong(getOffset(slot) + RESET_TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Gets the offset of the given slot in the file.
+     *
+     * @param slot The slot.
+     * @return The offset.
+     */
+    private static int getOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Gets the slot at which the search for the entry with the given hash starts.
+     *
+     * @param hash The hash of the key.
+     * @return The slot.
+     */
+    private int getFirstSlot(byte[] hash) {
+        return (int) Long.remainderUnsigned(ByteBuffer.wrap(hash).getLong(), slots);
+    }
+
+    /**
+     * Calculates the SHA-256 hash of the given key.
+     *
+     * @param key The key.
+     * @return The hash.
+     */
+    private static byte[] hash(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e); // SHA-256 is always available
+        }
+    }
+
+    /**
+     * Reads from the file at the given position until the buffer is full or the end of the file is reached.
+     *
+     * @param target The buffer to read into.
+     * @param position The position in the file.
+     * @return The amount of read bytes.
+     * @throws IOException If an I/O error occurs.
+     */
+    private int readFully(ByteBuffer target, long position) throws IOException {
+        int total = 0;
+        int read;
+        while (target.hasRemaining() && (read = channel.read(target, position + total)) >= 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Writes the whole buffer to the file at the given position.
+     *
+     * @param source The buffer to write.
+     * @param position The position in the file.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeFully(ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+    }
+
+    /**
+     * Opens the channel of the file.
+     *
+     * @return The channel.
+     * @throws IOException If the file could not be opened.
+     */
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Closes the file channel.
+     *
+     * <p>The mapping of the file is released once the store is garbage collected.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (localLock) {
+            channel.close();
+        }
+    }
+
+}
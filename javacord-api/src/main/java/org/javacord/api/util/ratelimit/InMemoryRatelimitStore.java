@@ -0,0 +1,80 @@
+package org.javacord.api.util.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An implementation of {@code RatelimitStore} that keeps the state in memory.
+ *
+ * <p>This is the default store. It is shared by all bots in the same Java program, but not across processes.
+ */
+public class InMemoryRatelimitStore implements RatelimitStore {
+
+    /**
+     * The amount of updates after which windows that are long expired are removed.
+     */
+    private static final int CLEANUP_INTERVAL = 1024;
+
+    /**
+     * How long expired windows are kept, to compensate for different clocks.
+     */
+    private static final long EXPIRED_WINDOW_RETENTION_MILLIS = 60_000;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Map<String, Long> globalRatelimitResetTimestamps = new ConcurrentHashMap<>();
+    private final AtomicInteger updatesSinceCleanup = new AtomicInteger();
+
+    @Override
+    public long tryAcquire(String key, long currentTimestamp, int limit, long period) {
+        AtomicLong waitTime = new AtomicLong();
+        windows.compute(key, (k, window) -> {
+            if (window == null || currentTimestamp >= window.resetTimestamp) {
+                return new Window(limit - 1, currentTimestamp + period);
+            }
+            if (window.remaining > 0) {
+                return new Window(window.remaining - 1, window.resetTimestamp);
+            }
+            waitTime.set(window.resetTimestamp - currentTimestamp);
+            return window;
+        });
+        return waitTime.get();
+    }
+
+    @Override
+    public void update(String key, int remaining, long resetTimestamp) {
+        windows.put(key, new Window(remaining, resetTimestamp));
+        if (updatesSinceCleanup.incrementAndGet() >= CLEANUP_INTERVAL) {
+            updatesSinceCleanup.set(0);
+            // Expired windows behave exactly like unknown ones, so there's no need to keep them forever
+            long threshold = System.currentTimeMillis() - EXPIRED_WINDOW_RETENTION_MILLIS;
+            windows.values().removeIf(window -> window.resetTimestamp < threshold);
+        }
+    }
+
+    @Override
+    public long getGlobalRatelimitResetTimestamp(String scope) {
+        return globalRatelimitResetTimestamps.getOrDefault(scope, 0L);
+    }
+
+    @Override
+    public void setGlobalRatelimitResetTimestamp(String scope, long resetTimestamp) {
+        globalRatelimitResetTimestamps.put(scope, resetTimestamp);
+    }
+
+    /**
+     * The state of a single bucket.
+     */
+    private static class Window {
+
+        private final int remaining;
+        private final long resetTimestamp;
+
+        private Window(int remaining, long resetTimestamp) {
+            this.remaining = remaining;
+            this.resetTimestamp = resetTimestamp;
+        }
+    }
+
+}
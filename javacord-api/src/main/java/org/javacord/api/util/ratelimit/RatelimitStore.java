@@ -0,0 +1,63 @@
+package org.javacord.api.util.ratelimit;
+
+import org.javacord.api.DiscordApiBuilder;
+
+/**
+ * Stores the state of ratelimits, i.e. the remaining requests of ratelimit buckets and global ratelimits.
+ *
+ * <p>By default, every Java program uses its own in-memory store ({@link InMemoryRatelimitStore}). If your bot runs
+ * in multiple processes (e.g. with shards on different machines or JVMs), you can use a store that is shared by all
+ * processes, so that they see each other's consumption and do not run into avoidable ratelimits.
+ * The {@link FileRatelimitStore} is an implementation for processes on the same machine.
+ *
+ * <p>All methods must be atomic, i.e. a store which is shared by multiple processes must make sure that two
+ * processes can never acquire the last remaining request of the same bucket.
+ *
+ * <p>Timestamps are passed in milliseconds since the epoch. Javacord already corrects its timestamps with the
+ * calculated offset to the Discord time.
+ *
+ * @see DiscordApiBuilder#setRatelimitStore(RatelimitStore)
+ * @see SharedRatelimiter
+ */
+public interface RatelimitStore {
+
+    /**
+     * Tries to acquire a single request of the given bucket.
+     *
+     * <p>If the store does not know the bucket yet or the bucket's reset timestamp has passed, a new window is opened
+     * which allows {@code limit} requests and resets {@code period} milliseconds after the current timestamp.
+     *
+     * @param key The key of the bucket.
+     * @param currentTimestamp The current timestamp.
+     * @param limit The amount of requests that a newly opened window allows.
+     * @param period The duration of a newly opened window in milliseconds.
+     * @return {@code 0} if a request was acquired, otherwise the time in milliseconds until the bucket resets.
+     */
+    long tryAcquire(String key, long currentTimestamp, int limit, long period);
+
+    /**
+     * Updates the state of the given bucket, e.g. with the information Discord sent in its response headers.
+     *
+     * @param key The key of the bucket.
+     * @param remaining The remaining requests until the bucket resets.
+     * @param resetTimestamp The timestamp at which the bucket resets.
+     */
+    void update(String key, int remaining, long resetTimestamp);
+
+    /**
+     * Gets the timestamp at which the global ratelimit for the given scope resets.
+     *
+     * @param scope The scope of the global ratelimit, usually derived from the bot's token.
+     * @return The timestamp at which the global ratelimit resets. Can be in the past or {@code 0} if there is none.
+     */
+    long getGlobalRatelimitResetTimestamp(String scope);
+
+    /**
+     * Sets the timestamp at which the global ratelimit for the given scope resets.
+     *
+     * @param scope The scope of the global ratelimit, usually derived from the bot's token.
+     * @param resetTimestamp The timestamp at which the global ratelimit resets.
+     */
+    void setGlobalRatelimitResetTimestamp(String scope, long resetTimestamp);
+
+}
@@ -0,0 +1,90 @@
+package org.javacord.api.util.ratelimit;
+
+import org.javacord.api.DiscordApiBuilder;
+
+import java.time.Duration;
+
+/**
+ * An implementation of {@code Ratelimiter} that keeps its quota in a {@link RatelimitStore}.
+ *
+ * <p>In contrast to the {@link LocalRatelimiter}, the quota can be shared by multiple processes if they use a store
+ * that is shared by all processes, e.g. a {@link FileRatelimitStore} with the same file. This can be used for the
+ * global ratelimit or the gateway identify ratelimit if your bot runs in multiple processes:
+ * <pre>
+ * RatelimitStore store = new FileRatelimitStore(Paths.get("/tmp/my-bot-ratelimits"));
+ * new DiscordApiBuilder()
+ *         .setRatelimitStore(store)
+ *         .setGatewayIdentifyRatelimiter(new SharedRatelimiter(store, "identify", 1, Duration.ofMillis(5500)))
+ *         // ...
+ * </pre>
+ *
+ * @see DiscordApiBuilder#setGlobalRatelimiter(Ratelimiter)
+ * @see DiscordApiBuilder#setGatewayIdentifyRatelimiter(Ratelimiter)
+ */
+public class SharedRatelimiter implements Ratelimiter {
+
+    private final RatelimitStore store;
+    private final String key;
+    private final int amount;
+    private final Duration bucketDuration;
+
+    /**
+     * Creates a new shared ratelimiter.
+     *
+     * @param store The store that keeps the quota.
+     * @param key The key of the quota in the store. All ratelimiters with the same key share the same quota.
+     * @param amount The amount available per reset interval.
+     * @param bucketDuration The time to wait until the available quota resets.
+     */
+    public SharedRatelimiter(RatelimitStore store, String key, int amount, Duration bucketDuration) {
+        this.store = store;
+        this.key = key;
+        this.amount = amount;
+        this.bucketDuration = bucketDuration;
+    }
+
+    /**
+     * Gets the store that keeps the quota.
+     *
+     * @return The store.
+     */
+    public RatelimitStore getStore() {
+        return store;
+    }
+
+    /**
+     * Gets the key of the quota in the store.
+     *
+     * @return The key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the amount available per reset interval.
+     *
+     * @return The amount.
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Gets the time to wait until the available quota resets.
+     *
+     * @return The time to wait until the available quota resets.
+     */
+    public Duration getBucketDuration() {
+        return bucketDuration;
+    }
+
+    @Override
+    public void requestQuota() throws InterruptedException {
+        long sleepTime;
+        // Sleep is unreliable and other processes might have taken the quota meanwhile, so we have to loop
+        while ((sleepTime = store.tryAcquire(key, System.currentTimeMillis(), amount, bucketDuration.toMillis())) > 0) {
+            Thread.sleep(sleepTime);
+        }
+    }
+}
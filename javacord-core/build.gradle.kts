@@ -29,8 +29,8 @@ dependencies {
     // the web socket
     implementation("com.neovisionaries:nv-websocket-client:2.14")
 
-    // voice encryption
-    implementation("com.codahale:xsalsa20poly1305:0.11.0")
+    // voice encryption, XSalsa20-Poly1305 is implemented on the ciphers directly to encrypt into reused buffers
+    implementation("org.bouncycastle:bcprov-jdk15on:1.60")
 
     // logging
     implementation("org.apache.logging.log4j:log4j-api:2.17.2")
@@ -9,6 +9,10 @@ import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.internal.DiscordApiBuilderDelegate;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.cache.MessageCacheStorageMode;
+import org.javacord.api.util.gateway.GatewayEncoding;
+import org.javacord.api.util.ratelimit.RatelimitStore;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 import org.javacord.core.util.gateway.DiscordWebSocketAdapter;
 import org.javacord.core.util.logging.LoggerUtil;
@@ -133,6 +137,46 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
      */
     private boolean userCacheEnabled = true;
 
+    /**
+     * The backend of the entity cache.
+     */
+    private volatile EntityCacheBackend entityCacheBackend = EntityCacheBackend.IMMUTABLE;
+
+    /**
+     * The amount of threads that handle gateway packets.
+     */
+    private volatile int packetHandlerThreadCount = 1;
+
+    /**
+     * The store that keeps the state of REST ratelimits.
+     */
+    private volatile RatelimitStore ratelimitStore;
+
+    /**
+     * The amount of shards that are allowed to identify at the same time.
+     */
+    private volatile int maxConcurrency = 1;
+
+    /**
+     * Whether the gateway connection should use transport compression.
+     */
+    private volatile boolean transportCompressionEnabled = false;
+
+    /**
+     * The encoding of the gateway packets.
+     */
+    private volatile GatewayEncoding gatewayEncoding = GatewayEncoding.JSON;
+
+    /**
+     * How messages are stored in the message caches of channels.
+     */
+    private volatile MessageCacheStorageMode messageCacheStorageMode = MessageCacheStorageMode.OBJECTS;
+
+    /**
+     * The maximum size of the cdn cache in bytes.
+     */
+    private volatile long cdnCacheSize = 0;
+
     /**
      * Controls who will be mentioned if mentions exist in a message.
      */
@@ -204,7 +248,9 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
                     waitForServersOnStartup, waitForUsersOnStartup, registerShutdownHook, globalRatelimiter,
                     gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator, trustAllCertificates,
                     future, null, preparedListeners, preparedUnspecifiedListeners, userCacheEnabled, dispatchEvents,
-                    allowedMentions);
+                    allowedMentions, entityCacheBackend, packetHandlerThreadCount,
+                    ratelimitStore, maxConcurrency, transportCompressionEnabled, gatewayEncoding,
+                    messageCacheStorageMode, cdnCacheSize);
         }
         return future;
     }
@@ -420,6 +466,95 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
         return userCacheEnabled;
     }
 
+    @Override
+    public void setEntityCacheBackend(EntityCacheBackend backend) {
+        entityCacheBackend = Objects.requireNonNull(backend);
+    }
+
+    @Override
+    public EntityCacheBackend getEntityCacheBackend() {
+        return entityCacheBackend;
+    }
+
+    @Override
+    public void setPacketHandlerThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The packet handler thread count must be at least 1!");
+        }
+        packetHandlerThreadCount = threadCount;
+    }
+
+    @Override
+    public int getPacketHandlerThreadCount() {
+        return packetHandlerThreadCount;
+    }
+
+    @Override
+    public void setRatelimitStore(RatelimitStore store) {
+        ratelimitStore = store;
+    }
+
+    @Override
+    public Optional<RatelimitStore> getRatelimitStore() {
+        return Optional.ofNullable(ratelimitStore);
+    }
+
+    @Override
+    public void setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency cannot be less than 1!");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void setTransportCompressionEnabled(boolean enabled) {
+        transportCompressionEnabled = enabled;
+    }
+
+    @Override
+    public boolean isTransportCompressionEnabled() {
+        return transportCompressionEnabled;
+    }
+
+    @Override
+    public void setGatewayEncoding(GatewayEncoding encoding) {
+        gatewayEncoding = Objects.requireNonNull(encoding);
+    }
+
+    @Override
+    public GatewayEncoding getGatewayEncoding() {
+        return gatewayEncoding;
+    }
+
+    @Override
+    public void setMessageCacheStorageMode(MessageCacheStorageMode storageMode) {
+        messageCacheStorageMode = Objects.requireNonNull(storageMode);
+    }
+
+    @Override
+    public MessageCacheStorageMode getMessageCacheStorageMode() {
+        return messageCacheStorageMode;
+    }
+
+    @Override
+    public void setCdnCacheSize(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The cdn cache size must not be negative!");
+        }
+        cdnCacheSize = maxSize;
+    }
+
+    @Override
+    public long getCdnCacheSize() {
+        return cdnCacheSize;
+    }
+
     @Override
     public CompletableFuture<Void> setRecommendedTotalShards() {
         CompletableFuture<Void> future = new CompletableFuture<>();
@@ -443,6 +578,7 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
                 .thenAccept(resultJson -> {
                     DiscordWebSocketAdapter.setGateway(resultJson.get("url").asText());
                     setTotalShards(resultJson.get("shards").asInt());
+                    setMaxConcurrency(resultJson.path("session_start_limit").path("max_concurrency").asInt(1));
                     retryAttempt.set(0);
                     future.complete(null);
                 })
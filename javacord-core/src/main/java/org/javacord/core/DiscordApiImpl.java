@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import okhttp3.Dispatcher;
 import okhttp3.Dns;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -32,8 +35,10 @@ import org.javacord.api.entity.channel.VoiceChannel;
 import org.javacord.api.entity.emoji.CustomEmoji;
 import org.javacord.api.entity.emoji.KnownCustomEmoji;
 import org.javacord.api.entity.intent.Intent;
+import org.javacord.api.entity.message.HistoryRange;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.entity.message.MessageSet;
+import org.javacord.api.entity.message.MessageSink;
 import org.javacord.api.entity.message.UncachedMessageUtil;
 import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.entity.server.Server;
@@ -54,15 +59,22 @@ import org.javacord.api.interaction.UserContextMenu;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.listener.ObjectAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.cache.MessageCacheStorageMode;
 import org.javacord.api.util.concurrent.ThreadPool;
 import org.javacord.api.util.event.ListenerManager;
+import org.javacord.api.util.event.SlowListenerHandler;
+import org.javacord.api.util.gateway.GatewayEncoding;
+import org.javacord.api.util.ratelimit.InMemoryRatelimitStore;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
+import org.javacord.api.util.ratelimit.RatelimitStore;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 import org.javacord.core.audio.AudioConnectionImpl;
 import org.javacord.core.entity.activity.ActivityImpl;
 import org.javacord.core.entity.activity.ApplicationInfoImpl;
 import org.javacord.core.entity.emoji.CustomEmojiImpl;
 import org.javacord.core.entity.emoji.KnownCustomEmojiImpl;
+import org.javacord.core.entity.message.MessageHistoryExporter;
 import org.javacord.core.entity.message.MessageImpl;
 import org.javacord.core.entity.message.MessageSetImpl;
 import org.javacord.core.entity.message.UncachedMessageUtilImpl;
@@ -85,11 +97,18 @@ import org.javacord.core.interaction.UserContextMenuImpl;
 import org.javacord.core.util.ClassHelper;
 import org.javacord.core.util.Cleanupable;
 import org.javacord.core.util.cache.JavacordEntityCache;
+import org.javacord.core.util.cache.MessageCacheImpl;
+import org.javacord.core.util.cache.MessageCacheSweeper;
+import org.javacord.core.util.cache.MessageRegistry;
+import org.javacord.core.util.cache.SerializedMessagePool;
 import org.javacord.core.util.concurrent.ThreadPoolImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.event.EventDispatcher;
 import org.javacord.core.util.event.ListenerManagerImpl;
+import org.javacord.core.util.gateway.AudioSendScheduler;
 import org.javacord.core.util.gateway.DiscordWebSocketAdapter;
+import org.javacord.core.util.gateway.PacketHandlerExecutor;
+import org.javacord.core.util.http.CdnFetcher;
 import org.javacord.core.util.http.ProxyAuthenticator;
 import org.javacord.core.util.http.TrustAllTrustManager;
 import org.javacord.core.util.logging.LoggerUtil;
@@ -97,8 +116,6 @@ import org.javacord.core.util.ratelimit.RatelimitManager;
 import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestMethod;
 import org.javacord.core.util.rest.RestRequest;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.net.Proxy;
 import java.net.ProxySelector;
@@ -113,10 +130,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -153,12 +168,20 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     private static final String BOT_TOKEN_PREFIX = "Bot ";
 
     /**
-     * A map with the default gateway identify ratelimiter.
+     * A map with the default gateway identify ratelimiters.
      *
-     * <p>The key is the bot's token (because ratelimits are per account) and the value is the ratelimiter for this
-     * token.
+     * <p>The key is the bot's token (because ratelimits are per account) together with the shard's identify bucket
+     * ({@code shard_id % max_concurrency}) and the value is the ratelimiter for this bucket.
      */
-    private static final Map<String, Ratelimiter> defaultGatewayIdentifyRatelimiter = new ConcurrentHashMap<>();
+    private static final Map<Tuple2<String, Integer>, Ratelimiter> defaultGatewayIdentifyRatelimiter =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The default store for the state of REST ratelimits.
+     *
+     * <p>It is shared by all bots, the ratelimit manager separates the state of different tokens by their keys.
+     */
+    private static final RatelimitStore DEFAULT_RATELIMIT_STORE = new InMemoryRatelimitStore();
 
     /**
      * The thread pool which is used internally.
@@ -170,6 +193,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     private final OkHttpClient httpClient;
 
+    /**
+     * The fetcher which downloads files from Discord's CDN.
+     */
+    private final CdnFetcher cdnFetcher;
+
     /**
      * The event dispatcher.
      */
@@ -230,6 +258,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     private boolean defaultAutomaticMessageCacheCleanupEnabled = true;
 
+    /**
+     * The amount of message batches which are requested ahead while a message stream is consumed.
+     */
+    private volatile int messageHistoryPrefetchDepth = 1;
+
     /**
      * The function to calculate the reconnect delay.
      */
@@ -245,6 +278,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     private final int totalShards;
 
+    /**
+     * The amount of shards that are allowed to identify at the same time.
+     */
+    private final int maxConcurrency;
+
     /**
      * The intents to be set.
      */
@@ -328,9 +366,44 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     private volatile Long timeOffset = null;
 
     /**
-     * An immutable cache with all Javacord entities.
+     * The backend of the entity cache.
+     */
+    private final EntityCacheBackend entityCacheBackend;
+
+    /**
+     * A cache with all Javacord entities.
+     */
+    private final AtomicReference<JavacordEntityCache> entityCache;
+
+    /**
+     * The executor that handles gateway packets.
+     */
+    private final PacketHandlerExecutor packetHandlerExecutor;
+
+    /**
+     * The store that keeps the state of REST ratelimits.
      */
-    private final AtomicReference<JavacordEntityCache> entityCache = new AtomicReference<>(JavacordEntityCache.empty());
+    private final RatelimitStore ratelimitStore;
+
+    /**
+     * Whether the gateway connection uses transport compression.
+     */
+    private final boolean transportCompressionEnabled;
+
+    /**
+     * The encoding of the gateway packets.
+     */
+    private final GatewayEncoding gatewayEncoding;
+
+    /**
+     * How messages are stored in the message caches of channels.
+     */
+    private final MessageCacheStorageMode messageCacheStorageMode;
+
+    /**
+     * The pool that holds the serialized messages of the message caches.
+     */
+    private final SerializedMessagePool serializedMessagePool = new SerializedMessagePool();
 
     /**
      * Whether the user cache is enabled or not.
@@ -376,27 +449,19 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     private final ConcurrentHashMap<Long, Sticker> stickers = new ConcurrentHashMap<>();
 
     /**
-     * A map with all cached messages.
+     * A registry with all cached messages.
      */
-    private final Map<Long, WeakReference<Message>> messages = new ConcurrentHashMap<>();
+    private final MessageRegistry messages = new MessageRegistry();
 
     /**
-     * A lock for accessing the message cache.
+     * The sweeper that cleans the message caches of all channels.
      */
-    private final ReentrantLock messageCacheLock = new ReentrantLock();
+    private final MessageCacheSweeper messageCacheSweeper = new MessageCacheSweeper();
 
     /**
-     * A map to retrieve message IDs by the weak ref that point to the respective
-     * message or used to point to it for usage in the messages cleanup,
-     * as at cleanup time the weak ref is already emptied.
+     * The scheduler that paces the audio sending of all audio connections.
      */
-    private final Map<Reference<? extends Message>, Long> messageIdByRef
-            = Collections.synchronizedMap(new WeakHashMap<>());
-
-    /**
-     * The queue that is notified if a message became weakly-reachable.
-     */
-    private final ReferenceQueue<Message> messagesCleanupQueue = new ReferenceQueue<>();
+    private final AudioSendScheduler audioSendScheduler = new AudioSendScheduler(threadPool);
 
     /**
      * A map which contains all globally attachable listeners.
@@ -418,6 +483,22 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             Map<ObjectAttachableListener, ListenerManagerImpl<? extends ObjectAttachableListener>>>>>
             objectListeners = Collections.synchronizedMap(new ConcurrentHashMap<>());
 
+    /**
+     * Immutable snapshots of all globally attachable listeners, by the class of the listeners.
+     * The snapshots are replaced whenever a listener is added or removed, so getting the listeners does not copy them.
+     */
+    private final ConcurrentHashMap<Class<?>, List<?>> listenerSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable snapshots of all object listeners.
+     * The key of the outer map is the class which the listener was registered to (e.g. Message.class).
+     * The key of the first inner map is the class of the listener.
+     * The key of the second inner map is the id of the object.
+     * The snapshots are replaced whenever a listener is added or removed, so getting the listeners does not copy them.
+     */
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Class<?>, ConcurrentHashMap<Long, List<?>>>>
+            objectListenerSnapshots = new ConcurrentHashMap<>();
+
     /**
      * Creates a new discord api instance that can be used for auto-ratelimited REST calls,
      * but does not connect to the Discord WebSocket.
@@ -481,7 +562,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     ) {
         this(token, currentShard, totalShards, intents, waitForServersOnStartup, waitForUsersOnStartup,
                 true, globalRatelimiter, gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator,
-                trustAllCertificates, ready, null, Collections.emptyMap(), Collections.emptyList(), false, true, null);
+                trustAllCertificates, ready, null, Collections.emptyMap(), Collections.emptyList(), false, true, null,
+                EntityCacheBackend.IMMUTABLE, 1, null, 1, false, GatewayEncoding.JSON,
+                MessageCacheStorageMode.OBJECTS, 0);
     }
 
     /**
@@ -526,7 +609,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             Dns dns) {
         this(token, currentShard, totalShards, intents, waitForServersOnStartup, waitForUsersOnStartup,
                 true, globalRatelimiter, gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator,
-                trustAllCertificates, ready, dns, Collections.emptyMap(), Collections.emptyList(), false, true, null);
+                trustAllCertificates, ready, dns, Collections.emptyMap(), Collections.emptyList(), false, true, null,
+                EntityCacheBackend.IMMUTABLE, 1, null, 1, false, GatewayEncoding.JSON,
+                MessageCacheStorageMode.OBJECTS, 0);
     }
 
     /**
@@ -559,6 +644,15 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param userCacheEnabled           Whether the user cache should be enabled.
      * @param dispatchEvents             Whether events can be dispatched.
      * @param defaultAllowedMentions     Controls who will be mentioned if mentions exist in a message.
+     * @param entityCacheBackend         The backend of the entity cache.
+     * @param packetHandlerThreadCount   The amount of threads that handle gateway packets in parallel.
+     * @param ratelimitStore             The store that keeps the state of REST ratelimits or {@code null} to use
+     *                                   the default in-memory store.
+     * @param maxConcurrency             The amount of shards that are allowed to identify at the same time.
+     * @param transportCompression       Whether the gateway connection should use transport compression.
+     * @param gatewayEncoding            The encoding of the gateway packets.
+     * @param messageCacheStorageMode    How messages are stored in the message caches of channels.
+     * @param cdnCacheSize               The maximum size of the cdn cache in bytes.
      */
     @SuppressWarnings("unchecked")
     public DiscordApiImpl(
@@ -583,11 +677,23 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             List<Function<DiscordApi, GloballyAttachableListener>> unspecifiedListeners,
             boolean userCacheEnabled,
             boolean dispatchEvents,
-            AllowedMentions defaultAllowedMentions
+            AllowedMentions defaultAllowedMentions,
+            EntityCacheBackend entityCacheBackend,
+            int packetHandlerThreadCount,
+            RatelimitStore ratelimitStore,
+            int maxConcurrency,
+            boolean transportCompression,
+            GatewayEncoding gatewayEncoding,
+            MessageCacheStorageMode messageCacheStorageMode,
+            long cdnCacheSize
     ) {
         this.token = token;
         this.currentShard = currentShard;
         this.totalShards = totalShards;
+        this.maxConcurrency = maxConcurrency;
+        this.transportCompressionEnabled = transportCompression;
+        this.gatewayEncoding = gatewayEncoding;
+        this.messageCacheStorageMode = messageCacheStorageMode;
         this.waitForServersOnStartup = waitForServersOnStartup;
         this.waitForUsersOnStartup = waitForUsersOnStartup;
         this.globalRatelimiter = globalRatelimiter;
@@ -599,6 +705,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         this.userCacheEnabled = userCacheEnabled;
         this.dispatchEvents = dispatchEvents;
         this.defaultAllowedMentions = defaultAllowedMentions;
+        this.entityCacheBackend = entityCacheBackend;
+        this.entityCache = new AtomicReference<>(JavacordEntityCache.empty(entityCacheBackend));
+        this.packetHandlerExecutor = new PacketHandlerExecutor(threadPool, packetHandlerThreadCount);
+        this.ratelimitStore = ratelimitStore == null ? DEFAULT_RATELIMIT_STORE : ratelimitStore;
         this.reconnectDelayProvider = x ->
                 (int) Math.round(Math.pow(x, 1.5) - (1 / (1 / (0.1 * x) + 1)) * Math.pow(x, 1.5));
         //Always add the GUILDS intent unless it is not required anymore for Javacord to be functional.
@@ -612,16 +722,25 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             throw new IllegalArgumentException("Cannot wait for users when GUILD_MEMBERS intent is not set!");
         }
 
+        Logger httpLogger = LoggerUtil.getLogger(OkHttpClient.class);
+        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(httpLogger::trace).setLevel(Level.BODY);
         OkHttpClient.Builder httpClientBuilder = new OkHttpClient.Builder()
                 .addInterceptor(chain -> chain.proceed(chain.request()
                         .newBuilder()
                         .addHeader("User-Agent", Javacord.USER_AGENT)
                         .build()))
-                .addInterceptor(
-                        new HttpLoggingInterceptor(LoggerUtil.getLogger(OkHttpClient.class)::trace).setLevel(Level.BODY)
-                )
+                // The logging interceptor buffers the whole response body, so only use it if the body is logged
+                .addInterceptor(chain -> httpLogger.isTraceEnabled()
+                        ? loggingInterceptor.intercept(chain)
+                        : chain.proceed(chain.request()))
                 .proxyAuthenticator(new ProxyAuthenticator(proxyAuthenticator))
                 .proxy(proxy);
+        // Rest requests are sent asynchronously and are already limited to one concurrent request per ratelimit
+        // bucket by the ratelimit manager, so there's no need for OkHttp's default limit of 5 requests per host
+        Dispatcher dispatcher = new Dispatcher(threadPool.getExecutorService());
+        dispatcher.setMaxRequests(Integer.MAX_VALUE);
+        dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+        httpClientBuilder.dispatcher(dispatcher);
         if (proxySelector != null) {
             httpClientBuilder.proxySelector(proxySelector);
         }
@@ -635,6 +754,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             httpClientBuilder.sslSocketFactory(trustManager.createSslSocketFactory(), trustManager);
         }
         this.httpClient = httpClientBuilder.build();
+        this.cdnFetcher = new CdnFetcher(httpClient, cdnCacheSize);
         this.eventDispatcher = new EventDispatcher(this);
 
         if (ready != null) {
@@ -681,23 +801,15 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
             // After minimum JDK 9 is required this can be switched to use a Cleaner
             getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-                messageCacheLock.lock();
                 try {
-                    for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
-                            messageRef != null;
-                            messageRef = messagesCleanupQueue.poll()) {
-                        Long messageId = messageIdByRef.remove(messageRef);
-                        if (messageId != null) {
-                            messages.remove(messageId, messageRef);
-                        }
-                    }
+                    messages.expungeStaleEntries();
                 } catch (Throwable t) {
                     logger.error("Failed to process messages cleanup queue!", t);
-                } finally {
-                    messageCacheLock.unlock();
                 }
             }, 30, 30, TimeUnit.SECONDS);
 
+            messageCacheSweeper.start(getThreadPool().getScheduler());
+
             if (registerShutdownHook) {
                 // Add shutdown hook
                 ready.thenAccept(api -> {
@@ -726,6 +838,69 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return entityCache;
     }
 
+    /**
+     * Gets the backend of the entity cache.
+     *
+     * @return The backend of the entity cache.
+     */
+    public EntityCacheBackend getEntityCacheBackend() {
+        return entityCacheBackend;
+    }
+
+    /**
+     * Gets the executor that handles gateway packets.
+     *
+     * @return The executor that handles gateway packets.
+     */
+    public PacketHandlerExecutor getPacketHandlerExecutor() {
+        return packetHandlerExecutor;
+    }
+
+    /**
+     * Gets the store that keeps the state of REST ratelimits.
+     *
+     * @return The store that keeps the state of REST ratelimits.
+     */
+    public RatelimitStore getRatelimitStore() {
+        return ratelimitStore;
+    }
+
+    /**
+     * Checks if the gateway connection uses transport compression.
+     *
+     * @return Whether the gateway connection uses transport compression.
+     */
+    public boolean isTransportCompressionEnabled() {
+        return transportCompressionEnabled;
+    }
+
+    /**
+     * Gets the encoding of the gateway packets.
+     *
+     * @return The encoding of the gateway packets.
+     */
+    public GatewayEncoding getGatewayEncoding() {
+        return gatewayEncoding;
+    }
+
+    /**
+     * Gets how messages are stored in the message caches of channels.
+     *
+     * @return The storage mode of the message caches.
+     */
+    public MessageCacheStorageMode getMessageCacheStorageMode() {
+        return messageCacheStorageMode;
+    }
+
+    /**
+     * Gets the pool that holds the serialized messages of the message caches.
+     *
+     * @return The serialized message pool.
+     */
+    public SerializedMessagePool getSerializedMessagePool() {
+        return serializedMessagePool;
+    }
+
     /**
      * Checks if the user cache is enabled.
      *
@@ -745,6 +920,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return dispatchEvents;
     }
 
+    @Override
+    public void setSlowListenerHandler(SlowListenerHandler slowListenerHandler) {
+        eventDispatcher.setSlowListenerHandler(slowListenerHandler);
+    }
+
     @Override
     public void setDefaultAllowedMentions(AllowedMentions allowedMentions) {
         this.defaultAllowedMentions = allowedMentions;
@@ -767,6 +947,15 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return httpClient;
     }
 
+    /**
+     * Gets the fetcher which downloads files from Discord's CDN with the http client of this api instance.
+     *
+     * @return The cdn fetcher.
+     */
+    public CdnFetcher getCdnFetcher() {
+        return cdnFetcher;
+    }
+
     /**
      * Gets the event dispatcher which is used to dispatch events.
      *
@@ -807,16 +996,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                 .filter(Cleanupable.class::isInstance)
                 .map(Cleanupable.class::cast)
                 .forEach(Cleanupable::cleanup);
-        entityCache.set(JavacordEntityCache.empty());
+        entityCache.set(JavacordEntityCache.empty(entityCacheBackend));
         unavailableServers.clear();
         customEmojis.clear();
-        messageCacheLock.lock();
-        try {
-            messages.clear();
-            messageIdByRef.clear();
-        } finally {
-            messageCacheLock.unlock();
-        }
+        messages.clear();
         timeOffset = null;
     }
 
@@ -1013,6 +1196,28 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         });
     }
 
+    /**
+     * Adds multiple members to the cache.
+     *
+     * <p>Existing members with the same id and server are replaced. Compared to calling
+     * {@link #addMemberToCacheOrReplaceExisting(Member)} for every member, the cache is updated only once.
+     *
+     * @param members The members to add.
+     */
+    public void addMembersToCache(Collection<Member> members) {
+        if (!isUserCacheEnabled() || members.isEmpty()) {
+            return;
+        }
+        entityCache.getAndUpdate(cache -> cache.updateMemberCache(memberCache -> {
+            List<Member> oldMembers = new ArrayList<>();
+            for (Member member : members) {
+                memberCache.getMemberByIdAndServer(member.getId(), member.getServer().getId())
+                        .ifPresent(oldMembers::add);
+            }
+            return memberCache.removeMembers(oldMembers).addMembers(members);
+        }));
+    }
+
     /**
      * Updates the user object for all members in the cache.
      *
@@ -1199,12 +1404,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     public Message getOrCreateMessage(TextChannel channel, JsonNode data) {
         long id = Long.parseLong(data.get("id").asText());
-        messageCacheLock.lock();
-        try {
-            return getCachedMessageById(id).orElseGet(() -> new MessageImpl(this, channel, data));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return messages.getOrCreate(id, () -> new MessageImpl(this, channel, data));
     }
 
     /**
@@ -1213,19 +1413,27 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param message The message to add.
      */
     public void addMessageToCache(Message message) {
-        messageCacheLock.lock();
-        try {
-            messages.compute(message.getId(), (key, value) -> {
-                if ((value == null) || (value.get() == null)) {
-                    WeakReference<Message> result = new WeakReference<>(message, messagesCleanupQueue);
-                    messageIdByRef.put(result, key);
-                    return result;
-                }
-                return value;
-            });
-        } finally {
-            messageCacheLock.unlock();
-        }
+        messages.register(message);
+    }
+
+    /**
+     * Registers the cache that holds the serialized message with the given id.
+     *
+     * @param messageId The id of the message.
+     * @param cache The cache that holds the serialized message.
+     */
+    public void addSerializedMessageToCache(long messageId, MessageCacheImpl cache) {
+        messages.registerSerializedMessage(messageId, cache);
+    }
+
+    /**
+     * Unregisters the cache that held the serialized message with the given id.
+     *
+     * @param messageId The id of the message.
+     * @param cache The cache that held the serialized message.
+     */
+    public void removeSerializedMessageFromCache(long messageId, MessageCacheImpl cache) {
+        messages.unregisterSerializedMessage(messageId, cache);
     }
 
     /**
@@ -1234,15 +1442,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param messageId The id of the message to remove.
      */
     public void removeMessageFromCache(long messageId) {
-        messageCacheLock.lock();
-        try {
-            WeakReference<Message> messageRef = messages.remove(messageId);
-            if (messageRef != null) {
-                messageIdByRef.remove(messageRef, messageId);
-            }
-        } finally {
-            messageCacheLock.unlock();
-        }
+        messages.remove(messageId);
     }
 
     /**
@@ -1266,8 +1466,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                         .computeIfAbsent(objectClass, key -> new ConcurrentHashMap<>())
                         .computeIfAbsent(objectId, key -> new ConcurrentHashMap<>())
                         .computeIfAbsent(listenerClass, c -> Collections.synchronizedMap(new LinkedHashMap<>()));
-        return (ListenerManager<T>) listeners.computeIfAbsent(
+        ListenerManager<T> listenerManager = (ListenerManager<T>) listeners.computeIfAbsent(
                 listener, key -> new ListenerManagerImpl<>(this, listener, listenerClass, objectClass, objectId));
+        updateObjectListenerSnapshot(objectClass, objectId, listenerClass);
+        return listenerManager;
     }
 
     /**
@@ -1317,6 +1519,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                     }
                 }
             }
+            updateObjectListenerSnapshot(objectClass, objectId, listenerClass);
         }
     }
 
@@ -1338,7 +1541,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                 return;
             }
             // Remove all listeners
+            List<Class<? extends ObjectAttachableListener>> listenerClasses = new ArrayList<>();
             objects.computeIfPresent(objectId, (id, listeners) -> {
+                listenerClasses.addAll(listeners.keySet());
                 listeners.values().stream()
                         .flatMap(map -> map.values().stream())
                         .forEach(ListenerManagerImpl::removed);
@@ -1349,6 +1554,68 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             if (objects.isEmpty()) {
                 objectListeners.remove(objectClass);
             }
+            listenerClasses.forEach(
+                    listenerClass -> updateObjectListenerSnapshot(objectClass, objectId, listenerClass));
+        }
+    }
+
+    /**
+     * Replaces the snapshot of the object listeners of the given class that are attached to the given object.
+     *
+     * @param objectClass   The class of the object.
+     * @param objectId      The id of the object.
+     * @param listenerClass The listener class.
+     */
+    private void updateObjectListenerSnapshot(Class<?> objectClass, long objectId, Class<?> listenerClass) {
+        synchronized (objectListeners) {
+            List<?> snapshot = Optional.ofNullable(objectListeners.get(objectClass))
+                    .map(objectListener -> objectListener.get(objectId))
+                    .map(listeners -> listeners.get(listenerClass))
+                    .filter(classListeners -> !classListeners.isEmpty())
+                    .map(classListeners -> Collections.unmodifiableList(new ArrayList<>(classListeners.keySet())))
+                    .orElse(null);
+            if (snapshot != null) {
+                objectListenerSnapshots
+                        .computeIfAbsent(objectClass, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(listenerClass, key -> new ConcurrentHashMap<>())
+                        .put(objectId, snapshot);
+                return;
+            }
+            Map<Class<?>, ConcurrentHashMap<Long, List<?>>> snapshotsByListenerClass =
+                    objectListenerSnapshots.get(objectClass);
+            if (snapshotsByListenerClass == null) {
+                return;
+            }
+            Map<Long, List<?>> snapshotsById = snapshotsByListenerClass.get(listenerClass);
+            if (snapshotsById == null) {
+                return;
+            }
+            snapshotsById.remove(objectId);
+            // Clean it up
+            if (snapshotsById.isEmpty()) {
+                snapshotsByListenerClass.remove(listenerClass);
+                if (snapshotsByListenerClass.isEmpty()) {
+                    objectListenerSnapshots.remove(objectClass);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot of the globally attachable listeners of the given class.
+     *
+     * @param listenerClass The listener class.
+     */
+    private void updateListenerSnapshot(Class<?> listenerClass) {
+        synchronized (listeners) {
+            Map<GloballyAttachableListener, ListenerManagerImpl<? extends GloballyAttachableListener>> classListeners =
+                    listeners.get(listenerClass);
+            if (classListeners == null || classListeners.isEmpty()) {
+                listenerSnapshots.remove(listenerClass);
+            } else {
+                listenerSnapshots.put(
+                        listenerClass, Collections.unmodifiableList(new ArrayList<>(classListeners.keySet())));
+            }
         }
     }
 
@@ -1394,13 +1661,41 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @SuppressWarnings("unchecked")
     public <T extends ObjectAttachableListener> List<T> getObjectListeners(
             Class<?> objectClass, long objectId, Class<T> listenerClass) {
-        return Collections.unmodifiableList((List<T>) Optional.ofNullable(objectClass)
-                .map(objectListeners::get)
-                .map(objectListener -> objectListener.get(objectId))
-                .map(listeners -> listeners.get(listenerClass))
-                .map(Map::keySet)
-                .map(ArrayList::new)
-                .orElseGet(ArrayList::new));
+        if (objectClass == null) {
+            return Collections.emptyList();
+        }
+        // Only box the id if there are listeners of the given class for any object of the given class
+        Map<Class<?>, ConcurrentHashMap<Long, List<?>>> snapshotsByListenerClass =
+                objectListenerSnapshots.get(objectClass);
+        Map<Long, List<?>> snapshotsById = snapshotsByListenerClass == null
+                ? null
+                : snapshotsByListenerClass.get(listenerClass);
+        if (snapshotsById == null) {
+            return Collections.emptyList();
+        }
+        return (List<T>) snapshotsById.getOrDefault(objectId, Collections.emptyList());
+    }
+
+    /**
+     * Checks if any listener of the given class is registered, either globally or to any object.
+     *
+     * <p>This check is cheap and does not allocate, so it can be used to skip the work which is only necessary to
+     * dispatch an event, like constructing the event or resolving the objects the listeners could be attached to.
+     *
+     * @param listenerClass The listener class.
+     * @return Whether any listener of the given class is registered.
+     */
+    public boolean hasListeners(Class<?> listenerClass) {
+        if (listenerSnapshots.containsKey(listenerClass)) {
+            return true;
+        }
+        for (Map<Class<?>, ConcurrentHashMap<Long, List<?>>> snapshotsByListenerClass
+                : objectListenerSnapshots.values()) {
+            if (snapshotsByListenerClass.containsKey(listenerClass)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -1419,11 +1714,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends GloballyAttachableListener> List<T> getListeners(Class<T> listenerClass) {
-        return Collections.unmodifiableList((List<T>) Optional.ofNullable(listenerClass)
-                .map(listeners::get)
-                .map(Map::keySet)
-                .map(ArrayList::new)
-                .orElseGet(ArrayList::new));
+        if (listenerClass == null) {
+            return Collections.emptyList();
+        }
+        return (List<T>) listenerSnapshots.getOrDefault(listenerClass, Collections.emptyList());
     }
 
     @Override
@@ -1699,9 +1993,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     public Ratelimiter getGatewayIdentifyRatelimiter() {
         if (gatewayIdentifyRatelimiter == null) {
+            // Shards in different buckets are allowed to identify at the same time
             return defaultGatewayIdentifyRatelimiter.computeIfAbsent(
-                    getToken(),
-                    (token) -> new LocalRatelimiter(1, Duration.ofMillis(5500))
+                    Tuple.of(getToken(), currentShard % maxConcurrency),
+                    (bucket) -> new LocalRatelimiter(1, Duration.ofMillis(5500))
             );
         }
         return gatewayIdentifyRatelimiter;
@@ -1764,6 +2059,25 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return defaultAutomaticMessageCacheCleanupEnabled;
     }
 
+    @Override
+    public void setMessageHistoryPrefetchDepth(int batches) {
+        if (batches < 0) {
+            throw new IllegalArgumentException("The message history prefetch depth must not be negative!");
+        }
+        messageHistoryPrefetchDepth = batches;
+    }
+
+    @Override
+    public int getMessageHistoryPrefetchDepth() {
+        return messageHistoryPrefetchDepth;
+    }
+
+    @Override
+    public CompletableFuture<Void> exportHistory(
+            Collection<? extends TextChannel> channels, HistoryRange range, MessageSink sink, int parallelism) {
+        return new MessageHistoryExporter(channels, range, sink, parallelism).start();
+    }
+
     @Override
     public int getCurrentShard() {
         return currentShard;
@@ -2008,15 +2322,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     @Override
     public MessageSet getCachedMessages() {
-        messageCacheLock.lock();
-        try {
-            return new MessageSetImpl(messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList()));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return new MessageSetImpl(messages.getMessages().collect(Collectors.toList()));
     }
 
     /**
@@ -2026,16 +2332,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @return The cached messages satisfying the condition.
      */
     public MessageSet getCachedMessagesWhere(Predicate<Message> filter) {
-        messageCacheLock.lock();
-        try {
-            return new MessageSetImpl(messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(filter)
-                    .collect(Collectors.toList()));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return new MessageSetImpl(messages.getMessages()
+                .filter(filter)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -2045,26 +2344,14 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param action The action to be applied to the messages.
      */
     public void forEachCachedMessageWhere(Predicate<Message> filter, Consumer<Message> action) {
-        messageCacheLock.lock();
-        try {
-            messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(filter)
-                    .forEach(action);
-        } finally {
-            messageCacheLock.unlock();
-        }
+        messages.getMessages()
+                .filter(filter)
+                .forEach(action);
     }
 
     @Override
     public Optional<Message> getCachedMessageById(long id) {
-        messageCacheLock.lock();
-        try {
-            return Optional.ofNullable(messages.get(id)).map(Reference::get);
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return messages.getMessageById(id);
     }
 
     @Override
@@ -2185,12 +2472,21 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     }
 
     /**
-     * Get the message cache lock.
+     * Gets the sweeper that cleans the message caches of all channels.
+     *
+     * @return The message cache sweeper.
+     */
+    public MessageCacheSweeper getMessageCacheSweeper() {
+        return messageCacheSweeper;
+    }
+
+    /**
+     * Gets the scheduler that paces the audio sending of all audio connections.
      *
-     * @return the message cache lock
+     * @return The audio send scheduler.
      */
-    public ReentrantLock getMessageCacheLock() {
-        return messageCacheLock;
+    public AudioSendScheduler getAudioSendScheduler() {
+        return audioSendScheduler;
     }
 
     @Override
@@ -2208,9 +2504,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends GloballyAttachableListener> ListenerManager<T> addListener(Class<T> listenerClass, T listener) {
-        return (ListenerManager<T>) listeners
+        ListenerManager<T> listenerManager = (ListenerManager<T>) listeners
                 .computeIfAbsent(listenerClass, key -> Collections.synchronizedMap(new LinkedHashMap<>()))
                 .computeIfAbsent(listener, key -> new ListenerManagerImpl<>(this, listener, listenerClass));
+        updateListenerSnapshot(listenerClass);
+        return listenerManager;
     }
 
     @Override
@@ -2231,6 +2529,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             if (classListeners.isEmpty()) {
                 listeners.remove(listenerClass);
             }
+            updateListenerSnapshot(listenerClass);
         }
     }
 
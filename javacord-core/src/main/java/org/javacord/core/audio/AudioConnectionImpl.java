@@ -300,6 +300,15 @@ public class AudioConnectionImpl implements AudioConnection, InternalAudioConnec
                 .sendVoiceStateUpdate(getChannel().getServer(), getChannel(), isSelfMuted(), isSelfDeafened());
     }
 
+    /**
+     * Gets the current audio source without blocking.
+     *
+     * @return The current audio source or {@code null} if there is none.
+     */
+    public AudioSource getCurrentAudioSource() {
+        return currentSource.getNow();
+    }
+
     /**
      * Gets the current audio source, blocking the thread until it is available.
      *
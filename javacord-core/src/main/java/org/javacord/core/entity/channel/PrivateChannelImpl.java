@@ -86,7 +86,7 @@ public class PrivateChannelImpl implements PrivateChannel, Cleanupable, Internal
         this.recipient = recipient;
         this.recipientId = recipientId;
         messageCache = new MessageCacheImpl(
-                api, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
+                api, this, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
                 api.isDefaultAutomaticMessageCacheCleanupEnabled());
 
         id = channelId;
@@ -4,16 +4,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.entity.Permissionable;
 import org.javacord.api.entity.channel.RegularServerChannel;
-import org.javacord.api.entity.permission.PermissionState;
 import org.javacord.api.entity.permission.PermissionType;
 import org.javacord.api.entity.permission.Permissions;
-import org.javacord.api.entity.permission.PermissionsBuilder;
 import org.javacord.api.entity.permission.Role;
-import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 import org.javacord.core.DiscordApiImpl;
+import org.javacord.core.entity.permission.PermissionCalculator;
 import org.javacord.core.entity.permission.PermissionsImpl;
 import org.javacord.core.entity.server.ServerImpl;
+import org.javacord.core.entity.user.Member;
 import org.javacord.core.util.logging.LoggerUtil;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,7 +21,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public class RegularServerChannelImpl extends ServerChannelImpl implements RegularServerChannel {
 
@@ -33,6 +31,11 @@ public class RegularServerChannelImpl extends ServerChannelImpl implements Regul
             .comparingInt(RegularServerChannel::getRawPosition)
             .thenComparingLong(RegularServerChannel::getId);
 
+    /**
+     * The maximum amount of members whose effective permissions are cached per channel.
+     */
+    private static final int MAX_CACHED_PERMISSIONS = 1024;
+
     /**
      * A map with all overwritten user permissions.
      */
@@ -43,6 +46,11 @@ public class RegularServerChannelImpl extends ServerChannelImpl implements Regul
      */
     private final ConcurrentHashMap<Long, Permissions> overwrittenRolePermissions = new ConcurrentHashMap<>();
 
+    /**
+     * The cached effective permissions of members in this channel, by the id of the members.
+     */
+    private final ConcurrentHashMap<Long, CachedPermissions> cachedEffectivePermissions = new ConcurrentHashMap<>();
+
     /**
      * The rawPosition of the channel.
      */
@@ -121,48 +129,101 @@ public class RegularServerChannelImpl extends ServerChannelImpl implements Regul
 
     @Override
     public Permissions getEffectiveOverwrittenPermissions(User user) {
-        PermissionsBuilder builder = new PermissionsBuilder(PermissionsImpl.EMPTY_PERMISSIONS);
-        Server server = getServer();
-        Role everyoneRole = server.getEveryoneRole();
-        Permissions everyoneRolePermissionOverwrites = getOverwrittenPermissions(everyoneRole);
-        for (PermissionType type : PermissionType.values()) {
-            if (everyoneRolePermissionOverwrites.getState(type) == PermissionState.DENIED) {
-                builder.setState(type, PermissionState.DENIED);
-            }
-            if (everyoneRolePermissionOverwrites.getState(type) == PermissionState.ALLOWED) {
-                builder.setState(type, PermissionState.ALLOWED);
-            }
+        return calculateEffectiveOverwrittenPermissions(user.getId(), getServer().getRoles(user));
+    }
+
+    @Override
+    public Permissions getEffectivePermissions(User user) {
+        if (getServer().isOwner(user)) {
+            return new PermissionsImpl(PermissionCalculator.ALL_PERMISSIONS, 0);
         }
-        List<Role> rolesOfUser = new ArrayList<>(server.getRoles(user));
-        rolesOfUser.remove(everyoneRole);
-        List<Permissions> permissionOverwrites = rolesOfUser.stream()
-                .map(this::getOverwrittenPermissions)
-                .collect(Collectors.toList());
-        for (Permissions permissions : permissionOverwrites) {
-            for (PermissionType type : PermissionType.values()) {
-                if (permissions.getState(type) == PermissionState.DENIED) {
-                    builder.setState(type, PermissionState.DENIED);
-                }
-            }
+        long allowed = getEffectiveAllowedPermissionsBitmask(user);
+        return new PermissionsImpl(allowed, PermissionCalculator.ALL_PERMISSIONS & ~allowed);
+    }
+
+    @Override
+    public boolean hasPermissions(User user, PermissionType... type) {
+        long bitmask = PermissionCalculator.toBitmask(type);
+        return (getEffectiveAllowedPermissionsBitmask(user) & bitmask) == bitmask;
+    }
+
+    @Override
+    public boolean hasAnyPermission(User user, PermissionType... type) {
+        return (getEffectiveAllowedPermissionsBitmask(user) & PermissionCalculator.toBitmask(type)) != 0;
+    }
+
+    @Override
+    public boolean hasPermission(User user, PermissionType permission) {
+        return (getEffectiveAllowedPermissionsBitmask(user) & permission.getValue()) != 0;
+    }
+
+    /**
+     * Gets the bitmask with the effective allowed permissions of the given user in this channel.
+     *
+     * <p>The permissions of members are cached until the server invalidates its cached permissions.
+     *
+     * @param user The user.
+     * @return The bitmask with the effective allowed permissions.
+     */
+    public long getEffectiveAllowedPermissionsBitmask(User user) {
+        ServerImpl server = (ServerImpl) getServer();
+        if (server.isOwner(user)) {
+            return PermissionCalculator.ALL_PERMISSIONS;
         }
-        for (Permissions permissions : permissionOverwrites) {
-            for (PermissionType type : PermissionType.values()) {
-                if (permissions.getState(type) == PermissionState.ALLOWED) {
-                    builder.setState(type, PermissionState.ALLOWED);
-                }
-            }
+        // Read the version before calculating, so that permissions which are outdated while they are calculated are
+        // never considered to be up to date
+        long version = server.getPermissionVersion();
+        CachedPermissions cachedPermissions = cachedEffectivePermissions.get(user.getId());
+        if (cachedPermissions != null && cachedPermissions.version == version) {
+            return cachedPermissions.allowed;
         }
-        for (PermissionType type : PermissionType.values()) {
-            Permissions permissions = overwrittenUserPermissions
-                    .getOrDefault(user.getId(), PermissionsImpl.EMPTY_PERMISSIONS);
-            if (permissions.getState(type) == PermissionState.DENIED) {
-                builder.setState(type, PermissionState.DENIED);
-            }
-            if (permissions.getState(type) == PermissionState.ALLOWED) {
-                builder.setState(type, PermissionState.ALLOWED);
+
+        Member member = server.getRealMemberById(user.getId()).orElse(null);
+        if (member == null) {
+            // Only cached members are invalidated, so the permissions of other users are not cached
+            return calculateEffectiveAllowedPermissions(user.getId(), server.getRoles(user));
+        }
+        long allowed = calculateEffectiveAllowedPermissions(user.getId(), member.getRoles());
+        if (cachedEffectivePermissions.size() >= MAX_CACHED_PERMISSIONS) {
+            cachedEffectivePermissions.clear();
+        }
+        cachedEffectivePermissions.put(user.getId(), new CachedPermissions(version, allowed));
+        return allowed;
+    }
+
+    /**
+     * Calculates the bitmask with the effective allowed permissions of a user in this channel.
+     *
+     * @param userId The id of the user.
+     * @param roles The roles of the user.
+     * @return The bitmask with the effective allowed permissions.
+     */
+    private long calculateEffectiveAllowedPermissions(long userId, List<Role> roles) {
+        long basePermissions = PermissionCalculator.calculateBasePermissions(false, roles);
+        return PermissionCalculator.applyOverwrites(
+                basePermissions, calculateEffectiveOverwrittenPermissions(userId, roles));
+    }
+
+    /**
+     * Calculates the effective overwritten permissions of a user in this channel.
+     *
+     * @param userId The id of the user.
+     * @param roles The roles of the user.
+     * @return The effective overwritten permissions.
+     */
+    private Permissions calculateEffectiveOverwrittenPermissions(long userId, List<Role> roles) {
+        long everyoneRoleId = getServer().getId();
+        List<Permissions> roleOverwrites = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            Permissions overwrites = overwrittenRolePermissions.get(role.getId());
+            if (overwrites != null && role.getId() != everyoneRoleId) {
+                roleOverwrites.add(overwrites);
             }
         }
-        return builder.build();
+        return PermissionCalculator.calculateOverwrittenPermissions(
+                overwrittenRolePermissions.getOrDefault(everyoneRoleId, PermissionsImpl.EMPTY_PERMISSIONS),
+                roleOverwrites,
+                overwrittenUserPermissions.getOrDefault(userId, PermissionsImpl.EMPTY_PERMISSIONS));
     }
 
     @Override
@@ -178,4 +239,25 @@ public class RegularServerChannelImpl extends ServerChannelImpl implements Regul
     public void setRawPosition(int position) {
         this.rawPosition = position;
     }
+
+    /**
+     * The effective permissions of a member, together with the version of the server permissions they are based on.
+     */
+    private static class CachedPermissions {
+
+        private final long version;
+        private final long allowed;
+
+        /**
+         * Creates new cached permissions.
+         *
+         * @param version The version of the server permissions.
+         * @param allowed The bitmask with the effective allowed permissions.
+         */
+        CachedPermissions(long version, long allowed) {
+            this.version = version;
+            this.allowed = allowed;
+        }
+
+    }
 }
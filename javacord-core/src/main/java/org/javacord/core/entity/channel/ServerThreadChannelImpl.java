@@ -110,7 +110,7 @@ public class ServerThreadChannelImpl extends ServerChannelImpl implements Server
         this.metadata = new ThreadMetadataImpl(data.get("thread_metadata"));
 
         messageCache = new MessageCacheImpl(
-                api, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
+                api, this, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
                 api.isDefaultAutomaticMessageCacheCleanupEnabled());
 
         totalNumberOfMessagesSent = data.path("total_message_sent").asInt(0);
@@ -48,7 +48,7 @@ public class TextableRegularServerChannelImpl extends RegularServerChannelImpl
         delay = data.has("rate_limit_per_user") ? data.get("rate_limit_per_user").asInt(0) : 0;
         parentId = Long.parseLong(data.has("parent_id") ? data.get("parent_id").asText("-1") : "-1");
         messageCache = new MessageCacheImpl(
-                api, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
+                api, this, api.getDefaultMessageCacheCapacity(), api.getDefaultMessageCacheStorageTimeInSeconds(),
                 api.isDefaultAutomaticMessageCacheCleanupEnabled());
     }
 
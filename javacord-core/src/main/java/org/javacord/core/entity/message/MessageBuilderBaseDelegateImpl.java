@@ -4,9 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.Attachment;
@@ -43,7 +41,6 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -721,14 +718,8 @@ public class MessageBuilderBaseDelegateImpl implements MessageBuilderBaseDelegat
         Collections.reverse(attachments);
         for (int i = 0; i < attachments.size(); i++) {
             FileContainer fileContainer = attachments.get(i);
-            byte[] bytes = fileContainer.asByteArray(api).join();
-            String mediaType = URLConnection
-                    .guessContentTypeFromName(fileContainer.getFileTypeOrName());
-            if (mediaType == null) {
-                mediaType = "application/octet-stream";
-            }
             multipartBodyBuilder.addFormDataPart("files[" + i + "]", fileContainer.getFileTypeOrName(),
-                    RequestBody.create(bytes, MediaType.parse(mediaType)));
+                    fileContainer.asRequestBody(api));
 
             if (fileContainer.getDescription() != null) {
                 ArrayNode attachmentJson = body.withArray("attachments");
@@ -0,0 +1,214 @@
+package org.javacord.core.entity.message;
+
+import org.javacord.api.entity.channel.TextChannel;
+import org.javacord.api.entity.message.HistoryRange;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.message.MessageSink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Exports the message history of multiple channels at the same time.
+ *
+ * <p>Every channel is exported page by page from oldest to newest. A channel never has more than one request in
+ * flight and its next page is only requested once the sink processed the previous one. Because every channel has its
+ * own ratelimit bucket and all requests go through the ratelimit manager, channels which wait for their ratelimit do
+ * not hold back the others, and no thread is blocked while a channel waits.
+ */
+public class MessageHistoryExporter {
+
+    /**
+     * The maximum amount of messages which are requested at once.
+     */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * The channels which were not started yet, guarded by {@link #lock}.
+     */
+    private final Iterator<TextChannel> remainingChannels;
+
+    /**
+     * The range of the history to export.
+     */
+    private final HistoryRange range;
+
+    /**
+     * The sink which receives the messages.
+     */
+    private final MessageSink sink;
+
+    /**
+     * The maximum amount of channels which are exported at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * The function which requests the page of a channel after the message with the given id, sorted from oldest to
+     * newest.
+     */
+    private final BiFunction<TextChannel, Long, CompletableFuture<List<Message>>> pageRequester;
+
+    /**
+     * The future which is completed once all channels were exported.
+     */
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    /**
+     * The lock for the remaining channels and the active channel count.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The amount of channels which are currently exported, guarded by {@link #lock}.
+     */
+    private int activeChannels = 0;
+
+    /**
+     * Creates a new message history exporter.
+     *
+     * @param channels The channels to export.
+     * @param range The range of the history to export.
+     * @param sink The sink which receives the messages.
+     * @param parallelism The maximum amount of channels which are exported at the same time.
+     */
+    public MessageHistoryExporter(
+            Collection<? extends TextChannel> channels, HistoryRange range, MessageSink sink, int parallelism) {
+        this(channels, range, sink, parallelism, MessageSetImpl::requestPageAfter);
+    }
+
+    /**
+     * Creates a new message history exporter.
+     *
+     * @param channels The channels to export.
+     * @param range The range of the history to export.
+     * @param sink The sink which receives the messages.
+     * @param parallelism The maximum amount of channels which are exported at the same time.
+     * @param pageRequester The function which requests the page of a channel after the message with the given id,
+     *                      sorted from oldest to newest.
+     */
+    MessageHistoryExporter(Collection<? extends TextChannel> channels, HistoryRange range, MessageSink sink,
+                           int parallelism,
+                           BiFunction<TextChannel, Long, CompletableFuture<List<Message>>> pageRequester) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1!");
+        }
+        this.remainingChannels = new ArrayList<TextChannel>(channels).iterator();
+        this.range = range;
+        this.sink = sink;
+        this.parallelism = parallelism;
+        this.pageRequester = pageRequester;
+    }
+
+    /**
+     * Starts the export.
+     *
+     * @return A future which is completed once all channels were exported.
+     */
+    public CompletableFuture<Void> start() {
+        for (int i = 0; i < parallelism; i++) {
+            TextChannel channel = startNextChannel();
+            if (channel == null) {
+                break;
+            }
+            exportPage(channel, range.getAfter());
+        }
+        synchronized (lock) {
+            if (activeChannels == 0) {
+                result.complete(null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Requests the page of a channel after the message with the given id and passes it to the sink.
+     * Once the sink processed the page, the next page is exported.
+     *
+     * @param channel The channel to export.
+     * @param after The id of the message after which the page starts.
+     */
+    private void exportPage(TextChannel channel, long after) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<List<Message>> page;
+        try {
+            page = pageRequester.apply(channel, after);
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+            return;
+        }
+        page.whenComplete((messages, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            List<Message> messagesInRange = messages.stream()
+                    .filter(message -> message.getId() < range.getBefore())
+                    .collect(Collectors.toList());
+            boolean lastPage = messages.size() < PAGE_SIZE || messagesInRange.size() < messages.size();
+
+            CompletableFuture<Void> processed;
+            try {
+                processed = messagesInRange.isEmpty()
+                        ? null
+                        : sink.accept(channel, new MessageSetImpl(messagesInRange));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                return;
+            }
+            if (processed == null) {
+                processed = CompletableFuture.completedFuture(null);
+            }
+            processed.whenComplete((ignored, sinkThrowable) -> {
+                if (sinkThrowable != null) {
+                    result.completeExceptionally(sinkThrowable);
+                } else if (lastPage) {
+                    finishChannel();
+                } else {
+                    exportPage(channel, messagesInRange.get(messagesInRange.size() - 1).getId());
+                }
+            });
+        });
+    }
+
+    /**
+     * Marks a channel as exported and starts the next one.
+     * Completes the export if this was the last channel.
+     */
+    private void finishChannel() {
+        TextChannel nextChannel;
+        synchronized (lock) {
+            activeChannels--;
+            nextChannel = startNextChannel();
+            if (nextChannel == null && activeChannels == 0) {
+                result.complete(null);
+            }
+        }
+        if (nextChannel != null) {
+            exportPage(nextChannel, range.getAfter());
+        }
+    }
+
+    /**
+     * Takes the next channel which should be exported and counts it as active.
+     *
+     * @return The next channel or {@code null} if there are no more channels or the export failed.
+     */
+    private TextChannel startNextChannel() {
+        synchronized (lock) {
+            if (result.isDone() || !remainingChannels.hasNext()) {
+                return null;
+            }
+            activeChannels++;
+            return remainingChannels.next();
+        }
+    }
+
+}
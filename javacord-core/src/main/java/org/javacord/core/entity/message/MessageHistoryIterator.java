@@ -0,0 +1,187 @@
+package org.javacord.core.entity.message;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+/**
+ * Iterates over the message history of a channel in one direction, page by page.
+ *
+ * <p>A page can only be requested after the previous one was received, because it starts at the last message of the
+ * previous page. Instead of waiting until a page is consumed, the next page is requested in the background as soon as
+ * the previous one was received, until the prefetch depth is reached. This keeps the requests going back to back while
+ * the messages are consumed.
+ *
+ * <p>The iterator must only be consumed by one thread at a time.
+ */
+class MessageHistoryIterator implements Iterator<JsonNode> {
+
+    /**
+     * The function which requests the page starting after the message with the given id.
+     */
+    private final LongFunction<CompletableFuture<List<JsonNode>>> pageRequester;
+
+    /**
+     * The amount of pages which are requested ahead of the page that is consumed.
+     */
+    private final int prefetchDepth;
+
+    /**
+     * The messages of the page which is consumed.
+     */
+    private final Deque<JsonNode> currentPage = new ArrayDeque<>();
+
+    /**
+     * The lock for the prefetched pages and the state of the requests.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The pages which were received, but are not consumed yet.
+     */
+    private final Deque<List<JsonNode>> prefetchedPages = new ArrayDeque<>();
+
+    /**
+     * The id of the message at which the next page starts.
+     */
+    private long referenceMessageId;
+
+    /**
+     * Whether a page is currently requested.
+     */
+    private boolean requestInProgress = false;
+
+    /**
+     * Whether there are no more messages in the history.
+     */
+    private boolean exhausted = false;
+
+    /**
+     * The exception of a failed request.
+     */
+    private Throwable failure = null;
+
+    /**
+     * Creates a new message history iterator.
+     * Nothing is requested before the iterator is used for the first time.
+     *
+     * @param referenceMessageId The id of the message at which the first page starts or {@code -1}.
+     * @param prefetchDepth The amount of pages which are requested ahead of the page that is consumed.
+     * @param pageRequester The function which requests the page starting after the message with the given id. The
+     *                      messages of a page must be sorted in the direction of the iteration.
+     */
+    MessageHistoryIterator(long referenceMessageId, int prefetchDepth,
+                           LongFunction<CompletableFuture<List<JsonNode>>> pageRequester) {
+        this.referenceMessageId = referenceMessageId;
+        this.prefetchDepth = prefetchDepth;
+        this.pageRequester = pageRequester;
+    }
+
+    /**
+     * Gets the next message without consuming it.
+     *
+     * @return The next message.
+     * @throws NoSuchElementException If there are no more messages.
+     */
+    JsonNode peek() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.peekFirst();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!currentPage.isEmpty()) {
+            return true;
+        }
+        synchronized (lock) {
+            while (true) {
+                List<JsonNode> page = prefetchedPages.pollFirst();
+                if (page != null) {
+                    currentPage.addAll(page);
+                    prefetch();
+                    return true;
+                }
+                if (failure != null) {
+                    throw failure instanceof CompletionException
+                            ? (CompletionException) failure
+                            : new CompletionException(failure);
+                }
+                if (exhausted) {
+                    return false;
+                }
+                requestNextPage();
+                if (!requestInProgress) {
+                    // The request was already completed
+                    continue;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.pollFirst();
+    }
+
+    /**
+     * Requests the next page if less pages than the prefetch depth are available.
+     * Must only be called while holding the {@link #lock}.
+     */
+    private void prefetch() {
+        if (prefetchedPages.size() < prefetchDepth) {
+            requestNextPage();
+        }
+    }
+
+    /**
+     * Requests the next page, unless a page is already requested or there are no more pages.
+     * Must only be called while holding the {@link #lock}.
+     */
+    private void requestNextPage() {
+        if (requestInProgress || exhausted || failure != null) {
+            return;
+        }
+        requestInProgress = true;
+        CompletableFuture<List<JsonNode>> request;
+        try {
+            request = pageRequester.apply(referenceMessageId);
+        } catch (Throwable t) {
+            request = new CompletableFuture<>();
+            request.completeExceptionally(t);
+        }
+        request.whenComplete((page, throwable) -> {
+            synchronized (lock) {
+                requestInProgress = false;
+                if (throwable != null) {
+                    failure = throwable;
+                } else if (page.isEmpty()) {
+                    exhausted = true;
+                } else {
+                    referenceMessageId = page.get(page.size() - 1).get("id").asLong();
+                    prefetchedPages.addLast(page);
+                    prefetch();
+                }
+                lock.notifyAll();
+            }
+        });
+    }
+
+}
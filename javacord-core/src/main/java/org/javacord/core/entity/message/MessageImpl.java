@@ -218,10 +218,10 @@ public class MessageImpl implements Message, InternalMessageAttachableListenerMa
 
         position = data.hasNonNull("position") ? data.get("position").asInt() : null;
 
-        setUpdatableFields(data);
+        applyUpdatableFields(data);
 
         MessageCacheImpl cache = (MessageCacheImpl) channel.getMessageCache();
-        cache.addMessage(this);
+        cache.addMessage(this, data);
     }
 
     /**
@@ -302,6 +302,16 @@ public class MessageImpl implements Message, InternalMessageAttachableListenerMa
      * @param data The json data of the message.
      */
     public void setUpdatableFields(JsonNode data) {
+        applyUpdatableFields(data);
+        ((MessageCacheImpl) channel.getMessageCache()).updateMessage(this, data);
+    }
+
+    /**
+     * Applies the updatable fields of the given data to the message.
+     *
+     * @param data The json data of the message.
+     */
+    private void applyUpdatableFields(JsonNode data) {
         if (data.has("content")) {
             content = data.get("content").asText("");
         }
@@ -410,6 +420,7 @@ public class MessageImpl implements Message, InternalMessageAttachableListenerMa
         if (!reaction.isPresent()) {
             reactions.add(new ReactionImpl(this, emoji, 1, you));
         }
+        ((MessageCacheImpl) channel.getMessageCache()).retainMessageObject(this);
     }
 
     /**
@@ -422,6 +433,7 @@ public class MessageImpl implements Message, InternalMessageAttachableListenerMa
         Optional<Reaction> reaction = reactions.stream().filter(r -> emoji.equalsEmoji(r.getEmoji())).findAny();
         reaction.ifPresent(r -> ((ReactionImpl) r).decrementCount(you));
         reactions.removeIf(r -> r.getCount() <= 0);
+        ((MessageCacheImpl) channel.getMessageCache()).retainMessageObject(this);
     }
 
     /**
@@ -429,6 +441,7 @@ public class MessageImpl implements Message, InternalMessageAttachableListenerMa
      */
     public void removeAllReactionsFromCache() {
         reactions.clear();
+        ((MessageCacheImpl) channel.getMessageCache()).retainMessageObject(this);
     }
 
     @Override
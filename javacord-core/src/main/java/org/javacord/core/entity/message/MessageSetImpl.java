@@ -23,7 +23,6 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -263,43 +262,19 @@ public class MessageSetImpl implements MessageSet {
      * @see #getMessages(TextChannel, int, long, long)
      */
     private static Stream<Message> getMessagesAsStream(TextChannel channel, long before, long after) {
+        DiscordApiImpl api = (DiscordApiImpl) channel.getApi();
+        // before was set or both were not set
+        boolean older = (before != -1) || (after == -1);
+        Iterator<JsonNode> messageJsons = createHistoryIterator(channel, older ? before : after, older);
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Iterator<Message>() {
-            private final DiscordApiImpl api = ((DiscordApiImpl) channel.getApi());
-            // before was set or both were not set
-            private final boolean older = (before != -1) || (after == -1);
-            private final boolean newer = after != -1;
-            private long referenceMessageId = older ? before : after;
-            private final List<JsonNode> messageJsons = Collections.synchronizedList(new ArrayList<>());
-
-            private void ensureMessagesAvailable() {
-                if (messageJsons.isEmpty()) {
-                    synchronized (messageJsons) {
-                        if (messageJsons.isEmpty()) {
-                            messageJsons.addAll(requestAsSortedJsonNodes(
-                                    channel,
-                                    100,
-                                    older ? referenceMessageId : -1,
-                                    newer ? referenceMessageId : -1,
-                                    older
-                            ));
-                            if (!messageJsons.isEmpty()) {
-                                referenceMessageId = messageJsons.get(messageJsons.size() - 1).get("id").asLong();
-                            }
-                        }
-                    }
-                }
-            }
-
             @Override
             public boolean hasNext() {
-                ensureMessagesAvailable();
-                return !messageJsons.isEmpty();
+                return messageJsons.hasNext();
             }
 
             @Override
             public Message next() {
-                ensureMessagesAvailable();
-                return api.getOrCreateMessage(channel, messageJsons.remove(0));
+                return api.getOrCreateMessage(channel, messageJsons.next());
             }
         }, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT), false);
     }
@@ -562,76 +537,29 @@ public class MessageSetImpl implements MessageSet {
      * @see #getMessagesAround(TextChannel, int, long)
      */
     public static Stream<Message> getMessagesAroundAsStream(TextChannel channel, long around) {
+        DiscordApiImpl api = (DiscordApiImpl) channel.getApi();
+        MessageHistoryIterator olderMessageJsons = createHistoryIterator(channel, around, true);
+        MessageHistoryIterator newerMessageJsons = createHistoryIterator(channel, around - 1, false);
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Iterator<Message>() {
-            private final DiscordApiImpl api = ((DiscordApiImpl) channel.getApi());
-            private final AtomicBoolean firstBatch = new AtomicBoolean(true);
-            private final AtomicBoolean nextIsOlder = new AtomicBoolean();
-            private long olderReferenceMessageId = around;
-            private long newerReferenceMessageId = around - 1;
-            private final List<JsonNode> olderMessageJsons = Collections.synchronizedList(new ArrayList<>());
-            private final List<JsonNode> newerMessageJsons = Collections.synchronizedList(new ArrayList<>());
-            private final AtomicBoolean hasMoreOlderMessages = new AtomicBoolean(true);
-            private final AtomicBoolean hasMoreNewerMessages = new AtomicBoolean(true);
-
-            private void ensureMessagesAvailable() {
-                if (olderMessageJsons.isEmpty() && hasMoreOlderMessages.get()) {
-                    synchronized (olderMessageJsons) {
-                        if (olderMessageJsons.isEmpty() && hasMoreOlderMessages.get()) {
-                            olderMessageJsons.addAll(requestAsSortedJsonNodes(
-                                    channel,
-                                    100,
-                                    olderReferenceMessageId,
-                                    -1,
-                                    true
-                            ));
-                            if (olderMessageJsons.isEmpty()) {
-                                hasMoreOlderMessages.set(false);
-                            } else {
-                                olderReferenceMessageId =
-                                        olderMessageJsons.get(olderMessageJsons.size() - 1).get("id").asLong();
-                            }
-                        }
-                    }
-                }
-                if (newerMessageJsons.isEmpty() && hasMoreNewerMessages.get()) {
-                    synchronized (newerMessageJsons) {
-                        if (newerMessageJsons.isEmpty() && hasMoreNewerMessages.get()) {
-                            newerMessageJsons.addAll(requestAsSortedJsonNodes(
-                                    channel,
-                                    100,
-                                    -1,
-                                    newerReferenceMessageId,
-                                    false
-                            ));
-                            if (newerMessageJsons.isEmpty()) {
-                                hasMoreNewerMessages.set(false);
-                            } else {
-                                newerReferenceMessageId =
-                                        newerMessageJsons.get(newerMessageJsons.size() - 1).get("id").asLong();
-                                if (firstBatch.getAndSet(false)) {
-                                    nextIsOlder.set(newerMessageJsons.get(0).get("id").asLong() != around);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            private Boolean nextIsOlder = null;
 
             @Override
             public boolean hasNext() {
-                ensureMessagesAvailable();
-                return !(olderMessageJsons.isEmpty() && newerMessageJsons.isEmpty());
+                return olderMessageJsons.hasNext() || newerMessageJsons.hasNext();
             }
 
             @Override
             public Message next() {
-                ensureMessagesAvailable();
-                boolean nextIsOlder = this.nextIsOlder.get();
-                this.nextIsOlder.set(!nextIsOlder);
-                JsonNode messageJson =
-                        ((nextIsOlder && !olderMessageJsons.isEmpty()) || newerMessageJsons.isEmpty())
-                        ? olderMessageJsons.remove(0)
-                        : newerMessageJsons.remove(0);
+                if (nextIsOlder == null) {
+                    // Start with the newer messages if the first one is the given message
+                    nextIsOlder = newerMessageJsons.hasNext()
+                            && newerMessageJsons.peek().get("id").asLong() != around;
+                }
+                boolean nextIsOlder = this.nextIsOlder;
+                this.nextIsOlder = !nextIsOlder;
+                JsonNode messageJson = ((nextIsOlder && olderMessageJsons.hasNext()) || !newerMessageJsons.hasNext())
+                        ? olderMessageJsons.next()
+                        : newerMessageJsons.next();
                 return api.getOrCreateMessage(channel, messageJson);
             }
         }, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT), false);
@@ -756,10 +684,12 @@ public class MessageSetImpl implements MessageSet {
      */
     private static MessageSet requestAsMessages(TextChannel channel, int limit, long before, long after) {
         DiscordApiImpl api = (DiscordApiImpl) channel.getApi();
-        return new MessageSetImpl(
-                requestAsJsonNodes(channel, limit, before, after).stream()
-                        .map(jsonNode -> api.getOrCreateMessage(channel, jsonNode))
-                        .collect(Collectors.toList()));
+        RestRequest<MessageSet> restRequest = createMessagesRequest(channel, limit, before, after);
+        return restRequest.executeStreaming(result -> {
+            List<Message> messages = new ArrayList<>();
+            result.readJsonArray(jsonNode -> messages.add(api.getOrCreateMessage(channel, jsonNode)));
+            return new MessageSetImpl(messages);
+        }).join();
     }
 
     /**
@@ -772,26 +702,64 @@ public class MessageSetImpl implements MessageSet {
      * @param reversed If {@code true}, get from oldest to newest, otherwise from newest to oldest.
      * @return The JSON nodes.
      */
-    private static List<JsonNode> requestAsSortedJsonNodes(
+    private static CompletableFuture<List<JsonNode>> requestAsSortedJsonNodes(
             TextChannel channel, int limit, long before, long after, boolean reversed) {
-        List<JsonNode> messageJsonNodes = requestAsJsonNodes(channel, limit, before, after);
         Comparator<JsonNode> idComparator = Comparator.comparingLong(jsonNode -> jsonNode.get("id").asLong());
-        messageJsonNodes.sort(reversed ? idComparator.reversed() : idComparator);
-        return messageJsonNodes;
+        RestRequest<List<JsonNode>> restRequest = createMessagesRequest(channel, limit, before, after);
+        return restRequest.executeStreaming(result -> {
+            List<JsonNode> messageJsonNodes = new ArrayList<>();
+            result.readJsonArray(messageJsonNodes::add);
+            messageJsonNodes.sort(reversed ? idComparator.reversed() : idComparator);
+            return messageJsonNodes;
+        });
     }
 
     /**
-     * Requests the messages from Discord.
+     * Requests a page of up to 100 messages after the message with the given id, sorted from oldest to newest.
+     *
+     * @param channel The channel of which to get messages from.
+     * @param after Get messages after the message with this id.
+     * @return The messages.
+     */
+    static CompletableFuture<List<Message>> requestPageAfter(TextChannel channel, long after) {
+        DiscordApiImpl api = (DiscordApiImpl) channel.getApi();
+        return requestAsSortedJsonNodes(channel, 100, -1, after, false)
+                .thenApply(messageJsonNodes -> messageJsonNodes.stream()
+                        .map(jsonNode -> api.getOrCreateMessage(channel, jsonNode))
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Creates an iterator over the message history of a channel which prefetches the pages of messages according
+     * to the {@link DiscordApiImpl#getMessageHistoryPrefetchDepth() prefetch depth} of the api.
+     *
+     * @param channel The channel of the messages.
+     * @param referenceMessageId The id of the message at which the history starts or {@code -1} to start at the
+     *                           newest message.
+     * @param older If {@code true}, iterate from newest to oldest, otherwise from oldest to newest.
+     * @return The iterator over the JSON nodes of the messages.
+     */
+    private static MessageHistoryIterator createHistoryIterator(
+            TextChannel channel, long referenceMessageId, boolean older) {
+        return new MessageHistoryIterator(
+                referenceMessageId,
+                channel.getApi().getMessageHistoryPrefetchDepth(),
+                reference -> requestAsSortedJsonNodes(
+                        channel, 100, older ? reference : -1, older ? -1 : reference, older));
+    }
+
+    /**
+     * Creates a request for the messages of a channel.
      *
      * @param channel The channel of which to get messages from.
      * @param limit The limit of messages to get.
      * @param before Get messages before the message with this id.
      * @param after Get messages after the message with this id.
-     * @return The JSON nodes.
+     * @param <T> The type of the result of the request.
+     * @return The request.
      */
-    private static List<JsonNode> requestAsJsonNodes(TextChannel channel, int limit, long before, long after) {
-        RestRequest<List<JsonNode>> restRequest =
-                new RestRequest<List<JsonNode>>(channel.getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
+    private static <T> RestRequest<T> createMessagesRequest(TextChannel channel, int limit, long before, long after) {
+        RestRequest<T> restRequest = new RestRequest<T>(channel.getApi(), RestMethod.GET, RestEndpoint.MESSAGE)
                 .setUrlParameters(channel.getIdAsString());
 
         if (limit != -1) {
@@ -803,12 +771,7 @@ public class MessageSetImpl implements MessageSet {
         if (after != -1) {
             restRequest.addQueryParameter("after", Long.toUnsignedString(after));
         }
-
-        return restRequest.execute(result -> {
-            List<JsonNode> messageJsonNodes = new ArrayList<>();
-            result.getJsonBody().iterator().forEachRemaining(messageJsonNodes::add);
-            return messageJsonNodes;
-        }).join();
+        return restRequest;
     }
 
     @Override
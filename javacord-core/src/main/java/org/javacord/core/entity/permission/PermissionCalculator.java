@@ -0,0 +1,111 @@
+package org.javacord.core.entity.permission;
+
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.entity.permission.Permissions;
+import org.javacord.api.entity.permission.Role;
+
+import java.util.Collection;
+
+/**
+ * Calculates the permissions of users on the raw bitmasks of roles and permission overwrites.
+ *
+ * <p>The calculation follows the same order as the client: the base permissions are the union of the permissions of
+ * all roles, then the overwrites of the @everyone role, the overwrites of the other roles of the user and finally the
+ * overwrites of the user itself are applied. Bits that don't belong to a known {@link PermissionType} are ignored.
+ */
+public final class PermissionCalculator {
+
+    /**
+     * A bitmask with all known permission types.
+     */
+    public static final long ALL_PERMISSIONS;
+
+    static {
+        long allPermissions = 0;
+        for (PermissionType type : PermissionType.values()) {
+            allPermissions |= type.getValue();
+        }
+        ALL_PERMISSIONS = allPermissions;
+    }
+
+    private PermissionCalculator() {
+        throw new UnsupportedOperationException("You cannot create an instance of this class");
+    }
+
+    /**
+     * Calculates the base permissions of a user in a server.
+     *
+     * @param owner Whether the user is the owner of the server.
+     * @param roles The roles of the user, including the @everyone role.
+     * @return The bitmask with the allowed permissions.
+     */
+    public static long calculateBasePermissions(boolean owner, Collection<Role> roles) {
+        if (owner) {
+            return ALL_PERMISSIONS;
+        }
+        long allowed = 0;
+        for (Role role : roles) {
+            allowed |= role.getPermissions().getAllowedBitmask();
+        }
+        return allowed & ALL_PERMISSIONS;
+    }
+
+    /**
+     * Calculates the effective overwritten permissions of a user in a channel.
+     *
+     * <p>The denied permissions of all roles are applied before their allowed permissions, so a permission that is
+     * allowed by any role of the user wins over a permission that is denied by another role.
+     *
+     * @param everyoneOverwrites The overwrites of the @everyone role.
+     * @param roleOverwrites The overwrites of the other roles of the user.
+     * @param userOverwrites The overwrites of the user.
+     * @return The effective overwritten permissions.
+     */
+    public static Permissions calculateOverwrittenPermissions(Permissions everyoneOverwrites,
+                                                              Collection<Permissions> roleOverwrites,
+                                                              Permissions userOverwrites) {
+        long allowed = everyoneOverwrites.getAllowedBitmask();
+        long denied = everyoneOverwrites.getDeniedBitmask() & ~allowed;
+
+        long roleAllowed = 0;
+        long roleDenied = 0;
+        for (Permissions overwrites : roleOverwrites) {
+            roleAllowed |= overwrites.getAllowedBitmask();
+            roleDenied |= overwrites.getDeniedBitmask() & ~overwrites.getAllowedBitmask();
+        }
+        allowed = (allowed & ~roleDenied) | roleAllowed;
+        denied = (denied | roleDenied) & ~roleAllowed;
+
+        allowed = (allowed & ~userOverwrites.getDeniedBitmask()) | userOverwrites.getAllowedBitmask();
+        denied = (denied | userOverwrites.getDeniedBitmask()) & ~userOverwrites.getAllowedBitmask();
+
+        return new PermissionsImpl(allowed & ALL_PERMISSIONS, denied & ALL_PERMISSIONS);
+    }
+
+    /**
+     * Applies the effective overwritten permissions of a user to its base permissions.
+     *
+     * @param basePermissions The bitmask with the base permissions.
+     * @param overwrittenPermissions The effective overwritten permissions.
+     * @return The bitmask with the allowed permissions.
+     */
+    public static long applyOverwrites(long basePermissions, Permissions overwrittenPermissions) {
+        return ((basePermissions & ~overwrittenPermissions.getDeniedBitmask())
+                | overwrittenPermissions.getAllowedBitmask()) & ALL_PERMISSIONS;
+    }
+
+    /**
+     * Calculates a bitmask with the given permission types.
+     *
+     * @param types The permission types.
+     * @return The bitmask with the given permission types.
+     */
+    public static long toBitmask(PermissionType... types) {
+        long bitmask = 0;
+        for (PermissionType type : types) {
+            bitmask |= type.getValue();
+        }
+        return bitmask;
+    }
+
+}
@@ -32,6 +32,8 @@ import org.javacord.api.entity.channel.UnknownRegularServerChannel;
 import org.javacord.api.entity.channel.UnknownServerChannel;
 import org.javacord.api.entity.emoji.KnownCustomEmoji;
 import org.javacord.api.entity.intent.Intent;
+import org.javacord.api.entity.permission.PermissionType;
+import org.javacord.api.entity.permission.Permissions;
 import org.javacord.api.entity.permission.Role;
 import org.javacord.api.entity.server.ActiveThreads;
 import org.javacord.api.entity.server.Ban;
@@ -69,6 +71,8 @@ import org.javacord.core.entity.channel.ServerThreadChannelImpl;
 import org.javacord.core.entity.channel.ServerVoiceChannelImpl;
 import org.javacord.core.entity.channel.UnknownRegularServerChannelImpl;
 import org.javacord.core.entity.channel.UnknownServerChannelImpl;
+import org.javacord.core.entity.permission.PermissionCalculator;
+import org.javacord.core.entity.permission.PermissionsImpl;
 import org.javacord.core.entity.permission.RoleImpl;
 import org.javacord.core.entity.server.invite.InviteImpl;
 import org.javacord.core.entity.server.invite.WelcomeScreenImpl;
@@ -108,6 +112,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -152,6 +157,11 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      */
     private volatile long ownerId;
 
+    /**
+     * The version of the cached permissions of the server. Incremented whenever cached permissions become outdated.
+     */
+    private final AtomicLong permissionVersion = new AtomicLong();
+
     /**
      * The application id of the owner.
      */
@@ -745,6 +755,26 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
         this.ownerId = ownerId;
     }
 
+    /**
+     * Gets the version of the cached permissions of the server.
+     *
+     * <p>Permissions that were calculated with an older version are outdated and must not be used anymore.
+     *
+     * @return The version of the cached permissions.
+     */
+    public long getPermissionVersion() {
+        return permissionVersion.get();
+    }
+
+    /**
+     * Invalidates all cached permissions of the server.
+     *
+     * <p>Must be called after roles, members, the owner or permission overwrites of the server changed.
+     */
+    public void invalidateCachedPermissions() {
+        permissionVersion.incrementAndGet();
+    }
+
     /**
      * Sets the application id.
      *
@@ -969,6 +999,7 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      */
     public void removeMember(long userId) {
         api.removeMemberFromCache(userId, getId());
+        invalidateCachedPermissions();
     }
 
     /**
@@ -987,7 +1018,15 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
     public MemberImpl addMember(JsonNode memberJson) {
         MemberImpl member = new MemberImpl(api, this, memberJson, null);
         api.addMemberToCacheOrReplaceExisting(member);
+        invalidateCachedPermissions();
+        checkIfAllMembersAreCached();
+        return member;
+    }
 
+    /**
+     * Marks the server as ready and notifies the ready consumers once all members are cached.
+     */
+    private void checkIfAllMembersAreCached() {
         synchronized (readyConsumers) {
             if (!ready && getRealMembers().size() == getMemberCount()) {
                 ready = true;
@@ -995,7 +1034,6 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
                 readyConsumers.clear();
             }
         }
-        return member;
     }
 
     /**
@@ -1011,23 +1049,26 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      * @param membersJson An array of guild member objects.
      */
     public void addMembers(JsonNode membersJson) {
-        for (JsonNode memberJson : membersJson) {
-            addMember(memberJson);
-        }
+        addAndGetMembers(membersJson);
     }
 
     /**
      * Adds members to the server and returns the added members.
      *
+     * <p>All members are added to the cache at once and it's only checked once afterwards if all members of the
+     * server are cached.
+     *
      * @param membersJson An array of guild member objects.
      * @return The added members.
      */
     public List<Member> addAndGetMembers(JsonNode membersJson) {
-        List<Member> members = new ArrayList<>();
+        List<Member> members = new ArrayList<>(membersJson.size());
         for (JsonNode memberJson : membersJson) {
-            Member member = addMember(memberJson);
-            members.add(member);
+            members.add(new MemberImpl(api, this, memberJson, null));
         }
+        api.addMembersToCache(members);
+        invalidateCachedPermissions();
+        checkIfAllMembersAreCached();
         return members;
     }
 
@@ -1604,6 +1645,42 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
                                 .map(Member::getRoles).orElseGet(Collections::emptyList));
     }
 
+    /**
+     * Gets the bitmask with the allowed permissions of the given user.
+     *
+     * @param user The user.
+     * @return The bitmask with the allowed permissions.
+     */
+    public long getAllowedPermissionsBitmask(User user) {
+        return PermissionCalculator.calculateBasePermissions(isOwner(user), getRoles(user));
+    }
+
+    @Override
+    public Permissions getPermissions(User user) {
+        return new PermissionsImpl(getAllowedPermissionsBitmask(user), 0);
+    }
+
+    @Override
+    public Set<PermissionType> getAllowedPermissions(User user) {
+        return getPermissions(user).getAllowedPermission();
+    }
+
+    @Override
+    public boolean hasPermissions(User user, PermissionType... type) {
+        long bitmask = PermissionCalculator.toBitmask(type);
+        return (getAllowedPermissionsBitmask(user) & bitmask) == bitmask;
+    }
+
+    @Override
+    public boolean hasAnyPermission(User user, PermissionType... type) {
+        return (getAllowedPermissionsBitmask(user) & PermissionCalculator.toBitmask(type)) != 0;
+    }
+
+    @Override
+    public boolean hasPermission(User user, PermissionType permission) {
+        return (getAllowedPermissionsBitmask(user) & permission.getValue()) != 0;
+    }
+
     @Override
     public boolean isWidgetEnabled() {
         return widgetEnabled;
@@ -1800,11 +1877,9 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
             request.addQueryParameter("after", String.valueOf(after));
         }
 
-        return request.execute(result -> {
+        return request.executeStreaming(result -> {
             Set<Ban> bans = new HashSet<>();
-            for (JsonNode ban : result.getJsonBody()) {
-                bans.add(new BanImpl(this, ban));
-            }
+            result.readJsonArray(ban -> bans.add(new BanImpl(this, ban)));
             return Collections.unmodifiableSet(bans);
         });
     }
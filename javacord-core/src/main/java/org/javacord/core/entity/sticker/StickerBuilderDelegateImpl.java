@@ -1,8 +1,6 @@
 package org.javacord.core.entity.sticker;
 
-import okhttp3.MediaType;
 import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.Javacord;
 import org.javacord.api.entity.sticker.Sticker;
@@ -19,7 +17,6 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -108,19 +105,12 @@ public class StickerBuilderDelegateImpl implements StickerBuilderDelegate {
             throw new IllegalStateException("The file must be an image.");
         }
 
-        String mediaType = URLConnection
-                .guessContentTypeFromName(container.getFileTypeOrName());
-        if (mediaType == null) {
-            mediaType = "application/octet-stream";
-        }
-
         MultipartBody multipartBody = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
                 .addFormDataPart("name", name)
                 .addFormDataPart("description", description)
                 .addFormDataPart("tags", tags)
-                .addFormDataPart("file", file.getName(),
-                        RequestBody.create(MediaType.parse(mediaType), container.asByteArray(api).join()))
+                .addFormDataPart("file", file.getName(), container.asRequestBody(api))
                 .build();
 
         return new RestRequest<Sticker>(api, RestMethod.POST, RestEndpoint.SERVER_STICKER)
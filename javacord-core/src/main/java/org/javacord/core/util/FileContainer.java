@@ -1,9 +1,15 @@
 package org.javacord.core.util;
 
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
-import org.javacord.api.Javacord;
 import org.javacord.api.entity.Icon;
+import org.javacord.core.DiscordApiImpl;
+import org.javacord.core.util.http.BufferedImageRequestBody;
+import org.javacord.core.util.http.FileRequestBody;
+import org.javacord.core.util.http.InputStreamRequestBody;
+import org.javacord.core.util.http.UrlRequestBody;
 import org.javacord.core.util.io.FileUtils;
 import org.javacord.core.util.logging.LoggerUtil;
 
@@ -18,8 +24,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
-import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -357,11 +363,11 @@ public class FileContainer {
                 future.complete(fileAsByteArray);
                 return future;
             }
-            if (fileAsBufferedImage != null
-                    || fileAsFile != null
-                    || fileAsIcon != null
-                    || fileAsUrl != null
-                    || fileAsInputStream != null) {
+            if (fileAsIcon != null || fileAsUrl != null) {
+                URL url = fileAsUrl == null ? fileAsIcon.getUrl() : fileAsUrl;
+                return ((DiscordApiImpl) api).getCdnFetcher().fetch(url);
+            }
+            if (fileAsBufferedImage != null || fileAsFile != null || fileAsInputStream != null) {
                 api.getThreadPool().getExecutorService().submit(() -> {
                     try (
                             InputStream in = new BufferedInputStream(asInputStream(api));
@@ -386,6 +392,37 @@ public class FileContainer {
         return future;
     }
 
+    /**
+     * Gets the file as a request body for multipart uploads.
+     *
+     * <p>Files, urls and images are streamed into the request every time it is sent, so they are never loaded into
+     * memory as a whole. Input streams are read once, because they cannot be read again if the request is retried.
+     *
+     * @param api The discord api instance, used to download urls.
+     * @return The request body of the file.
+     */
+    public RequestBody asRequestBody(DiscordApi api) {
+        String mediaTypeString = URLConnection.guessContentTypeFromName(getFileTypeOrName());
+        MediaType mediaType = MediaType.parse(mediaTypeString == null ? "application/octet-stream" : mediaTypeString);
+        if (fileAsByteArray != null) {
+            return RequestBody.create(fileAsByteArray, mediaType);
+        }
+        if (fileAsFile != null) {
+            return new FileRequestBody(fileAsFile, mediaType);
+        }
+        if (fileAsIcon != null || fileAsUrl != null) {
+            return new UrlRequestBody(((DiscordApiImpl) api).getCdnFetcher(),
+                    fileAsUrl == null ? fileAsIcon.getUrl() : fileAsUrl, mediaType);
+        }
+        if (fileAsBufferedImage != null) {
+            return new BufferedImageRequestBody(fileAsBufferedImage, getFileType(), mediaType);
+        }
+        if (fileAsInputStream != null) {
+            return new InputStreamRequestBody(fileAsInputStream, mediaType);
+        }
+        throw new IllegalStateException("No file variant is set");
+    }
+
     /**
      * Gets the input stream for the file.
      *
@@ -412,11 +449,7 @@ public class FileContainer {
         }
         if (fileAsIcon != null || fileAsUrl != null) {
             URL url = fileAsUrl == null ? fileAsIcon.getUrl() : fileAsUrl;
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-            conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-            return conn.getInputStream();
+            return ((DiscordApiImpl) api).getCdnFetcher().openStream(url);
         }
         if (fileAsByteArray != null) {
             return new ByteArrayInputStream(fileAsByteArray);
@@ -1,58 +1,54 @@
 package org.javacord.core.util.cache;
 
-import io.vavr.collection.HashMap;
-import io.vavr.collection.HashSet;
-import io.vavr.collection.Map;
 import io.vavr.collection.Set;
+import org.javacord.api.util.cache.EntityCacheBackend;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Function;
 
 /**
- * An immutable cache, optionally with indexes.
+ * A cache, optionally with indexes.
  *
  * <p>The cache can store any elements and supports indexes to quickly access a subset of elements by a specific
- * criteria (the "key") with an effective (assuming an even distribution of hash keys) time-complexity of {@code O(1)}.
+ * criteria (the "key").
  *
- * <p>Ideally, the cache is only filled with immutable elements, but it also supports mutable objects.
- * However, for mutable objects, the {@link #updateIndexesOfElement(Object)} methods should be called every time an
- * element update changes the key for this element for one of the indexes.
+ * <p>All modifying methods return the cache that contains the modification. Depending on the implementation, this is
+ * either a new instance ({@link ImmutableCache}) or the very same instance that was modified in place
+ * ({@link ConcurrentCache}). Callers must therefore always continue to work with the returned cache.
  *
  * @param <T> The type of the elements in the cache.
  */
-public class Cache<T> {
+public interface Cache<T> {
 
     /**
-     * All elements in the cache.
-     */
-    private final Set<T> elements;
-
-    /**
-     * A map with all indexes.
+     * Gets an empty immutable cache with no elements and no indexes.
      *
-     * <p>The map's key is the index name and the value is the index itself.
-     */
-    private final Map<String, Index<Object, T>> indexes;
-
-    /**
-     * Creates a new cache.
-     *
-     * @param elements The elements in the cache.
-     * @param indexes The indexes.
+     * @param <T> The type of the elements in the cache.
+     * @return An empty element cache.
      */
-    private Cache(Set<T> elements, Map<String, Index<Object, T>> indexes) {
-        this.elements = elements;
-        this.indexes = indexes;
+    static <T> Cache<T> empty() {
+        return ImmutableCache.empty();
     }
 
     /**
-     * Gets an empty cache with no elements and no indexes.
+     * Gets an empty cache with no elements and no indexes for the given backend.
      *
+     * <p>Mutable backends always return a new instance, so it's safe to modify the returned cache.
+     *
+     * @param backend The backend of the cache.
      * @param <T> The type of the elements in the cache.
      * @return An empty element cache.
      */
-    public static <T> Cache<T> empty() {
-        return new Cache<>(HashSet.empty(), HashMap.empty());
+    static <T> Cache<T> empty(EntityCacheBackend backend) {
+        switch (backend) {
+            case IMMUTABLE:
+                return ImmutableCache.empty();
+            case CONCURRENT:
+                return new ConcurrentCache<>();
+            default:
+                throw new IllegalArgumentException("Unknown entity cache backend " + backend);
+        }
     }
 
     /**
@@ -64,119 +60,90 @@ public class Cache<T> {
      * <p>Compound indexes can easily be achieved by using a {@link io.vavr.Tuple} or {@link io.vavr.collection.Seq}
      * with all keys as the return value of the mapping function.
      *
-     * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
-     *
      * @param indexName The name of the index.
      * @param mappingFunction A function to map elements to their key.
      *                        The function is allowed to return {@code null} which means that the element will not be
      *                        included in the index.
-     * @return The new cache with the added index.
+     * @return The cache with the added index.
      * @throws IllegalStateException If the cache already has an index with the given name.
      */
-    public Cache<T> addIndex(String indexName, Function<T, Object> mappingFunction) {
-        if (indexes.containsKey(indexName)) {
-            throw new IllegalStateException("The cache already has an index with name " + indexName);
-        }
-        Index<Object, T> index = new Index<>(mappingFunction);
-        for (T element : elements) {
-            index = index.addElement(element);
-        }
-        Map<String, Index<Object, T>> newIndexes = indexes.put(indexName, index);
-        return new Cache<>(elements, newIndexes);
-    }
+    Cache<T> addIndex(String indexName, Function<T, Object> mappingFunction);
 
     /**
      * Adds an element to the cache.
      *
-     * <p>This method has an effective time complexity of {@code O(1)} regarding the amount of elements already in the
-     * cache and a time complexity of {@code O(n)} regarding the amount of indexes in the cache (assuming the index's
-     * mapping function has an effective complexity of {@code O(1)}).
-     *
      * @param element The element to add.
-     * @return The new cache after adding the element.
+     * @return The cache after adding the element.
      */
-    public Cache<T> addElement(T element) {
-        Set<T> newElements = elements.add(element);
-        Map<String, Index<Object, T>> newIndexes = indexes.mapValues(index -> index.addElement(element));
-        return new Cache<>(newElements, newIndexes);
-    }
+    Cache<T> addElement(T element);
 
     /**
      * Removes an element from the cache.
      *
-     * <p>This method has an effective time complexity of {@code O(1)} regarding the amount of elements already in the
-     * cache and a time complexity of {@code O(n)} regarding the amount of indexes in the cache.
-     *
      * @param element The element to remove.
-     * @return The new cache after removing the element.
+     * @return The cache after removing the element.
      */
-    public Cache<T> removeElement(T element) {
-        Set<T> newElements = elements.remove(element);
-        Map<String, Index<Object, T>> newIndexes = indexes.mapValues(index -> index.removeElement(element));
-        return new Cache<>(newElements, newIndexes);
-    }
+    Cache<T> removeElement(T element);
+
+    /**
+     * Adds multiple elements to the cache.
+     *
+     * <p>Compared to calling {@link #addElement(Object)} for every element, this rebuilds every index only once.
+     *
+     * @param elements The elements to add.
+     * @return The cache after adding the elements.
+     */
+    Cache<T> addElements(Collection<? extends T> elements);
+
+    /**
+     * Removes multiple elements from the cache.
+     *
+     * <p>Compared to calling {@link #removeElement(Object)} for every element, this rebuilds every index only once.
+     *
+     * @param elements The elements to remove.
+     * @return The cache after removing the elements.
+     */
+    Cache<T> removeElements(Collection<? extends T> elements);
 
     /**
      * Updates the indexes of the cache for the given element.
      *
      * <p>The update method should be called every time an element's mutation changes the key of one of the indexes.
-     * Ideally the {@code IndexedCache} is only filled with immutable elements which would make this method obsolete.
-     *
-     * <p>This method has an effective time complexity of {@code O(1)} regarding the amount of elements already in the
-     * cache and a time complexity of {@code O(n)} regarding the amount of indexes in the cache (assuming the index's
-     * mapping function has an effective complexity of {@code O(1)}).
      *
      * @param element The element of which the values did change.
-     * @return The new cache after updating the element.
+     * @return The cache after updating the element.
      */
-    public Cache<T> updateIndexesOfElement(T element) {
-        if (!elements.contains(element)) {
-            return this;
-        }
-        return removeElement(element).addElement(element);
-    }
+    Cache<T> updateIndexesOfElement(T element);
 
     /**
      * Gets all elements in the cache.
      *
-     * <p>This method has a time complexity of {@code O(1)}.
+     * <p>The returned set is never modified by later changes to the cache.
      *
      * @return All elements in the cache.
      */
-    public Set<T> getAll() {
-        return elements;
-    }
+    Set<T> getAll();
 
     /**
      * Gets any element in the cache that has the given key.
      *
-     * <p>This method has an effective time complexity of {@code O(1)}.
-     *
      * @param indexName The name of the index.
      * @param key The key of the element.
      * @return An element with the given key.
      * @throws IllegalArgumentException If the cache has no index with the given name.
      */
-    public Optional<T> findAnyByIndex(String indexName, Object key) {
-        Index<Object, T> index = indexes.get(indexName).getOrElseThrow(
-                () -> new IllegalArgumentException("No index with given name (" + indexName + ") found"));
-        return index.findAny(key);
-    }
+    Optional<T> findAnyByIndex(String indexName, Object key);
 
     /**
      * Gets all elements in the cache that have the given key.
      *
-     * <p>This method has an effective time complexity of {@code O(1)}.
+     * <p>The returned set is never modified by later changes to the cache.
      *
      * @param indexName The name of the index.
      * @param key The key of the elements.
      * @return All the elements that have the given key.
      * @throws IllegalArgumentException If the cache has no index with the given name.
      */
-    public Set<T> findByIndex(String indexName, Object key) {
-        Index<Object, T> index = indexes.get(indexName).getOrElseThrow(
-                () -> new IllegalArgumentException("No index with given name (" + indexName + ") found"));
-        return index.find(key);
-    }
+    Set<T> findByIndex(String indexName, Object key);
 
 }
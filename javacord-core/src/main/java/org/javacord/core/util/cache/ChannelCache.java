@@ -11,13 +11,14 @@ import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.channel.VoiceChannel;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
+import org.javacord.api.util.cache.EntityCacheBackend;
 import org.javacord.core.util.ImmutableToJavaMapper;
 
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * An immutable cache for all channel entities.
+ * A cache for all channel entities.
  */
 public class ChannelCache {
 
@@ -27,26 +28,7 @@ public class ChannelCache {
     private static final String SERVER_ID_AND_TYPE_INDEX_NAME = "server-id | type";
     private static final String PRIVATE_CHANNEL_USER_ID_INDEX_NAME = "user-id";
 
-    private static final ChannelCache EMPTY_CACHE = new ChannelCache(Cache.<Channel>empty()
-            .addIndex(ID_INDEX_NAME, Channel::getId)
-            .addIndex(TYPE_INDEX_NAME, Channel::getType)
-            .addIndex(SERVER_ID_INDEX_NAME, channel -> channel
-                    .asServerChannel()
-                    .map(ServerChannel::getServer)
-                    .map(Server::getId)
-                    .orElse(null))
-            .addIndex(SERVER_ID_AND_TYPE_INDEX_NAME, channel -> channel
-                    .asServerChannel()
-                    .map(ServerChannel::getServer)
-                    .map(Server::getId)
-                    .map(serverId -> Tuple.of(serverId, channel.getType()))
-                    .orElse(null))
-            .addIndex(PRIVATE_CHANNEL_USER_ID_INDEX_NAME, channel -> channel
-                    .asPrivateChannel()
-                    .flatMap(PrivateChannel::getRecipient)
-                    .map(User::getId)
-                    .orElse(null))
-    );
+    private static final ChannelCache EMPTY_CACHE = new ChannelCache(addIndexes(Cache.empty()));
 
     private final Cache<Channel> cache;
 
@@ -63,6 +45,58 @@ public class ChannelCache {
         return EMPTY_CACHE;
     }
 
+    /**
+     * Gets an empty channel cache for the given backend.
+     *
+     * @param backend The backend of the cache.
+     * @return An empty channel cache.
+     */
+    public static ChannelCache empty(EntityCacheBackend backend) {
+        if (backend == EntityCacheBackend.IMMUTABLE) {
+            return EMPTY_CACHE;
+        }
+        return new ChannelCache(addIndexes(Cache.empty(backend)));
+    }
+
+    /**
+     * Adds all indexes of the channel cache to the given cache.
+     *
+     * @param cache The cache without indexes.
+     * @return The cache with all indexes.
+     */
+    private static Cache<Channel> addIndexes(Cache<Channel> cache) {
+        return cache
+                .addIndex(ID_INDEX_NAME, Channel::getId)
+                .addIndex(TYPE_INDEX_NAME, Channel::getType)
+                .addIndex(SERVER_ID_INDEX_NAME, channel -> channel
+                        .asServerChannel()
+                        .map(ServerChannel::getServer)
+                        .map(Server::getId)
+                        .orElse(null))
+                .addIndex(SERVER_ID_AND_TYPE_INDEX_NAME, channel -> channel
+                        .asServerChannel()
+                        .map(ServerChannel::getServer)
+                        .map(Server::getId)
+                        .map(serverId -> Tuple.of(serverId, channel.getType()))
+                        .orElse(null))
+                .addIndex(PRIVATE_CHANNEL_USER_ID_INDEX_NAME, channel -> channel
+                        .asPrivateChannel()
+                        .flatMap(PrivateChannel::getRecipient)
+                        .map(User::getId)
+                        .orElse(null));
+    }
+
+    /**
+     * Gets a channel cache with the given underlying cache.
+     *
+     * @param newCache The new underlying cache.
+     * @return This instance if the underlying cache did not change (i.e. it was modified in place), or a new channel
+     *         cache otherwise.
+     */
+    private ChannelCache withCache(Cache<Channel> newCache) {
+        return newCache == cache ? this : new ChannelCache(newCache);
+    }
+
     /**
      * Adds a channel to the cache.
      *
@@ -70,7 +104,7 @@ public class ChannelCache {
      * @return The new channel cache.
      */
     public ChannelCache addChannel(Channel channel) {
-        return new ChannelCache(cache.addElement(channel));
+        return withCache(cache.addElement(channel));
     }
 
     /**
@@ -80,7 +114,7 @@ public class ChannelCache {
      * @return The new channel cache.
      */
     public ChannelCache removeChannel(Channel channel) {
-        return new ChannelCache(cache.removeElement(channel));
+        return withCache(cache.removeElement(channel));
     }
 
     /**
@@ -0,0 +1,218 @@
+package org.javacord.core.util.cache;
+
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A mutable, thread-safe cache, optionally with indexes.
+ *
+ * <p>Unlike the {@link ImmutableCache}, this cache is modified in place and all modifying methods return the very
+ * same instance. This avoids copying the underlying tries of every index on each modification, which makes it a lot
+ * cheaper for bots with many entities and a high update rate.
+ *
+ * <p>Modifications are guarded by lock stripes that are selected by the element's hash code, so modifications of
+ * different elements can happen in parallel, while modifications of the same element are serialized.
+ * Reading methods never block and return snapshots, but a reader might observe an element that is only present in
+ * some of the indexes while it is being modified.
+ *
+ * @param <T> The type of the elements in the cache.
+ */
+public class ConcurrentCache<T> implements Cache<T> {
+
+    /**
+     * The amount of lock stripes. Must be a power of two.
+     */
+    private static final int STRIPE_COUNT = 64;
+
+    /**
+     * All elements in the cache.
+     */
+    private final java.util.Set<T> elements = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A map with all indexes.
+     *
+     * <p>The map's key is the index name and the value is the index itself.
+     */
+    private final ConcurrentMap<String, ConcurrentIndex<Object, T>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The locks that guard the modification of elements.
+     */
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+
+    /**
+     * Creates a new empty cache.
+     */
+    public ConcurrentCache() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Gets the lock stripe for the given element.
+     *
+     * @param element The element.
+     * @return The lock that guards the given element.
+     */
+    private ReentrantLock getStripe(T element) {
+        int hash = element.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
+     * It blocks all modifications of the cache while the index is built.
+     */
+    @Override
+    public Cache<T> addIndex(String indexName, Function<T, Object> mappingFunction) {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            if (indexes.containsKey(indexName)) {
+                throw new IllegalStateException("The cache already has an index with name " + indexName);
+            }
+            ConcurrentIndex<Object, T> index = new ConcurrentIndex<>(mappingFunction);
+            elements.forEach(index::addElement);
+            indexes.put(indexName, index);
+        } finally {
+            for (ReentrantLock stripe : stripes) {
+                stripe.unlock();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} regarding the amount of elements already in the
+     * cache and a time complexity of {@code O(n)} regarding the amount of indexes in the cache.
+     */
+    @Override
+    public Cache<T> addElement(T element) {
+        ReentrantLock stripe = getStripe(element);
+        stripe.lock();
+        try {
+            elements.add(element);
+            indexes.values().forEach(index -> index.addElement(element));
+        } finally {
+            stripe.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} regarding the amount of elements already in the
+     * cache and a time complexity of {@code O(n)} regarding the amount of indexes in the cache.
+     */
+    @Override
+    public Cache<T> removeElement(T element) {
+        ReentrantLock stripe = getStripe(element);
+        stripe.lock();
+        try {
+            elements.remove(element);
+            indexes.values().forEach(index -> index.removeElement(element));
+        } finally {
+            stripe.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As this cache is modified in place, there are no indexes to rebuild and the elements are simply added one
+     * after another. Readers might observe only some of the elements while they are being added.
+     */
+    @Override
+    public Cache<T> addElements(Collection<? extends T> elements) {
+        elements.forEach(this::addElement);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>As this cache is modified in place, there are no indexes to rebuild and the elements are simply removed one
+     * after another. Readers might observe only some of the elements while they are being removed.
+     */
+    @Override
+    public Cache<T> removeElements(Collection<? extends T> elements) {
+        elements.forEach(this::removeElement);
+        return this;
+    }
+
+    @Override
+    public Cache<T> updateIndexesOfElement(T element) {
+        ReentrantLock stripe = getStripe(element);
+        stripe.lock();
+        try {
+            if (!elements.contains(element)) {
+                return this;
+            }
+            indexes.values().forEach(index -> {
+                index.removeElement(element);
+                index.addElement(element);
+            });
+        } finally {
+            stripe.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method has a time complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
+     */
+    @Override
+    public Set<T> getAll() {
+        return HashSet.ofAll(elements);
+    }
+
+    @Override
+    public Optional<T> findAnyByIndex(String indexName, Object key) {
+        return getIndex(indexName).findAny(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method has a time complexity of {@code O(n)} with {@code n} being the amount of elements with the given
+     * key.
+     */
+    @Override
+    public Set<T> findByIndex(String indexName, Object key) {
+        return getIndex(indexName).find(key);
+    }
+
+    /**
+     * Gets the index with the given name.
+     *
+     * @param indexName The name of the index.
+     * @return The index.
+     * @throws IllegalArgumentException If the cache has no index with the given name.
+     */
+    private ConcurrentIndex<Object, T> getIndex(String indexName) {
+        ConcurrentIndex<Object, T> index = indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("No index with given name (" + indexName + ") found");
+        }
+        return index;
+    }
+
+}
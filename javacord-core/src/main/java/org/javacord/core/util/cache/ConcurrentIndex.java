@@ -0,0 +1,128 @@
+package org.javacord.core.util.cache;
+
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Set;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A mutable, thread-safe index.
+ *
+ * <p>Modifications of different elements can happen concurrently. Modifications of the same element must be
+ * serialized by the caller, e.g. by the lock stripe of the owning {@link ConcurrentCache}.
+ *
+ * @param <K> The type of the key.
+ * @param <E> The type of the elements.
+ */
+public class ConcurrentIndex<K, E> {
+
+    /**
+     * A function that maps an element to its key.
+     */
+    private final Function<E, K> keyMapper;
+
+    /**
+     * A map that contains the elements by their key.
+     */
+    private final ConcurrentMap<K, java.util.Set<E>> elementsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * A map that contains the element as its key and the key of the element when it was added to
+     * this index as its value.
+     *
+     * <p>It allows for a reverse lookup of index keys without having to call the {@code keyMapper}.
+     */
+    private final ConcurrentMap<E, K> keyByElement = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new index.
+     *
+     * @param keyMapper A function to map elements to their key.
+     */
+    public ConcurrentIndex(Function<E, K> keyMapper) {
+        this.keyMapper = keyMapper;
+    }
+
+    /**
+     * Gets the mapping function to map elements to their key.
+     *
+     * @return The mapping function.
+     */
+    public Function<E, K> getKeyMapper() {
+        return keyMapper;
+    }
+
+    /**
+     * Adds an element to the index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param element The element to add.
+     */
+    public void addElement(E element) {
+        K key = keyMapper.apply(element);
+        if (key == null) {
+            return;
+        }
+        K oldKey = keyByElement.putIfAbsent(element, key);
+        if (oldKey != null) {
+            if (oldKey.equals(key)) {
+                return;
+            }
+            throw new IllegalStateException("The given element is already in the index with a different key");
+        }
+        elementsByKey.compute(key, (k, elements) -> {
+            java.util.Set<E> newElements = elements == null ? ConcurrentHashMap.newKeySet() : elements;
+            newElements.add(element);
+            return newElements;
+        });
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param element The element to remove.
+     */
+    public void removeElement(E element) {
+        K key = keyByElement.remove(element);
+        if (key == null) {
+            return;
+        }
+        elementsByKey.computeIfPresent(key, (k, elements) -> {
+            elements.remove(element);
+            return elements.isEmpty() ? null : elements;
+        });
+    }
+
+    /**
+     * Gets a snapshot of all elements with the given key.
+     *
+     * <p>This method has a time complexity of {@code O(n)} with {@code n} being the amount of elements with the given
+     * key.
+     *
+     * @param key The key of the elements.
+     * @return The elements with the given key.
+     */
+    public Set<E> find(K key) {
+        java.util.Set<E> elements = elementsByKey.get(key);
+        return elements == null ? HashSet.empty() : HashSet.ofAll(elements);
+    }
+
+    /**
+     * Gets any element with the given key.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param key The key of the element.
+     * @return An element with the given key.
+     */
+    public Optional<E> findAny(K key) {
+        java.util.Set<E> elements = elementsByKey.get(key);
+        return elements == null ? Optional.empty() : elements.stream().findAny();
+    }
+}
@@ -5,6 +5,8 @@ import io.vavr.collection.HashSet;
 import io.vavr.collection.Map;
 import io.vavr.collection.Set;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -93,6 +95,47 @@ public class Index<K, E> {
         return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
     }
 
+    /**
+     * Adds multiple elements to the index.
+     *
+     * <p>Compared to calling {@link #addElement(Object)} for every element, this only creates a single new index and
+     * touches every affected key only once.
+     *
+     * <p>This method has an effective time complexity of {@code O(n)} with {@code n} being the amount of elements to
+     * add.
+     *
+     * @param elements The elements to add.
+     * @return The new index with the added elements.
+     */
+    public Index<K, E> addElements(Iterable<? extends E> elements) {
+        java.util.Map<K, List<E>> newElementsGroupedByKey = new java.util.HashMap<>();
+        java.util.Map<E, K> newKeyByElementEntries = new java.util.HashMap<>();
+        for (E element : elements) {
+            K key = keyMapper.apply(element);
+            if (key == null) {
+                continue;
+            }
+            K oldKey = keyByElement.getOrElse(element, newKeyByElementEntries.get(element));
+            if (oldKey != null) {
+                if (oldKey.equals(key)) {
+                    continue;
+                }
+                throw new IllegalStateException("The given element is already in the index with a different key");
+            }
+            newElementsGroupedByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+            newKeyByElementEntries.put(element, key);
+        }
+        if (newKeyByElementEntries.isEmpty()) {
+            return this;
+        }
+        Map<K, Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<K, List<E>> entry : newElementsGroupedByKey.entrySet()) {
+            newElementsByKey = newElementsByKey.put(entry.getKey(), find(entry.getKey()).addAll(entry.getValue()));
+        }
+        Map<E, K> newKeyByElement = keyByElement.merge(HashMap.ofAll(newKeyByElementEntries));
+        return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
+    }
+
     /**
      * Removes an element from the index.
      *
@@ -115,6 +158,40 @@ public class Index<K, E> {
         return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
     }
 
+    /**
+     * Removes multiple elements from the index.
+     *
+     * <p>Compared to calling {@link #removeElement(Object)} for every element, this only creates a single new index and
+     * touches every affected key only once.
+     *
+     * <p>This method has an effective time complexity of {@code O(n)} with {@code n} being the amount of elements to
+     * remove.
+     *
+     * @param elements The elements to remove.
+     * @return The new index with the elements removed.
+     */
+    public Index<K, E> removeElements(Iterable<? extends E> elements) {
+        java.util.Map<K, List<E>> removedElementsGroupedByKey = new java.util.HashMap<>();
+        List<E> removedElements = new ArrayList<>();
+        for (E element : elements) {
+            K key = keyByElement.getOrElse(element, null);
+            if (key == null) {
+                continue;
+            }
+            removedElementsGroupedByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+            removedElements.add(element);
+        }
+        if (removedElements.isEmpty()) {
+            return this;
+        }
+        Map<K, Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<K, List<E>> entry : removedElementsGroupedByKey.entrySet()) {
+            newElementsByKey = newElementsByKey.put(entry.getKey(), find(entry.getKey()).removeAll(entry.getValue()));
+        }
+        Map<E, K> newKeyByElement = keyByElement.removeAll(removedElements);
+        return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
+    }
+
     /**
      * Gets all elements with the given key.
      *
@@ -1,9 +1,15 @@
 package org.javacord.core.util.cache;
 
+import org.javacord.api.util.cache.EntityCacheBackend;
+
 import java.util.function.UnaryOperator;
 
 /**
- * An immutable cache with all Javacord entities.
+ * A cache with all Javacord entities.
+ *
+ * <p>Depending on the {@link EntityCacheBackend}, the cache is either immutable or its underlying caches are
+ * modified in place. In the latter case, the update methods return the same instance if none of the underlying
+ * caches was replaced.
  */
 public class JavacordEntityCache {
 
@@ -23,6 +29,20 @@ public class JavacordEntityCache {
         return EMPTY_CACHE;
     }
 
+    /**
+     * Gets an empty Javacord cache for the given backend.
+     *
+     * @param backend The backend of the cache.
+     * @return An empty Javacord cache.
+     */
+    public static JavacordEntityCache empty(EntityCacheBackend backend) {
+        if (backend == EntityCacheBackend.IMMUTABLE) {
+            return EMPTY_CACHE;
+        }
+        return new JavacordEntityCache(
+                ChannelCache.empty(backend), MemberCache.empty(backend), UserPresenceCache.empty(backend));
+    }
+
     private JavacordEntityCache(
             ChannelCache channelCache, MemberCache memberCache, UserPresenceCache userPresenceCache) {
         this.channelCache = channelCache;
@@ -56,6 +76,9 @@ public class JavacordEntityCache {
      * @return The new Javacord entity cache.
      */
     public JavacordEntityCache setChannelCache(ChannelCache channelCache) {
+        if (channelCache == this.channelCache) {
+            return this;
+        }
         return new JavacordEntityCache(channelCache, memberCache, userPresenceCache);
     }
 
@@ -85,6 +108,9 @@ public class JavacordEntityCache {
      * @return The new Javacord entity cache.
      */
     public JavacordEntityCache setMemberCache(MemberCache memberCache) {
+        if (memberCache == this.memberCache) {
+            return this;
+        }
         return new JavacordEntityCache(channelCache, memberCache, userPresenceCache);
     }
 
@@ -114,6 +140,9 @@ public class JavacordEntityCache {
      * @return The new Javacord entity cache.
      */
     public JavacordEntityCache setUserPresenceCache(UserPresenceCache userPresenceCache) {
+        if (userPresenceCache == this.userPresenceCache) {
+            return this;
+        }
         return new JavacordEntityCache(channelCache, memberCache, userPresenceCache);
     }
 }
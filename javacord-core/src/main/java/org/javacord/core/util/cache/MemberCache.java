@@ -3,14 +3,22 @@ package org.javacord.core.util.cache;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.util.cache.EntityCacheBackend;
 import org.javacord.core.entity.user.Member;
 import org.javacord.core.util.ImmutableToJavaMapper;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * An immutable cache for all member entities.
+ * A cache for all member entities.
  */
 public class MemberCache {
 
@@ -22,17 +30,7 @@ public class MemberCache {
     private static final String MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME = "ms > member-id | server-id";
 
     private static final MemberCache EMPTY_CACHE = new MemberCache(
-            Cache.<Member>empty()
-                    .addIndex(ID_INDEX_NAME, Member::getId)
-                    .addIndex(SERVER_ID_INDEX_NAME, member -> member.getServer().getId())
-                    .addIndex(ID_AND_SERVER_ID_INDEX_NAME,
-                            member -> Tuple.of(member.getId(), member.getServer().getId())),
-            UserCache.empty(),
-            Cache.<Tuple2<Member, Server>>empty()
-                    .addIndex(MEMBER_SERVER_MEMBER_ID_INDEX_NAME, tuple -> tuple._1().getId())
-                    .addIndex(MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME,
-                            tuple -> Tuple.of(tuple._1.getId(), tuple._2.getId()))
-    );
+            addIndexes(Cache.empty()), UserCache.empty(), addMemberServerIndexes(Cache.empty()));
 
     private final Cache<Tuple2<Member, Server>> memberServerCache;
     private final Cache<Member> cache;
@@ -53,6 +51,66 @@ public class MemberCache {
         return EMPTY_CACHE;
     }
 
+    /**
+     * Gets an empty member cache for the given backend.
+     *
+     * @param backend The backend of the cache.
+     * @return An empty member cache.
+     */
+    public static MemberCache empty(EntityCacheBackend backend) {
+        if (backend == EntityCacheBackend.IMMUTABLE) {
+            return EMPTY_CACHE;
+        }
+        return new MemberCache(
+                addIndexes(Cache.empty(backend)),
+                UserCache.empty(backend),
+                addMemberServerIndexes(Cache.empty(backend)));
+    }
+
+    /**
+     * Adds all indexes of the member cache to the given cache.
+     *
+     * @param cache The cache without indexes.
+     * @return The cache with all indexes.
+     */
+    private static Cache<Member> addIndexes(Cache<Member> cache) {
+        return cache
+                .addIndex(ID_INDEX_NAME, Member::getId)
+                .addIndex(SERVER_ID_INDEX_NAME, member -> member.getServer().getId())
+                .addIndex(ID_AND_SERVER_ID_INDEX_NAME,
+                        member -> Tuple.of(member.getId(), member.getServer().getId()));
+    }
+
+    /**
+     * Adds all indexes of the member-server cache to the given cache.
+     *
+     * @param cache The cache without indexes.
+     * @return The cache with all indexes.
+     */
+    private static Cache<Tuple2<Member, Server>> addMemberServerIndexes(Cache<Tuple2<Member, Server>> cache) {
+        return cache
+                .addIndex(MEMBER_SERVER_MEMBER_ID_INDEX_NAME, tuple -> tuple._1().getId())
+                .addIndex(MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME,
+                        tuple -> Tuple.of(tuple._1.getId(), tuple._2.getId()));
+    }
+
+    /**
+     * Gets a member cache with the given underlying caches.
+     *
+     * @param newCache The new underlying member cache.
+     * @param newUserCache The new underlying user cache.
+     * @param newMemberServerCache The new underlying member-server cache.
+     * @return This instance if none of the underlying caches did change (i.e. they were modified in place), or a new
+     *         member cache otherwise.
+     */
+    private MemberCache withCaches(
+            Cache<Member> newCache, UserCache newUserCache, Cache<Tuple2<Member, Server>> newMemberServerCache) {
+        if (newCache == cache && newUserCache == userCache && newMemberServerCache == memberServerCache) {
+            return this;
+        }
+        return new MemberCache(newCache, newUserCache, newMemberServerCache);
+    }
+
     /**
      * Adds a member to the cache.
      *
@@ -62,7 +120,7 @@ public class MemberCache {
      * @return The new member cache.
      */
     public MemberCache addMember(Member member) {
-        return new MemberCache(
+        return withCaches(
                 cache.addElement(member),
                 userCache.getUserById(member.getId())
                         .map(userCache::removeUser)
@@ -72,6 +130,37 @@ public class MemberCache {
         );
     }
 
+    /**
+     * Adds multiple members to the cache.
+     *
+     * <p>Automatically updates the underlying user cache, too. Compared to calling {@link #addMember(Member)} for every
+     * member, every underlying cache is only updated once.
+     *
+     * @param members The members to add.
+     * @return The new member cache.
+     */
+    public MemberCache addMembers(Collection<Member> members) {
+        if (members.isEmpty()) {
+            return this;
+        }
+        // Like with addMember(...), only the last user with a given id is kept
+        Map<Long, User> newUsersById = new LinkedHashMap<>();
+        List<Tuple2<Member, Server>> memberServerTuples = new ArrayList<>(members.size());
+        for (Member member : members) {
+            newUsersById.put(member.getId(), member.getUser());
+            memberServerTuples.add(Tuple.of(member, member.getServer()));
+        }
+        List<User> oldUsers = new ArrayList<>();
+        for (long id : newUsersById.keySet()) {
+            userCache.getUserById(id).ifPresent(oldUsers::add);
+        }
+        return withCaches(
+                cache.addElements(members),
+                userCache.removeUsers(oldUsers).addUsers(newUsersById.values()),
+                memberServerCache.addElements(memberServerTuples)
+        );
+    }
+
     /**
      * Removes a member from the cache.
      *
@@ -91,16 +180,57 @@ public class MemberCache {
                 )
                 .orElse(null);
 
-        return new MemberCache(
+        // The user cache must be updated before the member is removed, as mutable caches are modified in place
+        UserCache newUserCache = userCache.getUserById(member.getId())
+                .filter(user -> getMembersById(user.getId()).size() <= 1)
+                .map(userCache::removeUser)
+                .orElse(userCache);
+
+        return withCaches(
                 cache.removeElement(member),
-                userCache.getUserById(member.getId())
-                        .filter(user -> getMembersById(user.getId()).size() <= 1)
-                        .map(userCache::removeUser)
-                        .orElse(userCache),
+                newUserCache,
                 memberServerTuple == null ? memberServerCache : memberServerCache.removeElement(memberServerTuple)
         );
     }
 
+    /**
+     * Removes multiple members from the cache.
+     *
+     * <p>Automatically updates the underlying user cache, too. Compared to calling {@link #removeMember(Member)} for
+     * every member, every underlying cache is only updated once.
+     *
+     * @param members The members to remove.
+     * @return The new member cache.
+     */
+    public MemberCache removeMembers(Collection<Member> members) {
+        if (members.isEmpty()) {
+            return this;
+        }
+        List<Tuple2<Member, Server>> memberServerTuples = new ArrayList<>(members.size());
+        Map<Long, Integer> removedMembersById = new HashMap<>();
+        for (Member member : members) {
+            memberServerCache
+                    .findAnyByIndex(
+                            MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME,
+                            Tuple.of(member.getId(), member.getServer().getId())
+                    )
+                    .ifPresent(memberServerTuples::add);
+            removedMembersById.merge(member.getId(), 1, Integer::sum);
+        }
+
+        // The user cache must be updated before the members are removed, as mutable caches are modified in place
+        List<User> removedUsers = new ArrayList<>();
+        removedMembersById.forEach((id, removedMembers) -> userCache.getUserById(id)
+                .filter(user -> getMembersById(id).size() <= removedMembers)
+                .ifPresent(removedUsers::add));
+
+        return withCaches(
+                cache.removeElements(members),
+                userCache.removeUsers(removedUsers),
+                memberServerCache.removeElements(memberServerTuples)
+        );
+    }
+
     /**
      * Gets all servers that the user with the given id is a member of.
      *
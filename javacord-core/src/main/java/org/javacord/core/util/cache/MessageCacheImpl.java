@@ -1,30 +1,39 @@
 package org.javacord.core.util.cache;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.DiscordEntity;
+import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.util.cache.MessageCache;
+import org.javacord.api.util.cache.MessageCacheStorageMode;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.Cleanupable;
 import org.javacord.core.util.logging.LoggerUtil;
 
+import java.io.IOException;
 import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 
 /**
  * The implementation of {@link MessageCache}.
+ *
+ * <p>Depending on the {@link MessageCacheStorageMode} of the api, messages are either stored as softly referenced
+ * message objects or as serialized json data in the {@link SerializedMessagePool} of the api. Serialized messages are
+ * recreated from their data when they are accessed and are no longer in use.
  */
 public class MessageCacheImpl implements MessageCache, Cleanupable {
 
@@ -34,34 +43,42 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
     private static final Logger logger = LoggerUtil.getLogger(MessageCacheImpl.class);
 
     /**
-     * All messages.
+     * All messages, ordered by their id.
+     *
+     * <p>As the messages of a channel are usually received in the order of their ids, new messages are almost always
+     * appended at the end and the oldest messages, which are removed first, are at the start of the map.
      */
-    private final List<Reference<? extends Message>> messages = new ArrayList<>();
+    private final ConcurrentNavigableMap<Long, MessageReference> messages = new ConcurrentSkipListMap<>();
 
     /**
-     * The queue that is notified if a message became softly-reachable.
+     * All serialized messages, ordered by their id. Only used if the messages are stored serialized.
      */
-    private final ReferenceQueue<Message> messagesCleanupQueue = new ReferenceQueue<>();
+    private final ConcurrentNavigableMap<Long, SerializedMessage> serializedMessages = new ConcurrentSkipListMap<>();
 
     /**
-     * The messages cleanup future to be cancelled in {@link #cleanup()}.
+     * All messages that should be cached forever.
      */
-    private final Future<?> messagesCleanupFuture;
+    private final List<Message> cacheForeverMessages = Collections.synchronizedList(new ArrayList<>());
 
     /**
-     * All messages that should be cached forever.
+     * The discord api instance.
      */
-    private final List<Message> cacheForeverMessages = Collections.synchronizedList(new ArrayList<>());
+    private final DiscordApiImpl api;
 
     /**
-     * The cache clean future to be cancelled in {@link #cleanup()}.
+     * The channel of the cached messages.
      */
-    private final AtomicReference<Future<?>> cleanFuture = new AtomicReference<>();
+    private final TextChannel channel;
 
     /**
-     * The discord api instance.
+     * The sweeper that cleans this cache and removes softly-reachable messages.
      */
-    private final DiscordApiImpl api;
+    private final MessageCacheSweeper sweeper;
+
+    /**
+     * The pool that holds the serialized messages or {@code null} if the messages are stored as objects.
+     */
+    private final SerializedMessagePool pool;
 
     /**
      * The maximum amount of stored messages.
@@ -77,41 +94,24 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
      * Creates a new message cache.
      *
      * @param api                     The discord api instance.
+     * @param channel                 The channel of the cached messages.
      * @param capacity                The capacity of the cache, not including messages which are cached forever.
      * @param storageTimeInSeconds    The storage time in seconds.
      * @param automaticCleanupEnabled Whether automatic message cache cleanup is enabled.
      */
-    public MessageCacheImpl(DiscordApiImpl api, int capacity, int storageTimeInSeconds,
+    public MessageCacheImpl(DiscordApiImpl api, TextChannel channel, int capacity, int storageTimeInSeconds,
                             boolean automaticCleanupEnabled) {
         this.api = api;
+        this.channel = channel;
         this.capacity = capacity;
         this.storageTimeInSeconds = storageTimeInSeconds;
 
-        setAutomaticCleanupEnabled(automaticCleanupEnabled);
+        this.sweeper = api.getMessageCacheSweeper();
+        this.pool = api.getMessageCacheStorageMode() == MessageCacheStorageMode.SERIALIZED
+                ? api.getSerializedMessagePool()
+                : null;
 
-        // After minimum JDK 9 is required this can be switched to use a Cleaner
-        messagesCleanupFuture = api.getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-            api.getMessageCacheLock().lock();
-            try {
-                int removedMessages = 0;
-                for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
-                        messageRef != null;
-                        messageRef = messagesCleanupQueue.poll()) {
-                    messages.remove(messageRef);
-                    removedMessages++;
-                }
-                if (removedMessages > 0) {
-                    logger.warn("Heap memory was too low to hold all configured messages in the cache. "
-                                    + "Removed {} messages from the cache due to memory shortage. "
-                                    + "Either increase your heap settings or decrease your message cache settings!",
-                            removedMessages);
-                }
-            } catch (Throwable t) {
-                logger.error("Failed to clean softly referenced messages!", t);
-            } finally {
-                api.getMessageCacheLock().unlock();
-            }
-        }, 30, 30, TimeUnit.SECONDS);
+        setAutomaticCleanupEnabled(automaticCleanupEnabled);
     }
 
     /**
@@ -120,22 +120,82 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
      * @param message The message to add.
      */
     public void addMessage(Message message) {
-        api.getMessageCacheLock().lock();
-        try {
-            api.addMessageToCache(message);
-            if (messages.stream().map(Reference::get).anyMatch(message::equals)) {
-                return;
+        if (pool != null) {
+            addSerializedMessage(message, null);
+            return;
+        }
+        api.addMessageToCache(message);
+        messages.compute(message.getId(), (id, messageRef) -> {
+            if (messageRef != null && messageRef.get() != null) {
+                return messageRef;
+            }
+            return new MessageReference(message, this);
+        });
+    }
+
+    /**
+     * Adds a message that was created from the given data to the cache.
+     *
+     * @param message The message to add.
+     * @param data The json data the message was created from.
+     */
+    public void addMessage(Message message, JsonNode data) {
+        if (pool != null) {
+            addSerializedMessage(message, data);
+        } else {
+            addMessage(message);
+        }
+    }
+
+    /**
+     * Adds a message to the serialized messages. The message is kept as object if there is no data to serialize.
+     *
+     * @param message The message to add.
+     * @param data The json data the message was created from or {@code null}.
+     */
+    private void addSerializedMessage(Message message, JsonNode data) {
+        api.addMessageToCache(message);
+        long id = message.getId();
+        if (!serializedMessages.containsKey(id)) {
+            SerializedMessage serializedMessage = new SerializedMessage();
+            if (data == null || !serializedMessage.store(data)) {
+                serializedMessage.retain(message);
             }
-            // Add the message in the correct order
-            messages.removeIf(messageRef -> messageRef.get() == null);
-            Reference<Message> messageRef = new SoftReference<>(message, messagesCleanupQueue);
-            int pos = Collections.binarySearch(messages, messageRef, Comparator.comparing(Reference::get));
-            if (pos < 0) {
-                pos = -pos - 1;
+            if (serializedMessages.putIfAbsent(id, serializedMessage) != null) {
+                serializedMessage.release();
             }
-            messages.add(pos, messageRef);
-        } finally {
-            api.getMessageCacheLock().unlock();
+        }
+        api.addSerializedMessageToCache(id, this);
+    }
+
+    /**
+     * Updates the serialized data of a message that was updated with the given data.
+     *
+     * @param message The updated message.
+     * @param data The json data the message was updated with.
+     */
+    public void updateMessage(Message message, JsonNode data) {
+        if (pool == null) {
+            return;
+        }
+        SerializedMessage serializedMessage = serializedMessages.get(message.getId());
+        if (serializedMessage != null) {
+            serializedMessage.merge(message, data);
+        }
+    }
+
+    /**
+     * Keeps a message as object, because it was modified in a way that cannot be restored from its serialized data.
+     *
+     * @param message The modified message.
+     */
+    public void retainMessageObject(Message message) {
+        if (pool == null) {
+            return;
+        }
+        SerializedMessage serializedMessage = serializedMessages.get(message.getId());
+        if (serializedMessage != null) {
+            serializedMessage.retain(message);
         }
     }
 
@@ -146,6 +206,7 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
      */
     public void addCacheForeverMessage(Message message) {
         cacheForeverMessages.add(message);
+        retainMessageObject(message);
     }
 
     /**
@@ -163,38 +224,144 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
      * @param message The message to remove.
      */
     public void removeMessage(Message message) {
-        api.getMessageCacheLock().lock();
-        try {
-            messages.removeIf(messageRef -> Objects.equals(messageRef.get(), message));
-        } finally {
-            api.getMessageCacheLock().unlock();
+        if (pool != null) {
+            removeSerializedMessage(message.getId());
+        } else {
+            messages.remove(message.getId());
+        }
+    }
+
+    /**
+     * Removes a serialized message and releases its data.
+     *
+     * @param id The id of the message.
+     * @return Whether the message was cached.
+     */
+    private boolean removeSerializedMessage(long id) {
+        SerializedMessage serializedMessage = serializedMessages.remove(id);
+        if (serializedMessage == null) {
+            return false;
+        }
+        serializedMessage.release();
+        api.removeSerializedMessageFromCache(id, this);
+        return true;
+    }
+
+    /**
+     * Gets the cached message with the given id.
+     *
+     * @param id The id of the message.
+     * @return The message with the given id.
+     */
+    public Optional<Message> getMessageById(long id) {
+        if (pool != null) {
+            return getSerializedMessageById(id);
+        }
+        return Optional.ofNullable(messages.get(id)).map(Reference::get);
+    }
+
+    /**
+     * Gets the serialized message with the given id, recreating it from its data if it is no longer in use.
+     *
+     * @param id The id of the message.
+     * @return The message with the given id.
+     */
+    Optional<Message> getSerializedMessageById(long id) {
+        SerializedMessage serializedMessage = serializedMessages.get(id);
+        if (serializedMessage == null) {
+            return Optional.empty();
         }
+        return serializedMessage.getMessage();
+    }
+
+    /**
+     * Gets all cached messages, ordered by their id.
+     *
+     * @return All cached messages.
+     */
+    public List<Message> getMessages() {
+        if (pool != null) {
+            return serializedMessages.keySet().stream()
+                    .map(this::getSerializedMessageById)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(Collectors.toList());
+        }
+        return messages.values().stream()
+                .map(Reference::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
      * Cleans the cache.
      */
     public void clean() {
+        if (pool != null) {
+            cleanSerializedMessages();
+            return;
+        }
+        Instant minAge = Instant.now().minus(storageTimeInSeconds, ChronoUnit.SECONDS);
+        int removableMessages = 0;
+        int expiredMessages = 0;
+        for (Iterator<MessageReference> it = messages.values().iterator(); it.hasNext(); ) {
+            Message message = it.next().get();
+            if (message == null) {
+                // Cleared references are removed by the sweeper once they are enqueued
+                continue;
+            }
+            if (!message.isCachedForever() && message.getCreationTimestamp().isBefore(minAge)) {
+                it.remove();
+                expiredMessages++;
+            } else if (!message.isCachedForever()) {
+                removableMessages++;
+            }
+        }
+        // Remove the oldest messages that exceed the capacity
+        int excess = removableMessages - capacity;
+        int evictedMessages = 0;
+        for (Iterator<MessageReference> it = messages.values().iterator(); excess > 0 && it.hasNext(); ) {
+            Message message = it.next().get();
+            if (message != null && !message.isCachedForever()) {
+                it.remove();
+                excess--;
+                evictedMessages++;
+            }
+        }
+        sweeper.recordCleanedMessages(expiredMessages, evictedMessages);
+    }
+
+    /**
+     * Cleans the serialized messages without recreating them.
+     */
+    private void cleanSerializedMessages() {
         Instant minAge = Instant.now().minus(storageTimeInSeconds, ChronoUnit.SECONDS);
-        api.getMessageCacheLock().lock();
-        try {
-            messages.removeIf(messageRef -> Optional.ofNullable(messageRef.get())
-                    .map(message -> !message.isCachedForever() && message.getCreationTimestamp().isBefore(minAge))
-                    .orElse(true));
-            long foreverCachedAmount = messages.stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(Message::isCachedForever)
-                    .count();
-            messages.removeAll(messages.stream()
-                    .filter(messageRef -> Optional.ofNullable(messageRef.get())
-                            .map(message -> !message.isCachedForever())
-                            .orElse(true))
-                    .limit(Math.max(0, messages.size() - capacity - foreverCachedAmount))
-                    .collect(Collectors.toList()));
-        } finally {
-            api.getMessageCacheLock().unlock();
+        int removableMessages = 0;
+        int expiredMessages = 0;
+        for (Map.Entry<Long, SerializedMessage> entry : serializedMessages.entrySet()) {
+            if (entry.getValue().isCachedForever()) {
+                continue;
+            }
+            if (DiscordEntity.getCreationTimestamp(entry.getKey()).isBefore(minAge)) {
+                if (removeSerializedMessage(entry.getKey())) {
+                    expiredMessages++;
+                }
+            } else {
+                removableMessages++;
+            }
+        }
+        // Remove the oldest messages that exceed the capacity
+        int excess = removableMessages - capacity;
+        int evictedMessages = 0;
+        for (Iterator<Map.Entry<Long, SerializedMessage>> it = serializedMessages.entrySet().iterator();
+                excess > 0 && it.hasNext(); ) {
+            Map.Entry<Long, SerializedMessage> entry = it.next();
+            if (!entry.getValue().isCachedForever() && removeSerializedMessage(entry.getKey())) {
+                excess--;
+                evictedMessages++;
+            }
         }
+        sweeper.recordCleanedMessages(expiredMessages, evictedMessages);
     }
 
     @Override
@@ -220,34 +387,162 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
     @Override
     public void setAutomaticCleanupEnabled(boolean automaticCleanupEnabled) {
         if (automaticCleanupEnabled) {
-            cleanFuture.updateAndGet(future -> {
-                // already enabled
-                if (future != null) {
-                    return future;
-                }
-
-                return api.getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-                    try {
-                        clean();
-                    } catch (Throwable t) {
-                        logger.error("Failed to clean message cache!", t);
-                    }
-                }, 1, 1, TimeUnit.MINUTES);
-            });
+            sweeper.register(this);
         } else {
-            cleanFuture.updateAndGet(future -> {
-                if (future != null) {
-                    future.cancel(false);
-                }
-                return null;
-            });
+            sweeper.unregister(this);
         }
     }
 
     @Override
     public void cleanup() {
         setAutomaticCleanupEnabled(false);
-        messagesCleanupFuture.cancel(false);
+        serializedMessages.keySet().forEach(this::removeSerializedMessage);
+    }
+
+    /**
+     * A soft reference to a message that remembers the id of the message after it was cleared.
+     */
+    static class MessageReference extends SoftReference<Message> {
+
+        private final long messageId;
+        private final MessageCacheImpl cache;
+
+        /**
+         * Creates a new message reference.
+         *
+         * @param message The message.
+         * @param cache The cache that contains the reference.
+         */
+        MessageReference(Message message, MessageCacheImpl cache) {
+            super(message, cache.sweeper.getReferenceQueue());
+            messageId = message.getId();
+            this.cache = cache;
+        }
+
+        /**
+         * Removes this reference from its cache.
+         *
+         * @return Whether the reference was still in the cache.
+         */
+        boolean removeFromCache() {
+            return cache.messages.remove(messageId, this);
+        }
+
+    }
+
+    /**
+     * A message that is either stored as serialized json data in the pool or, if its state cannot be restored from
+     * its data, as object.
+     */
+    private class SerializedMessage {
+
+        private long handle;
+        private int length = -1;
+        private Message message;
+
+        /**
+         * Serializes the given data and stores it in the pool.
+         *
+         * @param data The json data of the message.
+         * @return Whether the data could be stored.
+         */
+        synchronized boolean store(JsonNode data) {
+            byte[] bytes;
+            try {
+                bytes = api.getObjectMapper().writeValueAsBytes(data);
+            } catch (IOException e) {
+                logger.debug("Failed to serialize message data, keeping the message as object", e);
+                return false;
+            }
+            if (bytes.length > SerializedMessagePool.MAX_SLOT_SIZE) {
+                return false;
+            }
+            release();
+            handle = pool.store(bytes);
+            length = bytes.length;
+            return true;
+        }
+
+        /**
+         * Merges the given update into the serialized data.
+         *
+         * @param updatedMessage The updated message.
+         * @param update The json data the message was updated with.
+         */
+        synchronized void merge(Message updatedMessage, JsonNode update) {
+            if (length < 0) {
+                return;
+            }
+            try {
+                JsonNode data = api.getObjectMapper().readTree(pool.load(handle, length));
+                if (data.isObject() && update.isObject()) {
+                    ((ObjectNode) data).setAll((ObjectNode) update);
+                    if (store(data)) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to merge message update, keeping the message as object", e);
+            }
+            retain(updatedMessage);
+        }
+
+        /**
+         * Keeps the given message as object and releases the serialized data.
+         *
+         * @param message The message.
+         */
+        synchronized void retain(Message message) {
+            release();
+            this.message = message;
+        }
+
+        /**
+         * Gets the message, recreating it from the serialized data if it is no longer in use.
+         *
+         * @return The message.
+         */
+        Optional<Message> getMessage() {
+            JsonNode data;
+            synchronized (this) {
+                if (message != null) {
+                    return Optional.of(message);
+                }
+                if (length < 0) {
+                    // Already released
+                    return Optional.empty();
+                }
+                try {
+                    data = api.getObjectMapper().readTree(pool.load(handle, length));
+                } catch (IOException e) {
+                    logger.warn("Failed to read serialized message", e);
+                    return Optional.empty();
+                }
+            }
+            // Recreate the message outside of the lock, as creating it adds it to the cache. If the message is still in
+            // use, the message object in use is returned instead.
+            return Optional.of(api.getOrCreateMessage(channel, data));
+        }
+
+        /**
+         * Checks if the message is cached forever.
+         *
+         * @return Whether the message is cached forever.
+         */
+        synchronized boolean isCachedForever() {
+            return message != null && message.isCachedForever();
+        }
+
+        /**
+         * Releases the serialized data.
+         */
+        synchronized void release() {
+            if (length >= 0) {
+                pool.release(handle);
+                length = -1;
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,254 @@
+package org.javacord.core.util.cache;
+
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.message.Message;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cleans all message caches of a discord api instance.
+ *
+ * <p>Instead of scheduling a task for every channel, the sweeper uses a single task that ticks once per second. On
+ * every tick it drains the reference queue that is shared by all message caches and cleans the caches of the current
+ * slot of a timing wheel. Caches are distributed evenly over the slots, so every cache is cleaned once per
+ * revolution of the wheel without cleaning all caches at the same time.
+ */
+public class MessageCacheSweeper {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(MessageCacheSweeper.class);
+
+    /**
+     * The amount of slots of the timing wheel. With one tick per second, every cache is cleaned once per minute.
+     */
+    static final int WHEEL_SIZE = 60;
+
+    /**
+     * The amount of ticks after which messages that were removed due to memory shortage are logged.
+     */
+    private static final int MEMORY_SHORTAGE_LOG_INTERVAL = 30;
+
+    /**
+     * The queue that is notified if a cached message became softly-reachable.
+     */
+    private final ReferenceQueue<Message> referenceQueue = new ReferenceQueue<>();
+
+    /**
+     * The slots of the timing wheel with the caches that are cleaned when the wheel reaches the slot.
+     */
+    private final List<Set<MessageCacheImpl>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    /**
+     * The slot of every registered cache.
+     */
+    private final ConcurrentMap<MessageCacheImpl, Integer> slots = new ConcurrentHashMap<>();
+
+    /**
+     * A counter that is used to distribute new caches over the slots.
+     */
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    /**
+     * The amount of messages that were removed because they exceeded their storage time.
+     */
+    private final LongAdder expiredMessages = new LongAdder();
+
+    /**
+     * The amount of messages that were removed because they exceeded the capacity of their cache.
+     */
+    private final LongAdder messagesEvictedByCapacity = new LongAdder();
+
+    /**
+     * The amount of messages that were removed because the heap memory was too low.
+     */
+    private final LongAdder messagesEvictedByMemoryShortage = new LongAdder();
+
+    /**
+     * The slot of the timing wheel that is cleaned on the next tick.
+     */
+    private int currentSlot = 0;
+
+    /**
+     * The amount of ticks since the last time messages that were removed due to memory shortage were logged.
+     */
+    private int ticksSinceMemoryShortageLog = 0;
+
+    /**
+     * The amount of messages that were removed due to memory shortage since the last time they were logged.
+     */
+    private int unloggedMessagesEvictedByMemoryShortage = 0;
+
+    /**
+     * Creates a new message cache sweeper.
+     */
+    public MessageCacheSweeper() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Starts the sweeper.
+     *
+     * @param scheduler The scheduler that runs the ticks.
+     */
+    public void start(ScheduledExecutorService scheduler) {
+        // After minimum JDK 9 is required the reference queue can be switched to use a Cleaner
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (Throwable t) {
+                logger.error("Failed to clean message caches!", t);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Drains the reference queue and cleans the caches of the current slot of the timing wheel.
+     */
+    synchronized void tick() {
+        drainReferenceQueue();
+
+        Set<MessageCacheImpl> caches = wheel.get(currentSlot);
+        currentSlot = (currentSlot + 1) % WHEEL_SIZE;
+        for (MessageCacheImpl cache : caches) {
+            try {
+                cache.clean();
+            } catch (Throwable t) {
+                logger.error("Failed to clean message cache!", t);
+            }
+        }
+    }
+
+    /**
+     * Removes all messages which became softly-reachable from their caches.
+     */
+    private void drainReferenceQueue() {
+        int removedMessages = 0;
+        for (Reference<? extends Message> messageRef = referenceQueue.poll();
+                messageRef != null;
+                messageRef = referenceQueue.poll()) {
+            if (((MessageCacheImpl.MessageReference) messageRef).removeFromCache()) {
+                removedMessages++;
+            }
+        }
+        messagesEvictedByMemoryShortage.add(removedMessages);
+        unloggedMessagesEvictedByMemoryShortage += removedMessages;
+
+        if (++ticksSinceMemoryShortageLog >= MEMORY_SHORTAGE_LOG_INTERVAL) {
+            if (unloggedMessagesEvictedByMemoryShortage > 0) {
+                logger.warn("Heap memory was too low to hold all configured messages in the cache. "
+                                + "Removed {} messages from the cache due to memory shortage. "
+                                + "Either increase your heap settings or decrease your message cache settings!",
+                        unloggedMessagesEvictedByMemoryShortage);
+            }
+            ticksSinceMemoryShortageLog = 0;
+            unloggedMessagesEvictedByMemoryShortage = 0;
+        }
+    }
+
+    /**
+     * Gets the queue that is notified if a cached message became softly-reachable.
+     *
+     * @return The reference queue.
+     */
+    ReferenceQueue<Message> getReferenceQueue() {
+        return referenceQueue;
+    }
+
+    /**
+     * Registers a cache to be cleaned periodically. Does nothing if the cache is already registered.
+     *
+     * @param cache The cache to register.
+     */
+    public void register(MessageCacheImpl cache) {
+        slots.computeIfAbsent(cache, key -> {
+            int slot = Math.floorMod(nextSlot.getAndIncrement(), WHEEL_SIZE);
+            wheel.get(slot).add(key);
+            return slot;
+        });
+    }
+
+    /**
+     * Unregisters a cache, so that it is no longer cleaned periodically.
+     *
+     * @param cache The cache to unregister.
+     */
+    public void unregister(MessageCacheImpl cache) {
+        slots.computeIfPresent(cache, (key, slot) -> {
+            wheel.get(slot).remove(key);
+            return null;
+        });
+    }
+
+    /**
+     * Gets the amount of caches that are cleaned periodically.
+     *
+     * @return The amount of registered caches.
+     */
+    public int getRegisteredCacheCount() {
+        return slots.size();
+    }
+
+    /**
+     * Records messages that were removed by a cache clean.
+     *
+     * @param expired The amount of messages that exceeded their storage time.
+     * @param evictedByCapacity The amount of messages that exceeded the capacity of their cache.
+     */
+    void recordCleanedMessages(int expired, int evictedByCapacity) {
+        expiredMessages.add(expired);
+        messagesEvictedByCapacity.add(evictedByCapacity);
+    }
+
+    /**
+     * Gets the amount of messages that were removed because they exceeded their storage time.
+     *
+     * @return The amount of expired messages.
+     */
+    public long getExpiredMessageCount() {
+        return expiredMessages.sum();
+    }
+
+    /**
+     * Gets the amount of messages that were removed because they exceeded the capacity of their cache.
+     *
+     * @return The amount of messages that were evicted by capacity.
+     */
+    public long getMessagesEvictedByCapacityCount() {
+        return messagesEvictedByCapacity.sum();
+    }
+
+    /**
+     * Gets the amount of messages that were removed because the heap memory was too low to hold them.
+     *
+     * @return The amount of messages that were evicted due to memory shortage.
+     */
+    public long getMessagesEvictedByMemoryShortageCount() {
+        return messagesEvictedByMemoryShortage.sum();
+    }
+
+    /**
+     * Gets the total amount of messages that were removed from the message caches.
+     *
+     * @return The total amount of evicted messages.
+     */
+    public long getEvictedMessageCount() {
+        return getExpiredMessageCount() + getMessagesEvictedByCapacityCount()
+                + getMessagesEvictedByMemoryShortageCount();
+    }
+
+}
@@ -0,0 +1,263 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.message.Message;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A registry of all messages of a discord api instance that are still referenced somewhere.
+ *
+ * <p>Messages are only weakly referenced, so the registry does not keep them alive. Reads never lock. Creating a
+ * message is guarded by one of a fixed amount of lock stripes, so that a message is created at most once per id
+ * without serializing the creation of messages with different ids.
+ *
+ * <p>The registry also knows the message caches that hold serialized messages, so that these messages can be found by
+ * their id even if they are no longer in use.
+ */
+public class MessageRegistry {
+
+    /**
+     * The amount of lock stripes. Must be a power of two.
+     */
+    private static final int STRIPE_COUNT = 64;
+
+    /**
+     * All registered messages.
+     */
+    private final ConcurrentMap<Long, MessageReference> messages = new ConcurrentHashMap<>();
+
+    /**
+     * The caches that hold the serialized messages, by the id of the messages.
+     */
+    private final ConcurrentMap<Long, MessageCacheImpl> serializedMessageCaches = new ConcurrentHashMap<>();
+
+    /**
+     * The locks that guard the creation of messages.
+     */
+    private final ReentrantLock[] creationLocks = new ReentrantLock[STRIPE_COUNT];
+
+    /**
+     * The queue that is notified if a message became weakly-reachable.
+     */
+    private final ReferenceQueue<Message> referenceQueue = new ReferenceQueue<>();
+
+    /**
+     * Creates a new message registry.
+     */
+    public MessageRegistry() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            creationLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Gets the message with the given id.
+     *
+     * @param id The id of the message.
+     * @return The message with the given id.
+     */
+    public Optional<Message> getMessageById(long id) {
+        Optional<Message> message = getMessageInUseById(id);
+        if (message.isPresent() || serializedMessageCaches.isEmpty()) {
+            return message;
+        }
+        MessageCacheImpl cache = serializedMessageCaches.get(id);
+        return cache == null ? Optional.empty() : cache.getSerializedMessageById(id);
+    }
+
+    /**
+     * Gets the message with the given id if it is in use.
+     *
+     * @param id The id of the message.
+     * @return The message with the given id.
+     */
+    private Optional<Message> getMessageInUseById(long id) {
+        return Optional.ofNullable(messages.get(id)).map(Reference::get);
+    }
+
+    /**
+     * Gets the message with the given id or creates it if it is not registered.
+     *
+     * <p>The factory is called at most once per id at the same time. It usually registers the created message itself,
+     * otherwise the created message is registered after the factory returned.
+     *
+     * @param id The id of the message.
+     * @param factory A factory that creates the message.
+     * @return The registered message with the given id.
+     */
+    public Message getOrCreate(long id, Supplier<? extends Message> factory) {
+        Message message = getMessageInUseById(id).orElse(null);
+        if (message != null) {
+            return message;
+        }
+
+        ReentrantLock lock = creationLocks[stripe(id)];
+        if (!lock.tryLock()) {
+            if (isCreatingMessage()) {
+                // Creating a message can create the message it references. Waiting for another stripe while
+                // holding one could dead-lock, so the referenced message is created without a lock instead. This is
+                // still safe as the registry always keeps the message that was registered first.
+                return register(factory.get());
+            }
+            lock.lock();
+        }
+        try {
+            message = getMessageInUseById(id).orElse(null);
+            return message == null ? register(factory.get()) : message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registers the given message if no other message with the same id is registered.
+     *
+     * @param message The message to register.
+     * @return The registered message with the id of the given message.
+     */
+    public Message register(Message message) {
+        MessageReference messageRef = messages.compute(message.getId(), (id, value) -> {
+            if (value == null || value.get() == null) {
+                return new MessageReference(message, referenceQueue);
+            }
+            return value;
+        });
+        Message registeredMessage = messageRef.get();
+        // The registered message can only be cleared if it is not the given message
+        return registeredMessage == null ? message : registeredMessage;
+    }
+
+    /**
+     * Removes the message with the given id.
+     *
+     * @param id The id of the message.
+     */
+    public void remove(long id) {
+        messages.remove(id);
+        serializedMessageCaches.remove(id);
+    }
+
+    /**
+     * Registers the cache that holds the serialized message with the given id.
+     *
+     * @param id The id of the message.
+     * @param cache The cache that holds the serialized message.
+     */
+    public void registerSerializedMessage(long id, MessageCacheImpl cache) {
+        serializedMessageCaches.put(id, cache);
+    }
+
+    /**
+     * Unregisters the cache that holds the serialized message with the given id.
+     *
+     * @param id The id of the message.
+     * @param cache The cache that held the serialized message.
+     */
+    public void unregisterSerializedMessage(long id, MessageCacheImpl cache) {
+        serializedMessageCaches.remove(id, cache);
+    }
+
+    /**
+     * Gets a stream of all registered messages.
+     *
+     * <p>The stream is weakly consistent, it may or may not reflect changes which happen while it is processed.
+     * Serialized messages that are no longer in use are recreated.
+     *
+     * @return A stream of all registered messages.
+     */
+    public Stream<Message> getMessages() {
+        Stream<Message> messagesInUse = messages.values().stream()
+                .map(Reference::get)
+                .filter(Objects::nonNull);
+        if (serializedMessageCaches.isEmpty()) {
+            return messagesInUse;
+        }
+        return Stream.concat(
+                messagesInUse.filter(message -> !serializedMessageCaches.containsKey(message.getId())),
+                serializedMessageCaches.entrySet().stream()
+                        .map(entry -> entry.getValue().getSerializedMessageById(entry.getKey()))
+                        .filter(Optional::isPresent)
+                        .map(Optional::get));
+    }
+
+    /**
+     * Removes all entries of messages that became weakly-reachable.
+     *
+     * @return The amount of removed entries.
+     */
+    public int expungeStaleEntries() {
+        int removedEntries = 0;
+        for (Reference<? extends Message> messageRef = referenceQueue.poll();
+                messageRef != null;
+                messageRef = referenceQueue.poll()) {
+            if (messages.remove(((MessageReference) messageRef).messageId, messageRef)) {
+                removedEntries++;
+            }
+        }
+        return removedEntries;
+    }
+
+    /**
+     * Removes all messages.
+     */
+    public void clear() {
+        messages.clear();
+        serializedMessageCaches.clear();
+    }
+
+    /**
+     * Checks if the current thread holds any of the creation locks.
+     *
+     * @return Whether the current thread is currently creating a message.
+     */
+    private boolean isCreatingMessage() {
+        for (ReentrantLock lock : creationLocks) {
+            if (lock.isHeldByCurrentThread()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the lock stripe of the given message id.
+     *
+     * @param id The id of the message.
+     * @return The index of the lock stripe.
+     */
+    private static int stripe(long id) {
+        // The lowest bits of a snowflake are an increment, spread the bits of the timestamp over them
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
+    }
+
+    /**
+     * A weak reference to a message that remembers the id of the message after it was cleared.
+     */
+    private static class MessageReference extends WeakReference<Message> {
+
+        private final long messageId;
+
+        /**
+         * Creates a new message reference.
+         *
+         * @param message The message.
+         * @param queue The queue that is notified if the message became weakly-reachable.
+         */
+        MessageReference(Message message, ReferenceQueue<Message> queue) {
+            super(message, queue);
+            messageId = message.getId();
+        }
+
+    }
+
+}
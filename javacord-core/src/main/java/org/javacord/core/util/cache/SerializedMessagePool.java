@@ -0,0 +1,218 @@
+package org.javacord.core.util.cache;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of direct buffers that holds serialized messages outside the heap.
+ *
+ * <p>The pool allocates slabs of direct memory and splits them into slots of the same size. Every slot size is a
+ * power of two, so a serialized message wastes at most half of its slot. Released slots are reused for the next
+ * message of the same size class. Slabs are never freed, the pool only grows up to the peak size of the caches.
+ *
+ * <p>A stored message is identified by a handle that encodes its size class, slab and offset, so that the caches don't
+ * need a buffer object per message.
+ */
+public class SerializedMessagePool {
+
+    /**
+     * The size of the smallest slots.
+     */
+    static final int MIN_SLOT_SIZE = 256;
+
+    /**
+     * The size of the largest slots. Larger messages cannot be stored in the pool.
+     */
+    static final int MAX_SLOT_SIZE = 1024 * 1024;
+
+    /**
+     * The size of the slabs that are split into slots, unless a single slot is larger.
+     */
+    private static final int SLAB_SIZE = 1024 * 1024;
+
+    /**
+     * The size classes, ordered by their slot size.
+     */
+    private final SizeClass[] sizeClasses;
+
+    /**
+     * The amount of bytes of the allocated slabs.
+     */
+    private final LongAdder reservedBytes = new LongAdder();
+
+    /**
+     * The amount of bytes of the slots that are in use.
+     */
+    private final LongAdder usedBytes = new LongAdder();
+
+    /**
+     * Creates a new serialized message pool.
+     */
+    public SerializedMessagePool() {
+        int classCount = Integer.numberOfTrailingZeros(MAX_SLOT_SIZE / MIN_SLOT_SIZE) + 1;
+        sizeClasses = new SizeClass[classCount];
+        for (int i = 0; i < classCount; i++) {
+            sizeClasses[i] = new SizeClass(MIN_SLOT_SIZE << i);
+        }
+    }
+
+    /**
+     * Stores the given data in the pool.
+     *
+     * @param data The data to store.
+     * @return The handle of the stored data.
+     * @throws IllegalArgumentException If the data is larger than the largest slots.
+     */
+    public long store(byte[] data) {
+        if (data.length > MAX_SLOT_SIZE) {
+            throw new IllegalArgumentException("The data is too large to be stored in the pool");
+        }
+        int classIndex = sizeClassIndex(data.length);
+        long handle = sizeClasses[classIndex].allocate();
+        ByteBuffer slot = slot(handle);
+        slot.put(data);
+        usedBytes.add(sizeClasses[classIndex].slotSize);
+        return handle;
+    }
+
+    /**
+     * Loads the data with the given handle.
+     *
+     * @param handle The handle of the data.
+     * @param length The length of the data.
+     * @return The data.
+     */
+    public byte[] load(long handle, int length) {
+        byte[] data = new byte[length];
+        slot(handle).get(data);
+        return data;
+    }
+
+    /**
+     * Releases the slot with the given handle. The handle must not be used afterwards.
+     *
+     * @param handle The handle of the slot.
+     */
+    public void release(long handle) {
+        SizeClass sizeClass = sizeClasses[(int) (handle >>> 56)];
+        sizeClass.free(handle);
+        usedBytes.add(-sizeClass.slotSize);
+    }
+
+    /**
+     * Gets the amount of direct memory that is reserved by the pool.
+     *
+     * @return The amount of reserved bytes.
+     */
+    public long getReservedBytes() {
+        return reservedBytes.sum();
+    }
+
+    /**
+     * Gets the amount of direct memory that is used by stored messages, including the unused part of their slots.
+     *
+     * @return The amount of used bytes.
+     */
+    public long getUsedBytes() {
+        return usedBytes.sum();
+    }
+
+    /**
+     * Gets a buffer whose position and limit span the slot with the given handle.
+     *
+     * @param handle The handle of the slot.
+     * @return The buffer.
+     */
+    private ByteBuffer slot(long handle) {
+        SizeClass sizeClass = sizeClasses[(int) (handle >>> 56)];
+        int offset = (int) handle;
+        ByteBuffer slot = sizeClass.getSlab((int) ((handle >>> 32) & 0xFFFFFF)).duplicate();
+        slot.limit(offset + sizeClass.slotSize);
+        slot.position(offset);
+        return slot;
+    }
+
+    /**
+     * Gets the index of the smallest size class that can hold the given amount of bytes.
+     *
+     * @param length The amount of bytes.
+     * @return The index of the size class.
+     */
+    private static int sizeClassIndex(int length) {
+        if (length <= MIN_SLOT_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - Integer.numberOfTrailingZeros(MIN_SLOT_SIZE);
+    }
+
+    /**
+     * The slabs and free slots of one slot size.
+     */
+    private class SizeClass {
+
+        private final int index;
+        private final int slotSize;
+        private final int slotsPerSlab;
+        private final List<ByteBuffer> slabs = new CopyOnWriteArrayList<>();
+        private long[] freeSlots = new long[16];
+        private int freeSlotCount = 0;
+
+        /**
+         * Creates a new size class.
+         *
+         * @param slotSize The size of the slots.
+         */
+        SizeClass(int slotSize) {
+            this.index = Integer.numberOfTrailingZeros(slotSize / MIN_SLOT_SIZE);
+            this.slotSize = slotSize;
+            this.slotsPerSlab = Math.max(SLAB_SIZE / slotSize, 1);
+        }
+
+        /**
+         * Allocates a slot, allocating a new slab if there are no free slots.
+         *
+         * @return The handle of the slot.
+         */
+        synchronized long allocate() {
+            if (freeSlotCount == 0) {
+                ByteBuffer slab = ByteBuffer.allocateDirect(slotsPerSlab * slotSize);
+                slabs.add(slab);
+                reservedBytes.add(slab.capacity());
+                long slabIndex = slabs.size() - 1;
+                // Push the slots in reverse order, so that the slots are used in the order of their offsets
+                for (int slot = slotsPerSlab - 1; slot >= 0; slot--) {
+                    free(((long) index << 56) | (slabIndex << 32) | ((long) slot * slotSize));
+                }
+            }
+            return freeSlots[--freeSlotCount];
+        }
+
+        /**
+         * Frees a slot.
+         *
+         * @param handle The handle of the slot.
+         */
+        synchronized void free(long handle) {
+            if (freeSlotCount == freeSlots.length) {
+                long[] newFreeSlots = new long[freeSlots.length * 2];
+                System.arraycopy(freeSlots, 0, newFreeSlots, 0, freeSlotCount);
+                freeSlots = newFreeSlots;
+            }
+            freeSlots[freeSlotCount++] = handle;
+        }
+
+        /**
+         * Gets the slab with the given index.
+         *
+         * @param slabIndex The index of the slab.
+         * @return The slab.
+         */
+        ByteBuffer getSlab(int slabIndex) {
+            return slabs.get(slabIndex);
+        }
+
+    }
+
+}
@@ -1,21 +1,21 @@
 package org.javacord.core.util.cache;
 
 import org.javacord.api.entity.user.User;
+import org.javacord.api.util.cache.EntityCacheBackend;
 import org.javacord.core.util.ImmutableToJavaMapper;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
 /**
- * An immutable cache for all user entities.
+ * A cache for all user entities.
  */
 public class UserCache {
 
     private static final String ID_INDEX_NAME = "id";
 
-    private static final UserCache EMPTY_CACHE = new UserCache(Cache.<User>empty()
-            .addIndex(ID_INDEX_NAME, User::getId)
-    );
+    private static final UserCache EMPTY_CACHE = new UserCache(addIndexes(Cache.empty()));
 
     private final Cache<User> cache;
 
@@ -32,6 +32,40 @@ public class UserCache {
         return EMPTY_CACHE;
     }
 
+    /**
+     * Gets an empty user cache for the given backend.
+     *
+     * @param backend The backend of the cache.
+     * @return An empty user cache.
+     */
+    public static UserCache empty(EntityCacheBackend backend) {
+        if (backend == EntityCacheBackend.IMMUTABLE) {
+            return EMPTY_CACHE;
+        }
+        return new UserCache(addIndexes(Cache.empty(backend)));
+    }
+
+    /**
+     * Adds all indexes of the user cache to the given cache.
+     *
+     * @param cache The cache without indexes.
+     * @return The cache with all indexes.
+     */
+    private static Cache<User> addIndexes(Cache<User> cache) {
+        return cache.addIndex(ID_INDEX_NAME, User::getId);
+    }
+
+    /**
+     * Gets a user cache with the given underlying cache.
+     *
+     * @param newCache The new underlying cache.
+     * @return This instance if the underlying cache did not change (i.e. it was modified in place), or a new user
+     *         cache otherwise.
+     */
+    private UserCache withCache(Cache<User> newCache) {
+        return newCache == cache ? this : new UserCache(newCache);
+    }
+
     /**
      * Adds a user to the cache.
      *
@@ -39,7 +73,7 @@ public class UserCache {
      * @return The new user cache.
      */
     public UserCache addUser(User user) {
-        return new UserCache(cache.addElement(user));
+        return withCache(cache.addElement(user));
     }
 
     /**
@@ -49,7 +83,27 @@ public class UserCache {
      * @return The new user cache.
      */
     public UserCache removeUser(User user) {
-        return new UserCache(cache.removeElement(user));
+        return withCache(cache.removeElement(user));
+    }
+
+    /**
+     * Adds multiple users to the cache.
+     *
+     * @param users The users to add.
+     * @return The new user cache.
+     */
+    public UserCache addUsers(Collection<User> users) {
+        return withCache(cache.addElements(users));
+    }
+
+    /**
+     * Removes multiple users from the cache.
+     *
+     * @param users The users to remove.
+     * @return The new user cache.
+     */
+    public UserCache removeUsers(Collection<User> users) {
+        return withCache(cache.removeElements(users));
     }
 
     /**
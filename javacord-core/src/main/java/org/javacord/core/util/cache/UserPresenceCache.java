@@ -1,19 +1,18 @@
 package org.javacord.core.util.cache;
 
+import org.javacord.api.util.cache.EntityCacheBackend;
 import org.javacord.core.entity.user.UserPresence;
 
 import java.util.Optional;
 
 /**
- * An immutable cache for all user presences.
+ * A cache for all user presences.
  */
 public class UserPresenceCache {
 
     private static final String USER_ID_INDEX_NAME = "user-id";
 
-    private static final UserPresenceCache EMPTY_CACHE = new UserPresenceCache(Cache.<UserPresence>empty()
-            .addIndex(USER_ID_INDEX_NAME, UserPresence::getUserId)
-    );
+    private static final UserPresenceCache EMPTY_CACHE = new UserPresenceCache(addIndexes(Cache.empty()));
 
     private final Cache<UserPresence> cache;
 
@@ -30,6 +29,40 @@ public class UserPresenceCache {
         return EMPTY_CACHE;
     }
 
+    /**
+     * Gets an empty user presence cache for the given backend.
+     *
+     * @param backend The backend of the cache.
+     * @return An empty user presence cache.
+     */
+    public static UserPresenceCache empty(EntityCacheBackend backend) {
+        if (backend == EntityCacheBackend.IMMUTABLE) {
+            return EMPTY_CACHE;
+        }
+        return new UserPresenceCache(addIndexes(Cache.empty(backend)));
+    }
+
+    /**
+     * Adds all indexes of the user presence cache to the given cache.
+     *
+     * @param cache The cache without indexes.
+     * @return The cache with all indexes.
+     */
+    private static Cache<UserPresence> addIndexes(Cache<UserPresence> cache) {
+        return cache.addIndex(USER_ID_INDEX_NAME, UserPresence::getUserId);
+    }
+
+    /**
+     * Gets a user presence cache with the given underlying cache.
+     *
+     * @param newCache The new underlying cache.
+     * @return This instance if the underlying cache did not change (i.e. it was modified in place), or a new user
+     *         presence cache otherwise.
+     */
+    private UserPresenceCache withCache(Cache<UserPresence> newCache) {
+        return newCache == cache ? this : new UserPresenceCache(newCache);
+    }
+
     /**
      * Adds a user presence to the cache.
      *
@@ -37,7 +70,7 @@ public class UserPresenceCache {
      * @return The new user presence cache.
      */
     public UserPresenceCache addUserPresence(UserPresence presence) {
-        return new UserPresenceCache(cache.addElement(presence));
+        return withCache(cache.addElement(presence));
     }
 
     /**
@@ -50,7 +83,7 @@ public class UserPresenceCache {
         if (presence == null) {
             return this;
         }
-        return new UserPresenceCache(cache.removeElement(presence));
+        return withCache(cache.removeElement(presence));
     }
 
     /**
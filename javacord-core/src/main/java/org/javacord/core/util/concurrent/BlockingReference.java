@@ -42,6 +42,15 @@ public class BlockingReference<V> {
         return value != null;
     }
 
+    /**
+     * Gets the current value without blocking.
+     *
+     * @return The current value or null if there is none.
+     */
+    public V getNow() {
+        return value;
+    }
+
     /**
      * Gets the current value or blocks the thread until one is present.
      *
@@ -3,23 +3,21 @@ package org.javacord.core.util.event;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.server.Server;
+import org.javacord.api.util.event.SlowListenerHandler;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.entity.server.ServerImpl;
 import org.javacord.core.util.logging.LoggerUtil;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -35,59 +33,46 @@ public abstract class EventDispatcherBase {
     private static final Logger logger = LoggerUtil.getLogger(EventDispatcherBase.class);
 
     /**
-     * The time which a listener task is allowed to take until it gets interrupted.
+     * The watchdog that checks the execution time of listener tasks.
      */
-    private static final long MAX_EXECUTION_TIME = TimeUnit.MINUTES.toNanos(2);
+    private final ListenerWatchdog watchdog = new ListenerWatchdog();
 
     /**
-     * The time which a listener task is allowed to take until a warning appears on INFO log level.
-     */
-    private static final long INFO_WARNING_DELAY = TimeUnit.SECONDS.toNanos(10);
-
-    /**
-     * The time which a listener task is allowed to take until a warning appears on DEBUG log level.
-     */
-    private static final long DEBUG_WARNING_DELAY = TimeUnit.MILLISECONDS.toNanos(500);
-
-    /**
-     * The interval used to check for execution time.
+     * The discord api instance.
      */
-    private static final long EXECUTION_TIME_CHECKING_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
+    private final DiscordApiImpl api;
 
     /**
-     * Whether execution time checking should be enabled or not.
+     * The dispatch queues of all objects (usually servers), except the queue for lifecycle events.
      */
-    private volatile boolean executionTimeCheckingEnabled = true;
+    private final ConcurrentHashMap<DispatchQueueSelector, DispatchQueue> dispatchQueues = new ConcurrentHashMap<>();
 
     /**
-     * The discord api instance.
+     * The dispatch queue for object-independent lifecycle events, i.e. events with a {@code null} queue selector.
      */
-    private final DiscordApiImpl api;
+    private final DispatchQueue lifecycleQueue = new DispatchQueue(null);
 
     /**
-     * This map which holds a queue for every object (usually a server) with tasks to call the waiting listeners.
+     * The amount of object-dependent listener tasks which are queued or running.
      */
-    private final Map<DispatchQueueSelector, Queue<Runnable>> queuedListenerTasks =
-            Collections.synchronizedMap(new HashMap<>());
+    private final AtomicLong pendingObjectTasks = new AtomicLong();
 
     /**
-     * All objects which currently have a running listener.
+     * The amount of lifecycle listener tasks which are deferred, queued or running. As long as it is not {@code 0}, no
+     * new object-dependent tasks are queued.
      */
-    private final Set<DispatchQueueSelector> runningListeners = Collections.synchronizedSet(new HashSet<>());
+    private final AtomicLong pendingLifecycleTasks = new AtomicLong();
 
     /**
-     * A map with all running listeners as its key. The value contains an array where the first element is a long
-     * with the start time of the listener (using {@link System#nanoTime()}) and the second element is the object
-     * of the listener (usually a server).
+     * Dispatches which were deferred until the lifecycle tasks that were dispatched before them are finished, in the
+     * order of their dispatching. Guarded by {@link #lifecycleBarrierLock}.
      */
-    private final Map<AtomicReference<Future<?>>, Object[]> activeListeners =
-            Collections.synchronizedMap(new HashMap<>());
+    private final Queue<DeferredDispatch> deferredDispatches = new ArrayDeque<>();
 
     /**
-     * A map with all running listeners that already were canceled as its key. The value is the nano time when there
-     * was a warning logged last for the respective listener.
+     * The lock used to start and end lifecycle barriers.
      */
-    private final Map<AtomicReference<Future<?>>, Long> alreadyCanceledListeners = new ConcurrentHashMap<>();
+    private final Object lifecycleBarrierLock = new Object();
 
     /**
      * Creates a new event dispatcher.
@@ -99,35 +84,23 @@ public abstract class EventDispatcherBase {
 
         api.getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
             try {
-                synchronized (queuedListenerTasks) {
-                    Set<Long> currentServerIds = Stream.concat(
-                            api.getServers().stream().map(Server::getId),
-                            api.getUnavailableServers().stream()
-                    ).collect(Collectors.toSet());
-
-                    Iterator<DispatchQueueSelector> iterator = queuedListenerTasks.keySet().iterator();
-                    while (iterator.hasNext()) {
-                        DispatchQueueSelector queueSelector = iterator.next();
-                        // never clean up the object-independent queue
-                        if (queueSelector == null) {
-                            continue;
-                        }
-                        Queue<Runnable> queue = queuedListenerTasks.get(queueSelector);
-                        // queue cannot be null here or there is another bug somewhere
-                        // never clean up queues that still have entries
-                        if (!queue.isEmpty()) {
-                            continue;
-                        }
-                        if (queueSelector instanceof ServerImpl) {
-                            // clean up queues for servers the bot left
-                            Server serverSelector = (Server) queueSelector;
-                            if (!currentServerIds.contains(serverSelector.getId())) {
-                                iterator.remove();
-                            }
-                        } else if (!(queueSelector instanceof DiscordApiImpl)) {
-                            // make sure there are not new queue selector types introduced that are not cleaned up
-                            throw new AssertionError("Unexpected queue selector type");
+                Set<Long> currentServerIds = Stream.concat(
+                        api.getServers().stream().map(Server::getId),
+                        api.getUnavailableServers().stream()
+                ).collect(Collectors.toSet());
+
+                for (DispatchQueueSelector queueSelector : dispatchQueues.keySet()) {
+                    if (queueSelector instanceof ServerImpl) {
+                        // clean up queues for servers the bot left
+                        Server serverSelector = (Server) queueSelector;
+                        if (!currentServerIds.contains(serverSelector.getId())) {
+                            // never clean up queues that still have entries or are running
+                            dispatchQueues.computeIfPresent(queueSelector,
+                                    (selector, queue) -> queue.isIdle() ? null : queue);
                         }
+                    } else if (!(queueSelector instanceof DiscordApiImpl)) {
+                        // make sure there are not new queue selector types introduced that are not cleaned up
+                        throw new AssertionError("Unexpected queue selector type");
                     }
                 }
             } catch (Throwable t) {
@@ -135,65 +108,7 @@ public abstract class EventDispatcherBase {
             }
         }, 10, 10, TimeUnit.SECONDS);
 
-        queuedListenerTasks.put(null, new ConcurrentLinkedQueue<>());
-        api.getThreadPool().getScheduler().scheduleAtFixedRate(() -> {
-            try {
-                if (!executionTimeCheckingEnabled) {
-                    return;
-                }
-                synchronized (activeListeners) {
-                    long currentNanoTime = System.nanoTime();
-                    for (Map.Entry<AtomicReference<Future<?>>, Object[]> entry : activeListeners.entrySet()) {
-                        long difference = currentNanoTime - ((long) entry.getValue()[0]);
-                        DispatchQueueSelector queueSelector = (DispatchQueueSelector) entry.getValue()[1];
-                        if ((difference > DEBUG_WARNING_DELAY)
-                                && (difference <= (DEBUG_WARNING_DELAY + EXECUTION_TIME_CHECKING_INTERVAL))) {
-                            logger.debug("Detected {} which is now running for over {} ms ({} ms). This is"
-                                            + " an unusually long execution time for a listener task. Make"
-                                            + " sure to not do any heavy computations in listener threads!",
-                                    () -> getThreadType(queueSelector),
-                                    () -> TimeUnit.NANOSECONDS.toMillis(DEBUG_WARNING_DELAY),
-                                    () -> TimeUnit.NANOSECONDS.toMillis(difference));
-                        }
-                        if ((difference > INFO_WARNING_DELAY)
-                                && (difference <= (INFO_WARNING_DELAY + EXECUTION_TIME_CHECKING_INTERVAL))) {
-                            logger.warn("Detected {} which is now running for over {} seconds ({} ms)."
-                                            + " This is a very unusually long execution time for a listener task. Make"
-                                            + " sure to not do any heavy computations in listener threads!",
-                                    () -> getThreadType(queueSelector),
-                                    () -> TimeUnit.NANOSECONDS.toSeconds(INFO_WARNING_DELAY),
-                                    () -> TimeUnit.NANOSECONDS.toMillis(difference));
-                        }
-                        if (difference > MAX_EXECUTION_TIME) {
-                            AtomicReference<Future<?>> listener = entry.getKey();
-                            alreadyCanceledListeners.compute(listener, (l, lastWarning) -> {
-                                if (lastWarning == null) {
-                                    listener.get().cancel(true);
-                                    logger.error("Interrupted {}, because it was running over {} seconds! "
-                                                    + "This was most likely caused by a deadlock or very heavy "
-                                                    + "computation/blocking operations in the listener thread. "
-                                                    + "Make sure to not block listener threads!",
-                                            () -> getThreadType(queueSelector),
-                                            () -> TimeUnit.NANOSECONDS.toSeconds(MAX_EXECUTION_TIME));
-                                    return currentNanoTime;
-                                } else if (currentNanoTime - lastWarning > INFO_WARNING_DELAY) {
-                                    logger.error("Interrupted {} previously but the listener did not react "
-                                                    + "to being interrupted! This is most likely caused by a deadlock "
-                                                    + "or very heavy computation in the listener thread. "
-                                                    + "Make sure to not block listener threads!",
-                                            () -> getThreadType(queueSelector));
-                                    return currentNanoTime;
-                                } else {
-                                    return lastWarning;
-                                }
-                            });
-                        }
-                    }
-                }
-            } catch (Throwable t) {
-                logger.error("Failed to check execution times!", t);
-            }
-        }, 200, 200, TimeUnit.MILLISECONDS);
+        watchdog.start(api.getThreadPool().getScheduler());
     }
 
     /**
@@ -205,13 +120,57 @@ public abstract class EventDispatcherBase {
         return api;
     }
 
+    /**
+     * Checks if any listener of the given class is registered, either globally or to any object.
+     *
+     * @param listenerClass The listener class.
+     * @return Whether any listener of the given class is registered.
+     */
+    protected boolean hasListeners(Class<?> listenerClass) {
+        return api.hasListeners(listenerClass);
+    }
+
     /**
      * Sets whether execution time checking should be enabled or not.
      *
      * @param enable Whether execution time checking should be enabled or not.
      */
     public void setExecutionTimeCheckingEnabled(boolean enable) {
-        executionTimeCheckingEnabled = enable;
+        watchdog.setEnabled(enable);
+    }
+
+    /**
+     * Sets the handler which is notified about listener tasks with an unusually long execution time.
+     *
+     * @param slowListenerHandler The handler or {@code null} to only log slow listener tasks.
+     */
+    public void setSlowListenerHandler(SlowListenerHandler slowListenerHandler) {
+        watchdog.setSlowListenerHandler(slowListenerHandler);
+    }
+
+    /**
+     * Concatenates two lists of listeners.
+     *
+     * <p>If one of the lists is empty, the other list is returned as it is, so a new list is only allocated if both
+     * lists contain listeners. The returned list must not be modified.
+     *
+     * @param first The first list.
+     * @param second The second list.
+     * @param <T> The type of the listeners.
+     * @return A list with the listeners of both lists.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> List<T> concat(List<T> first, List<? extends T> second) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        if (first.isEmpty()) {
+            return (List<T>) second;
+        }
+        List<T> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return result;
     }
 
     /**
@@ -242,115 +201,187 @@ public abstract class EventDispatcherBase {
             return;
         }
 
-        api.getThreadPool().getSingleThreadExecutorService("Event Dispatch Queues Manager").submit(() -> {
-            if (queueSelector != null) { // Object dependent listeners
-                // Don't allow adding of more events while there are unfinished object independent tasks
-                Queue<Runnable> objectIndependentQueue = queuedListenerTasks.get(null);
-                while (!objectIndependentQueue.isEmpty()) {
-                    try {
-                        synchronized (queuedListenerTasks) {
-                            // Just to be on the safe side, we use a timeout of 5 seconds
-                            queuedListenerTasks.wait(5000);
-                        }
-                    } catch (InterruptedException ignored) { }
-                }
-            }
-            synchronized (queuedListenerTasks) {
-                Queue<Runnable> queue = queuedListenerTasks.computeIfAbsent(
-                        queueSelector, o -> new ConcurrentLinkedQueue<>());
-                listeners.forEach(listener -> queue.add(() -> consumer.accept(listener)));
+        List<Runnable> tasks = new ArrayList<>(listeners.size());
+        listeners.forEach(listener -> tasks.add(() -> consumer.accept(listener)));
+
+        if (queueSelector == null) {
+            dispatchLifecycleTasks(tasks);
+        } else {
+            dispatchObjectTasks(queueSelector, tasks);
+        }
+    }
+
+    /**
+     * Queues object-dependent listener tasks, or defers them if there are pending lifecycle tasks.
+     *
+     * @param queueSelector The object which is used to determine in which queue the tasks should be dispatched.
+     * @param tasks The listener tasks.
+     */
+    private void dispatchObjectTasks(DispatchQueueSelector queueSelector, List<Runnable> tasks) {
+        // Count the tasks before checking for a lifecycle barrier. A lifecycle barrier is started before the pending
+        // object tasks are checked, so either the barrier is seen here or the lifecycle tasks wait for these tasks.
+        pendingObjectTasks.addAndGet(tasks.size());
+        if (pendingLifecycleTasks.get() == 0) {
+            queueObjectTasks(queueSelector, tasks);
+            return;
+        }
+
+        boolean deferred;
+        synchronized (lifecycleBarrierLock) {
+            deferred = pendingLifecycleTasks.get() != 0;
+            if (deferred) {
+                // Don't allow adding of more events while there are unfinished object-independent tasks
+                deferredDispatches.add(new DeferredDispatch(queueSelector, tasks));
             }
-            checkRunningListenersAndStartIfPossible(queueSelector);
+        }
+        if (deferred) {
+            objectTasksFinished(tasks.size());
+        } else {
+            queueObjectTasks(queueSelector, tasks);
+        }
+    }
+
+    /**
+     * Adds object-dependent listener tasks to the queue of the given object and schedules the queue.
+     *
+     * @param queueSelector The object which is used to determine in which queue the tasks should be dispatched.
+     * @param tasks The listener tasks.
+     */
+    private void queueObjectTasks(DispatchQueueSelector queueSelector, List<Runnable> tasks) {
+        // Adding the tasks inside compute prevents the queue from being cleaned up at the same time
+        DispatchQueue dispatchQueue = dispatchQueues.compute(queueSelector, (selector, queue) -> {
+            DispatchQueue result = queue == null ? new DispatchQueue(selector) : queue;
+            result.tasks.addAll(tasks);
+            return result;
         });
+        schedule(dispatchQueue);
     }
 
     /**
-     * Checks if there are listeners running for the given object and if
-     * not it takes one from the queue for the object and executes it.
+     * Queues lifecycle listener tasks. The tasks are executed after all previously dispatched object-dependent tasks
+     * are finished and before any object-dependent task that is dispatched later.
      *
-     * <p>If all object-dependent tasks are finished,
-     * object-independent ones will be executed instead
-     * and after all object-independent are finished,
-     * new object-dependent tasks can get queued.
+     * @param tasks The listener tasks.
+     */
+    private void dispatchLifecycleTasks(List<Runnable> tasks) {
+        synchronized (lifecycleBarrierLock) {
+            pendingLifecycleTasks.addAndGet(tasks.size());
+            if (deferredDispatches.isEmpty()) {
+                lifecycleQueue.tasks.addAll(tasks);
+            } else {
+                // Object-dependent tasks were deferred since the last lifecycle tasks, which must not be overtaken
+                deferredDispatches.add(new DeferredDispatch(null, tasks));
+            }
+        }
+        scheduleLifecycleQueue();
+    }
+
+    /**
+     * Marks object-dependent tasks as finished and starts the lifecycle tasks if they were waiting for them.
      *
-     * @param queueSelector The object which is used to determine in which thread the consumer should be executed.
+     * @param count The amount of finished tasks.
      */
-    private void checkRunningListenersAndStartIfPossible(DispatchQueueSelector queueSelector) {
-        synchronized (queuedListenerTasks) {
-            // if either
-            // - running for object-independent tasks or
-            // - running for object-dependent tasks, but queue is empty or not present
-            Queue<Runnable> queue = queueSelector == null ? null : queuedListenerTasks.get(queueSelector);
-            if (queue == null || queue.isEmpty()) {
-                // if no object-independent tasks to be processed everything is fine, return
-                if (queuedListenerTasks.get(null).isEmpty()) {
-                    return;
-                }
-                // if object-independent tasks to be processed
-                // check whether there are still queued object-dependent tasks
-                boolean moreObjectDependentTasks = queuedListenerTasks.entrySet()
-                        .stream()
-                        .filter(entry -> !entry.getValue().isEmpty())
-                        .anyMatch(entry -> entry.getKey() != null);
-                // if there are object-dependent tasks scheduled or there are still tasks running => retry later
-                if (moreObjectDependentTasks || !runningListeners.isEmpty()) {
-                    return;
+    private void objectTasksFinished(int count) {
+        if (pendingObjectTasks.addAndGet(-count) == 0) {
+            scheduleLifecycleQueue();
+        }
+    }
+
+    /**
+     * Marks a lifecycle task as finished. If it was the last queued lifecycle task, the deferred dispatches are queued
+     * in their original order up to and including the next deferred lifecycle dispatch. If there is none, the
+     * lifecycle barrier is ended.
+     */
+    private void lifecycleTaskFinished() {
+        synchronized (lifecycleBarrierLock) {
+            if (lifecycleQueue.tasks.isEmpty()) {
+                // Queue the deferred dispatches before ending the barrier, so that dispatches which see the end of
+                // the barrier cannot overtake them
+                DeferredDispatch deferredDispatch;
+                while ((deferredDispatch = deferredDispatches.poll()) != null) {
+                    if (deferredDispatch.queueSelector == null) {
+                        // Executed once the object-dependent tasks that were queued before are finished
+                        lifecycleQueue.tasks.addAll(deferredDispatch.tasks);
+                        break;
+                    }
+                    pendingObjectTasks.addAndGet(deferredDispatch.tasks.size());
+                    queueObjectTasks(deferredDispatch.queueSelector, deferredDispatch.tasks);
                 }
-                // force object-independent task being handled
-                // after all queued object-dependent tasks are finished
-                // and before new object-dependent tasks will get queued
-                queueSelector = null;
-                queue = queuedListenerTasks.get(null);
             }
-            DispatchQueueSelector finalQueueSelector = queueSelector;
-            Queue<Runnable> taskQueue = queue;
-            // if there is no task running already for the queue
-            if (runningListeners.add(finalQueueSelector)) {
-                // check whether there is something to do for the queue
-                // if not, free the runningListeners synchronizer
-                // otherwise schedule the task to do
-                if (queue.isEmpty()) {
-                    runningListeners.remove(finalQueueSelector);
-                } else {
-                    AtomicReference<Future<?>> activeListener = new AtomicReference<>();
-                    activeListener.set(api.getThreadPool().getExecutorService().submit(() -> {
-                        if (finalQueueSelector instanceof ServerImpl) {
-                            Object serverReadyNotifier = new Object();
-                            ((ServerImpl) finalQueueSelector)
-                                    .addServerReadyConsumer(s -> {
-                                        synchronized (serverReadyNotifier) {
-                                            serverReadyNotifier.notifyAll();
-                                        }
-                                    });
-                            while (!((ServerImpl) finalQueueSelector).isReady()) {
-                                try {
-                                    synchronized (serverReadyNotifier) {
-                                        serverReadyNotifier.wait(5000);
-                                    }
-                                } catch (InterruptedException ignored) { }
-                            }
-                        }
-                        // Add the future to the list of active listeners
-                        activeListeners.put(activeListener, new Object[]{System.nanoTime(), finalQueueSelector});
-                        try {
-                            taskQueue.poll().run();
-                        } catch (Throwable t) {
-                            logger.error(
-                                    "Unhandled exception in {}!",
-                                    () -> getThreadType(finalQueueSelector),
-                                    () -> t);
-                        }
-                        activeListeners.remove(activeListener);
-                        alreadyCanceledListeners.remove(activeListener);
-                        runningListeners.remove(finalQueueSelector);
-                        // Inform the dispatchEvent method that it maybe can queue new listeners now
-                        synchronized (queuedListenerTasks) {
-                            queuedListenerTasks.notifyAll();
-                        }
-                        checkRunningListenersAndStartIfPossible(finalQueueSelector);
-                    }));
-                }
+            pendingLifecycleTasks.decrementAndGet();
+        }
+    }
+
+    /**
+     * Schedules the lifecycle queue if it has tasks and there are no pending object-dependent tasks.
+     */
+    private void scheduleLifecycleQueue() {
+        if (pendingObjectTasks.get() == 0) {
+            schedule(lifecycleQueue);
+        }
+    }
+
+    /**
+     * Submits a task to execute the next listener task of the given queue if the queue has tasks and is not already
+     * scheduled.
+     *
+     * <p>Every submitted task executes one listener task and reschedules the queue afterwards, so that the threads of
+     * the pool are shared fairly between all queues.
+     *
+     * @param dispatchQueue The queue to schedule.
+     */
+    private void schedule(DispatchQueue dispatchQueue) {
+        if (dispatchQueue.tasks.isEmpty() || !dispatchQueue.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        DispatchQueueSelector queueSelector = dispatchQueue.selector;
+        api.getThreadPool().getExecutorService().submit(() -> {
+            if (queueSelector instanceof ServerImpl) {
+                waitUntilReady((ServerImpl) queueSelector);
             }
+            Runnable task = dispatchQueue.tasks.poll();
+            ListenerWatchdog.Slot watchdogSlot = watchdog.begin(queueSelector);
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.error(
+                        "Unhandled exception in {}!",
+                        () -> getThreadType(queueSelector),
+                        () -> t);
+            } finally {
+                watchdog.end(watchdogSlot);
+            }
+
+            if (queueSelector == null) {
+                lifecycleTaskFinished();
+                dispatchQueue.scheduled.set(false);
+                scheduleLifecycleQueue();
+            } else {
+                dispatchQueue.scheduled.set(false);
+                objectTasksFinished(1);
+                schedule(dispatchQueue);
+            }
+        });
+    }
+
+    /**
+     * Blocks until the given server is ready.
+     *
+     * @param server The server.
+     */
+    private void waitUntilReady(ServerImpl server) {
+        Object serverReadyNotifier = new Object();
+        server.addServerReadyConsumer(s -> {
+            synchronized (serverReadyNotifier) {
+                serverReadyNotifier.notifyAll();
+            }
+        });
+        while (!server.isReady()) {
+            try {
+                synchronized (serverReadyNotifier) {
+                    serverReadyNotifier.wait(5000);
+                }
+            } catch (InterruptedException ignored) { }
         }
     }
 
@@ -360,7 +391,7 @@ public abstract class EventDispatcherBase {
      * @param queueSelector The queue selector.
      * @return The name of the thread type.
      */
-    private String getThreadType(DispatchQueueSelector queueSelector) {
+    static String getThreadType(DispatchQueueSelector queueSelector) {
         String threadType;
         if (queueSelector instanceof DiscordApi) {
             threadType = "a global listener thread";
@@ -372,4 +403,54 @@ public abstract class EventDispatcherBase {
         return threadType;
     }
 
+    /**
+     * Listener tasks which were deferred because of a lifecycle barrier.
+     */
+    private static class DeferredDispatch {
+
+        private final DispatchQueueSelector queueSelector;
+        private final List<Runnable> tasks;
+
+        /**
+         * Creates a new deferred dispatch.
+         *
+         * @param queueSelector The object of the tasks or {@code null} for lifecycle tasks.
+         * @param tasks The listener tasks.
+         */
+        DeferredDispatch(DispatchQueueSelector queueSelector, List<Runnable> tasks) {
+            this.queueSelector = queueSelector;
+            this.tasks = tasks;
+        }
+
+    }
+
+    /**
+     * A queue with the listener tasks of one object. The tasks of a queue are executed sequentially.
+     */
+    private static class DispatchQueue {
+
+        private final DispatchQueueSelector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Creates a new dispatch queue.
+         *
+         * @param selector The object of the queue.
+         */
+        DispatchQueue(DispatchQueueSelector selector) {
+            this.selector = selector;
+        }
+
+        /**
+         * Checks if the queue has no tasks and is not scheduled.
+         *
+         * @return Whether the queue is idle.
+         */
+        boolean isIdle() {
+            return tasks.isEmpty() && !scheduled.get();
+        }
+
+    }
+
 }
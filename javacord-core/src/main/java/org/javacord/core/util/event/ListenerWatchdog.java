@@ -0,0 +1,321 @@
+package org.javacord.core.util.event;
+
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.util.event.SlowListenerHandler;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the execution time of listener tasks.
+ *
+ * <p>Every thread that executes listener tasks gets a slot in a copy-on-write array. A listener task only writes its
+ * start time and a task number into the slot of its thread when it starts and clears it when it ends. A periodic check
+ * samples all slots without any locking and logs, reports or interrupts listener tasks which are running for too long.
+ * A task is only interrupted if its task number can be atomically swapped, so an interrupt never hits a later task of
+ * the same thread.
+ */
+class ListenerWatchdog {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(ListenerWatchdog.class);
+
+    /**
+     * The time which a listener task is allowed to take until it gets interrupted.
+     */
+    static final long MAX_EXECUTION_TIME = TimeUnit.MINUTES.toNanos(2);
+
+    /**
+     * The time which a listener task is allowed to take until a warning appears on INFO log level.
+     */
+    static final long INFO_WARNING_DELAY = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * The time which a listener task is allowed to take until a warning appears on DEBUG log level.
+     */
+    static final long DEBUG_WARNING_DELAY = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * The interval used to check for execution time.
+     */
+    private static final long EXECUTION_TIME_CHECKING_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
+
+    /**
+     * The slot of the current thread.
+     */
+    private final ThreadLocal<Slot> currentSlot = ThreadLocal.withInitial(this::registerCurrentThread);
+
+    /**
+     * The slots of all threads which executed a listener task. The array is never modified after it was published.
+     */
+    private volatile Slot[] slots = new Slot[0];
+
+    /**
+     * Whether execution time checking should be enabled or not.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * The handler which is notified about slow listener tasks.
+     */
+    private volatile SlowListenerHandler slowListenerHandler;
+
+    /**
+     * Starts checking the execution times periodically.
+     *
+     * @param scheduler The scheduler that runs the checks.
+     */
+    void start(ScheduledExecutorService scheduler) {
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (enabled) {
+                    check(System.nanoTime());
+                }
+            } catch (Throwable t) {
+                logger.error("Failed to check execution times!", t);
+            }
+        }, EXECUTION_TIME_CHECKING_INTERVAL, EXECUTION_TIME_CHECKING_INTERVAL, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets whether execution time checking should be enabled or not.
+     *
+     * @param enabled Whether execution time checking should be enabled or not.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the handler which is notified about slow listener tasks.
+     *
+     * @param slowListenerHandler The handler or {@code null} to only log slow listener tasks.
+     */
+    void setSlowListenerHandler(SlowListenerHandler slowListenerHandler) {
+        this.slowListenerHandler = slowListenerHandler;
+    }
+
+    /**
+     * Marks the start of a listener task on the current thread.
+     *
+     * @param queueSelector The queue selector of the listener task.
+     * @return The slot of the current thread, which must be passed to {@link #end(Slot)}.
+     */
+    Slot begin(DispatchQueueSelector queueSelector) {
+        Slot slot = currentSlot.get();
+        slot.queueSelector = queueSelector;
+        slot.startTime = System.nanoTime();
+        // Written last, so that a check which sees the task running also sees its start time
+        slot.task.set(++slot.taskCounter);
+        return slot;
+    }
+
+    /**
+     * Marks the end of a listener task.
+     *
+     * @param slot The slot returned by {@link #begin(DispatchQueueSelector)}.
+     */
+    void end(Slot slot) {
+        if (slot.task.compareAndSet(slot.taskCounter, Slot.IDLE)) {
+            return;
+        }
+        // The task was interrupted, wait until the interrupt was delivered and clear it for the next task
+        while (slot.task.get() == Slot.INTERRUPTING) {
+            Thread.yield();
+        }
+        Thread.interrupted();
+        slot.task.set(Slot.IDLE);
+    }
+
+    /**
+     * Checks the execution time of all running listener tasks. Must not be called concurrently.
+     *
+     * @param currentNanoTime The current nano time.
+     */
+    void check(long currentNanoTime) {
+        boolean deadThreads = false;
+        for (Slot slot : slots) {
+            long task = slot.task.get();
+            if (task == Slot.IDLE) {
+                deadThreads |= !slot.thread.isAlive();
+                continue;
+            }
+            long startTime = slot.startTime;
+            if (slot.task.get() != task) {
+                // The task ended in the meantime
+                continue;
+            }
+            if (startTime != slot.checkedStartTime) {
+                // A new listener task started since the last check
+                slot.checkedStartTime = startTime;
+                slot.reportedThreshold = 0;
+                slot.lastInterruptWarning = 0;
+            }
+            check(slot, task, currentNanoTime - startTime, currentNanoTime);
+        }
+        if (deadThreads) {
+            removeDeadThreads();
+        }
+    }
+
+    /**
+     * Checks the execution time of a running listener task.
+     *
+     * @param slot The slot of the thread that executes the listener task.
+     * @param task The task number of the listener task.
+     * @param difference The execution time of the listener task.
+     * @param currentNanoTime The current nano time.
+     */
+    private void check(Slot slot, long task, long difference, long currentNanoTime) {
+        DispatchQueueSelector queueSelector = slot.queueSelector;
+        if (difference > DEBUG_WARNING_DELAY && slot.reportedThreshold < DEBUG_WARNING_DELAY) {
+            slot.reportedThreshold = DEBUG_WARNING_DELAY;
+            logger.debug("Detected {} which is now running for over {} ms ({} ms). This is"
+                            + " an unusually long execution time for a listener task. Make"
+                            + " sure to not do any heavy computations in listener threads!",
+                    () -> EventDispatcherBase.getThreadType(queueSelector),
+                    () -> TimeUnit.NANOSECONDS.toMillis(DEBUG_WARNING_DELAY),
+                    () -> TimeUnit.NANOSECONDS.toMillis(difference));
+            notifySlowListenerHandler(slot, difference);
+        }
+        if (difference > INFO_WARNING_DELAY && slot.reportedThreshold < INFO_WARNING_DELAY) {
+            slot.reportedThreshold = INFO_WARNING_DELAY;
+            logger.warn("Detected {} which is now running for over {} seconds ({} ms)."
+                            + " This is a very unusually long execution time for a listener task. Make"
+                            + " sure to not do any heavy computations in listener threads!",
+                    () -> EventDispatcherBase.getThreadType(queueSelector),
+                    () -> TimeUnit.NANOSECONDS.toSeconds(INFO_WARNING_DELAY),
+                    () -> TimeUnit.NANOSECONDS.toMillis(difference));
+            notifySlowListenerHandler(slot, difference);
+        }
+        if (difference > MAX_EXECUTION_TIME) {
+            if (slot.reportedThreshold < MAX_EXECUTION_TIME) {
+                slot.reportedThreshold = MAX_EXECUTION_TIME;
+                slot.lastInterruptWarning = currentNanoTime;
+                // Only interrupt the thread if it is still executing the same listener task
+                if (task < 0 || !slot.task.compareAndSet(task, Slot.INTERRUPTING)) {
+                    return;
+                }
+                slot.thread.interrupt();
+                slot.task.set(Slot.INTERRUPTED);
+                logger.error("Interrupted {}, because it was running over {} seconds! "
+                                + "This was most likely caused by a deadlock or very heavy "
+                                + "computation/blocking operations in the listener thread. "
+                                + "Make sure to not block listener threads!",
+                        () -> EventDispatcherBase.getThreadType(queueSelector),
+                        () -> TimeUnit.NANOSECONDS.toSeconds(MAX_EXECUTION_TIME));
+                notifySlowListenerHandler(slot, difference);
+            } else if (currentNanoTime - slot.lastInterruptWarning > INFO_WARNING_DELAY) {
+                slot.lastInterruptWarning = currentNanoTime;
+                logger.error("Interrupted {} previously but the listener did not react "
+                                + "to being interrupted! This is most likely caused by a deadlock "
+                                + "or very heavy computation in the listener thread. "
+                                + "Make sure to not block listener threads!",
+                        () -> EventDispatcherBase.getThreadType(queueSelector));
+            }
+        }
+    }
+
+    /**
+     * Notifies the slow listener handler, if there is one.
+     *
+     * @param slot The slot of the thread that executes the slow listener task.
+     * @param difference The execution time of the listener task.
+     */
+    private void notifySlowListenerHandler(Slot slot, long difference) {
+        SlowListenerHandler handler = slowListenerHandler;
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.onSlowListener(slot.thread, Duration.ofNanos(difference));
+        } catch (Throwable t) {
+            logger.error("Unhandled exception in slow listener handler!", t);
+        }
+    }
+
+    /**
+     * Creates and registers the slot of the current thread.
+     *
+     * @return The slot of the current thread.
+     */
+    private synchronized Slot registerCurrentThread() {
+        Slot slot = new Slot(Thread.currentThread());
+        Slot[] newSlots = Arrays.copyOf(slots, slots.length + 1);
+        newSlots[newSlots.length - 1] = slot;
+        slots = newSlots;
+        return slot;
+    }
+
+    /**
+     * Removes the slots of threads which are no longer alive.
+     */
+    private synchronized void removeDeadThreads() {
+        slots = Arrays.stream(slots).filter(slot -> slot.thread.isAlive()).toArray(Slot[]::new);
+    }
+
+    /**
+     * Gets the amount of threads which have a slot.
+     *
+     * @return The amount of used slots.
+     */
+    int getSlotCount() {
+        return slots.length;
+    }
+
+    /**
+     * The slot of a thread which executes listener tasks.
+     */
+    static class Slot {
+
+        /**
+         * The task number of a slot whose thread does not execute a listener task.
+         */
+        private static final long IDLE = 0;
+
+        /**
+         * The task number of a slot whose thread is about to be interrupted.
+         */
+        private static final long INTERRUPTING = -1;
+
+        /**
+         * The task number of a slot whose listener task was interrupted, but did not end yet.
+         */
+        private static final long INTERRUPTED = -2;
+
+        private final Thread thread;
+        private volatile DispatchQueueSelector queueSelector;
+        private volatile long startTime;
+
+        /**
+         * The number of the running listener task, or one of {@link #IDLE}, {@link #INTERRUPTING} and
+         * {@link #INTERRUPTED}.
+         */
+        private final AtomicLong task = new AtomicLong(IDLE);
+
+        // Only accessed by the thread of the slot
+        private long taskCounter;
+
+        // Only accessed by the checking thread
+        private long checkedStartTime;
+        private long reportedThreshold;
+        private long lastInterruptWarning;
+
+        /**
+         * Creates a new slot.
+         *
+         * @param thread The thread of the slot.
+         */
+        Slot(Thread thread) {
+            this.thread = thread;
+        }
+
+    }
+
+}
@@ -1,89 +1,122 @@
 package org.javacord.core.util.gateway;
 
-import com.codahale.xsalsa20poly1305.SecretBox;
+import org.bouncycastle.crypto.engines.XSalsa20Engine;
+import org.bouncycastle.crypto.macs.Poly1305;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.javacord.api.audio.SilentAudioSource;
 
 import java.net.DatagramPacket;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+/**
+ * A reusable audio packet of an audio connection.
+ *
+ * <p>The packet buffer, the nonce, the cipher and the datagram packet are reused for every frame. A frame is encrypted
+ * directly into the packet buffer.
+ */
 public class AudioPacket {
 
     private static final byte RTP_TYPE = (byte) 0x80;
     private static final byte RTP_VERSION = (byte) 0x78;
     private static final int RTP_HEADER_LENGTH = 12;
     private static final int NONCE_LENGTH = 24;
+    private static final int KEY_LENGTH = 32;
+    private static final int MAC_LENGTH = 16;
 
-    private boolean encrypted;
-    private byte[] header;
-    private byte[] audioFrame;
+    /**
+     * The maximum length of an opus packet, which is enough for every frame that is sent in practice.
+     */
+    private static final int MAX_OPUS_PACKET_LENGTH = 1275;
+
+    private final int ssrc;
+    private final DatagramPacket udpPacket;
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+    private final byte[] subkey = new byte[KEY_LENGTH];
+    private final XSalsa20Engine cipher = new XSalsa20Engine();
+    private final Poly1305 mac = new Poly1305();
+
+    private byte[] buffer;
+    private ByteBuffer header;
 
     /**
-     * Creates a new silent audio packet.
+     * The secret key used to encrypt the packet.
+     */
+    private volatile KeyParameter secretKey;
+
+    /**
+     * Creates a new audio packet.
      *
      * @param ssrc The ssrc.
-     * @param sequence The sequence.
-     * @param timestamp The timestamp.
+     * @param address The destination address.
      */
-    public AudioPacket(int ssrc, char sequence, int timestamp) {
-        this(null, ssrc, sequence, timestamp);
+    public AudioPacket(int ssrc, InetSocketAddress address) {
+        this.ssrc = ssrc;
+        setBuffer(new byte[RTP_HEADER_LENGTH + MAC_LENGTH + MAX_OPUS_PACKET_LENGTH]);
+        udpPacket = new DatagramPacket(buffer, 0, address);
     }
 
     /**
-     * Creates a new audio packet.
+     * Sets the secret key which is used to encrypt the packet.
      *
-     * @param audioFrame A byte array containing 20ms of audio
-     * @param ssrc The ssrc.
+     * @param secretKey The secret key.
+     */
+    public void setSecretKey(byte[] secretKey) {
+        if (secretKey.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("The secret key must be " + KEY_LENGTH + " bytes long");
+        }
+        this.secretKey = new KeyParameter(secretKey);
+    }
+
+    /**
+     * Writes an audio frame into the packet and encrypts it.
+     * The packet must not be used by more than one thread at a time.
+     *
+     * @param audioFrame A byte array containing 20ms of audio or {@code null} for a silent frame.
      * @param sequence The sequence.
      * @param timestamp The timestamp.
+     * @return The datagram packet, ready to be sent. It is reused by the next call of this method.
      */
-    public AudioPacket(byte[] audioFrame, int ssrc, char sequence, int timestamp) {
+    public DatagramPacket encrypt(byte[] audioFrame, char sequence, int timestamp) {
         if (audioFrame == null) {
             audioFrame = SilentAudioSource.SILENCE_FRAME;
         }
-        this.audioFrame = audioFrame;
+        int length = RTP_HEADER_LENGTH + MAC_LENGTH + audioFrame.length;
+        if (buffer.length < length) {
+            setBuffer(new byte[length]);
+        }
+
         // See https://discord.com/developers/docs/topics/voice-connections#encrypting-and-sending-voice
-        ByteBuffer buffer = ByteBuffer.allocate(RTP_HEADER_LENGTH)
-                .put(0, RTP_TYPE)
+        header.put(0, RTP_TYPE)
                 .put(1, RTP_VERSION)
                 .putChar(2, sequence)
                 .putInt(4, timestamp)
                 .putInt(8, ssrc);
-        header = buffer.array();
-    }
+        System.arraycopy(buffer, 0, nonce, 0, RTP_HEADER_LENGTH);
 
-    /**
-     * Encrypts the audio packet with the given key.
-     *
-     * @param key The key used to encrypt the packet.
-     */
-    public void encrypt(byte[] key) {
-        byte[] nonce = new byte[NONCE_LENGTH];
-        System.arraycopy(header, 0, nonce, 0, RTP_HEADER_LENGTH);
-        audioFrame = new SecretBox(key).seal(nonce, audioFrame);
-        encrypted = true;
-    }
+        // XSalsa20-Poly1305 like libsodium's secretbox, writing the MAC and the cipher text directly after the header
+        cipher.init(true, new ParametersWithIV(secretKey, nonce));
+        Arrays.fill(subkey, (byte) 0);
+        cipher.processBytes(subkey, 0, KEY_LENGTH, subkey, 0);
+        cipher.processBytes(audioFrame, 0, audioFrame.length, buffer, RTP_HEADER_LENGTH + MAC_LENGTH);
+        mac.init(new KeyParameter(subkey));
+        mac.update(buffer, RTP_HEADER_LENGTH + MAC_LENGTH, audioFrame.length);
+        mac.doFinal(buffer, RTP_HEADER_LENGTH);
 
-    /**
-     * Creates a {@code DatagramPacket}, ready to be sent.
-     *
-     * @param address The destination address.
-     * @return The created datagram packet.
-     */
-    public DatagramPacket asUdpPacket(InetSocketAddress address) {
-        byte[] packet = new byte[header.length + audioFrame.length];
-        System.arraycopy(header, 0, packet, 0, header.length);
-        System.arraycopy(audioFrame, 0, packet, header.length, audioFrame.length);
-        return new DatagramPacket(packet, packet.length, address);
+        udpPacket.setData(buffer, 0, length);
+        return udpPacket;
     }
 
     /**
-     * Checks if the audio packet has been encrypted using the {@link #encrypt(byte[])} method.
+     * Sets the buffer of the packet.
      *
-     * @return Whether the audio packet is encrypted or not.
+     * @param buffer The new buffer.
      */
-    public boolean isEncrypted() {
-        return encrypted;
+    private void setBuffer(byte[] buffer) {
+        this.buffer = buffer;
+        header = ByteBuffer.wrap(buffer);
     }
 
 }
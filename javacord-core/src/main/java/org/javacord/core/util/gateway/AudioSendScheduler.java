@@ -0,0 +1,340 @@
+package org.javacord.core.util.gateway;
+
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.util.concurrent.ThreadPool;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the audio sending of all audio connections.
+ *
+ * <p>Instead of using one thread per audio connection, the connections are distributed over a small amount of worker
+ * threads. Every worker waits with nanosecond precision until the next frame of one of its connections is due and then
+ * sends the frames of all due connections. A worker thread is only running while it has connections.
+ *
+ * <p>Sending a frame calls the connection's audio source, which must not block. A sender which nevertheless takes
+ * longer than {@link #OVERRUN_THRESHOLD} for {@link #OVERRUN_LIMIT} frames in a row is moved to a dedicated worker
+ * thread, so that it does not delay the frames of the other connections anymore. Single slow frames, e.g. because of
+ * a garbage collection, are tolerated.
+ */
+public class AudioSendScheduler {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(AudioSendScheduler.class);
+
+    /**
+     * The duration of an audio frame.
+     */
+    static final long FRAME_DURATION = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /**
+     * How long a sender may take to send a frame before it is moved to a dedicated worker.
+     */
+    static final long OVERRUN_THRESHOLD = FRAME_DURATION / 2;
+
+    /**
+     * How many frames in a row a sender may take too long before it is moved to a dedicated worker.
+     */
+    static final int OVERRUN_LIMIT = 3;
+
+    /**
+     * The thread pool which provides the worker threads.
+     */
+    private final ThreadPool threadPool;
+
+    /**
+     * The workers.
+     */
+    private final Worker[] workers;
+
+    /**
+     * The amount of dedicated workers that have been created, used for the thread names.
+     */
+    private final AtomicInteger dedicatedWorkerCount = new AtomicInteger();
+
+    /**
+     * Creates a new audio send scheduler with one worker per available processor.
+     *
+     * @param threadPool The thread pool which provides the worker threads.
+     */
+    public AudioSendScheduler(ThreadPool threadPool) {
+        this(threadPool, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new audio send scheduler.
+     *
+     * @param threadPool The thread pool which provides the worker threads.
+     * @param workerCount The maximum amount of worker threads.
+     */
+    AudioSendScheduler(ThreadPool threadPool, int workerCount) {
+        this.threadPool = threadPool;
+        workers = new Worker[Math.max(1, workerCount)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(String.format("Audio Send Thread #%d", i), false);
+        }
+    }
+
+    /**
+     * Registers a frame sender. It is called on a worker thread as soon as possible and then whenever its next frame
+     * is due, until the returned registration is cancelled.
+     *
+     * <p>The sender is always called by one thread at a time. It must not block, as it shares its thread with other
+     * senders. If it repeatedly takes too long nevertheless, it is moved to a dedicated thread.
+     *
+     * @param sender The frame sender.
+     * @return The registration of the sender.
+     */
+    Registration register(FrameSender sender) {
+        Worker worker = workers[0];
+        for (Worker candidate : workers) {
+            if (candidate.size.get() < worker.size.get()) {
+                worker = candidate;
+            }
+        }
+        Registration registration = new Registration(worker, sender);
+        worker.add(registration);
+        return registration;
+    }
+
+    /**
+     * Something that sends the frames of an audio connection.
+     */
+    @FunctionalInterface
+    interface FrameSender {
+
+        /**
+         * Sends the next frame, if there is one.
+         *
+         * @param currentNanoTime The current nano time.
+         * @return The nano time at which this method should be called again.
+         */
+        long sendFrame(long currentNanoTime);
+
+    }
+
+    /**
+     * The registration of a frame sender.
+     */
+    static class Registration {
+
+        private final FrameSender sender;
+        private volatile boolean cancelled = false;
+
+        // Guarded by the registration's monitor
+        private Worker worker;
+
+        // Only accessed by the thread of the current worker
+        private long nextFrameTime = System.nanoTime();
+        private int overruns = 0;
+
+        /**
+         * Creates a new registration.
+         *
+         * @param worker The worker of the sender.
+         * @param sender The frame sender.
+         */
+        private Registration(Worker worker, FrameSender sender) {
+            this.worker = worker;
+            this.sender = sender;
+        }
+
+        /**
+         * Stops calling the frame sender. A call that is already in progress is finished.
+         */
+        synchronized void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                worker.size.decrementAndGet();
+                worker.wakeUp();
+            }
+        }
+
+        /**
+         * Moves the registration to the given worker, unless it has been cancelled.
+         *
+         * @param newWorker The new worker.
+         * @return Whether the registration was moved.
+         */
+        private synchronized boolean moveTo(Worker newWorker) {
+            if (cancelled) {
+                return false;
+            }
+            worker.size.decrementAndGet();
+            worker = newWorker;
+            newWorker.add(this);
+            return true;
+        }
+
+    }
+
+    /**
+     * A worker thread which sends the frames of its registered senders.
+     */
+    private class Worker implements Runnable {
+
+        private final String threadName;
+        private final boolean dedicated;
+        private final Queue<Registration> added = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile Thread thread;
+
+        // Only accessed by the worker thread
+        private final List<Registration> registrations = new ArrayList<>();
+
+        /**
+         * Creates a new worker.
+         *
+         * @param threadName The name of the worker thread.
+         * @param dedicated Whether the worker is dedicated to a single sender which overran a frame.
+         */
+        private Worker(String threadName, boolean dedicated) {
+            this.threadName = threadName;
+            this.dedicated = dedicated;
+        }
+
+        /**
+         * Adds a registration and starts the worker thread if it is not running.
+         *
+         * @param registration The registration to add.
+         */
+        private void add(Registration registration) {
+            size.incrementAndGet();
+            added.add(registration);
+            if (running.compareAndSet(false, true)) {
+                threadPool.getSingleThreadExecutorService(threadName).submit(this);
+            } else {
+                wakeUp();
+            }
+        }
+
+        /**
+         * Wakes up the worker thread if it is waiting for the next due frame.
+         */
+        private void wakeUp() {
+            Thread currentThread = thread;
+            if (currentThread != null) {
+                LockSupport.unpark(currentThread);
+            }
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                while (true) {
+                    Registration registration;
+                    while ((registration = added.poll()) != null) {
+                        registrations.add(registration);
+                    }
+                    long nextFrameTime = sendDueFrames(System.nanoTime());
+                    if (registrations.isEmpty()) {
+                        running.set(false);
+                        // Make sure that no registration was added after the last check
+                        if (added.isEmpty() || !running.compareAndSet(false, true)) {
+                            if (dedicated) {
+                                // Nothing is ever added to a dedicated worker again once its sender is gone
+                                threadPool.removeAndShutdownSingleThreadExecutorService(threadName);
+                            }
+                            return;
+                        }
+                        continue;
+                    }
+                    // Sources must not interrupt the worker, but a set interrupt flag would prevent parking
+                    Thread.interrupted();
+                    long delay = nextFrameTime - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(this, delay);
+                    }
+                }
+            } finally {
+                thread = null;
+            }
+        }
+
+        /**
+         * Calls all registered senders whose next frame is due and removes cancelled registrations. Senders which
+         * took too long are moved to a dedicated worker.
+         *
+         * @param currentNanoTime The current nano time.
+         * @return The time at which the next frame of any registered sender is due.
+         */
+        private long sendDueFrames(long currentNanoTime) {
+            long nextFrameTime = currentNanoTime + FRAME_DURATION;
+            for (int i = registrations.size() - 1; i >= 0; i--) {
+                Registration registration = registrations.get(i);
+                if (registration.cancelled) {
+                    removeRegistration(i);
+                    continue;
+                }
+                if (registration.nextFrameTime - currentNanoTime <= 0) {
+                    long startTime = System.nanoTime();
+                    try {
+                        registration.nextFrameTime = registration.sender.sendFrame(currentNanoTime);
+                    } catch (Throwable t) {
+                        logger.error("Failed to send audio frame!", t);
+                        registration.nextFrameTime = currentNanoTime + FRAME_DURATION;
+                    }
+                    long duration = System.nanoTime() - startTime;
+                    registration.overruns = duration > OVERRUN_THRESHOLD ? registration.overruns + 1 : 0;
+                    if (!dedicated && registration.overruns >= OVERRUN_LIMIT
+                            && moveToDedicatedWorker(registration, duration)) {
+                        removeRegistration(i);
+                        continue;
+                    }
+                }
+                if (registration.nextFrameTime - nextFrameTime < 0) {
+                    nextFrameTime = registration.nextFrameTime;
+                }
+            }
+            return nextFrameTime;
+        }
+
+        /**
+         * Removes the registration at the given index.
+         *
+         * @param index The index of the registration.
+         */
+        private void removeRegistration(int index) {
+            // The order of the registrations does not matter, so the last one can take the free place
+            Registration last = registrations.remove(registrations.size() - 1);
+            if (index < registrations.size()) {
+                registrations.set(index, last);
+            }
+        }
+
+        /**
+         * Moves the given registration to a new dedicated worker.
+         *
+         * @param registration The registration of the sender which repeatedly took too long.
+         * @param duration How long the sender took for the last frame in nanoseconds.
+         * @return Whether the registration was moved. It is not moved if it was cancelled meanwhile.
+         */
+        private boolean moveToDedicatedWorker(Registration registration, long duration) {
+            Worker worker = new Worker(
+                    String.format("Audio Send Thread (dedicated) #%d", dedicatedWorkerCount.getAndIncrement()), true);
+            if (!registration.moveTo(worker)) {
+                return false;
+            }
+            logger.warn("Sending an audio frame took more than {} ms {} times in a row (last time {} ms), which delays"
+                            + " the audio of other connections. Make sure that audio sources do not block! Moving the"
+                            + " connection to the dedicated thread {}",
+                    TimeUnit.NANOSECONDS.toMillis(OVERRUN_THRESHOLD), OVERRUN_LIMIT,
+                    TimeUnit.NANOSECONDS.toMillis(duration), worker.threadName);
+            return true;
+        }
+
+    }
+
+}
@@ -23,24 +23,48 @@ public class AudioUdpSocket {
     private static final Logger logger = LoggerUtil.getLogger(AudioUdpSocket.class);
 
     private final DatagramSocket socket;
-    private final String threadName;
 
     private final AudioConnectionImpl connection;
     private final InetSocketAddress address;
     private final int ssrc;
 
-    private volatile boolean shouldSend = false;
+    /**
+     * The reused packet which is sent for every frame.
+     */
+    private final AudioPacket packet;
+
+    private boolean shouldSend = false;
 
     /**
-     * The secret key used to encrypt audio packets.
+     * The registration at the audio send scheduler while sending.
      */
-    private byte[] secretKey;
+    private AudioSendScheduler.Registration registration;
 
     /**
      * Gets incremented for every packet sent.
      */
     private char sequence = (char) 0;
 
+    /**
+     * The time at which the last frame was due.
+     */
+    private long nextFrameTimestamp;
+
+    /**
+     * Whether the next frame should be sent immediately and start a new timeline, e.g. after a source finished.
+     */
+    private boolean resynchronize = true;
+
+    /**
+     * Whether the connection is speaking.
+     */
+    private boolean speaking = false;
+
+    /**
+     * The amount of silent frames which are sent before the connection stops speaking.
+     */
+    private int framesOfSilenceToPlay = 5;
+
     /**
      * Creates a new audio udp socket.
      *
@@ -56,7 +80,7 @@ public class AudioUdpSocket {
         this.ssrc = ssrc;
 
         socket = new DatagramSocket();
-        threadName = String.format("Javacord Audio Send Thread (%#s)", connection.getServer());
+        packet = new AudioPacket(ssrc, address);
     }
 
     /**
@@ -65,7 +89,7 @@ public class AudioUdpSocket {
      * @param secretKey The secret key.
      */
     public void setSecretKey(byte[] secretKey) {
-        this.secretKey = secretKey;
+        packet.setSecretKey(secretKey);
     }
 
     /**
@@ -100,105 +124,101 @@ public class AudioUdpSocket {
     /**
      * Starts polling frames from the audio connection and sending them through the socket.
      */
-    public void startSending() {
+    public synchronized void startSending() {
         if (shouldSend) {
             return;
         }
         shouldSend = true;
+        resynchronize = true;
 
         DiscordApiImpl api = (DiscordApiImpl) connection.getChannel().getApi();
-        api.getThreadPool().getSingleThreadExecutorService(threadName).submit(() -> {
-            try {
-                long nextFrameTimestamp = System.nanoTime();
-                boolean dontSleep = true;
-                boolean speaking = false;
-                long framesOfSilenceToPlay = 5;
-                while (shouldSend) {
-                    // Get the current audio source. If none is available, it will block the thread
-                    AudioSource source = connection.getCurrentAudioSourceBlocking();
-                    if (source == null) {
-                        logger.error("Got null audio source without being interrupted ({})", connection);
-                        return;
-                    }
-
-                    if (source.hasFinished()) {
-                        connection.removeAudioSource();
-                        dontSleep = true;
-
-                        // Dispatch AudioSourceFinishedEvent AFTER removing the source.
-                        // Otherwise, AudioSourceFinishedEvent#getNextSource() won't work
-                        api.getEventDispatcher().dispatchAudioSourceFinishedEvent(
-                                (ServerImpl) connection.getServer(),
-                                connection,
-                                ((AudioSourceBase) source).getDelegate(),
-                                new AudioSourceFinishedEventImpl(source, connection));
-                        continue;
-                    }
-
-                    AudioPacket packet = null;
-                    byte[] frame = source.hasNextFrame() ? source.getNextFrame() : null;
-
-                    // If the source is muted, replace the frame with a muted frame
-                    if (source.isMuted()) {
-                        frame = null;
-                    }
-
-                    if (frame != null || framesOfSilenceToPlay > 0) {
-                        if (!speaking && frame != null) {
-                            speaking = true;
-                            connection.setSpeaking(true);
-                        }
-                        packet = new AudioPacket(frame, ssrc, sequence, ((int) sequence) * 960);
-                        // We can stop sending frames of silence after 5 frames
-                        if (frame == null) {
-                            framesOfSilenceToPlay--;
-                            if (framesOfSilenceToPlay == 0) {
-                                speaking = false;
-                                connection.setSpeaking(false);
-                            }
-                        } else {
-                            framesOfSilenceToPlay = 5;
-                        }
-                    }
-
-                    nextFrameTimestamp = nextFrameTimestamp + 20_000_000;
-
-                    sequence++;
-
-                    if (packet != null) {
-                        packet.encrypt(secretKey);
-                    }
-                    try {
-                        if (dontSleep) {
-                            nextFrameTimestamp = System.nanoTime() + 20_000_000;
-                            dontSleep = false;
-                        } else {
-                            Thread.sleep(Math.max(0, nextFrameTimestamp - System.nanoTime()) / 1_000_000);
-                        }
-                        if (packet != null) {
-                            socket.send(packet.asUdpPacket(address));
-                        }
-                    } catch (IOException e) {
-                        logger.error("Failed to send audio packet for {}", connection);
-                    }
-                }
-            } catch (InterruptedException e) {
-                if (shouldSend) {
-                    logger.debug("Got interrupted unexpectedly while waiting for next audio source packet");
+        registration = api.getAudioSendScheduler().register(this::sendFrame);
+    }
+
+    /**
+     * Polls the next frame from the audio connection and sends it through the socket.
+     * This method is called by the audio send scheduler.
+     *
+     * @param currentNanoTime The current nano time.
+     * @return The nano time at which the next frame should be sent.
+     */
+    private synchronized long sendFrame(long currentNanoTime) {
+        AudioSource source = connection.getCurrentAudioSource();
+        if (source == null) {
+            // Wait for the next source without blocking the thread, which is shared with other connections
+            resynchronize = true;
+            return currentNanoTime + AudioSendScheduler.FRAME_DURATION;
+        }
+
+        if (source.hasFinished()) {
+            connection.removeAudioSource();
+            resynchronize = true;
+
+            // Dispatch AudioSourceFinishedEvent AFTER removing the source.
+            // Otherwise, AudioSourceFinishedEvent#getNextSource() won't work
+            DiscordApiImpl api = (DiscordApiImpl) connection.getChannel().getApi();
+            api.getEventDispatcher().dispatchAudioSourceFinishedEvent(
+                    (ServerImpl) connection.getServer(),
+                    connection,
+                    ((AudioSourceBase) source).getDelegate(),
+                    new AudioSourceFinishedEventImpl(source, connection));
+            // Continue with the next source right away
+            return currentNanoTime;
+        }
+
+        byte[] frame = source.hasNextFrame() ? source.getNextFrame() : null;
+
+        // If the source is muted, replace the frame with a muted frame
+        if (source.isMuted()) {
+            frame = null;
+        }
+
+        DatagramPacket udpPacket = null;
+        if (frame != null || framesOfSilenceToPlay > 0) {
+            if (!speaking && frame != null) {
+                speaking = true;
+                connection.setSpeaking(true);
+            }
+            udpPacket = packet.encrypt(frame, sequence, ((int) sequence) * 960);
+            // We can stop sending frames of silence after 5 frames
+            if (frame == null) {
+                framesOfSilenceToPlay--;
+                if (framesOfSilenceToPlay == 0) {
+                    speaking = false;
+                    connection.setSpeaking(false);
                 }
+            } else {
+                framesOfSilenceToPlay = 5;
             }
-        });
+        }
+
+        sequence++;
+
+        if (udpPacket != null) {
+            try {
+                socket.send(udpPacket);
+            } catch (IOException e) {
+                logger.error("Failed to send audio packet for {}", connection);
+            }
+        }
+
+        if (resynchronize) {
+            nextFrameTimestamp = currentNanoTime;
+            resynchronize = false;
+        }
+        nextFrameTimestamp += AudioSendScheduler.FRAME_DURATION;
+        return nextFrameTimestamp;
     }
 
     /**
      * Stops polling frames from the audio connection.
      */
-    public void stopSending() {
+    public synchronized void stopSending() {
         shouldSend = false;
-        connection.getChannel()
-                .getApi()
-                .getThreadPool()
-                .removeAndShutdownSingleThreadExecutorService(threadName);
+        if (registration != null) {
+            registration.cancel();
+            registration = null;
+        }
     }
 
 }
@@ -75,7 +75,8 @@ public class AudioWebSocketAdapter extends WebSocketAdapter {
         api = (DiscordApiImpl) connection.getChannel().getApi();
         heart = new Heart(
                 api,
-                heartbeatFrame -> websocket.get().sendFrame(heartbeatFrame),
+                heartbeatPacket -> websocket.get()
+                        .sendFrame(WebSocketFrame.createTextFrame(heartbeatPacket.toString())),
                 (code, reason) -> websocket.get().sendClose(code, reason),
                 true);
         connect();
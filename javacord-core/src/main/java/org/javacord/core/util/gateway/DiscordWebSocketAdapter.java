@@ -1,7 +1,6 @@
 package org.javacord.core.util.gateway;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.neovisionaries.ws.client.ProxySettings;
@@ -24,6 +23,7 @@ import org.javacord.api.event.connection.ReconnectEvent;
 import org.javacord.api.event.connection.ResumeEvent;
 import org.javacord.api.util.auth.Authenticator;
 import org.javacord.api.util.auth.Request;
+import org.javacord.api.util.gateway.GatewayEncoding;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.entity.server.ServerImpl;
 import org.javacord.core.event.connection.LostConnectionEventImpl;
@@ -86,6 +86,7 @@ import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestMethod;
 import org.javacord.core.util.rest.RestRequest;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
@@ -93,10 +94,13 @@ import java.net.ProxySelector;
 import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.WeakHashMap;
@@ -143,6 +147,12 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
     private final AtomicReference<WebSocket> websocket = new AtomicReference<>();
 
     private final Heart heart;
+    private final GatewayPacketReader packetReader;
+
+    /**
+     * The decompressor of the current connection if transport compression is enabled.
+     */
+    private volatile ZlibStreamDecompressor zlibStreamDecompressor = null;
 
     private volatile int lastSeq = -1;
     private volatile String sessionId = null;
@@ -192,11 +202,13 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         this.reconnect = reconnect;
         this.heart = new Heart(
                 api,
-                heartbeatFrame -> sendFrame(websocket.get(), heartbeatFrame, true, true),
+                heartbeatPacket -> sendFrame(websocket.get(), createFrame(heartbeatPacket), true, true),
                 (code, reason) -> sendCloseFrame(websocket.get(), code, reason),
                 false);
 
         registerHandlers();
+        // Packets without a handler are only logged, so there's no need to build their data tree
+        packetReader = new GatewayPacketReader(api.getObjectMapper(), handlers::containsKey);
         connect();
 
         ExecutorService requestGuildMembersQueueConsumer =
@@ -224,7 +236,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                                 data.put("guild_id", Long.toUnsignedString(serverId));
                                 logger.debug("Sending request guild members packet {}",
                                              requestGuildMembersPacket);
-                                sendTextFrame(requestGuildMembersPacket.toString());
+                                sendFrame(createFrame(requestGuildMembersPacket));
                             });
                     Thread.sleep(1000);
                 } catch (InterruptedException ignored) {
@@ -380,8 +392,10 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         try {
             WebSocketFactory factory = new WebSocketFactory();
 
-            String webSocketUri = (resumeUrl != null ? resumeUrl : getGateway(api)) + "?encoding=json&v="
-                    + Javacord.DISCORD_GATEWAY_VERSION;
+            String webSocketUri = (resumeUrl != null ? resumeUrl : getGateway(api))
+                    + "?encoding=" + api.getGatewayEncoding().name().toLowerCase(Locale.ROOT) + "&v="
+                    + Javacord.DISCORD_GATEWAY_VERSION
+                    + (api.isTransportCompressionEnabled() ? "&compress=zlib-stream" : "");
 
             Proxy proxy = api.getProxy().orElseGet(() -> {
                 List<Proxy> proxies = api.getProxySelector().orElseGet(ProxySelector::getDefault).select(URI.create(
@@ -468,6 +482,8 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 api.getGatewayIdentifyRatelimiter().requestQuota();
             }
             triedToResume = false;
+            // Every connection has its own zlib context
+            zlibStreamDecompressor = api.isTransportCompressionEnabled() ? new ZlibStreamDecompressor() : null;
             websocket.connect();
         } catch (Throwable t) {
             resumeUrl = null;
@@ -523,6 +539,12 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         // Squash it, until it stops beating
         heart.squash();
 
+        ZlibStreamDecompressor decompressor = zlibStreamDecompressor;
+        if (decompressor != null) {
+            zlibStreamDecompressor = null;
+            decompressor.close();
+        }
+
         // If reconnect is due to a received INVALID_SESSION, we ran into the identifying ratelimit
         // We simply reconnect to perform another fresh identify
         if (!ready.isDone() && closeFrameOptional
@@ -550,9 +572,17 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     @Override
     public void onTextMessage(WebSocket websocket, String text) throws Exception {
-        ObjectMapper mapper = api.getObjectMapper();
-        JsonNode packet = mapper.readTree(text);
+        onPacket(websocket, packetReader.read(text));
+    }
 
+    /**
+     * Handles a packet that was received from the gateway.
+     *
+     * @param websocket The websocket the packet was received from.
+     * @param packet The received packet.
+     * @throws Exception If an error occurs while handling the packet.
+     */
+    private void onPacket(WebSocket websocket, JsonNode packet) throws Exception {
         heart.handlePacket(packet);
 
         int op = packet.get("op").asInt();
@@ -700,15 +730,56 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     @Override
     public void onBinaryMessage(WebSocket websocket, byte[] binary) throws Exception {
-        String message;
+        ZlibStreamDecompressor decompressor = zlibStreamDecompressor;
+        if (decompressor != null) {
+            Optional<ByteBuffer> message;
+            try {
+                message = decompressor.decompress(binary);
+            } catch (DataFormatException e) {
+                // The zlib context is broken, so the only way to recover is a new connection
+                logger.warn("An error occurred while decompressing data", e);
+                sendCloseFrame(websocket, WebSocketCloseReason.DECOMPRESSION_FAILED.getNumericCloseCode(),
+                        WebSocketCloseReason.DECOMPRESSION_FAILED.getCloseReason());
+                return;
+            }
+            if (message.isPresent()) {
+                ByteBuffer buffer = message.get();
+                onPacket(websocket, readPacket(buffer.array(), buffer.position(), buffer.remaining()));
+            }
+            return;
+        }
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            onPacket(websocket, readPacket(binary, 0, binary.length));
+            return;
+        }
+        byte[] message;
         try {
-            message = BinaryMessageDecompressor.decompress(binary);
+            message = BinaryMessageDecompressor.decompressToBytes(binary);
         } catch (DataFormatException e) {
             logger.warn("An error occurred while decompressing data", e);
             return;
         }
-        logger.trace("onTextMessage: text='{}'", message);
-        onTextMessage(websocket, message);
+        logger.trace("onTextMessage: text='{}'", () -> new String(message, StandardCharsets.UTF_8));
+        onPacket(websocket, packetReader.read(message, 0, message.length));
+    }
+
+    /**
+     * Reads a packet in the encoding of the connection from the given bytes.
+     *
+     * @param data The array that contains the packet.
+     * @param offset The offset of the packet in the array.
+     * @param length The length of the packet.
+     * @return The packet.
+     * @throws IOException If the data is not a valid packet.
+     */
+    private JsonNode readPacket(byte[] data, int offset, int length) throws IOException {
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            JsonNode packet = EtfDecoder.decode(data, offset, length);
+            logger.trace("onBinaryMessage: packet='{}'", packet);
+            return packet;
+        }
+        logger.trace("onTextMessage: text='{}'", () -> new String(data, offset, length, StandardCharsets.UTF_8));
+        return packetReader.read(data, offset, length);
     }
 
     /**
@@ -725,7 +796,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 .put("seq", lastSeq);
         logger.debug("Sending resume packet");
         triedToResume = true;
-        sendLifecycleTextFrame(websocket, resumePacket.toString());
+        sendLifecycleFrame(websocket, createFrame(resumePacket));
     }
 
     /**
@@ -739,7 +810,9 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         ObjectNode data = identifyPacket.putObject("d");
         String token = api.getPrefixedToken();
         data.put("token", token)
-                .put("compress", true)
+                // Payload compression is only supported for json and not needed with transport compression
+                .put("compress", api.getGatewayEncoding() == GatewayEncoding.JSON
+                        && !api.isTransportCompressionEnabled())
                 .put("large_threshold", 250)
                 .putObject("properties")
                 .put("os", System.getProperty("os.name"))
@@ -756,7 +829,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
             websocket.removeListeners(identifyFrameListeners);
             identifyFrameListeners.clear();
         }
-        WebSocketFrame identifyFrame = WebSocketFrame.createTextFrame(identifyPacket.toString());
+        WebSocketFrame identifyFrame = createFrame(identifyPacket);
         lastSentFrameWasIdentify.set(identifyFrame, false);
         WebSocketAdapter identifyFrameListener = new WebSocketAdapter() {
             @Override
@@ -806,7 +879,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 .put("self_mute", (selfMuted == null) ? server.isSelfMuted(yourself) : selfMuted)
                 .put("self_deaf", (selfDeafened == null) ? server.isSelfDeafened(yourself) : selfDeafened);
         logger.debug("Sending VOICE_STATE_UPDATE packet for {} on {}", channel, server);
-        sendTextFrame(updateVoiceStatePacket.toString());
+        sendFrame(createFrame(updateVoiceStatePacket));
     }
 
     /**
@@ -941,7 +1014,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         }).orElse(0));
         activity.flatMap(Activity::getStreamingUrl).ifPresent(url -> activityJson.put("url", url));
         logger.debug("Updating status (content: {})", updateStatus);
-        sendTextFrame(updateStatus.toString());
+        sendFrame(createFrame(updateStatus));
     }
 
     /**
@@ -1003,6 +1076,19 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         sendLifecycleFrame(webSocket, WebSocketFrame.createTextFrame(message));
     }
 
+    /**
+     * Creates a frame for the given packet in the encoding of the connection.
+     *
+     * @param packet The packet.
+     * @return The frame.
+     */
+    public WebSocketFrame createFrame(JsonNode packet) {
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            return WebSocketFrame.createBinaryFrame(EtfEncoder.encode(packet));
+        }
+        return WebSocketFrame.createTextFrame(packet.toString());
+    }
+
     /**
      * Send a text frame with the given message after ratelimit allows.
      *
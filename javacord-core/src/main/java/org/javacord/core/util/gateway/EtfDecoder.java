@@ -0,0 +1,251 @@
+package org.javacord.core.util.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes packets in the Erlang External Term Format into json nodes.
+ *
+ * <p>The decoded nodes have the same shape as the packets of the json encoding, so they can be handled by the same
+ * packet handlers. The only difference is that snowflakes are decoded as numbers instead of strings, which is no
+ * problem as long as they are read with {@link JsonNode#asLong()} or {@link JsonNode#asText()}.
+ *
+ * @see <a href="https://www.erlang.org/doc/apps/erts/erl_ext_dist.html">External Term Format</a>
+ */
+public class EtfDecoder {
+
+    static final int VERSION = 131;
+    static final int NEW_FLOAT_EXT = 70;
+    static final int COMPRESSED = 80;
+    static final int SMALL_INTEGER_EXT = 97;
+    static final int INTEGER_EXT = 98;
+    static final int FLOAT_EXT = 99;
+    static final int ATOM_EXT = 100;
+    static final int SMALL_TUPLE_EXT = 104;
+    static final int LARGE_TUPLE_EXT = 105;
+    static final int NIL_EXT = 106;
+    static final int STRING_EXT = 107;
+    static final int LIST_EXT = 108;
+    static final int BINARY_EXT = 109;
+    static final int SMALL_BIG_EXT = 110;
+    static final int LARGE_BIG_EXT = 111;
+    static final int SMALL_ATOM_EXT = 115;
+    static final int MAP_EXT = 116;
+    static final int ATOM_UTF8_EXT = 118;
+    static final int SMALL_ATOM_UTF8_EXT = 119;
+
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    private EtfDecoder() {
+        throw new UnsupportedOperationException("You cannot create an instance of this class");
+    }
+
+    /**
+     * Decodes the given term.
+     *
+     * @param data The array that contains the term.
+     * @param offset The offset of the term in the array.
+     * @param length The length of the term.
+     * @return The decoded term.
+     * @throws IOException If the data is not a valid term or contains unsupported types.
+     */
+    public static JsonNode decode(byte[] data, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+        try {
+            int version = Byte.toUnsignedInt(buffer.get());
+            if (version != VERSION) {
+                throw new IOException("Unsupported external term format version " + version);
+            }
+            return decodeTerm(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Unexpected end of term", e);
+        }
+    }
+
+    /**
+     * Decodes the term at the current position of the buffer.
+     *
+     * @param buffer The buffer.
+     * @return The decoded term.
+     * @throws IOException If the data is not a valid term or contains unsupported types.
+     */
+    private static JsonNode decodeTerm(ByteBuffer buffer) throws IOException {
+        int tag = Byte.toUnsignedInt(buffer.get());
+        switch (tag) {
+            case SMALL_INTEGER_EXT:
+                return nodeFactory.numberNode(Byte.toUnsignedInt(buffer.get()));
+            case INTEGER_EXT:
+                return nodeFactory.numberNode(buffer.getInt());
+            case NEW_FLOAT_EXT:
+                return nodeFactory.numberNode(buffer.getDouble());
+            case FLOAT_EXT:
+                return nodeFactory.numberNode(Double.parseDouble(readString(buffer, 31).trim()));
+            case ATOM_EXT:
+                return decodeAtom(readString(buffer, Short.toUnsignedInt(buffer.getShort())));
+            case SMALL_ATOM_EXT:
+            case SMALL_ATOM_UTF8_EXT:
+                return decodeAtom(readString(buffer, Byte.toUnsignedInt(buffer.get())));
+            case ATOM_UTF8_EXT:
+                return decodeAtom(readString(buffer, Short.toUnsignedInt(buffer.getShort())));
+            case SMALL_TUPLE_EXT:
+                return decodeElements(buffer, Byte.toUnsignedInt(buffer.get()));
+            case LARGE_TUPLE_EXT:
+                return decodeElements(buffer, buffer.getInt());
+            case NIL_EXT:
+                return nodeFactory.arrayNode();
+            case STRING_EXT:
+                // A list of small integers
+                ArrayNode bytes = nodeFactory.arrayNode();
+                for (int i = Short.toUnsignedInt(buffer.getShort()); i > 0; i--) {
+                    bytes.add(Byte.toUnsignedInt(buffer.get()));
+                }
+                return bytes;
+            case LIST_EXT:
+                ArrayNode list = decodeElements(buffer, buffer.getInt());
+                JsonNode tail = decodeTerm(buffer);
+                if (!tail.isArray() || tail.size() != 0) {
+                    // An improper list
+                    list.add(tail);
+                }
+                return list;
+            case BINARY_EXT:
+                return nodeFactory.textNode(readString(buffer, buffer.getInt()));
+            case SMALL_BIG_EXT:
+                return decodeBig(buffer, Byte.toUnsignedInt(buffer.get()));
+            case LARGE_BIG_EXT:
+                return decodeBig(buffer, buffer.getInt());
+            case MAP_EXT:
+                ObjectNode map = nodeFactory.objectNode();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    JsonNode key = decodeTerm(buffer);
+                    map.set(key.asText(), decodeTerm(buffer));
+                }
+                return map;
+            case COMPRESSED:
+                return decodeTerm(inflate(buffer));
+            default:
+                throw new IOException("Unsupported external term format tag " + tag);
+        }
+    }
+
+    /**
+     * Decodes the given amount of terms into an array.
+     *
+     * @param buffer The buffer.
+     * @param size The amount of terms.
+     * @return The array with the decoded terms.
+     * @throws IOException If the data is not a valid term or contains unsupported types.
+     */
+    private static ArrayNode decodeElements(ByteBuffer buffer, int size) throws IOException {
+        ArrayNode array = nodeFactory.arrayNode();
+        for (int i = 0; i < size; i++) {
+            array.add(decodeTerm(buffer));
+        }
+        return array;
+    }
+
+    /**
+     * Decodes an atom. The atoms {@code nil}, {@code null}, {@code true} and {@code false} are decoded to their json
+     * counterparts, all other atoms are decoded as strings.
+     *
+     * @param atom The name of the atom.
+     * @return The decoded atom.
+     */
+    private static JsonNode decodeAtom(String atom) {
+        switch (atom) {
+            case "nil":
+            case "null":
+                return nodeFactory.nullNode();
+            case "true":
+                return nodeFactory.booleanNode(true);
+            case "false":
+                return nodeFactory.booleanNode(false);
+            default:
+                return nodeFactory.textNode(atom);
+        }
+    }
+
+    /**
+     * Decodes a big integer. Integers that fit into a long, like snowflakes, are decoded as long.
+     *
+     * @param buffer The buffer.
+     * @param length The amount of digit bytes.
+     * @return The decoded integer.
+     */
+    private static JsonNode decodeBig(ByteBuffer buffer, int length) {
+        boolean negative = buffer.get() != 0;
+        byte[] digits = new byte[length];
+        // The digits are stored in little-endian order
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = buffer.get();
+        }
+        BigInteger value = new BigInteger(1, digits);
+        if (negative) {
+            value = value.negate();
+        }
+        if (value.bitLength() < Long.SIZE) {
+            return nodeFactory.numberNode(value.longValue());
+        }
+        return nodeFactory.numberNode(value);
+    }
+
+    /**
+     * Inflates a compressed term.
+     *
+     * @param buffer The buffer.
+     * @return A buffer with the uncompressed term.
+     * @throws IOException If the compressed data is invalid.
+     */
+    private static ByteBuffer inflate(ByteBuffer buffer) throws IOException {
+        byte[] uncompressed = new byte[buffer.getInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            int length = 0;
+            while (length < uncompressed.length && !inflater.finished()) {
+                int count = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != uncompressed.length) {
+                throw new IOException("Compressed term has an invalid size");
+            }
+            buffer.position(buffer.position() + inflater.getTotalIn());
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed term", e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(uncompressed);
+    }
+
+    /**
+     * Reads a UTF-8 encoded string. Latin-1 atoms only contain ASCII characters in practice.
+     *
+     * @param buffer The buffer.
+     * @param length The length of the string in bytes.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String string = new String(
+                buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.javacord.core.util.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Encodes json nodes in the Erlang External Term Format.
+ *
+ * <p>Objects are encoded as maps with binary keys, strings as binaries, {@code null} as the atom {@code nil} and
+ * booleans as the atoms {@code true} and {@code false}.
+ *
+ * @see EtfDecoder
+ */
+public class EtfEncoder {
+
+    private EtfEncoder() {
+        throw new UnsupportedOperationException("You cannot create an instance of this class");
+    }
+
+    /**
+     * Encodes the given node.
+     *
+     * @param node The node to encode.
+     * @return The encoded term.
+     */
+    public static byte[] encode(JsonNode node) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(EtfDecoder.VERSION);
+            encodeTerm(output, node);
+        } catch (IOException e) {
+            // Cannot happen for an in-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the given node.
+     *
+     * @param output The output to write to.
+     * @param node The node to encode.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void encodeTerm(DataOutputStream output, JsonNode node) throws IOException {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                output.writeByte(EtfDecoder.MAP_EXT);
+                output.writeInt(node.size());
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    encodeBinary(output, field.getKey());
+                    encodeTerm(output, field.getValue());
+                }
+                break;
+            case ARRAY:
+                if (node.size() > 0) {
+                    output.writeByte(EtfDecoder.LIST_EXT);
+                    output.writeInt(node.size());
+                    for (JsonNode element : node) {
+                        encodeTerm(output, element);
+                    }
+                }
+                output.writeByte(EtfDecoder.NIL_EXT);
+                break;
+            case STRING:
+                encodeBinary(output, node.textValue());
+                break;
+            case NUMBER:
+                encodeNumber(output, node);
+                break;
+            case BOOLEAN:
+                encodeAtom(output, node.booleanValue() ? "true" : "false");
+                break;
+            case NULL:
+            case MISSING:
+                encodeAtom(output, "nil");
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot encode node of type " + node.getNodeType());
+        }
+    }
+
+    /**
+     * Encodes the given number node.
+     *
+     * @param output The output to write to.
+     * @param node The number node to encode.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void encodeNumber(DataOutputStream output, JsonNode node) throws IOException {
+        if (node.isFloatingPointNumber()) {
+            output.writeByte(EtfDecoder.NEW_FLOAT_EXT);
+            output.writeDouble(node.doubleValue());
+        } else if (node.canConvertToInt()) {
+            int value = node.intValue();
+            if (value >= 0 && value <= 255) {
+                output.writeByte(EtfDecoder.SMALL_INTEGER_EXT);
+                output.writeByte(value);
+            } else {
+                output.writeByte(EtfDecoder.INTEGER_EXT);
+                output.writeInt(value);
+            }
+        } else {
+            BigInteger value = node.bigIntegerValue();
+            byte[] magnitude = value.abs().toByteArray();
+            // Strip the sign byte of the two's complement representation
+            int start = magnitude[0] == 0 ? 1 : 0;
+            int length = magnitude.length - start;
+            output.writeByte(EtfDecoder.SMALL_BIG_EXT);
+            output.writeByte(length);
+            output.writeByte(value.signum() < 0 ? 1 : 0);
+            // The digits are stored in little-endian order
+            for (int i = magnitude.length - 1; i >= start; i--) {
+                output.writeByte(magnitude[i]);
+            }
+        }
+    }
+
+    /**
+     * Encodes the given string as binary.
+     *
+     * @param output The output to write to.
+     * @param string The string to encode.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void encodeBinary(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeByte(EtfDecoder.BINARY_EXT);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Encodes the given atom.
+     *
+     * @param output The output to write to.
+     * @param atom The name of the atom.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void encodeAtom(DataOutputStream output, String atom) throws IOException {
+        byte[] bytes = atom.getBytes(StandardCharsets.UTF_8);
+        output.writeByte(EtfDecoder.SMALL_ATOM_UTF8_EXT);
+        output.writeByte(bytes.length);
+        output.write(bytes);
+    }
+
+}
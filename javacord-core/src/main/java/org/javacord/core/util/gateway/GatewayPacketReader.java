@@ -0,0 +1,98 @@
+package org.javacord.core.util.gateway;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * Reads packets received from the gateway with Jackson's streaming parser.
+ *
+ * <p>Only the envelope of a packet ({@code op}, {@code s} and {@code t}) is read field by field. The tree of the
+ * {@code d} field is only built if the packet's type needs it, otherwise it is skipped without allocating any nodes.
+ * If Discord sends the {@code d} field before the {@code t} field, the tree is always built.
+ *
+ * <p>The returned packet has the same shape as a packet that was read with {@link ObjectMapper#readTree(String)},
+ * except that the {@code d} field is missing for skipped packets.
+ */
+public class GatewayPacketReader {
+
+    private final ObjectMapper mapper;
+    private final Predicate<String> dataRequired;
+
+    /**
+     * Creates a new gateway packet reader.
+     *
+     * @param mapper The object mapper that is used to create the parser and the nodes.
+     * @param dataRequired A predicate that checks if the {@code d} field of a dispatch packet with the given type is
+     *                     needed.
+     */
+    public GatewayPacketReader(ObjectMapper mapper, Predicate<String> dataRequired) {
+        this.mapper = mapper;
+        this.dataRequired = dataRequired;
+    }
+
+    /**
+     * Reads a packet from the given text.
+     *
+     * @param text The text of a text frame.
+     * @return The packet.
+     * @throws IOException If the text is not a valid packet.
+     */
+    public ObjectNode read(String text) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(text)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a packet from the given UTF-8 encoded bytes.
+     *
+     * @param data The array that contains the packet.
+     * @param offset The offset of the packet in the array.
+     * @param length The length of the packet.
+     * @return The packet.
+     * @throws IOException If the data is not a valid packet.
+     */
+    public ObjectNode read(byte[] data, int offset, int length) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(data, offset, length)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a packet from the given parser.
+     *
+     * @param parser The parser.
+     * @return The packet.
+     * @throws IOException If the data is not a valid packet.
+     */
+    private ObjectNode read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a json object but found " + parser.currentToken());
+        }
+        ObjectNode packet = mapper.createObjectNode();
+        String type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("d") && type != null && !dataRequired.test(type)) {
+                parser.skipChildren();
+                continue;
+            }
+            JsonNode value = parser.currentToken() == JsonToken.VALUE_NULL
+                    ? mapper.getNodeFactory().nullNode()
+                    : mapper.readTree(parser);
+            if (fieldName.equals("t") && value.isTextual()) {
+                type = value.asText();
+            }
+            packet.set(fieldName, value);
+        }
+        return packet;
+    }
+
+}
@@ -3,7 +3,6 @@ package org.javacord.core.util.gateway;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.neovisionaries.ws.client.WebSocketFrame;
 import org.apache.logging.log4j.Logger;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.logging.LoggerUtil;
@@ -27,7 +26,7 @@ public class Heart {
     private static final Logger stethoscope = LoggerUtil.getLogger(Heart.class);
 
     private final DiscordApiImpl api;
-    private final Consumer<WebSocketFrame> heartbeatFrameSender;
+    private final Consumer<ObjectNode> heartbeatPacketSender;
     private final BiConsumer<Integer, String> closeFrameSender;
     private final boolean voice;
 
@@ -41,15 +40,15 @@ public class Heart {
     /**
      * Ba boom, ba boom, ba boom, ba boom, ...
      *
-     * @param api                  The heart of every Javacord bot.
-     * @param heartbeatFrameSender A consumer that forwards the given frame to the corresponding web socket.
-     * @param closeFrameSender     A bi consumer that sends a close frame with the given code and reason.
-     * @param voice                Voice websocket hearts beat differently.
+     * @param api                   The heart of every Javacord bot.
+     * @param heartbeatPacketSender A consumer that sends the given packet to the corresponding web socket.
+     * @param closeFrameSender      A bi consumer that sends a close frame with the given code and reason.
+     * @param voice                 Voice websocket hearts beat differently.
      */
-    public Heart(DiscordApiImpl api, Consumer<WebSocketFrame> heartbeatFrameSender,
+    public Heart(DiscordApiImpl api, Consumer<ObjectNode> heartbeatPacketSender,
                  BiConsumer<Integer, String> closeFrameSender, boolean voice) {
         this.api = api;
-        this.heartbeatFrameSender = heartbeatFrameSender;
+        this.heartbeatPacketSender = heartbeatPacketSender;
         this.closeFrameSender = closeFrameSender;
         this.voice = voice;
     }
@@ -117,8 +116,7 @@ public class Heart {
         ObjectNode heartbeatPacket = JsonNodeFactory.instance.objectNode()
                 .put("op", voice ? VoiceGatewayOpcode.HEARTBEAT.getCode() : GatewayOpcode.HEARTBEAT.getCode())
                 .put("d", voice ? (int) (Math.random() * Integer.MAX_VALUE) : lastSeq);
-        WebSocketFrame heartbeatFrame = WebSocketFrame.createTextFrame(heartbeatPacket.toString());
-        heartbeatFrameSender.accept(heartbeatFrame);
+        heartbeatPacketSender.accept(heartbeatPacket);
         lastHeartbeatSentTimeNanos = System.nanoTime();
         // Ba boom, ba boom, ba boom, ba boom, ...
         stethoscope.debug("Sent heartbeat (voice: {}, packet: {})", voice, heartbeatPacket);
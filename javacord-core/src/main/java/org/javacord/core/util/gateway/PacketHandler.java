@@ -6,7 +6,7 @@ import org.javacord.api.DiscordApi;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.logging.LoggerUtil;
 
-import java.util.concurrent.ExecutorService;
+import java.util.OptionalLong;
 
 /**
  * This class is extended by all PacketHandlers.
@@ -21,22 +21,22 @@ public abstract class PacketHandler {
     protected final DiscordApiImpl api;
     private final String type;
     private final boolean async;
-    private ExecutorService executorService;
+    private final PacketHandlerExecutor executor;
 
     /**
      * Creates a new instance of this class.
      *
      * @param api The api.
-     * @param async Whether the packet should be handled in a new thread or in the websocket thread.
+     * @param async Whether the packet should be handled in a packet handler thread or in the websocket thread.
+     *              Packets that are handled in the websocket thread are only handled after all previously received
+     *              packets have been handled.
      * @param type The type of packet the class handles.
      */
     public PacketHandler(DiscordApi api, boolean async, String type) {
         this.api = (DiscordApiImpl) api;
         this.async = async;
         this.type = type;
-        if (async) {
-            executorService = api.getThreadPool().getSingleThreadExecutorService("Handlers Processor");
-        }
+        executor = this.api.getPacketHandlerExecutor();
     }
 
     /**
@@ -45,23 +45,47 @@ public abstract class PacketHandler {
      * @param packet The packet (the "d"-object).
      */
     public void handlePacket(final JsonNode packet) {
-        if (async) {
-            executorService.submit(() -> {
-                try {
-                    handle(packet);
-                } catch (Throwable t) {
-                    logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
-                            getType(), packet, t);
-                }
-            });
-        } else {
+        Runnable task = () -> {
             try {
                 handle(packet);
             } catch (Throwable t) {
                 logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
                         getType(), packet, t);
             }
+        };
+        if (!async) {
+            executor.executeGlobalAndWait(task);
+            return;
+        }
+        OptionalLong partitionKey = getPartitionKey(packet);
+        if (partitionKey.isPresent()) {
+            executor.execute(partitionKey.getAsLong(), task);
+        } else {
+            executor.executeGlobal(task);
+        }
+    }
+
+    /**
+     * Gets the key that decides which packets must be handled in order.
+     *
+     * <p>Packets with the same key are handled in the order in which they were received, while packets with different
+     * keys might be handled in parallel. Packets without a key are handled after all previously received packets and
+     * before all packets that are received afterwards.
+     *
+     * <p>By default, this is the id of the server ({@code guild_id}) or, if the packet does not belong to a server,
+     * the id of the channel ({@code channel_id}).
+     *
+     * @param packet The packet (the "d"-object).
+     * @return The partition key or an empty optional if the packet must be ordered with all other packets.
+     */
+    protected OptionalLong getPartitionKey(JsonNode packet) {
+        if (packet.hasNonNull("guild_id")) {
+            return OptionalLong.of(packet.get("guild_id").asLong());
+        }
+        if (packet.hasNonNull("channel_id")) {
+            return OptionalLong.of(packet.get("channel_id").asLong());
         }
+        return OptionalLong.empty();
     }
 
     /**
@@ -0,0 +1,175 @@
+package org.javacord.core.util.gateway;
+
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.util.concurrent.ThreadPool;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes packet handlers on a configurable amount of threads.
+ *
+ * <p>Packets are partitioned by a key (usually the id of the server or of the private channel they belong to).
+ * Packets with the same key are always handled in the order in which they were received, while packets with a
+ * different key might be handled in parallel.
+ *
+ * <p>Packets without a key (e.g. {@code USER_UPDATE}) act as a barrier: They are handled after all previously
+ * received packets have been handled, and no packet that was received afterwards is handled before them.
+ */
+public class PacketHandlerExecutor {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(PacketHandlerExecutor.class);
+
+    /**
+     * The name of the thread if only a single thread is used.
+     */
+    private static final String THREAD_NAME = "Handlers Processor";
+
+    /**
+     * The single thread executors, one for each partition.
+     */
+    private final ExecutorService[] partitions;
+
+    /**
+     * Creates a new packet handler executor.
+     *
+     * @param threadPool The thread pool that provides the threads.
+     * @param threadCount The amount of threads that handle packets in parallel.
+     */
+    public PacketHandlerExecutor(ThreadPool threadPool, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The packet handler thread count must be at least 1!");
+        }
+        partitions = new ExecutorService[threadCount];
+        if (threadCount == 1) {
+            partitions[0] = threadPool.getSingleThreadExecutorService(THREAD_NAME);
+        } else {
+            for (int i = 0; i < threadCount; i++) {
+                partitions[i] = threadPool.getSingleThreadExecutorService(THREAD_NAME + " - " + i);
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of threads that handle packets in parallel.
+     *
+     * @return The amount of threads.
+     */
+    public int getThreadCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Executes a task after all previously submitted tasks with the same key.
+     *
+     * @param key The partition key, usually the id of a server or private channel.
+     * @param task The task to execute.
+     */
+    public void execute(long key, Runnable task) {
+        // The lower bits of a snowflake are an increment that is zero most of the time,
+        // so we use the timestamp part of the snowflake to choose a partition
+        partitions[(int) Long.remainderUnsigned(key >>> 22, partitions.length)].submit(task);
+    }
+
+    /**
+     * Executes a task after all previously submitted tasks, before any task that is submitted afterwards.
+     *
+     * <p>The task is executed by one of the handler threads, while all other handler threads wait for it to finish.
+     *
+     * @param task The task to execute.
+     */
+    public void executeGlobal(Runnable task) {
+        if (partitions.length == 1) {
+            partitions[0].submit(task);
+            return;
+        }
+        CountDownLatch arrived = new CountDownLatch(partitions.length - 1);
+        CountDownLatch finished = new CountDownLatch(1);
+        // The first partition executes the task once all others arrived at the barrier
+        try {
+            partitions[0].submit(() -> {
+                awaitUninterruptibly(arrived);
+                try {
+                    task.run();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Do not let the other partitions wait for a task that is never executed
+            finished.countDown();
+            throw e;
+        }
+        for (int i = 1; i < partitions.length; i++) {
+            submitBarrier(partitions[i], arrived, finished);
+        }
+    }
+
+    /**
+     * Executes a task in the current thread after all previously submitted tasks have been executed.
+     *
+     * <p>All handler threads wait until the task is finished, so no task that was submitted before is executed
+     * concurrently and no task that is submitted afterwards is executed before it.
+     *
+     * @param task The task to execute.
+     */
+    public void executeGlobalAndWait(Runnable task) {
+        CountDownLatch arrived = new CountDownLatch(partitions.length);
+        CountDownLatch finished = new CountDownLatch(1);
+        for (ExecutorService partition : partitions) {
+            submitBarrier(partition, arrived, finished);
+        }
+        awaitUninterruptibly(arrived);
+        try {
+            task.run();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Submits a barrier task to the given partition.
+     *
+     * @param partition The partition.
+     * @param arrived The latch that is counted down once the partition reached the barrier.
+     * @param finished The latch that releases the partition again.
+     */
+    private void submitBarrier(ExecutorService partition, CountDownLatch arrived, CountDownLatch finished) {
+        try {
+            partition.submit(() -> {
+                arrived.countDown();
+                awaitUninterruptibly(finished);
+            });
+        } catch (RejectedExecutionException e) {
+            // The partition was shut down, so there is nothing to wait for
+            logger.debug("Could not submit barrier to packet handler thread", e);
+            arrived.countDown();
+        }
+    }
+
+    /**
+     * Waits for the given latch and preserves the interrupt flag.
+     *
+     * @param latch The latch to wait for.
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.javacord.core.util.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses the data of a gateway connection that uses {@code zlib-stream} transport compression.
+ *
+ * <p>All messages of a connection share a single zlib context, so every websocket session needs its own instance.
+ * A message might be split across multiple frames and is complete once a frame ends with the {@code Z_SYNC_FLUSH}
+ * suffix {@code 00 00 ff ff}.
+ *
+ * <p>The buffers are reused for all messages, so the returned data is only valid until the next call of
+ * {@link #decompress(byte[])}. This class is not thread-safe, frames must be passed in the order in which they were
+ * received.
+ */
+public class ZlibStreamDecompressor {
+
+    /**
+     * The suffix of every complete message.
+     */
+    private static final byte[] ZLIB_SUFFIX = {0x00, 0x00, (byte) 0xff, (byte) 0xff};
+
+    /**
+     * The initial size of the output buffer.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * The maximum size of a buffer that is kept for the next message.
+     * Larger buffers are only needed for a few large messages (e.g. {@code GUILD_CREATE}), so they are released.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The inflater that holds the zlib context of the connection.
+     */
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * The compressed data of an incomplete message.
+     */
+    private byte[] input = new byte[0];
+
+    /**
+     * The amount of bytes in the input buffer.
+     */
+    private int inputLength = 0;
+
+    /**
+     * The buffer that contains the decompressed data.
+     */
+    private byte[] output = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * Decompresses the given frame.
+     *
+     * @param frame The payload of a binary frame.
+     * @return The decompressed message or an empty optional if the message is not complete yet. The returned buffer
+     *         is backed by an array that is reused by the next call.
+     * @throws DataFormatException If the compressed data format is invalid.
+     */
+    public Optional<ByteBuffer> decompress(byte[] frame) throws DataFormatException {
+        byte[] data;
+        int length;
+        if (inputLength == 0 && endsWithSuffix(frame, frame.length)) {
+            // The usual case: The message is not split, so there is no need to copy it
+            data = frame;
+            length = frame.length;
+        } else {
+            append(frame);
+            if (!endsWithSuffix(input, inputLength)) {
+                return Optional.empty();
+            }
+            data = input;
+            length = inputLength;
+        }
+
+        if (output.length > MAX_RETAINED_BUFFER_SIZE) {
+            output = new byte[INITIAL_BUFFER_SIZE];
+        }
+        int outputLength = 0;
+        inflater.setInput(data, 0, length);
+        while (!inflater.needsInput() || outputLength == output.length) {
+            if (outputLength == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            int count = inflater.inflate(output, outputLength, output.length - outputLength);
+            if (count == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                throw new DataFormatException("Unexpected end of zlib stream");
+            }
+            outputLength += count;
+        }
+
+        inputLength = 0;
+        if (input.length > MAX_RETAINED_BUFFER_SIZE) {
+            input = new byte[0];
+        }
+        return Optional.of(ByteBuffer.wrap(output, 0, outputLength));
+    }
+
+    /**
+     * Releases the zlib context.
+     * The decompressor must not be used anymore afterwards.
+     */
+    public void close() {
+        inflater.end();
+    }
+
+    /**
+     * Appends the given frame to the input buffer.
+     *
+     * @param frame The frame to append.
+     */
+    private void append(byte[] frame) {
+        if (inputLength + frame.length > input.length) {
+            input = Arrays.copyOf(input, Math.max(inputLength + frame.length, input.length * 2));
+        }
+        System.arraycopy(frame, 0, input, inputLength, frame.length);
+        inputLength += frame.length;
+    }
+
+    /**
+     * Checks if the given data ends with the {@code Z_SYNC_FLUSH} suffix.
+     *
+     * @param data The data to check.
+     * @param length The length of the data.
+     * @return Whether the data ends with the suffix.
+     */
+    private static boolean endsWithSuffix(byte[] data, int length) {
+        if (length < ZLIB_SUFFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < ZLIB_SUFFIX.length; i++) {
+            if (data[length - ZLIB_SUFFIX.length + i] != ZLIB_SUFFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -253,6 +253,7 @@ public class ChannelUpdateHandler extends PacketHandler {
                 Permissions newOverwrittenPermissions = new PermissionsImpl(allow, deny);
                 if (!newOverwrittenPermissions.equals(oldOverwrittenPermissions)) {
                     overwrittenPermissions.put(entityId, newOverwrittenPermissions);
+                    server.invalidateCachedPermissions();
                     if (server.isReady()) {
                         dispatchServerChannelChangeOverwrittenPermissionsEvent(
                                 channel, newOverwrittenPermissions, oldOverwrittenPermissions, entityId,
@@ -279,6 +280,7 @@ public class ChannelUpdateHandler extends PacketHandler {
             }
             Permissions oldPermissions = entry.getValue();
             userIt.remove();
+            server.invalidateCachedPermissions();
             if (server.isReady()) {
                 dispatchServerChannelChangeOverwrittenPermissionsEvent(
                         channel, PermissionsImpl.EMPTY_PERMISSIONS, oldPermissions, entry.getKey(),
@@ -296,6 +298,7 @@ public class ChannelUpdateHandler extends PacketHandler {
             api.getRoleById(entry.getKey()).ifPresent(role -> {
                 Permissions oldPermissions = entry.getValue();
                 roleIt.remove();
+                server.invalidateCachedPermissions();
                 if (server.isReady()) {
                     dispatchServerChannelChangeOverwrittenPermissionsEvent(
                             channel, PermissionsImpl.EMPTY_PERMISSIONS, oldPermissions, role.getId(), role);
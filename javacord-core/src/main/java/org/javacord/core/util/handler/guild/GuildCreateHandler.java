@@ -9,6 +9,8 @@ import org.javacord.core.event.server.ServerBecomesAvailableEventImpl;
 import org.javacord.core.event.server.ServerJoinEventImpl;
 import org.javacord.core.util.gateway.PacketHandler;
 
+import java.util.OptionalLong;
+
 /**
  * Handles the guild create packet.
  */
@@ -23,6 +25,12 @@ public class GuildCreateHandler extends PacketHandler {
         super(api, true, "GUILD_CREATE");
     }
 
+    @Override
+    protected OptionalLong getPartitionKey(JsonNode packet) {
+        // The guild packets contain the server id as "id" instead of "guild_id"
+        return OptionalLong.of(packet.get("id").asLong());
+    }
+
     @Override
     public void handle(JsonNode packet) {
         if (packet.has("unavailable") && packet.get("unavailable").asBoolean()) {
@@ -10,6 +10,8 @@ import org.javacord.core.event.server.ServerLeaveEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
 
+import java.util.OptionalLong;
+
 /**
  * Handles the guild delete packet.
  */
@@ -24,6 +26,12 @@ public class GuildDeleteHandler extends PacketHandler {
         super(api, true, "GUILD_DELETE");
     }
 
+    @Override
+    protected OptionalLong getPartitionKey(JsonNode packet) {
+        // The guild packets contain the server id as "id" instead of "guild_id"
+        return OptionalLong.of(packet.get("id").asLong());
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long serverId = packet.get("id").asLong();
@@ -73,6 +73,7 @@ public class GuildMemberUpdateHandler extends PacketHandler {
                     Member oldMember = server.getRealMemberById(userId).orElse(null);
 
                     api.addMemberToCacheOrReplaceExisting(newMember);
+                    server.invalidateCachedPermissions();
 
                     if (oldMember == null) {
                         // Should only happen shortly after startup and is unproblematic
@@ -210,6 +211,9 @@ public class GuildMemberUpdateHandler extends PacketHandler {
     }
 
     private void dispatchUserChangeNameEvent(User user, String newName, String oldName) {
+        if (!api.getEventDispatcher().hasUserChangeNameEventListeners()) {
+            return;
+        }
         UserChangeNameEvent event = new UserChangeNameEventImpl(user, newName, oldName);
 
         api.getEventDispatcher().dispatchUserChangeNameEvent(
@@ -221,6 +225,9 @@ public class GuildMemberUpdateHandler extends PacketHandler {
     }
 
     private void dispatchUserChangeDiscriminatorEvent(User user, String newDiscriminator, String oldDiscriminator) {
+        if (!api.getEventDispatcher().hasUserChangeDiscriminatorEventListeners()) {
+            return;
+        }
         UserChangeDiscriminatorEvent event =
                 new UserChangeDiscriminatorEventImpl(user, newDiscriminator, oldDiscriminator);
 
@@ -233,6 +240,9 @@ public class GuildMemberUpdateHandler extends PacketHandler {
     }
 
     private void dispatchUserChangeAvatarEvent(User user, String newAvatarHash, String oldAvatarHash) {
+        if (!api.getEventDispatcher().hasUserChangeAvatarEventListeners()) {
+            return;
+        }
         UserChangeAvatarEvent event = new UserChangeAvatarEventImpl(user, newAvatarHash, oldAvatarHash);
 
         api.getEventDispatcher().dispatchUserChangeAvatarEvent(
@@ -66,6 +66,7 @@ import org.javacord.core.util.logging.LoggerUtil;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.Set;
 
 /**
@@ -87,6 +88,12 @@ public class GuildUpdateHandler extends PacketHandler {
         super(api, true, "GUILD_UPDATE");
     }
 
+    @Override
+    protected OptionalLong getPartitionKey(JsonNode packet) {
+        // The guild packets contain the server id as "id" instead of "guild_id"
+        return OptionalLong.of(packet.get("id").asLong());
+    }
+
     @Override
     public void handle(JsonNode packet) {
         if (packet.has("unavailable") && packet.get("unavailable").asBoolean()) {
@@ -164,6 +171,7 @@ public class GuildUpdateHandler extends PacketHandler {
             long oldOwnerId = server.getOwnerId();
             if (newOwnerId != oldOwnerId) {
                 server.setOwnerId(newOwnerId);
+                server.invalidateCachedPermissions();
                 ServerChangeOwnerEvent event = new ServerChangeOwnerEventImpl(server, newOwnerId, oldOwnerId);
 
                 api.getEventDispatcher().dispatchServerChangeOwnerEvent(server, server, event);
@@ -28,6 +28,7 @@ public class GuildRoleDeleteHandler extends PacketHandler {
             long roleId = packet.get("role_id").asLong();
             server.getRoleById(roleId).ifPresent(role -> {
                 server.removeRole(roleId);
+                server.invalidateCachedPermissions();
 
                 RoleDeleteEvent event = new RoleDeleteEventImpl(role);
 
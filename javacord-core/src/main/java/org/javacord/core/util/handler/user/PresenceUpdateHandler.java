@@ -61,7 +61,8 @@ public class PresenceUpdateHandler extends PacketHandler {
                     .orElse(Collections.emptySet());
             presence.set(presence.get().setActivities(newActivities));
 
-            if (!Objects.deepEquals(newActivities.toArray(), oldActivities.toArray())) {
+            if (api.getEventDispatcher().hasUserChangeActivityEventListeners()
+                    && !Objects.deepEquals(newActivities.toArray(), oldActivities.toArray())) {
                 dispatchUserActivityChangeEvent(userId, newActivities, oldActivities);
             }
         }
@@ -118,6 +119,9 @@ public class PresenceUpdateHandler extends PacketHandler {
     private void dispatchUserStatusChangeEventIfChangeDetected(long userId, UserStatus newStatus, UserStatus oldStatus,
                                                                Map<DiscordClient, UserStatus> newClientStatus,
                                                                Map<DiscordClient, UserStatus> oldClientStatus) {
+        if (!api.getEventDispatcher().hasUserChangeStatusEventListeners()) {
+            return;
+        }
         UserImpl user = api.getCachedUserById(userId).map(UserImpl.class::cast).orElse(null);
         // Only dispatch the event if something changed
         boolean shouldDispatch = false;
@@ -0,0 +1,46 @@
+package org.javacord.core.util.http;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * A request body which encodes a buffered image directly into the request every time it is written.
+ */
+public class BufferedImageRequestBody extends RequestBody {
+
+    private final BufferedImage image;
+    private final String formatName;
+    private final MediaType mediaType;
+
+    /**
+     * Creates a new buffered image request body.
+     *
+     * @param image The image.
+     * @param formatName The format of the image, e.g. "png".
+     * @param mediaType The media type of the image.
+     */
+    public BufferedImageRequestBody(BufferedImage image, String formatName, MediaType mediaType) {
+        this.image = image;
+        this.formatName = formatName;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        // ImageIO does not close the stream, which would close the sink
+        if (!ImageIO.write(image, formatName, sink.outputStream())) {
+            throw new IOException(String.format("No image writer found for format \"%s\"", formatName));
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+package org.javacord.core.util.http;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Downloads files like attachments and icons with the http client of the api.
+ *
+ * <p>Downloaded files can be kept in a cache which is bounded by the total size of the cached files. If the cache is
+ * full, the least recently used files are evicted first. The cache is keyed by the url of a file, so it assumes that
+ * the content behind a url does not change, which is the case for files on Discord's CDN.
+ */
+public class CdnFetcher {
+
+    /**
+     * The http client which is used to download files.
+     */
+    private final OkHttpClient httpClient;
+
+    /**
+     * The maximum total size of the cached files in bytes.
+     */
+    private final long maxCacheSize;
+
+    /**
+     * The cached files in access order, guarded by itself.
+     */
+    private final Map<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The total size of the cached files in bytes, guarded by {@link #cache}.
+     */
+    private long cacheSize = 0;
+
+    /**
+     * The downloads which are in progress, so that concurrent requests of the same file share one download.
+     */
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> pendingDownloads = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new cdn fetcher.
+     *
+     * @param httpClient The http client of the api. Its connection pool, dispatcher and proxy settings are shared.
+     * @param maxCacheSize The maximum total size of the cached files in bytes. {@code 0} disables the cache.
+     */
+    public CdnFetcher(OkHttpClient httpClient, long maxCacheSize) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative!");
+        }
+        this.httpClient = httpClient;
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Downloads a file asynchronously or gets it from the cache.
+     *
+     * @param url The url of the file.
+     * @return The content of the file.
+     */
+    public CompletableFuture<byte[]> fetch(URL url) {
+        String key = url.toString();
+        byte[] cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.clone());
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> pendingDownload = pendingDownloads.putIfAbsent(key, future);
+        if (pendingDownload != null) {
+            return pendingDownload.thenApply(byte[]::clone);
+        }
+        try {
+            httpClient.newCall(createRequest(url)).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    fail(e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (ResponseBody body = response.body()) {
+                        checkResponse(response, url);
+                        byte[] content = body.bytes();
+                        putCached(key, content);
+                        pendingDownloads.remove(key, future);
+                        future.complete(content);
+                    } catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+
+                private void fail(Throwable t) {
+                    pendingDownloads.remove(key, future);
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (Throwable t) {
+            pendingDownloads.remove(key, future);
+            future.completeExceptionally(t);
+        }
+        return future.thenApply(byte[]::clone);
+    }
+
+    /**
+     * Opens a stream to a file or gets it from the cache.
+     *
+     * <p>If the cache is disabled or the file is too large for it, the file is streamed while it is read.
+     *
+     * @param url The url of the file.
+     * @return An input stream of the file's content.
+     * @throws IOException If the file could not be downloaded.
+     */
+    public InputStream openStream(URL url) throws IOException {
+        String key = url.toString();
+        byte[] cached = getCached(key);
+        if (cached != null) {
+            return new ByteArrayInputStream(cached);
+        }
+
+        Response response = httpClient.newCall(createRequest(url)).execute();
+        ResponseBody body = response.body();
+        try {
+            checkResponse(response, url);
+            long contentLength = body.contentLength();
+            if (contentLength < 0 || contentLength > maxCacheSize) {
+                return body.byteStream();
+            }
+            byte[] content = body.bytes();
+            body.close();
+            putCached(key, content);
+            return new ByteArrayInputStream(content);
+        } catch (Throwable t) {
+            body.close();
+            throw t;
+        }
+    }
+
+    /**
+     * Gets the total size of the cached files.
+     *
+     * @return The total size of the cached files in bytes.
+     */
+    public long getCacheSize() {
+        synchronized (cache) {
+            return cacheSize;
+        }
+    }
+
+    /**
+     * Creates the request to download a file.
+     *
+     * @param url The url of the file.
+     * @return The request.
+     */
+    private static Request createRequest(URL url) {
+        HttpUrl httpUrl = HttpUrl.get(url);
+        if (httpUrl == null) {
+            throw new IllegalArgumentException("Only http and https urls can be downloaded: " + url);
+        }
+        return new Request.Builder().url(httpUrl).get().build();
+    }
+
+    /**
+     * Checks that a download was successful.
+     *
+     * @param response The response of the download.
+     * @param url The url of the file.
+     * @throws IOException If the download was not successful.
+     */
+    private static void checkResponse(Response response, URL url) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException(String.format("Received a %d response while downloading %s", response.code(), url));
+        }
+    }
+
+    /**
+     * Gets a file from the cache.
+     *
+     * @param key The url of the file.
+     * @return The cached content or {@code null} if the file is not cached.
+     */
+    private byte[] getCached(String key) {
+        if (maxCacheSize == 0) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    /**
+     * Adds a file to the cache and evicts the least recently used files until the cache is not larger than its
+     * maximum size. Files which are larger than the whole cache are not added.
+     *
+     * @param key The url of the file.
+     * @param content The content of the file.
+     */
+    private void putCached(String key, byte[] content) {
+        if (maxCacheSize == 0 || content.length > maxCacheSize) {
+            return;
+        }
+        synchronized (cache) {
+            byte[] previous = cache.put(key, content);
+            cacheSize += content.length - (previous == null ? 0 : previous.length);
+            Iterator<byte[]> iterator = cache.values().iterator();
+            while (cacheSize > maxCacheSize) {
+                cacheSize -= iterator.next().length;
+                iterator.remove();
+            }
+        }
+    }
+
+}
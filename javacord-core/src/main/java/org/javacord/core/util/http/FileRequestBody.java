@@ -0,0 +1,58 @@
+package org.javacord.core.util.http;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A request body which transfers a file from its file channel every time it is written, without loading it into
+ * memory.
+ */
+public class FileRequestBody extends RequestBody {
+
+    private final File file;
+    private final MediaType mediaType;
+
+    /**
+     * Creates a new file request body.
+     *
+     * @param file The file.
+     * @param mediaType The media type of the file.
+     */
+    public FileRequestBody(File file, MediaType mediaType) {
+        this.file = file;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.length();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = channel.transferTo(position, size - position, sink);
+                if (transferred <= 0) {
+                    throw new EOFException("The file " + file + " was truncated while uploading it");
+                }
+                position += transferred;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.javacord.core.util.http;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A request body which reads an input stream.
+ *
+ * <p>An input stream can only be read once, but requests are sent again if they hit a ratelimit. Therefore, the
+ * stream is read once into pooled segments, which are shared with the request every time it is written instead of
+ * being copied.
+ */
+public class InputStreamRequestBody extends RequestBody {
+
+    private final InputStream inputStream;
+    private final MediaType mediaType;
+
+    /**
+     * The content of the input stream, once it was read.
+     */
+    private Buffer content;
+
+    /**
+     * Creates a new input stream request body.
+     *
+     * @param inputStream The input stream.
+     * @param mediaType The media type of the content of the input stream.
+     */
+    public InputStreamRequestBody(InputStream inputStream, MediaType mediaType) {
+        this.inputStream = inputStream;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return getContent().size();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        Buffer currentContent = getContent();
+        currentContent.copyTo(sink.getBuffer(), 0, currentContent.size());
+        sink.emitCompleteSegments();
+    }
+
+    /**
+     * Gets the content of the input stream, reading it if this did not happen yet.
+     *
+     * @return The content of the input stream.
+     * @throws IOException If an I/O error occurs.
+     */
+    private synchronized Buffer getContent() throws IOException {
+        if (content == null) {
+            Buffer buffer = new Buffer();
+            try (Source source = Okio.source(inputStream)) {
+                buffer.writeAll(source);
+            }
+            content = buffer;
+        }
+        return content;
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.javacord.core.util.http;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * A request body which downloads a file from an url and streams it into the request every time it is written, without
+ * loading it into memory.
+ *
+ * <p>The file is downloaded with the {@link CdnFetcher} of the api, so it uses the same http client and cache. The
+ * content length is unknown until the file is downloaded, so the body is sent chunked.
+ */
+public class UrlRequestBody extends RequestBody {
+
+    private final CdnFetcher cdnFetcher;
+    private final URL url;
+    private final MediaType mediaType;
+
+    /**
+     * Creates a new url request body.
+     *
+     * @param cdnFetcher The cdn fetcher which downloads the file.
+     * @param url The url of the file.
+     * @param mediaType The media type of the file.
+     */
+    public UrlRequestBody(CdnFetcher cdnFetcher, URL url, MediaType mediaType) {
+        this.cdnFetcher = cdnFetcher;
+        this.url = url;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(cdnFetcher.openStream(url))) {
+            sink.writeAll(source);
+        }
+    }
+
+}
@@ -1,18 +1,25 @@
 package org.javacord.core.util.ratelimit;
 
 import org.javacord.api.DiscordApi;
+import org.javacord.api.util.ratelimit.RatelimitStore;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class RatelimitBucket {
 
-    // The key is the token, as global ratelimits are shared across the same account.
-    private static final Map<String, Long> globalRatelimitResetTimestamp = new ConcurrentHashMap<>();
+    // The key is the token, as ratelimits are shared across the same account.
+    // The value is a hash of the token, so the token itself never ends up in a (possibly shared) ratelimit store.
+    private static final Map<String, String> scopeByToken = new ConcurrentHashMap<>();
 
     private final DiscordApiImpl api;
 
@@ -20,9 +27,11 @@ public class RatelimitBucket {
 
     private final RestEndpoint endpoint;
     private final String majorUrlParameter;
+    private final String bucketHash;
 
-    private volatile long ratelimitResetTimestamp = 0;
-    private volatile int ratelimitRemaining = 1;
+    private final RatelimitStore store;
+    private final String scope;
+    private final String storeKey;
 
     /**
      * Creates a RatelimitBucket for the given endpoint / parameter combination.
@@ -42,9 +51,62 @@ public class RatelimitBucket {
      * @param majorUrlParameter The url parameter this bucket is specific for. May be null.
      */
     public RatelimitBucket(DiscordApi api, RestEndpoint endpoint, String majorUrlParameter) {
+        this(api, endpoint, majorUrlParameter, null);
+    }
+
+    /**
+     * Creates a RatelimitBucket for the given bucket hash / parameter combination.
+     *
+     * @param api The api/shard to use.
+     * @param endpoint The REST endpoint the ratelimit is tracked for. If the bucket hash is known, this is the first
+     *                 of all endpoints that share the bucket.
+     * @param majorUrlParameter The url parameter this bucket is specific for. May be null.
+     * @param bucketHash The hash Discord sent in the {@code X-RateLimit-Bucket} header. May be null.
+     */
+    public RatelimitBucket(DiscordApi api, RestEndpoint endpoint, String majorUrlParameter, String bucketHash) {
         this.api = (DiscordApiImpl) api;
         this.endpoint = endpoint;
         this.majorUrlParameter = majorUrlParameter;
+        this.bucketHash = bucketHash;
+        store = this.api.getRatelimitStore();
+        scope = getScope(api);
+        storeKey = getStoreKey(bucketHash);
+    }
+
+    /**
+     * Gets the scope of all ratelimits of the given api's account.
+     *
+     * @param api A discord api instance.
+     * @return The scope.
+     */
+    private static String getScope(DiscordApi api) {
+        String token = api.getToken();
+        if (token == null) {
+            return "";
+        }
+        return scopeByToken.computeIfAbsent(token, key -> {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+                StringBuilder scope = new StringBuilder();
+                for (int i = 0; i < 8; i++) {
+                    scope.append(String.format("%02x", hash[i]));
+                }
+                return scope.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new AssertionError(e); // SHA-256 is always available
+            }
+        });
+    }
+
+    /**
+     * Gets the key of this bucket's state in the ratelimit store.
+     *
+     * @param bucketHash The bucket hash or {@code null} if the bucket hash is not known.
+     * @return The key.
+     */
+    private String getStoreKey(String bucketHash) {
+        String bucketId = bucketHash == null ? String.valueOf(endpoint) : "hash:" + bucketHash;
+        return scope + ":" + bucketId + ":" + (majorUrlParameter == null ? "" : majorUrlParameter);
     }
 
     /**
@@ -54,7 +116,7 @@ public class RatelimitBucket {
      * @param resetTimestamp The reset timestamp of the global ratelimit.
      */
     public static void setGlobalRatelimitResetTimestamp(DiscordApi api, long resetTimestamp) {
-        globalRatelimitResetTimestamp.put(api.getToken(), resetTimestamp);
+        ((DiscordApiImpl) api).getRatelimitStore().setGlobalRatelimitResetTimestamp(getScope(api), resetTimestamp);
     }
 
     /**
@@ -85,72 +147,107 @@ public class RatelimitBucket {
     }
 
     /**
-     * Sets the remaining requests till ratelimit.
+     * Gets the REST endpoint the ratelimit is tracked for.
      *
-     * @param ratelimitRemaining The remaining requests till ratelimit.
+     * @return The REST endpoint.
      */
-    public void setRatelimitRemaining(int ratelimitRemaining) {
-        this.ratelimitRemaining = ratelimitRemaining;
+    public RestEndpoint getEndpoint() {
+        return endpoint;
     }
 
     /**
-     * Sets the ratelimit reset timestamp.
+     * Gets the url parameter this bucket is specific for.
      *
+     * @return The major url parameter.
+     */
+    public Optional<String> getMajorUrlParameter() {
+        return Optional.ofNullable(majorUrlParameter);
+    }
+
+    /**
+     * Gets the hash Discord sent in the {@code X-RateLimit-Bucket} header for this bucket.
+     *
+     * @return The bucket hash.
+     */
+    public Optional<String> getBucketHash() {
+        return Optional.ofNullable(bucketHash);
+    }
+
+    /**
+     * Updates the ratelimit information of this bucket.
+     *
+     * <p>If the bucket hash that Discord sent is not the hash of this bucket, the information is also stored for the
+     * bucket with the given hash, so it is available once the requests are tracked in the bucket with the hash.
+     *
+     * @param ratelimitRemaining The remaining requests till ratelimit.
      * @param ratelimitResetTimestamp The ratelimit reset timestamp.
+     * @param bucketHash The bucket hash that Discord sent. May be null.
      */
-    public void setRatelimitResetTimestamp(long ratelimitResetTimestamp) {
-        this.ratelimitResetTimestamp = ratelimitResetTimestamp;
+    public void setRatelimitInformation(int ratelimitRemaining, long ratelimitResetTimestamp, String bucketHash) {
+        store.update(storeKey, ratelimitRemaining, ratelimitResetTimestamp);
+        if (bucketHash != null && !bucketHash.equals(this.bucketHash)) {
+            store.update(getStoreKey(bucketHash), ratelimitRemaining, ratelimitResetTimestamp);
+        }
     }
 
     /**
-     * Gets the time in seconds how long you have to wait till there's space in the bucket again.
+     * Tries to acquire space for a request in this bucket.
      *
-     * @return The time in seconds how long you have to wait till there's space in the bucket again.
+     * <p>If there's space in the bucket, it is reserved for the request that is about to be sent.
+     *
+     * @return {@code 0} if space was acquired, otherwise the time in milliseconds how long you have to wait till
+     *         there's space in the bucket again.
      */
-    public int getTimeTillSpaceGetsAvailable() {
-        long globalRatelimitResetTimestamp =
-                RatelimitBucket.globalRatelimitResetTimestamp.getOrDefault(api.getToken(), 0L);
+    public int tryAcquireSpace() {
         long timestamp = System.currentTimeMillis() + (api.getTimeOffset() == null ? 0 : api.getTimeOffset());
-        if (ratelimitRemaining > 0 && (globalRatelimitResetTimestamp - timestamp) <= 0) {
-            return 0;
+        long globalRatelimitResetTimestamp = store.getGlobalRatelimitResetTimestamp(scope);
+        if (globalRatelimitResetTimestamp > timestamp) {
+            return (int) (globalRatelimitResetTimestamp - timestamp);
         }
-        return (int) (Math.max(ratelimitResetTimestamp, globalRatelimitResetTimestamp) - timestamp);
+        // Discord tells us the limit of the bucket in the response, so until then, a request is always allowed
+        return (int) Math.max(0, store.tryAcquire(storeKey, timestamp, 1, 0));
     }
 
     /**
      * Checks if a bucket created with the given parameters would equal this bucket.
      *
+     * <p>If both buckets have a bucket hash, the endpoints are ignored, as all endpoints with the same hash share
+     * the bucket.
+     *
      * @param endpoint The endpoint.
      * @param majorUrlParameter The major url parameter.
+     * @param bucketHash The bucket hash.
      * @return Whether a bucket created with the given parameters would equal this bucket or not.
      */
-    public boolean equals(RestEndpoint endpoint, String majorUrlParameter) {
-        boolean endpointSame = this.endpoint == endpoint;
-        boolean majorUrlParameterBothNull = this.majorUrlParameter == null && majorUrlParameter == null;
-        boolean majorUrlParameterEqual =
-                this.majorUrlParameter != null && this.majorUrlParameter.equals(majorUrlParameter);
-
-        return endpointSame && (majorUrlParameterBothNull || majorUrlParameterEqual);
+    public boolean equals(RestEndpoint endpoint, String majorUrlParameter, String bucketHash) {
+        boolean bucketSame = this.bucketHash == null
+                ? bucketHash == null && this.endpoint == endpoint
+                : this.bucketHash.equals(bucketHash);
+        return bucketSame && Objects.equals(this.majorUrlParameter, majorUrlParameter);
     }
 
-
     @Override
     public boolean equals(Object obj) {
         if (!(obj instanceof RatelimitBucket)) {
             return false;
         }
         RatelimitBucket otherBucket = (RatelimitBucket) obj;
-        return equals(otherBucket.endpoint, otherBucket.majorUrlParameter);
+        return equals(otherBucket.endpoint, otherBucket.majorUrlParameter, otherBucket.bucketHash);
     }
 
     @Override
     public int hashCode() {
         int hash = 42;
         int urlParamHash = majorUrlParameter == null ? 0 : majorUrlParameter.hashCode();
-        int endpointHash = endpoint == null ? 0 : endpoint.hashCode();
+        int bucketHashCode;
+        if (bucketHash != null) {
+            bucketHashCode = bucketHash.hashCode();
+        } else {
+            bucketHashCode = endpoint == null ? 0 : endpoint.hashCode();
+        }
 
         hash = hash * 11 + urlParamHash;
-        hash = hash * 17 + endpointHash;
+        hash = hash * 17 + bucketHashCode;
         return hash;
     }
 
@@ -158,6 +255,9 @@ public class RatelimitBucket {
     public String toString() {
         String str = "Endpoint: " + (endpoint == null ? "global" : endpoint.getEndpointUrl());
         str += ", Major url parameter:" + (majorUrlParameter == null ? "none" : majorUrlParameter);
+        if (bucketHash != null) {
+            str += ", Bucket hash: " + bucketHash;
+        }
         return str;
     }
 }
@@ -1,19 +1,28 @@
 package org.javacord.core.util.ratelimit;
 
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
 import okhttp3.Response;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.exception.DiscordException;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.logging.LoggerUtil;
+import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestRequest;
 import org.javacord.core.util.rest.RestRequestResponseInformationImpl;
 import org.javacord.core.util.rest.RestRequestResult;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -32,9 +41,20 @@ public class RatelimitManager {
     private final DiscordApiImpl api;
 
     /**
-     * All buckets.
+     * All buckets with queued requests.
+     *
+     * <p>The key is a tuple of the bucket's id and its major url parameter. The bucket id is the bucket hash that
+     * Discord sent in the {@code X-RateLimit-Bucket} header or the endpoint if the hash is not known (yet).
+     * Structural modifications, i.e. adding and polling requests, are synchronized on the map itself.
+     */
+    private final ConcurrentMap<Tuple2<Object, String>, RatelimitBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The bucket hashes of all endpoints.
+     *
+     * <p>Different endpoints can share the same bucket hash. Their ratelimits are then tracked in the same bucket.
      */
-    private final Set<RatelimitBucket> buckets = new HashSet<>();
+    private final ConcurrentMap<RestEndpoint, String> bucketHashes = new ConcurrentHashMap<>();
 
     /**
      * Creates a new ratelimit manager.
@@ -46,12 +66,46 @@ public class RatelimitManager {
     }
 
     /**
-     * Gets all ratelimit buckets.
+     * Gets all ratelimit buckets with queued requests.
+     *
+     * @return All ratelimit buckets with queued requests.
+     */
+    public Collection<RatelimitBucket> getBuckets() {
+        return Collections.unmodifiableCollection(buckets.values());
+    }
+
+    /**
+     * Gets the bucket hash of the given endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The bucket hash of the endpoint if it's already known.
+     */
+    public Optional<String> getBucketHash(RestEndpoint endpoint) {
+        return Optional.ofNullable(bucketHashes.get(endpoint));
+    }
+
+    /**
+     * Gets the key of the bucket for the given parameters.
+     *
+     * @param endpoint The endpoint.
+     * @param majorUrlParameter The major url parameter. May be null.
+     * @param bucketHash The bucket hash. May be null.
+     * @return The key of the bucket.
+     */
+    private static Tuple2<Object, String> getBucketKey(
+            RestEndpoint endpoint, String majorUrlParameter, String bucketHash) {
+        return Tuple.of(bucketHash == null ? endpoint : bucketHash, majorUrlParameter);
+    }
+
+    /**
+     * Gets the key of the given bucket.
      *
-     * @return All ratelimit buckets.
+     * @param bucket The bucket.
+     * @return The key of the bucket.
      */
-    public Set<RatelimitBucket> getBuckets() {
-        return buckets;
+    private static Tuple2<Object, String> getBucketKey(RatelimitBucket bucket) {
+        return getBucketKey(
+                bucket.getEndpoint(), bucket.getMajorUrlParameter().orElse(null), bucket.getBucketHash().orElse(null));
     }
 
     /**
@@ -65,18 +119,14 @@ public class RatelimitManager {
         final boolean alreadyInQueue;
         synchronized (buckets) {
             // Search for a bucket that fits to this request
-            bucket = buckets.stream()
-                    .filter(b -> b.equals(request.getEndpoint(), request.getMajorUrlParameter().orElse(null)))
-                    .findAny()
-                    .orElseGet(() -> new RatelimitBucket(
-                            api, request.getEndpoint(), request.getMajorUrlParameter().orElse(null)));
+            String majorUrlParameter = request.getMajorUrlParameter().orElse(null);
+            String bucketHash = bucketHashes.get(request.getEndpoint());
+            bucket = buckets.computeIfAbsent(getBucketKey(request.getEndpoint(), majorUrlParameter, bucketHash),
+                    key -> new RatelimitBucket(api, request.getEndpoint(), majorUrlParameter, bucketHash));
 
             // Must be executed BEFORE adding the request to the queue
             alreadyInQueue = bucket.peekRequestFromQueue() != null;
 
-            // Add the bucket to the set of buckets (does nothing if it's already in the set)
-            buckets.add(bucket);
-
             // Add the request to the bucket's queue
             bucket.addRequestToQueue(request);
         }
@@ -87,77 +137,179 @@ public class RatelimitManager {
         }
 
         // Start working of the queue
-        api.getThreadPool().getExecutorService().submit(() -> {
-            RestRequest<?> currentRequest = bucket.peekRequestFromQueue();
-            RestRequestResult result = null;
+        processQueue(bucket);
+    }
+
+    /**
+     * Executes the first request in the bucket's queue as soon as there's space in the bucket.
+     *
+     * <p>Instead of blocking a thread until the ratelimit is over, a wakeup is scheduled with the central scheduler
+     * and the request is sent asynchronously. This way, waiting buckets do not occupy any thread.
+     *
+     * @param bucket The bucket.
+     */
+    private void processQueue(RatelimitBucket bucket) {
+        RestRequest<?> currentRequest = bucket.peekRequestFromQueue();
+        if (currentRequest == null) {
+            return;
+        }
+        int sleepTime = bucket.tryAcquireSpace();
+        if (sleepTime > 0) {
+            logger.debug("Delaying requests to {} for {}ms to prevent hitting ratelimits", bucket, sleepTime);
+            try {
+                // Check again after the delay in case something changed (e.g. because we hit a global ratelimit)
+                api.getThreadPool().getScheduler().schedule(
+                        () -> processQueue(bucket), sleepTime, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                failQueue(bucket, e);
+            }
+            return;
+        }
+
+        CompletableFuture<RestRequestResult> execution;
+        try {
+            execution = currentRequest.executeAsync();
+        } catch (Throwable t) {
+            execution = new CompletableFuture<>();
+            execution.completeExceptionally(t);
+        }
+        execution.whenComplete((result, throwable) -> {
             long responseTimestamp = System.currentTimeMillis();
-            while (currentRequest != null) {
-                try {
-                    int sleepTime = bucket.getTimeTillSpaceGetsAvailable();
-                    if (sleepTime > 0) {
-                        logger.debug("Delaying requests to {} for {}ms to prevent hitting ratelimits",
-                                bucket, sleepTime);
-                    }
-
-                    // Sleep until space is available
-                    while (sleepTime > 0) {
-                        try {
-                            Thread.sleep(sleepTime);
-                        } catch (InterruptedException e) {
-                            logger.warn("We got interrupted while waiting for a rate limit!", e);
-                        }
-                        // Update in case something changed (e.g. because we hit a global ratelimit)
-                        sleepTime = bucket.getTimeTillSpaceGetsAvailable();
-                    }
-
-                    // Execute the request
-                    result = currentRequest.executeBlocking();
-
-                    // Calculate the time offset, if it wasn't done before
-                    responseTimestamp = System.currentTimeMillis();
-                } catch (Throwable t) {
-                    responseTimestamp = System.currentTimeMillis();
-                    if (currentRequest.getResult().isDone()) {
-                        logger.warn("Received exception for a request that is already done. "
-                                + "This should not be able to happen!", t);
-                    }
-                    // Try to get the response from the exception if it exists
-                    if (t instanceof DiscordException) {
-                        result = ((DiscordException) t).getResponse()
-                                .map(RestRequestResponseInformationImpl.class::cast)
-                                .map(RestRequestResponseInformationImpl::getRestRequestResult)
-                                .orElse(null);
-                    }
-                    // Complete the request
-                    currentRequest.getResult().completeExceptionally(t);
-                } finally {
-                    try {
-                        // Calculate offset
-                        calculateOffset(responseTimestamp, result);
-                        // Handle the response
-                        handleResponse(currentRequest, result, bucket, responseTimestamp);
-                    } catch (Throwable t) {
-                        logger.warn("Encountered unexpected exception.", t);
-                    }
-
-                    // The request didn't finish, so let's try again
-                    if (!currentRequest.getResult().isDone()) {
-                        continue;
-                    }
-
-                    // Poll a new quest
-                    synchronized (buckets) {
-                        bucket.pollRequestFromQueue();
-                        currentRequest = bucket.peekRequestFromQueue();
-                        if (currentRequest == null) {
-                            buckets.remove(bucket);
-                        }
-                    }
-                }
+            try {
+                // Do not block the http client's threads with the request's dependent actions
+                api.getThreadPool().getExecutorService().submit(() ->
+                        handleExecution(bucket, currentRequest, result, throwable, responseTimestamp));
+            } catch (RejectedExecutionException e) {
+                handleExecution(bucket, currentRequest, result, throwable, responseTimestamp);
             }
         });
     }
 
+    /**
+     * Handles the outcome of an executed request and continues with the next request in the bucket's queue.
+     *
+     * @param bucket The bucket the request belongs to.
+     * @param currentRequest The executed request.
+     * @param result The result of the request or {@code null} if the execution failed.
+     * @param throwable The exception if the execution failed or {@code null} if it was successful.
+     * @param responseTimestamp The timestamp directly after the response finished.
+     */
+    private void handleExecution(RatelimitBucket bucket, RestRequest<?> currentRequest, RestRequestResult result,
+                                 Throwable throwable, long responseTimestamp) {
+        RestRequestResult requestResult = result;
+        if (throwable != null) {
+            Throwable t = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (currentRequest.getResult().isDone()) {
+                logger.warn("Received exception for a request that is already done. "
+                        + "This should not be able to happen!", t);
+            }
+            // Try to get the response from the exception if it exists
+            if (t instanceof DiscordException) {
+                requestResult = ((DiscordException) t).getResponse()
+                        .map(RestRequestResponseInformationImpl.class::cast)
+                        .map(RestRequestResponseInformationImpl::getRestRequestResult)
+                        .orElse(null);
+            }
+            // Complete the request
+            currentRequest.getResult().completeExceptionally(t);
+        }
+        try {
+            // Calculate offset
+            calculateOffset(responseTimestamp, requestResult);
+            // Handle the response
+            handleResponse(currentRequest, requestResult, bucket, responseTimestamp);
+        } catch (Throwable t) {
+            logger.warn("Encountered unexpected exception.", t);
+        }
+
+        // The request didn't finish, so let's try again
+        if (!currentRequest.getResult().isDone()) {
+            processQueue(bucket);
+            return;
+        }
+
+        // Poll a new quest
+        RatelimitBucket nextBucket = bucket;
+        synchronized (buckets) {
+            bucket.pollRequestFromQueue();
+            String bucketHash = getBucketHashHeader(requestResult);
+            if (bucketHash != null && !bucket.getBucketHash().isPresent()) {
+                // From now on, requests to this endpoint are tracked in the bucket with the given hash
+                bucketHashes.put(bucket.getEndpoint(), bucketHash);
+                nextBucket = mergeIntoBucketWithHash(bucket, bucketHash);
+            } else if (bucket.peekRequestFromQueue() == null) {
+                buckets.remove(getBucketKey(bucket), bucket);
+                return;
+            }
+        }
+        if (nextBucket != null) {
+            processQueue(nextBucket);
+        }
+    }
+
+    /**
+     * Moves all queued requests of a bucket without a known hash to the bucket with the given hash.
+     *
+     * <p>The ratelimit information was already stored for the bucket with the hash when the response was handled.
+     *
+     * <p>Must only be called while synchronized on {@link #buckets}.
+     *
+     * @param bucket The bucket without a known hash.
+     * @param bucketHash The hash of the bucket.
+     * @return The bucket which has to be processed now or {@code null} if no bucket has to be processed.
+     */
+    private RatelimitBucket mergeIntoBucketWithHash(RatelimitBucket bucket, String bucketHash) {
+        buckets.remove(getBucketKey(bucket), bucket);
+        if (bucket.peekRequestFromQueue() == null) {
+            // Nothing to move
+            return null;
+        }
+        String majorUrlParameter = bucket.getMajorUrlParameter().orElse(null);
+        RatelimitBucket bucketWithHash = buckets.computeIfAbsent(
+                getBucketKey(bucket.getEndpoint(), majorUrlParameter, bucketHash),
+                key -> new RatelimitBucket(api, bucket.getEndpoint(), majorUrlParameter, bucketHash));
+        boolean alreadyInQueue = bucketWithHash.peekRequestFromQueue() != null;
+        for (RestRequest<?> request = bucket.pollRequestFromQueue();
+                request != null;
+                request = bucket.pollRequestFromQueue()) {
+            bucketWithHash.addRequestToQueue(request);
+        }
+        return alreadyInQueue ? null : bucketWithHash;
+    }
+
+    /**
+     * Gets the bucket hash from the {@code X-RateLimit-Bucket} header of the given result.
+     *
+     * @param result The result of the request. May be null.
+     * @return The bucket hash or {@code null} if the result does not contain a bucket hash.
+     */
+    private static String getBucketHashHeader(RestRequestResult result) {
+        if (result == null || result.getResponse() == null) {
+            return null;
+        }
+        return result.getResponse().header("X-RateLimit-Bucket");
+    }
+
+    /**
+     * Completes all requests in the bucket's queue exceptionally.
+     *
+     * <p>This is used if the requests can not be scheduled anymore, e.g. because the api was disconnected.
+     *
+     * @param bucket The bucket.
+     * @param t The cause.
+     */
+    private void failQueue(RatelimitBucket bucket, Throwable t) {
+        synchronized (buckets) {
+            for (RestRequest<?> request = bucket.pollRequestFromQueue();
+                    request != null;
+                    request = bucket.pollRequestFromQueue()) {
+                request.getResult().completeExceptionally(t);
+            }
+            buckets.remove(getBucketKey(bucket), bucket);
+        }
+    }
+
     /**
      * Updates the ratelimit information and sets the result if the request was successful.
      *
@@ -200,8 +352,8 @@ public class RatelimitManager {
                 api.setTimeOffset(null);
 
                 // Update the bucket information
-                bucket.setRatelimitRemaining(0);
-                bucket.setRatelimitResetTimestamp(responseTimestamp + retryAfter);
+                bucket.setRatelimitInformation(
+                        0, responseTimestamp + retryAfter, response.header("X-RateLimit-Bucket"));
             }
         } else {
             // Check if we didn't already complete it exceptionally.
@@ -211,8 +363,7 @@ public class RatelimitManager {
             }
 
             // Update bucket information
-            bucket.setRatelimitRemaining(remaining);
-            bucket.setRatelimitResetTimestamp(reset);
+            bucket.setRatelimitInformation(remaining, reset, response.header("X-RateLimit-Bucket"));
         }
     }
 
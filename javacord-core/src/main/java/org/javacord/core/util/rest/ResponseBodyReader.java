@@ -0,0 +1,23 @@
+package org.javacord.core.util.rest;
+
+import java.io.IOException;
+
+/**
+ * Reads the body of a successful response directly from the response stream.
+ *
+ * @param <T> The type of the value that is read.
+ */
+@FunctionalInterface
+public interface ResponseBodyReader<T> {
+
+    /**
+     * Reads the body of the given result.
+     * This is called while the response is still open, on a thread of the http client.
+     *
+     * @param result The result of the request. Its body is still unread.
+     * @return The value that was read.
+     * @throws IOException If the body could not be read.
+     */
+    T read(RestRequestResult result) throws IOException;
+
+}
@@ -1,6 +1,8 @@
 package org.javacord.core.util.rest;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -10,11 +12,13 @@ import okhttp3.Response;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.exception.DiscordException;
+import org.javacord.api.util.ratelimit.Ratelimiter;
 import org.javacord.api.util.rest.RestRequestInformation;
 import org.javacord.api.util.rest.RestRequestResponseInformation;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.logging.LoggerUtil;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -24,6 +28,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 
 /**
@@ -36,6 +41,11 @@ public class RestRequest<T> {
      */
     private static final Logger logger = LoggerUtil.getLogger(RestRequest.class);
 
+    /**
+     * The name of the thread that waits for the quota of the global ratelimiter.
+     */
+    private static final String GLOBAL_RATELIMITER_THREAD_NAME = "Global Ratelimiter";
+
     private final DiscordApiImpl api;
     private final RestMethod method;
     private final RestEndpoint endpoint;
@@ -59,6 +69,11 @@ public class RestRequest<T> {
      */
     private String customMajorParam = null;
 
+    /**
+     * The reader of a streamed response body or {@code null} if the body should be parsed as a whole.
+     */
+    private volatile ResponseBodyReader<T> bodyReader = null;
+
     /**
      * The origin of the rest request.
      */
@@ -295,6 +310,23 @@ public class RestRequest<T> {
         return future;
     }
 
+    /**
+     * Executes the request and reads the body of a successful response directly from the response stream.
+     * This will automatically retry if we hit a ratelimit.
+     *
+     * <p>Unlike {@link #execute(Function)}, the body is neither kept as a string nor parsed as a whole. The reader is
+     * called while the response is still open, so it can build entities while the body is received, for example with
+     * {@link RestRequestResult#readJsonArray(java.util.function.Consumer)}.
+     *
+     * @param reader A reader which reads the response body to the requested object.
+     * @return A future which will contain the output of the reader.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<T> executeStreaming(ResponseBodyReader<T> reader) {
+        bodyReader = reader;
+        return execute(result -> (T) result.getReadBody());
+    }
+
     /**
      * Gets the result of this request. This will not start executing, just return the result!
      *
@@ -334,6 +366,75 @@ public class RestRequest<T> {
                 }
             });
         }
+        try (Response response = getApi().getHttpClient().newCall(buildRequest()).execute()) {
+            return handleResponse(response);
+        }
+    }
+
+    /**
+     * Executes the request without blocking the current thread.
+     *
+     * <p>The request is sent with OkHttp's asynchronous calls, so no thread is blocked while waiting for the
+     * response. If the request consumes the global ratelimit, the quota of the global ratelimiter is requested by a
+     * single thread that is shared by all requests.
+     *
+     * @return A future which will contain the result of the request.
+     */
+    public CompletableFuture<RestRequestResult> executeAsync() {
+        CompletableFuture<RestRequestResult> future = new CompletableFuture<>();
+        if (consumeGlobalRatelimit && api.getGlobalRatelimiter().isPresent()) {
+            Ratelimiter ratelimiter = api.getGlobalRatelimiter().get();
+            try {
+                api.getThreadPool().getSingleThreadExecutorService(GLOBAL_RATELIMITER_THREAD_NAME).submit(() -> {
+                    try {
+                        ratelimiter.requestQuota();
+                    } catch (InterruptedException e) {
+                        logger.warn("Encountered unexpected ratelimiter interrupt", e);
+                    }
+                    enqueue(future);
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        } else {
+            enqueue(future);
+        }
+        return future;
+    }
+
+    /**
+     * Enqueues the request in the http client and completes the given future once the response was received.
+     *
+     * @param future The future to complete.
+     */
+    private void enqueue(CompletableFuture<RestRequestResult> future) {
+        try {
+            getApi().getHttpClient().newCall(buildRequest()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (Response autoClosedResponse = response) {
+                        future.complete(handleResponse(autoClosedResponse));
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+            });
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Builds the OkHttp request for this request.
+     *
+     * @return The OkHttp request.
+     */
+    private Request buildRequest() {
         Request.Builder requestBuilder = new Request.Builder();
         HttpUrl.Builder httpUrlBuilder = endpoint.getOkHttpUrl(urlParameters).newBuilder();
         queryParameters.forEach(httpUrlBuilder::addQueryParameter);
@@ -373,69 +474,82 @@ public class RestRequest<T> {
         headers.forEach(requestBuilder::addHeader);
         logger.debug("Trying to send {} request to {}{}",
                 method::name, () -> endpoint.getFullUrl(urlParameters), () -> body != null ? " with body " + body : "");
+        return requestBuilder.build();
+    }
 
-        try (Response response = getApi().getHttpClient().newCall(requestBuilder.build()).execute()) {
-            RestRequestResult result = new RestRequestResult(this, response);
-            logger.debug("Sent {} request to {} and received status code {} with{} body{}",
-                    method::name, () -> endpoint.getFullUrl(urlParameters), response::code,
-                    () -> result.getBody().map(b -> "").orElse(" empty"),
-                    () -> result.getStringBody().map(s -> " " + s).orElse(""));
-
-            if (response.code() >= 300 || response.code() < 200) {
-
-                RestRequestInformation requestInformation = asRestRequestInformation();
-                RestRequestResponseInformation responseInformation = new RestRequestResponseInformationImpl(
-                        requestInformation, result);
-                Optional<RestRequestHttpResponseCode> responseCode = RestRequestHttpResponseCode
-                        .fromCode(response.code());
-
-                // Check if the response body contained a know error code
-                if (!result.getJsonBody().isNull() && result.getJsonBody().has("code")) {
-                    int code = result.getJsonBody().get("code").asInt();
-                    String message = result.getJsonBody().has("message")
-                            ? result.getJsonBody().get("message").asText()
-                            : null;
-                    Optional<? extends DiscordException> discordException =
-                            RestRequestResultErrorCode.fromCode(code, responseCode.orElse(null))
-                                    .flatMap(restRequestResultCode -> restRequestResultCode.getDiscordException(
-                                            origin, (message == null) ? restRequestResultCode.getMeaning() : message,
-                                            requestInformation, responseInformation));
-                    // There's an exception for this specific response code
+    /**
+     * Reads the given response and checks it for errors.
+     *
+     * @param response The response. It's not closed by this method.
+     * @return The result of the request.
+     * @throws Exception If the response is not successful, except for 429 responses which are handled by the
+     *                   {@link org.javacord.core.util.ratelimit.RatelimitManager}.
+     */
+    private RestRequestResult handleResponse(Response response) throws Exception {
+        ResponseBodyReader<T> reader = bodyReader;
+        RestRequestResult result = new RestRequestResult(this, response, reader != null, logger.isDebugEnabled());
+        logger.debug("Sent {} request to {} and received status code {} with{} body{}",
+                method::name, () -> endpoint.getFullUrl(urlParameters), response::code,
+                () -> result.getBody().map(b -> "").orElse(" empty"),
+                () -> result.getStringBody().map(s -> " " + s).orElse(""));
+
+        if (response.code() >= 300 || response.code() < 200) {
+
+            RestRequestInformation requestInformation = asRestRequestInformation();
+            RestRequestResponseInformation responseInformation = new RestRequestResponseInformationImpl(
+                    requestInformation, result);
+            Optional<RestRequestHttpResponseCode> responseCode = RestRequestHttpResponseCode
+                    .fromCode(response.code());
+
+            // Check if the response body contained a know error code
+            if (!result.getJsonBody().isNull() && result.getJsonBody().has("code")) {
+                int code = result.getJsonBody().get("code").asInt();
+                String message = result.getJsonBody().has("message")
+                        ? result.getJsonBody().get("message").asText()
+                        : null;
+                Optional<? extends DiscordException> discordException =
+                        RestRequestResultErrorCode.fromCode(code, responseCode.orElse(null))
+                                .flatMap(restRequestResultCode -> restRequestResultCode.getDiscordException(
+                                        origin, (message == null) ? restRequestResultCode.getMeaning() : message,
+                                        requestInformation, responseInformation));
+                // There's an exception for this specific response code
+                if (discordException.isPresent()) {
+                    throw discordException.get();
+                }
+            }
+
+            switch (response.code()) {
+                case 429:
+                    // A 429 will be handled in the RatelimitManager class
+                    return result;
+                default:
+                    // There are specific exceptions for specific response codes (e.g. NotFoundException for 404)
+                    Optional<? extends DiscordException> discordException = responseCode
+                            .flatMap(restRequestHttpResponseCode ->
+                                             restRequestHttpResponseCode.getDiscordException(
+                                                     origin,
+                                                     "Received a " + response.code() + " response from Discord with"
+                                                     + (result.getBody().isPresent() ? "" : " empty")
+                                                     + " body"
+                                                     + result.getStringBody().map(s -> " " + s).orElse("")
+                                                     + "!",
+                                                     requestInformation, responseInformation));
                     if (discordException.isPresent()) {
                         throw discordException.get();
+                    } else {
+                        // No specific exception was defined for the response code, so throw a "normal"
+                        throw new DiscordException(
+                                origin, "Received a " + response.code() + " response from Discord with"
+                                        + (result.getBody().isPresent() ? "" : " empty") + " body"
+                                        + result.getStringBody().map(s -> " " + s).orElse("") + "!",
+                                requestInformation, responseInformation);
                     }
-                }
-
-                switch (response.code()) {
-                    case 429:
-                        // A 429 will be handled in the RatelimitManager class
-                        return result;
-                    default:
-                        // There are specific exceptions for specific response codes (e.g. NotFoundException for 404)
-                        Optional<? extends DiscordException> discordException = responseCode
-                                .flatMap(restRequestHttpResponseCode ->
-                                                 restRequestHttpResponseCode.getDiscordException(
-                                                         origin,
-                                                         "Received a " + response.code() + " response from Discord with"
-                                                         + (result.getBody().isPresent() ? "" : " empty")
-                                                         + " body"
-                                                         + result.getStringBody().map(s -> " " + s).orElse("")
-                                                         + "!",
-                                                         requestInformation, responseInformation));
-                        if (discordException.isPresent()) {
-                            throw discordException.get();
-                        } else {
-                            // No specific exception was defined for the response code, so throw a "normal"
-                            throw new DiscordException(
-                                    origin, "Received a " + response.code() + " response from Discord with"
-                                            + (result.getBody().isPresent() ? "" : " empty") + " body"
-                                            + result.getStringBody().map(s -> " " + s).orElse("") + "!",
-                                    requestInformation, responseInformation);
-                        }
-                }
             }
-            return result;
         }
+        if (result.isStreamed()) {
+            result.readBody(reader);
+        }
+        return result;
     }
 
 }
@@ -1,6 +1,8 @@
 package org.javacord.core.util.rest;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.NullNode;
@@ -11,6 +13,8 @@ import org.javacord.core.util.logging.LoggerUtil;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * The result of a {@link RestRequest}.
@@ -28,6 +32,21 @@ public class RestRequestResult {
     private final String stringBody;
     private final JsonNode jsonBody;
 
+    /**
+     * Whether the body of the response was left unread to be streamed.
+     */
+    private final boolean streamed;
+
+    /**
+     * The value which was read from the streamed body.
+     */
+    private volatile Object readBody;
+
+    /**
+     * The exception which was thrown while reading the streamed body.
+     */
+    private volatile Throwable readBodyException;
+
     /**
      * Creates a new RestRequestResult.
      *
@@ -36,18 +55,38 @@ public class RestRequestResult {
      * @throws IOException Passed on from {@link ResponseBody#string()}.
      */
     public RestRequestResult(RestRequest<?> request, Response response) throws IOException {
+        this(request, response, false, true);
+    }
+
+    /**
+     * Creates a new RestRequestResult.
+     *
+     * <p>The body of unsuccessful responses is always kept as a string, because it is part of the exception that is
+     * thrown for them. The body of successful responses is parsed directly from the response stream, unless the
+     * string body is needed for logging.
+     *
+     * @param request The request of the result.
+     * @param response The response of the RestRequest.
+     * @param streamBody Whether the body of a successful response should be left unread, so that it can be read
+     *                   from the response stream, e.g. with {@link #readJsonArray(Consumer)}.
+     * @param keepStringBody Whether the body of a successful response should be kept as a string.
+     * @throws IOException If the body could not be read.
+     */
+    RestRequestResult(RestRequest<?> request, Response response, boolean streamBody, boolean keepStringBody)
+            throws IOException {
         this.request = request;
         this.response = response;
         this.body = response.body();
-        if (body == null) {
+        this.streamed = body != null && streamBody && response.isSuccessful();
+        if (body == null || streamed) {
             stringBody = null;
             jsonBody = NullNode.getInstance();
         } else {
-            stringBody = body.string();
             ObjectMapper mapper = request.getApi().getObjectMapper();
+            stringBody = keepStringBody || !response.isSuccessful() ? body.string() : null;
             JsonNode jsonBody;
             try {
-                jsonBody = mapper.readTree(stringBody);
+                jsonBody = stringBody == null ? mapper.readTree(body.byteStream()) : mapper.readTree(stringBody);
             } catch (JsonParseException e) {
                 // This can happen if Discord sends garbage (see https://github.com/Javacord/Javacord/issues/526)
                 logger.debug("Failed to parse json response", e);
@@ -86,6 +125,7 @@ public class RestRequestResult {
 
     /**
      * Gets the string body of the response.
+     * The string body of successful responses is only kept if it is logged.
      *
      * @return The string body of the response.
      */
@@ -95,7 +135,8 @@ public class RestRequestResult {
 
     /**
      * Gets the json body of the response.
-     * Returns a {@link NullNode} if the response had no body or the body is not in a valid json format.
+     * Returns a {@link NullNode} if the response had no body, the body is not in a valid json format or the body is
+     * streamed.
      *
      * @return The json body of the response.
      */
@@ -103,4 +144,73 @@ public class RestRequestResult {
         return jsonBody;
     }
 
+    /**
+     * Checks if the body of the response was left unread to be streamed.
+     *
+     * @return Whether the body of the response is streamed.
+     */
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    /**
+     * Reads the elements of a json array body one by one.
+     *
+     * <p>If the body is streamed, each element is parsed directly from the response stream and passed to the consumer
+     * before the next one is read, so the whole array never has to be held in memory. Otherwise, the elements of the
+     * already parsed json body are passed to the consumer.
+     *
+     * @param elementConsumer The consumer of the array elements.
+     * @throws IOException If the body could not be read or is not a json array.
+     */
+    public void readJsonArray(Consumer<JsonNode> elementConsumer) throws IOException {
+        if (!streamed) {
+            jsonBody.forEach(elementConsumer);
+            return;
+        }
+        ObjectMapper mapper = request.getApi().getObjectMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected the response body to be a json array");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of the response body");
+                }
+                elementConsumer.accept(mapper.readTree(parser));
+            }
+        }
+    }
+
+    /**
+     * Reads the streamed body with the given reader. Exceptions of the reader are kept and thrown by
+     * {@link #getReadBody()}.
+     *
+     * @param reader The reader of the body.
+     */
+    void readBody(ResponseBodyReader<?> reader) {
+        try {
+            readBody = reader.read(this);
+        } catch (Throwable t) {
+            readBodyException = t;
+        }
+    }
+
+    /**
+     * Gets the value which was read from the streamed body.
+     *
+     * @return The value which was read from the streamed body.
+     * @throws CompletionException If the reader of the body threw an exception.
+     */
+    Object getReadBody() {
+        Throwable t = readBodyException;
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t != null) {
+            throw new CompletionException(t);
+        }
+        return readBody;
+    }
+
 }
@@ -0,0 +1,184 @@
+package org.javacord.api.util.ratelimit
+
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.atomic.AtomicInteger
+
+@Subject(FileRatelimitStore)
+class FileRatelimitStoreTest extends Specification {
+
+    Path file = Files.createTempFile('javacord-ratelimits', '.txt')
+
+    @AutoCleanup
+    def store = new FileRatelimitStore(file)
+
+    @AutoCleanup
+    def otherStore = new FileRatelimitStore(file)
+
+    def cleanup() {
+        Files.deleteIfExists(file)
+    }
+
+    def 'unknown buckets open a new window'() {
+        given:
+            def now = System.currentTimeMillis()
+
+        expect:
+            store.tryAcquire('bucket', now, 2, 1000) == 0
+            otherStore.tryAcquire('bucket', now, 2, 1000) == 0
+            store.tryAcquire('bucket', now + 100, 2, 1000) == 900
+
+        and: 'a new window is opened after the reset'
+            otherStore.tryAcquire('bucket', now + 1000, 2, 1000) == 0
+    }
+
+    def 'updates are visible to all stores that use the same file'() {
+        given:
+            def now = System.currentTimeMillis()
+
+        when:
+            store.update('bucket', 1, now + 5000)
+
+        then:
+            otherStore.tryAcquire('bucket', now, 5, 0) == 0
+            store.tryAcquire('bucket', now, 5, 0) == 5000
+            otherStore.tryAcquire('other bucket', now, 1, 0) == 0
+    }
+
+    def 'global ratelimits are visible to all stores that use the same file'() {
+        given:
+            def now = System.currentTimeMillis()
+
+        expect:
+            otherStore.getGlobalRatelimitResetTimestamp('scope') == 0
+
+        when:
+            store.setGlobalRatelimitResetTimestamp('scope', now + 5000)
+
+        then:
+            otherStore.getGlobalRatelimitResetTimestamp('scope') == now + 5000
+            otherStore.getGlobalRatelimitResetTimestamp('other scope') == 0
+    }
+
+    def 'slots of expired entries are reused'() {
+        given:
+            def now = System.currentTimeMillis()
+            Files.delete(file)
+            def smallStore = new FileRatelimitStore(file, 2)
+
+        when:
+            smallStore.update('expired bucket', 0, now - 3_600_000)
+            smallStore.setGlobalRatelimitResetTimestamp('expired scope', now - 3_600_000)
+            smallStore.update('bucket', 0, now + 5000)
+            smallStore.setGlobalRatelimitResetTimestamp('scope', now + 5000)
+
+        then:
+            smallStore.tryAcquire('bucket', now, 1, 0) == 5000
+            smallStore.getGlobalRatelimitResetTimestamp('scope') == now + 5000
+            smallStore.getGlobalRatelimitResetTimestamp('expired scope') == 0
+
+        when: 'all slots are used by active entries'
+            smallStore.update('other bucket', 0, now + 5000)
+
+        then:
+            thrown(IllegalStateException)
+
+        cleanup:
+            smallStore?.close()
+    }
+
+    def 'accesses that do not change an entry do not modify the file'() {
+        given:
+            def now = System.currentTimeMillis()
+            store.update('bucket', 0, now + 5000)
+            store.setGlobalRatelimitResetTimestamp('scope', now + 5000)
+            def content = Files.readAllBytes(file)
+
+        when:
+            otherStore.getGlobalRatelimitResetTimestamp('scope')
+            otherStore.setGlobalRatelimitResetTimestamp('scope', now + 5000)
+            otherStore.tryAcquire('bucket', now, 1, 0)
+            otherStore.tryAcquire('unknown bucket', now, 1, 0)
+            otherStore.update('bucket', 0, now + 5000)
+
+        then:
+            Files.readAllBytes(file) == content
+
+        when:
+            otherStore.update('bucket', 1, now + 5000)
+
+        then:
+            Files.readAllBytes(file) != content
+            store.tryAcquire('bucket', now, 1, 0) == 0
+    }
+
+    def 'existing files keep their amount of slots'() {
+        given:
+            def now = System.currentTimeMillis()
+            store.update('bucket', 0, now + 5000)
+
+        when:
+            def otherSizeStore = new FileRatelimitStore(file, 16)
+
+        then:
+            otherSizeStore.slots == FileRatelimitStore.DEFAULT_SLOTS
+            otherSizeStore.tryAcquire('bucket', now, 1, 0) == 5000
+
+        cleanup:
+            otherSizeStore?.close()
+    }
+
+    def 'files with a different content are rejected'() {
+        given:
+            def otherFile = Files.createTempFile('javacord-ratelimits', '.txt')
+            otherFile.text = 'bucket\t0\t0\n'
+
+        when:
+            new FileRatelimitStore(otherFile)
+
+        then:
+            thrown(IOException)
+
+        cleanup:
+            Files.deleteIfExists(otherFile)
+    }
+
+    def 'concurrent acquisitions never exceed the limit'() {
+        given:
+            def now = System.currentTimeMillis()
+            def acquired = new AtomicInteger()
+            store.update('bucket', 50, now + 60_000)
+
+        when:
+            (1..4).collect { i ->
+                def threadStore = i % 2 ? store : otherStore
+                Thread.start {
+                    20.times {
+                        if (threadStore.tryAcquire('bucket', now, 1, 0) == 0) {
+                            acquired.incrementAndGet()
+                        }
+                    }
+                }
+            }*.join()
+
+        then:
+            acquired.get() == 50
+    }
+
+    def 'keys are compared as a whole'() {
+        given:
+            def now = System.currentTimeMillis()
+
+        when:
+            store.update('bucket\n', 0, now + 5000)
+
+        then:
+            store.tryAcquire('bucket\n', now, 1, 0) == 5000
+            store.tryAcquire('bucket', now, 1, 0) == 0
+    }
+
+}
@@ -4,8 +4,17 @@ import io.netty.handler.codec.http.HttpHeaderNames
 import okhttp3.Credentials
 import org.apache.logging.log4j.Level
 import org.apache.logging.log4j.test.appender.ListAppender
+import org.javacord.api.DiscordApiBuilder
+import org.javacord.api.entity.channel.TextChannel
 import org.javacord.api.entity.server.Server
 import org.javacord.api.exception.NotFoundException
+import org.javacord.api.listener.message.MessageCreateListener
+import org.javacord.api.util.cache.EntityCacheBackend
+import org.javacord.api.util.cache.MessageCacheStorageMode
+import org.javacord.api.util.gateway.GatewayEncoding
+import org.javacord.core.util.cache.ConcurrentCache
+import org.javacord.core.util.cache.ImmutableCache
+import org.javacord.core.util.cache.JavacordEntityCache
 import org.javacord.test.MockProxyManager
 import org.mockserver.configuration.ConfigurationProperties
 import org.mockserver.model.HttpRequest
@@ -89,6 +98,73 @@ class DiscordApiImplTest extends Specification {
             'getAllServers'                          | []
     }
 
+    def 'shards share the default gateway identify ratelimiter only within the same identify bucket'() {
+        given:
+            def shard = { int currentShard ->
+                new DiscordApiImpl('fakeIdentifyBucketToken', currentShard, 4, Collections.emptySet(), false, false,
+                        false, null, null, null, null, null, false, null, null, null, null, true, true, null,
+                        EntityCacheBackend.IMMUTABLE, 1, null, 2, false, GatewayEncoding.JSON,
+                        MessageCacheStorageMode.OBJECTS, 0)
+            }
+            def shards = (0..3).collect(shard)
+
+        expect:
+            shards[0].gatewayIdentifyRatelimiter.is(shards[2].gatewayIdentifyRatelimiter)
+            shards[1].gatewayIdentifyRatelimiter.is(shards[3].gatewayIdentifyRatelimiter)
+            !shards[0].gatewayIdentifyRatelimiter.is(shards[1].gatewayIdentifyRatelimiter)
+
+        cleanup:
+            shards*.disconnect()
+    }
+
+    @Unroll
+    def 'the #backend entity cache backend is used for all entity caches'() {
+        given:
+            def api = new DiscordApiImpl('fakeBotToken', 0, 1, Collections.emptySet(), false, false, false, null, null,
+                    null, null, null, false, null, null, null, null, true, true, null, backend, 1, null, 2, false,
+                    GatewayEncoding.JSON, MessageCacheStorageMode.OBJECTS, 0)
+
+        expect:
+            api.entityCacheBackend == backend
+            usesBackend(api.@entityCache.get(), cacheClass)
+
+        when:
+            api.purgeCache()
+
+        then:
+            usesBackend(api.@entityCache.get(), cacheClass)
+
+        cleanup:
+            api?.disconnect()
+
+        where:
+            backend                       | cacheClass
+            EntityCacheBackend.IMMUTABLE  | ImmutableCache
+            EntityCacheBackend.CONCURRENT | ConcurrentCache
+    }
+
+    def 'the entity cache backend of the api builder is immutable by default'() {
+        given:
+            def builder = new DiscordApiBuilder()
+
+        expect:
+            builder.entityCacheBackend == EntityCacheBackend.IMMUTABLE
+
+        when:
+            builder.setEntityCacheBackend(EntityCacheBackend.CONCURRENT)
+
+        then:
+            builder.entityCacheBackend == EntityCacheBackend.CONCURRENT
+    }
+
+    private static boolean usesBackend(JavacordEntityCache entityCache, Class<?> cacheClass) {
+        cacheClass.isInstance(entityCache.channelCache.@cache) &&
+                cacheClass.isInstance(entityCache.memberCache.@cache) &&
+                cacheClass.isInstance(entityCache.memberCache.@memberServerCache) &&
+                cacheClass.isInstance(entityCache.memberCache.userCache.@cache) &&
+                cacheClass.isInstance(entityCache.userPresenceCache.@cache)
+    }
+
     @RestoreSystemProperties
     def 'REST calls with a man-in-the-middle attack fail'() {
         given:
@@ -545,4 +621,90 @@ class DiscordApiImplTest extends Specification {
             Authenticator.default = defaultAuthenticator
     }
 
+    def 'listener lists are snapshots that are only replaced when listeners are added or removed'() {
+        given:
+            def first = {} as MessageCreateListener
+            def second = {} as MessageCreateListener
+
+        expect:
+            api.getListeners(MessageCreateListener).empty
+
+        when:
+            api.addListener(MessageCreateListener, first)
+            api.addListener(MessageCreateListener, second)
+            def listeners = api.getListeners(MessageCreateListener)
+
+        then:
+            listeners == [first, second]
+            api.getListeners(MessageCreateListener).is(listeners)
+
+        when:
+            api.removeListener(MessageCreateListener, first)
+
+        then:
+            listeners == [first, second]
+            api.getListeners(MessageCreateListener) == [second]
+
+        when:
+            api.getListeners(MessageCreateListener).clear()
+
+        then:
+            thrown UnsupportedOperationException
+    }
+
+    def 'object listener lists are snapshots per object'() {
+        given:
+            def first = {} as MessageCreateListener
+            def second = {} as MessageCreateListener
+
+        when:
+            api.addObjectListener(Server, 1, MessageCreateListener, first)
+            api.addObjectListener(Server, 1, MessageCreateListener, second)
+            api.addObjectListener(Server, 2, MessageCreateListener, second)
+            def listeners = api.getObjectListeners(Server, 1, MessageCreateListener)
+
+        then:
+            listeners == [first, second]
+            api.getObjectListeners(Server, 1, MessageCreateListener).is(listeners)
+            api.getObjectListeners(Server, 2, MessageCreateListener) == [second]
+            api.getObjectListeners(Server, 3, MessageCreateListener).empty
+            api.getObjectListeners(TextChannel, 1, MessageCreateListener).empty
+
+        when:
+            api.removeObjectListener(Server, 1, MessageCreateListener, first)
+            api.removeObjectListeners(Server, 2)
+
+        then:
+            api.getObjectListeners(Server, 1, MessageCreateListener) == [second]
+            api.getObjectListeners(Server, 2, MessageCreateListener).empty
+            api.@objectListenerSnapshots[Server][MessageCreateListener].keySet() == [1L] as Set
+    }
+
+    def 'hasListeners detects global and object listeners of a class'() {
+        given:
+            def listener = {} as MessageCreateListener
+
+        expect:
+            !api.hasListeners(MessageCreateListener)
+
+        when:
+            api.addObjectListener(Server, 1, MessageCreateListener, listener)
+
+        then:
+            api.hasListeners(MessageCreateListener)
+
+        when:
+            api.removeObjectListener(Server, 1, MessageCreateListener, listener)
+            api.addListener(MessageCreateListener, listener)
+
+        then:
+            api.hasListeners(MessageCreateListener)
+
+        when:
+            api.removeListener(MessageCreateListener, listener)
+
+        then:
+            !api.hasListeners(MessageCreateListener)
+    }
+
 }
@@ -0,0 +1,160 @@
+package org.javacord.core.entity.message
+
+import org.javacord.api.entity.channel.TextChannel
+import org.javacord.api.entity.message.HistoryRange
+import org.javacord.api.entity.message.Message
+import org.javacord.api.entity.message.MessageSink
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.function.BiFunction
+
+@Subject(MessageHistoryExporter)
+class MessageHistoryExporterTest extends Specification {
+
+    def 'all pages of all channels are passed to the sink from oldest to newest'() {
+        given:
+            def channels = (1..3).collect { channel(it) }
+            def received = Collections.synchronizedList([])
+            def sink = { channel, messages ->
+                received << [channel.id, messages*.id]
+                CompletableFuture.completedFuture(null)
+            } as MessageSink
+
+        when:
+            new MessageHistoryExporter(channels, HistoryRange.all(), sink, 2, history(250)).start().join()
+
+        then:
+            channels.every { channel ->
+                received.findAll { it[0] == channel.id }*.get(1) ==
+                        [(1L..100L).toList(), (101L..200L).toList(), (201L..250L).toList()]
+            }
+    }
+
+    def 'messages outside of the range are not exported'() {
+        given:
+            def received = []
+            def sink = { channel, messages ->
+                received.addAll(messages*.id)
+                CompletableFuture.completedFuture(null)
+            } as MessageSink
+            def requests = []
+            def requester = history(1000)
+
+        when:
+            new MessageHistoryExporter([channel(1)], HistoryRange.between(50, 180), sink, 1, { channel, after ->
+                requests << after
+                requester.apply(channel, after)
+            } as BiFunction).start().join()
+
+        then:
+            received == (51L..179L).toList()
+            requests == [50L, 150L]
+    }
+
+    def 'the next page is not requested before the sink processed the previous one'() {
+        given:
+            def processed = new CompletableFuture<Void>()
+            def sink = { channel, messages -> processed } as MessageSink
+            def requests = []
+            def requester = history(150)
+
+        when:
+            def export = new MessageHistoryExporter([channel(1)], HistoryRange.all(), sink, 1, { channel, after ->
+                requests << after
+                requester.apply(channel, after)
+            } as BiFunction).start()
+
+        then:
+            requests == [0L]
+            !export.done
+
+        when:
+            processed.complete(null)
+
+        then:
+            requests == [0L, 100L]
+            export.done
+    }
+
+    def 'no more than the given amount of channels is exported at the same time'() {
+        given:
+            def pages = [:]
+            def sink = { channel, messages -> CompletableFuture.completedFuture(null) } as MessageSink
+
+        when:
+            def export = new MessageHistoryExporter((1..5).collect { channel(it) }, HistoryRange.all(), sink, 2,
+                    { channel, after -> pages.computeIfAbsent(channel.id) { new CompletableFuture() } } as BiFunction)
+                    .start()
+
+        then:
+            pages.keySet() == [1L, 2L] as Set
+
+        when:
+            pages[1L].complete([message(1)])
+
+        then:
+            pages.keySet() == [1L, 2L, 3L] as Set
+
+        when:
+            (2L..5L).each { pages[it].complete([]) }
+
+        then:
+            export.done
+            !export.completedExceptionally
+    }
+
+    def 'the export fails if a page can not be requested'() {
+        given:
+            def exception = new IllegalStateException()
+            def requests = []
+            def sink = { channel, messages -> CompletableFuture.completedFuture(null) } as MessageSink
+
+        when:
+            new MessageHistoryExporter((1..3).collect { channel(it) }, HistoryRange.all(), sink, 1, { channel, after ->
+                requests << channel.id
+                CompletableFuture.supplyAsync { throw exception }
+            } as BiFunction).start().join()
+
+        then:
+            CompletionException ce = thrown()
+            ce.cause.is(exception)
+            requests == [1L]
+    }
+
+    def 'an empty list of channels is exported immediately'() {
+        expect:
+            new MessageHistoryExporter([], HistoryRange.all(), Mock(MessageSink), 1).start().done
+    }
+
+    def 'the parallelism must be positive'() {
+        when:
+            new MessageHistoryExporter([], HistoryRange.all(), Mock(MessageSink), 0)
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    private TextChannel channel(long id) {
+        Stub(TextChannel) {
+            getId() >> id
+        }
+    }
+
+    private Message message(long id) {
+        Stub(Message) {
+            getId() >> id
+            compareTo(_) >> { Message other -> Long.compare(id, other.id) }
+        }
+    }
+
+    private BiFunction<TextChannel, Long, CompletableFuture<List<Message>>> history(long size) {
+        { channel, after ->
+            CompletableFuture.completedFuture(
+                    after < size ? (after + 1..Math.min(after + 100, size)).collect { message(it) } : [])
+        } as BiFunction
+    }
+
+}
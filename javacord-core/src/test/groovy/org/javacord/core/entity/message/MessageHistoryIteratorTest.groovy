@@ -0,0 +1,90 @@
+package org.javacord.core.entity.message
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.LongFunction
+
+@Subject(MessageHistoryIterator)
+class MessageHistoryIteratorTest extends Specification {
+
+    def requests = new ConcurrentHashMap<Long, CompletableFuture<List<JsonNode>>>()
+
+    def 'the pages are iterated in order until an empty page is received'() {
+        given:
+            def iterator = new MessageHistoryIterator(-1, 1, { reference ->
+                CompletableFuture.completedFuture(reference < 299 ? page(reference + 1, 100) : [])
+            } as LongFunction)
+
+        expect:
+            iterator.collect { it.get('id').asLong() } == (0L..<300L).toList()
+    }
+
+    def 'the next page is requested while the current one is consumed'() {
+        given:
+            def iterator = new MessageHistoryIterator(0, depth, { reference ->
+                requests.computeIfAbsent(reference) { new CompletableFuture() }
+            } as LongFunction)
+
+        when:
+            def first = new Thread({ iterator.next() })
+            first.start()
+            until { requests.containsKey(0L) }
+            requests[0L].complete(page(1, 100))
+            first.join()
+
+        then:
+            requests.keySet() == expectedRequests as Set
+
+        where:
+            depth | expectedRequests
+            0     | [0L]
+            1     | [0L, 100L]
+    }
+
+    def 'pages are prefetched up to the prefetch depth'() {
+        given:
+            def iterator = new MessageHistoryIterator(0, 3, { reference ->
+                CompletableFuture.completedFuture(page(reference + 1, 100)).tap { requests[reference] = it }
+            } as LongFunction)
+
+        when:
+            iterator.next()
+
+        then:
+            requests.keySet() == [0L, 100L, 200L, 300L] as Set
+            iterator.@prefetchedPages.size() == 3
+    }
+
+    def 'failed requests are thrown by the iterator'() {
+        given:
+            def exception = new IllegalStateException()
+            def iterator = new MessageHistoryIterator(0, 1, { reference ->
+                CompletableFuture.supplyAsync { throw exception }
+            } as LongFunction)
+
+        when:
+            iterator.hasNext()
+
+        then:
+            CompletionException ce = thrown()
+            ce.cause.is(exception)
+    }
+
+    private static List<JsonNode> page(long firstId, int size) {
+        (firstId..<firstId + size).collect { JsonNodeFactory.instance.objectNode().put('id', it as String) }
+    }
+
+    private static void until(Closure<Boolean> condition) {
+        long deadline = System.currentTimeMillis() + 10_000
+        while (!condition() && System.currentTimeMillis() < deadline) {
+            sleep(1)
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.javacord.core.entity.permission
+
+import org.javacord.api.entity.permission.PermissionType
+import org.javacord.api.entity.permission.Permissions
+import org.javacord.api.entity.permission.Role
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static org.javacord.api.entity.permission.PermissionType.ADMINISTRATOR
+import static org.javacord.api.entity.permission.PermissionType.ATTACH_FILES
+import static org.javacord.api.entity.permission.PermissionType.SEND_MESSAGES
+import static org.javacord.api.entity.permission.PermissionType.VIEW_CHANNEL
+
+@Subject(PermissionCalculator)
+class PermissionCalculatorTest extends Specification {
+
+    def 'the owner has all permissions'() {
+        expect:
+            PermissionCalculator.calculateBasePermissions(true, []) == PermissionCalculator.ALL_PERMISSIONS
+    }
+
+    def 'base permissions are the union of the known permissions of all roles'() {
+        given:
+            def roles = [role(VIEW_CHANNEL), role(SEND_MESSAGES), Stub(Role) {
+                getPermissions() >> new PermissionsImpl(1L << 62, 0)
+            }]
+
+        expect:
+            PermissionCalculator.calculateBasePermissions(false, roles) == mask(VIEW_CHANNEL, SEND_MESSAGES)
+    }
+
+    def 'overwrites are applied in the order @everyone, roles, user'() {
+        given:
+            def everyone = overwrites([VIEW_CHANNEL], [SEND_MESSAGES, ATTACH_FILES])
+            def roleOverwrites = [overwrites([SEND_MESSAGES], []), overwrites([], [SEND_MESSAGES, VIEW_CHANNEL])]
+            def user = overwrites([], [ATTACH_FILES])
+
+        when:
+            def result = PermissionCalculator.calculateOverwrittenPermissions(everyone, roleOverwrites, user)
+
+        then:
+            result.allowedBitmask == mask(SEND_MESSAGES)
+            result.deniedBitmask == mask(VIEW_CHANNEL, ATTACH_FILES)
+    }
+
+    def 'user overwrites win over role overwrites'() {
+        when:
+            def result = PermissionCalculator.calculateOverwrittenPermissions(
+                    PermissionsImpl.EMPTY_PERMISSIONS,
+                    [overwrites([], [SEND_MESSAGES])],
+                    overwrites([SEND_MESSAGES], []))
+
+        then:
+            result.allowedBitmask == mask(SEND_MESSAGES)
+            result.deniedBitmask == 0
+    }
+
+    def 'permissions that are allowed and denied by the same overwrite are allowed'() {
+        when:
+            def result = PermissionCalculator.calculateOverwrittenPermissions(
+                    overwrites([VIEW_CHANNEL], [VIEW_CHANNEL]),
+                    [overwrites([SEND_MESSAGES], [SEND_MESSAGES]), overwrites([VIEW_CHANNEL], [])],
+                    PermissionsImpl.EMPTY_PERMISSIONS)
+
+        then:
+            result.allowedBitmask == mask(VIEW_CHANNEL, SEND_MESSAGES)
+            result.deniedBitmask == 0
+    }
+
+    def 'overwrites replace only the permissions they set'() {
+        given:
+            def base = mask(VIEW_CHANNEL, SEND_MESSAGES, ADMINISTRATOR)
+
+        expect:
+            PermissionCalculator.applyOverwrites(base, overwrites([ATTACH_FILES], [SEND_MESSAGES])) ==
+                    mask(VIEW_CHANNEL, ADMINISTRATOR, ATTACH_FILES)
+    }
+
+    private Role role(PermissionType... types) {
+        Stub(Role) {
+            getPermissions() >> new PermissionsImpl(mask(types), 0)
+        }
+    }
+
+    private static Permissions overwrites(List<PermissionType> allowed, List<PermissionType> denied) {
+        new PermissionsImpl(mask(allowed as PermissionType[]), mask(denied as PermissionType[]))
+    }
+
+    private static long mask(PermissionType... types) {
+        PermissionCalculator.toBitmask(types)
+    }
+
+}
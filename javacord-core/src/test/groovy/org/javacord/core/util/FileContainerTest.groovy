@@ -1,12 +1,20 @@
 package org.javacord.core.util
 
+import okhttp3.OkHttpClient
+import okio.Buffer
 import org.javacord.core.DiscordApiImpl
 import org.javacord.core.util.concurrent.ThreadPoolImpl
+import org.javacord.core.util.http.CdnFetcher
+import org.mockserver.integration.ClientAndServer
+import org.mockserver.model.HttpRequest
+import org.mockserver.model.HttpResponse
+import org.mockserver.verify.VerificationTimes
 import spock.lang.AutoCleanup
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Subject
 
+import javax.imageio.ImageIO
 import java.awt.image.BufferedImage
 
 @Subject(FileContainer)
@@ -16,6 +24,16 @@ class FileContainerTest extends Specification {
     @AutoCleanup("shutdown")
     def threadPool = new ThreadPoolImpl()
 
+    @Shared
+    @AutoCleanup('stop')
+    def server = ClientAndServer.startClientAndServer()
+
+    def cdnFetcher = new CdnFetcher(new OkHttpClient(), 0)
+
+    DiscordApiImpl discordApi = Stub {
+        getCdnFetcher() >> cdnFetcher
+    }
+
     def 'converting FileContainer with BufferedImage to byte array returns some bytes'() {
         given:
             def image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB)
@@ -49,4 +67,89 @@ class FileContainerTest extends Specification {
             iae.message == 'No image writer found for format "txt"'
     }
 
+    def 'file request bodies stream the file every time they are written'() {
+        given:
+            def file = File.createTempFile('javacord', '.txt')
+            file.deleteOnExit()
+            def content = (0..<100_000).collect { (it % 128) as byte } as byte[]
+            file.bytes = content
+            def requestBody = new FileContainer(file).asRequestBody(discordApi)
+
+        expect:
+            requestBody.contentLength() == content.length
+            requestBody.contentType().toString() == 'text/plain'
+            written(requestBody) == content
+            written(requestBody) == content
+
+        cleanup:
+            file?.delete()
+    }
+
+    def 'input stream request bodies can be written more than once'() {
+        given:
+            def content = 'Hello World!'.bytes
+            def requestBody = new FileContainer(new ByteArrayInputStream(content), 'hello.txt').asRequestBody(discordApi)
+
+        expect:
+            requestBody.contentLength() == content.length
+            written(requestBody) == content
+            written(requestBody) == content
+    }
+
+    def 'buffered image request bodies contain the encoded image'() {
+        given:
+            def image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB)
+            def requestBody = new FileContainer(image, 'image.png').asRequestBody(discordApi)
+
+        when:
+            def decoded = ImageIO.read(new ByteArrayInputStream(written(requestBody)))
+
+        then:
+            requestBody.contentType().toString() == 'image/png'
+            decoded.width == 10
+            decoded.height == 10
+    }
+
+    def 'byte array request bodies have an unknown media type if it cannot be guessed'() {
+        given:
+            def requestBody = new FileContainer([1, 2, 3] as byte[], 'file.unknown').asRequestBody(discordApi)
+
+        expect:
+            requestBody.contentType().toString() == 'application/octet-stream'
+            written(requestBody) == [1, 2, 3] as byte[]
+    }
+
+    def 'url request bodies stream the file with the http client of the api'() {
+        given:
+            server.reset()
+            server.when(HttpRequest.request('/file.txt')) respond HttpResponse.response().withBody('Hello World!')
+            def url = new URL("http://localhost:${server.localPort}/file.txt")
+            def requestBody = new FileContainer(url).asRequestBody(discordApi)
+
+        expect:
+            requestBody.contentLength() == -1
+            written(requestBody) == 'Hello World!'.bytes
+            written(requestBody) == 'Hello World!'.bytes
+            server.verify HttpRequest.request('/file.txt').withMethod('GET'), VerificationTimes.exactly(2)
+    }
+
+    def 'url request bodies fail if the file cannot be downloaded'() {
+        given:
+            server.reset()
+            server.when(HttpRequest.request('/missing.txt')) respond HttpResponse.response().withStatusCode(404)
+            def url = new URL("http://localhost:${server.localPort}/missing.txt")
+
+        when:
+            written(new FileContainer(url).asRequestBody(discordApi))
+
+        then:
+            thrown(IOException)
+    }
+
+    private static byte[] written(requestBody) {
+        def buffer = new Buffer()
+        requestBody.writeTo(buffer)
+        buffer.readByteArray()
+    }
+
 }
@@ -0,0 +1,196 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.util.cache.EntityCacheBackend
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+@Subject([ImmutableCache, ConcurrentCache, ConcurrentIndex])
+class CacheTest extends Specification {
+
+    @Unroll
+    def '#backend caches find elements by their indexes'() {
+        given:
+            def elements = (0..<10).collect { new Element(id: it, type: it % 3 == 0 ? 'a' : 'b') }
+            def cache = emptyCache(backend)
+            elements.each { cache = cache.addElement(it) }
+
+        expect:
+            cache.all.toJavaSet() == elements as Set
+            cache.findAnyByIndex('id', 4L).get().is(elements[4])
+            !cache.findAnyByIndex('id', 10L).present
+            cache.findByIndex('type', 'a').toJavaSet() == elements.findAll { it.type == 'a' } as Set
+            cache.findByIndex('type', 'c').empty
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def '#backend caches ignore elements without a key in an index'() {
+        given:
+            def element = new Element(id: 1, type: null)
+
+        when:
+            def cache = emptyCache(backend).addElement(element)
+
+        then:
+            cache.findAnyByIndex('id', 1L).get().is(element)
+            cache.all.size() == 1
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def '#backend caches re-key elements when their indexes are updated'() {
+        given:
+            def element = new Element(id: 1, type: 'a')
+            def other = new Element(id: 2, type: 'a')
+            def cache = emptyCache(backend).addElement(element).addElement(other)
+
+        when:
+            element.type = 'b'
+            cache = cache.updateIndexesOfElement(element)
+
+        then:
+            cache.findByIndex('type', 'a').toJavaSet() == [other] as Set
+            cache.findByIndex('type', 'b').toJavaSet() == [element] as Set
+            cache.findAnyByIndex('id', 1L).get().is(element)
+
+        when: 'an element that is not in the cache is updated'
+            cache = cache.updateIndexesOfElement(new Element(id: 3, type: 'a'))
+
+        then:
+            !cache.findAnyByIndex('id', 3L).present
+            cache.findByIndex('type', 'a').toJavaSet() == [other] as Set
+
+        when: 'the element is removed after it was re-keyed'
+            cache = cache.removeElement(element)
+
+        then:
+            cache.findByIndex('type', 'b').empty
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def '#backend caches give the same results for batch and single modifications'() {
+        given:
+            def elements = (0..<50).collect { new Element(id: it, type: "type-${it % 7}" as String) }
+            def removed = elements.findAll { it.id % 3 == 0 }
+            def singleCache = emptyCache(backend)
+            def batchCache = emptyCache(backend)
+
+        when:
+            elements.each { singleCache = singleCache.addElement(it) }
+            batchCache = batchCache.addElements(elements)
+
+        then:
+            sameContent(singleCache, batchCache, elements)
+
+        when:
+            removed.each { singleCache = singleCache.removeElement(it) }
+            batchCache = batchCache.removeElements(removed)
+
+        then:
+            sameContent(singleCache, batchCache, elements)
+            batchCache.all.size() == elements.size() - removed.size()
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def 'batch modifications of #backend caches without elements return the same cache'() {
+        given:
+            def cache = emptyCache(backend)
+
+        expect:
+            cache.addElements([]).is(cache)
+            cache.removeElements([]).is(cache)
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    def 'immutable caches are not modified by batch modifications'() {
+        given:
+            def elements = (0..<5).collect { new Element(id: it, type: 'a') }
+            def cache = emptyCache(EntityCacheBackend.IMMUTABLE).addElements(elements)
+
+        when:
+            def newCache = cache.removeElements(elements.take(2))
+
+        then:
+            !newCache.is(cache)
+            cache.findByIndex('type', 'a').size() == 5
+            newCache.findByIndex('type', 'a').size() == 3
+    }
+
+    def 'concurrent caches are modified in place'() {
+        given:
+            def cache = emptyCache(EntityCacheBackend.CONCURRENT)
+
+        expect:
+            cache.addElement(new Element(id: 1, type: 'a')).is(cache)
+            cache.addElements([new Element(id: 2, type: 'a')]).is(cache)
+            cache.all.size() == 2
+    }
+
+    def 'concurrent caches stay consistent with concurrent modifications'() {
+        given:
+            def cache = emptyCache(EntityCacheBackend.CONCURRENT)
+            def elements = (0..<4).collect { thread ->
+                (0..<500).collect { new Element(id: thread * 500 + it, type: "type-${it % 5}" as String) }
+            }
+
+        when:
+            elements.collect { threadElements ->
+                Thread.start {
+                    threadElements.each { cache.addElement(it) }
+                    threadElements.findAll { it.id % 2 }.each { cache.removeElement(it) }
+                }
+            }*.join()
+
+        then:
+            cache.all.size() == 1000
+            (0..<5).sum { cache.findByIndex('type', "type-$it" as String).size() } == 1000
+            cache.findAnyByIndex('id', 1998L).present
+            !cache.findAnyByIndex('id', 1999L).present
+    }
+
+    def 'concurrent indexes reject elements that are already indexed with a different key'() {
+        given:
+            def element = new Element(id: 1, type: 'a')
+            def index = new ConcurrentIndex<Object, Element>({ it.type })
+            index.addElement(element)
+
+        when:
+            element.type = 'b'
+            index.addElement(element)
+
+        then:
+            thrown(IllegalStateException)
+    }
+
+    private static Cache<Element> emptyCache(EntityCacheBackend backend) {
+        Cache.<Element> empty(backend)
+                .addIndex('id', { it.id })
+                .addIndex('type', { it.type })
+    }
+
+    private static boolean sameContent(Cache<Element> cache, Cache<Element> otherCache, List<Element> elements) {
+        cache.all == otherCache.all && elements.every {
+            cache.findAnyByIndex('id', it.id) == otherCache.findAnyByIndex('id', it.id) &&
+                    cache.findByIndex('type', it.type) == otherCache.findByIndex('type', it.type)
+        }
+    }
+
+    static class Element {
+        long id
+        String type
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.entity.channel.ChannelType
+import org.javacord.api.entity.channel.PrivateChannel
+import org.javacord.api.entity.channel.ServerTextChannel
+import org.javacord.api.entity.channel.ServerVoiceChannel
+import org.javacord.api.entity.server.Server
+import org.javacord.api.entity.user.User
+import org.javacord.api.util.cache.EntityCacheBackend
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+@Subject(ChannelCache)
+class ChannelCacheTest extends Specification {
+
+    def server = Stub(Server) { getId() >> 100 }
+    def otherServer = Stub(Server) { getId() >> 200 }
+
+    def textChannel = Stub(ServerTextChannel) {
+        getId() >> 1
+        getType() >> ChannelType.SERVER_TEXT_CHANNEL
+        getServer() >> server
+        asServerChannel() >> { Optional.of(textChannel) }
+        asPrivateChannel() >> Optional.empty()
+    }
+
+    def voiceChannel = Stub(ServerVoiceChannel) {
+        getId() >> 2
+        getType() >> ChannelType.SERVER_VOICE_CHANNEL
+        getServer() >> server
+        asServerChannel() >> { Optional.of(voiceChannel) }
+        asPrivateChannel() >> Optional.empty()
+    }
+
+    def otherTextChannel = Stub(ServerTextChannel) {
+        getId() >> 3
+        getType() >> ChannelType.SERVER_TEXT_CHANNEL
+        getServer() >> otherServer
+        asServerChannel() >> { Optional.of(otherTextChannel) }
+        asPrivateChannel() >> Optional.empty()
+    }
+
+    def privateChannel = Stub(PrivateChannel) {
+        getId() >> 4
+        getType() >> ChannelType.PRIVATE_CHANNEL
+        getRecipient() >> Optional.of(Stub(User) { getId() >> 300 })
+        asServerChannel() >> Optional.empty()
+        asPrivateChannel() >> { Optional.of(privateChannel) }
+    }
+
+    @Unroll
+    def '#backend channel caches answer all queries'() {
+        given:
+            def cache = ChannelCache.empty(backend)
+            [textChannel, voiceChannel, otherTextChannel, privateChannel].each { cache = cache.addChannel(it) }
+
+        expect:
+            cache.channels == [textChannel, voiceChannel, otherTextChannel, privateChannel] as Set
+            cache.getChannelById(2).get().is(voiceChannel)
+            !cache.getChannelById(5).present
+            cache.getChannelsWithTypes(ChannelType.SERVER_TEXT_CHANNEL) == [textChannel, otherTextChannel] as Set
+            cache.getChannelsWithTypes(ChannelType.SERVER_VOICE_CHANNEL, ChannelType.PRIVATE_CHANNEL) ==
+                    [voiceChannel, privateChannel] as Set
+            cache.getChannelsOfServer(100) == [textChannel, voiceChannel] as Set
+            cache.getChannelsOfServerAndType(100, ChannelType.SERVER_TEXT_CHANNEL) == [textChannel] as Set
+            cache.getChannelsOfServerAndType(200, ChannelType.SERVER_VOICE_CHANNEL).empty
+            cache.getPrivateChannelByUserId(300).get().is(privateChannel)
+
+        when:
+            cache = cache.removeChannel(textChannel).removeChannel(privateChannel)
+
+        then:
+            cache.channels == [voiceChannel, otherTextChannel] as Set
+            !cache.getChannelById(1).present
+            cache.getChannelsOfServer(100) == [voiceChannel] as Set
+            !cache.getPrivateChannelByUserId(300).present
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    def 'concurrent channel caches are independent of each other'() {
+        given:
+            def cache = ChannelCache.empty(EntityCacheBackend.CONCURRENT)
+
+        when:
+            cache.addChannel(textChannel)
+
+        then:
+            ChannelCache.empty(EntityCacheBackend.CONCURRENT).channels.empty
+            ChannelCache.empty(EntityCacheBackend.IMMUTABLE).channels.empty
+    }
+
+}
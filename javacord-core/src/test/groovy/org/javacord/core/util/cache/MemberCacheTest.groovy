@@ -0,0 +1,121 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.entity.server.Server
+import org.javacord.api.entity.user.User
+import org.javacord.api.util.cache.EntityCacheBackend
+import org.javacord.core.entity.user.Member
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+@Subject(MemberCache)
+class MemberCacheTest extends Specification {
+
+    def servers = (0..<3).collect { serverId -> Stub(Server) { getId() >> serverId } }
+
+    @Unroll
+    def '#backend member caches answer all queries'() {
+        given:
+            def first = member(1, servers[0])
+            def second = member(1, servers[1])
+            def third = member(2, servers[1])
+            def cache = MemberCache.empty(backend).addMember(first).addMember(second).addMember(third)
+
+        expect:
+            cache.members == [first, second, third] as Set
+            cache.getMembersById(1) == [first, second] as Set
+            cache.getMembersByServer(1) == [second, third] as Set
+            cache.getMemberByIdAndServer(1, 1).get().is(second)
+            !cache.getMemberByIdAndServer(2, 0).present
+            cache.getServers(1) == [servers[0], servers[1]] as Set
+            cache.userCache.users*.id as Set == [1L, 2L] as Set
+
+        when:
+            cache = cache.removeMember(second)
+
+        then:
+            cache.getMembersById(1) == [first] as Set
+            cache.getServers(1) == [servers[0]] as Set
+            cache.userCache.getUserById(1).present
+
+        when: 'the last member of a user is removed'
+            cache = cache.removeMember(first)
+
+        then:
+            !cache.userCache.getUserById(1).present
+            cache.getServers(1).empty
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def '#backend member caches give the same results for batch and single modifications'() {
+        given:
+            def members = (0..<30).collect { member(it % 10, servers[it % 3]) }
+            def removed = members.findAll { it.id < 4 || it.server.is(servers[2]) }
+            def singleCache = MemberCache.empty(backend)
+            def batchCache = MemberCache.empty(backend)
+
+        when:
+            members.each { singleCache = singleCache.addMember(it) }
+            batchCache = batchCache.addMembers(members)
+
+        then:
+            sameContent(singleCache, batchCache)
+            batchCache.members.size() == 30
+
+        when:
+            removed.each { singleCache = singleCache.removeMember(it) }
+            batchCache = batchCache.removeMembers(removed)
+
+        then:
+            sameContent(singleCache, batchCache)
+            batchCache.members == (members - removed) as Set
+            batchCache.userCache.users*.id as Set == (members - removed)*.id as Set
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    @Unroll
+    def 'replacing #backend members in a batch keeps one member per server and user'() {
+        given:
+            def oldMembers = (0..<5).collect { member(it, servers[0]) }
+            def newMembers = (0..<5).collect { member(it, servers[0]) }
+            def cache = MemberCache.empty(backend).addMembers(oldMembers)
+
+        when:
+            cache = cache.removeMembers(oldMembers).addMembers(newMembers)
+
+        then:
+            cache.members == newMembers as Set
+            cache.userCache.users == newMembers*.user as Set
+            (0..<5).every { cache.getMemberByIdAndServer(it, 0).get().is(newMembers[it]) }
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    private Member member(long id, Server server) {
+        def user = Stub(User) { getId() >> id }
+        Stub(Member) {
+            getId() >> id
+            getServer() >> server
+            getUser() >> user
+        }
+    }
+
+    private void sameContent(MemberCache cache, MemberCache otherCache) {
+        assert cache.members == otherCache.members
+        assert cache.userCache.users.size() == otherCache.userCache.users.size()
+        assert cache.userCache.users*.id as Set == otherCache.userCache.users*.id as Set
+        (0L..<10L).each { id ->
+            assert cache.getMembersById(id) == otherCache.getMembersById(id)
+            assert cache.getServers(id) == otherCache.getServers(id)
+            assert cache.userCache.getUserById(id) == otherCache.userCache.getUserById(id)
+        }
+        (0L..<3L).each { assert cache.getMembersByServer(it) == otherCache.getMembersByServer(it) }
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.javacord.core.util.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.javacord.api.entity.channel.TextChannel
+import org.javacord.api.entity.message.Message
+import org.javacord.api.util.cache.MessageCacheStorageMode
+import org.javacord.core.DiscordApiImpl
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+
+@Subject(MessageCacheImpl)
+class MessageCacheImplTest extends Specification {
+
+    def sweeper = new MessageCacheSweeper()
+
+    def pool = new SerializedMessagePool()
+
+    def mapper = new ObjectMapper()
+
+    def storageMode = MessageCacheStorageMode.OBJECTS
+
+    def creationTime = System.currentTimeMillis()
+
+    def api = Stub(DiscordApiImpl) {
+        getMessageCacheSweeper() >> sweeper
+        getMessageCacheStorageMode() >> { storageMode }
+        getSerializedMessagePool() >> pool
+        getObjectMapper() >> mapper
+    }
+
+    def channel = Stub(TextChannel)
+
+    @AutoCleanup('cleanup')
+    def cache = new MessageCacheImpl(api, channel, 3, 60, false)
+
+    def 'messages are ordered by id and added only once'() {
+        given:
+            def messages = [5, 1, 3, 2, 4].collect { message(it) }
+
+        when:
+            messages.each { cache.addMessage(it) }
+            cache.addMessage(message(3))
+
+        then:
+            cache.messages*.id == [1L, 2L, 3L, 4L, 5L]
+            cache.messages.find { it.id == 3L }.is(messages[2])
+            cache.getMessageById(4).get().is(messages[4])
+            !cache.getMessageById(6).present
+    }
+
+    def 'removed messages are no longer cached'() {
+        given:
+            cache.addMessage(message(1))
+            cache.addMessage(message(2))
+
+        when:
+            cache.removeMessage(message(1))
+
+        then:
+            cache.messages*.id == [2L]
+    }
+
+    def 'cleaning removes the oldest messages that exceed the capacity'() {
+        given:
+            (1..5).each { cache.addMessage(message(it, it == 1)) }
+
+        when:
+            cache.clean()
+
+        then:
+            cache.messages*.id == [1L, 3L, 4L, 5L]
+            sweeper.messagesEvictedByCapacityCount == 1
+            sweeper.expiredMessageCount == 0
+    }
+
+    def 'cleaning removes messages that exceed the storage time'() {
+        given:
+            cache.addMessage(message(1, false, Instant.now().minusSeconds(120)))
+            cache.addMessage(message(2, true, Instant.now().minusSeconds(120)))
+            cache.addMessage(message(3))
+
+        when:
+            cache.clean()
+
+        then:
+            cache.messages*.id == [2L, 3L]
+            sweeper.expiredMessageCount == 1
+            sweeper.messagesEvictedByCapacityCount == 0
+    }
+
+    def 'automatic cleanup registers the cache at the sweeper'() {
+        when:
+            cache.automaticCleanupEnabled = true
+            cache.automaticCleanupEnabled = true
+
+        then:
+            sweeper.registeredCacheCount == 1
+
+        when:
+            cache.cleanup()
+
+        then:
+            sweeper.registeredCacheCount == 0
+    }
+
+    def 'serialized messages are recreated from their data'() {
+        given:
+            def serializedCache = serializedCache()
+            def data = mapper.readTree("{\"id\":\"${snowflake(1)}\",\"content\":\"Hello\"}")
+            serializedCache.addMessage(message(snowflake(1)), data)
+            def recreatedData = null
+            api.getOrCreateMessage(channel, _) >> { args ->
+                recreatedData = args[1]
+                message(snowflake(1))
+            }
+
+        when:
+            def message = serializedCache.getMessageById(snowflake(1))
+
+        then:
+            message.get().id == snowflake(1)
+            recreatedData == data
+            pool.usedBytes == SerializedMessagePool.MIN_SLOT_SIZE
+    }
+
+    def 'updates are merged into the serialized data'() {
+        given:
+            def serializedCache = serializedCache()
+            def message = message(snowflake(1))
+            serializedCache.addMessage(message, mapper.readTree("{\"id\":\"${snowflake(1)}\",\"content\":\"a\"}"))
+            def recreatedData = null
+            api.getOrCreateMessage(channel, _) >> { args ->
+                recreatedData = args[1]
+                message
+            }
+
+        when:
+            serializedCache.updateMessage(message, mapper.readTree('{"content":"b","edited_timestamp":"now"}'))
+            serializedCache.getMessageById(snowflake(1))
+
+        then:
+            recreatedData == mapper.readTree(
+                    "{\"id\":\"${snowflake(1)}\",\"content\":\"b\",\"edited_timestamp\":\"now\"}")
+    }
+
+    def 'retained messages are kept as objects'() {
+        given:
+            def serializedCache = serializedCache()
+            def message = message(snowflake(1))
+            serializedCache.addMessage(message, mapper.readTree("{\"id\":\"${snowflake(1)}\"}"))
+
+        when:
+            serializedCache.retainMessageObject(message)
+
+        then:
+            serializedCache.getMessageById(snowflake(1)).get().is(message)
+            pool.usedBytes == 0
+    }
+
+    def 'cleaning releases the data of serialized messages'() {
+        given:
+            def serializedCache = serializedCache()
+            (1..5).each {
+                serializedCache.addMessage(message(snowflake(it)), mapper.readTree("{\"id\":\"${snowflake(it)}\"}"))
+            }
+
+        when:
+            serializedCache.clean()
+
+        then:
+            pool.usedBytes == 3 * SerializedMessagePool.MIN_SLOT_SIZE
+            sweeper.messagesEvictedByCapacityCount == 2
+
+        when:
+            serializedCache.cleanup()
+
+        then:
+            pool.usedBytes == 0
+    }
+
+    private MessageCacheImpl serializedCache() {
+        storageMode = MessageCacheStorageMode.SERIALIZED
+        new MessageCacheImpl(api, channel, 3, 60, false)
+    }
+
+    private long snowflake(long increment) {
+        ((creationTime - 1420070400000L) << 22) | increment
+    }
+
+    private Message message(long id, boolean cachedForever = false, Instant creationTimestamp = Instant.now()) {
+        Stub(Message) {
+            getId() >> id
+            isCachedForever() >> cachedForever
+            getCreationTimestamp() >> creationTimestamp
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.javacord.core.util.cache
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(MessageCacheSweeper)
+class MessageCacheSweeperTest extends Specification {
+
+    def sweeper = new MessageCacheSweeper()
+
+    def 'every registered cache is cleaned once per revolution of the wheel'() {
+        given:
+            def caches = (1..150).collect { Mock(MessageCacheImpl) }
+            caches.each { sweeper.register(it) }
+
+        when:
+            MessageCacheSweeper.WHEEL_SIZE.times { sweeper.tick() }
+
+        then:
+            caches.each { 1 * it.clean() }
+    }
+
+    def 'caches are distributed evenly over the slots'() {
+        given:
+            def cleanedCaches = 0
+            def caches = (1..MessageCacheSweeper.WHEEL_SIZE * 2).collect {
+                Stub(MessageCacheImpl) {
+                    clean() >> { cleanedCaches++ }
+                }
+            }
+            caches.each { sweeper.register(it) }
+
+        when:
+            sweeper.tick()
+
+        then:
+            cleanedCaches == 2
+    }
+
+    def 'unregistered caches are no longer cleaned'() {
+        given:
+            def cache = Mock(MessageCacheImpl)
+            sweeper.register(cache)
+            sweeper.unregister(cache)
+
+        when:
+            MessageCacheSweeper.WHEEL_SIZE.times { sweeper.tick() }
+
+        then:
+            0 * cache.clean()
+            sweeper.registeredCacheCount == 0
+    }
+
+    def 'a failing cache does not prevent other caches from being cleaned'() {
+        given:
+            def failingCache = Mock(MessageCacheImpl)
+            def cache = Mock(MessageCacheImpl)
+            (MessageCacheSweeper.WHEEL_SIZE - 1).times { sweeper.register(Mock(MessageCacheImpl)) }
+            sweeper.register(failingCache)
+            (MessageCacheSweeper.WHEEL_SIZE - 1).times { sweeper.register(Mock(MessageCacheImpl)) }
+            sweeper.register(cache)
+
+        when:
+            MessageCacheSweeper.WHEEL_SIZE.times { sweeper.tick() }
+
+        then:
+            1 * failingCache.clean() >> { throw new IllegalStateException() }
+            1 * cache.clean()
+    }
+
+    def 'evicted messages are counted'() {
+        when:
+            sweeper.recordCleanedMessages(2, 3)
+            sweeper.recordCleanedMessages(1, 0)
+
+        then:
+            sweeper.expiredMessageCount == 3
+            sweeper.messagesEvictedByCapacityCount == 3
+            sweeper.messagesEvictedByMemoryShortageCount == 0
+            sweeper.evictedMessageCount == 6
+    }
+
+}
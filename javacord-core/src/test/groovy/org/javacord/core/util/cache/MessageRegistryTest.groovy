@@ -0,0 +1,115 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.entity.message.Message
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@Subject(MessageRegistry)
+class MessageRegistryTest extends Specification {
+
+    def registry = new MessageRegistry()
+
+    def 'only the first registered message is kept'() {
+        given:
+            def first = message(1)
+            def second = message(1)
+
+        expect:
+            registry.register(first).is(first)
+            registry.register(second).is(first)
+            registry.getMessageById(1).get().is(first)
+    }
+
+    def 'existing messages are not created again'() {
+        given:
+            def existing = message(1)
+            registry.register(existing)
+
+        when:
+            def result = registry.getOrCreate(1) { throw new AssertionError('message created') }
+
+        then:
+            result.is(existing)
+    }
+
+    def 'concurrent get-or-create calls create a message only once'() {
+        given:
+            def threads = 8
+            def createdMessages = new AtomicInteger()
+            def start = new CountDownLatch(1)
+            def executor = Executors.newFixedThreadPool(threads)
+
+        when:
+            def futures = (1..threads).collect {
+                executor.submit({
+                    start.await()
+                    registry.getOrCreate(1) {
+                        createdMessages.incrementAndGet()
+                        Thread.sleep(50)
+                        message(1)
+                    }
+                } as Callable)
+            }
+            start.countDown()
+            def results = futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+            createdMessages.get() == 1
+            results.every { it.is(results[0]) }
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    def 'messages that reference other messages can be created in nested calls'() {
+        when:
+            def result = registry.getOrCreate(2) {
+                def referenced = registry.getOrCreate(1) { message(1) }
+                message(2, referenced)
+            }
+
+        then:
+            result.id == 2
+            registry.getMessageById(1).present
+    }
+
+    def 'stale entries are expunged'() {
+        given:
+            registry.register(message(1))
+            registry.register(message(2))
+
+        when:
+            registry.@messages.get(1L).enqueue()
+
+        then:
+            registry.expungeStaleEntries() == 1
+            !registry.getMessageById(1).present
+            registry.getMessageById(2).present
+    }
+
+    def 'removed messages are no longer registered'() {
+        given:
+            registry.register(message(1))
+
+        when:
+            registry.remove(1)
+
+        then:
+            !registry.getMessageById(1).present
+            registry.messages.count() == 0
+    }
+
+    private Message message(long id, Message referencedMessage = null) {
+        Stub(Message) {
+            getId() >> id
+            getReferencedMessage() >> Optional.ofNullable(referencedMessage)
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.javacord.core.util.cache
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(SerializedMessagePool)
+class SerializedMessagePoolTest extends Specification {
+
+    def pool = new SerializedMessagePool()
+
+    def 'stored data is loaded unchanged'() {
+        given:
+            def data = new byte[length]
+            new Random(length).nextBytes(data)
+
+        when:
+            def handle = pool.store(data)
+
+        then:
+            pool.load(handle, length) == data
+            pool.usedBytes == slotSize
+
+        where:
+            length                              || slotSize
+            0                                   || 256
+            256                                 || 256
+            257                                 || 512
+            5000                                || 8192
+            SerializedMessagePool.MAX_SLOT_SIZE || SerializedMessagePool.MAX_SLOT_SIZE
+    }
+
+    def 'stored data does not overlap'() {
+        given:
+            def handles = (0..<100).collectEntries { i -> [(i): pool.store([i] * 200 as byte[])] }
+
+        expect:
+            handles.every { i, handle -> pool.load(handle, 200) == [i] * 200 as byte[] }
+    }
+
+    def 'released slots are reused'() {
+        given:
+            def handle = pool.store(new byte[300])
+            def reservedBytes = pool.reservedBytes
+
+        when:
+            pool.release(handle)
+            def newHandle = pool.store(new byte[400])
+
+        then:
+            newHandle == handle
+            pool.reservedBytes == reservedBytes
+            pool.usedBytes == 512
+    }
+
+    def 'data larger than the largest slots is rejected'() {
+        when:
+            pool.store(new byte[SerializedMessagePool.MAX_SLOT_SIZE + 1])
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+}
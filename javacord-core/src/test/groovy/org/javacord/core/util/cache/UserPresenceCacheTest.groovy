@@ -0,0 +1,47 @@
+package org.javacord.core.util.cache
+
+import io.vavr.collection.HashMap
+import org.javacord.api.entity.user.UserStatus
+import org.javacord.api.util.cache.EntityCacheBackend
+import org.javacord.core.entity.user.UserPresence
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+@Subject(UserPresenceCache)
+class UserPresenceCacheTest extends Specification {
+
+    @Unroll
+    def '#backend user presence caches find presences by user id'() {
+        given:
+            def presence = userPresence(1, UserStatus.ONLINE)
+            def newPresence = userPresence(1, UserStatus.IDLE)
+            def otherPresence = userPresence(2, UserStatus.DO_NOT_DISTURB)
+            def cache = UserPresenceCache.empty(backend).addUserPresence(presence).addUserPresence(otherPresence)
+
+        expect:
+            cache.getPresenceByUserId(1).get().is(presence)
+            cache.getPresenceByUserId(2).get().is(otherPresence)
+            !cache.getPresenceByUserId(3).present
+
+        when:
+            cache = cache.removeUserPresence(presence).addUserPresence(newPresence)
+
+        then:
+            cache.getPresenceByUserId(1).get().is(newPresence)
+
+        when:
+            cache = cache.removeUserPresence(otherPresence).removeUserPresence(null)
+
+        then:
+            !cache.getPresenceByUserId(2).present
+
+        where:
+            backend << EntityCacheBackend.values()
+    }
+
+    private static UserPresence userPresence(long userId, UserStatus status) {
+        new UserPresence(userId, [] as Set, status, HashMap.empty())
+    }
+
+}
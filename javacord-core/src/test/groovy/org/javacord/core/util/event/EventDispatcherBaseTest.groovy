@@ -0,0 +1,123 @@
+package org.javacord.core.util.event
+
+import org.javacord.core.DiscordApiImpl
+import org.javacord.core.util.concurrent.ThreadPoolImpl
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Consumer
+
+@Subject(EventDispatcherBase)
+class EventDispatcherBaseTest extends Specification {
+
+    @AutoCleanup('shutdown')
+    def threadPool = new ThreadPoolImpl()
+
+    def api = Stub(DiscordApiImpl) {
+        canDispatchEvents() >> true
+        getThreadPool() >> threadPool
+        getServers() >> []
+        getUnavailableServers() >> []
+    }
+
+    def dispatcher = new EventDispatcherBase(api) {}
+
+    def 'events with the same queue selector are dispatched in order'() {
+        given:
+            def selectors = (0..<10).collect { Stub(DispatchQueueSelector) }
+            def dispatched = new ConcurrentHashMap<DispatchQueueSelector, Queue<Integer>>()
+            def done = new CountDownLatch(1000)
+
+        when:
+            (0..<1000).each { i ->
+                def selector = selectors[i % selectors.size()]
+                dispatch(selector) {
+                    dispatched.computeIfAbsent(selector) { new ConcurrentLinkedQueue<>() } << i
+                    done.countDown()
+                }
+            }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            selectors.every { selector ->
+                dispatched[selector] as List == (0..<1000).findAll { selectors[it % selectors.size()] == selector }
+            }
+    }
+
+    def 'lifecycle events are dispatched after all previous and before all later events'() {
+        given:
+            def selectors = (0..<10).collect { Stub(DispatchQueueSelector) }
+            def dispatched = new ConcurrentLinkedQueue()
+            def done = new CountDownLatch(1)
+
+        when:
+            selectors.each { selector -> dispatch(selector) { sleep(5); dispatched << 'before' } }
+            dispatch(null) { dispatched << 'lifecycle' }
+            selectors.each { selector -> dispatch(selector) { dispatched << 'after' } }
+            dispatch(null) { done.countDown() }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            dispatched as List == ['before'] * 10 + ['lifecycle'] + ['after'] * 10
+    }
+
+    def 'events deferred between lifecycle events are dispatched between them'() {
+        given:
+            def selectors = (0..<3).collect { Stub(DispatchQueueSelector) }
+            def dispatched = new ConcurrentLinkedQueue()
+            def done = new CountDownLatch(1)
+
+        when:
+            dispatch(selectors[0]) { sleep(5); dispatched << 'before' }
+            dispatch(null) { dispatched << 'first lifecycle' }
+            dispatch(selectors[1]) { dispatched << 'between' }
+            dispatch(null) { dispatched << 'second lifecycle' }
+            dispatch(selectors[2]) { dispatched << 'after' }
+            dispatch(null) { done.countDown() }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            dispatched as List == ['before', 'first lifecycle', 'between', 'second lifecycle', 'after']
+    }
+
+    def 'lifecycle events are never dispatched concurrently to other events'() {
+        given:
+            def selectors = (0..<10).collect { Stub(DispatchQueueSelector) }
+            def running = new AtomicInteger()
+            def overlaps = new AtomicInteger()
+            def done = new CountDownLatch(1)
+
+        when:
+            (0..<500).each { i ->
+                if (i % 50 == 0) {
+                    dispatch(null) {
+                        if (running.get() != 0) {
+                            overlaps.incrementAndGet()
+                        }
+                    }
+                } else {
+                    dispatch(selectors[i % selectors.size()]) {
+                        running.incrementAndGet()
+                        Thread.yield()
+                        running.decrementAndGet()
+                    }
+                }
+            }
+            dispatch(null) { done.countDown() }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            overlaps.get() == 0
+    }
+
+    private void dispatch(DispatchQueueSelector selector, Runnable task) {
+        dispatcher.dispatchEvent(selector, [task], { it.run() } as Consumer<Runnable>)
+    }
+
+}
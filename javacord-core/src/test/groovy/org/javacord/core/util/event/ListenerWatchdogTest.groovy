@@ -0,0 +1,150 @@
+package org.javacord.core.util.event
+
+import org.javacord.api.util.event.SlowListenerHandler
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+@Subject(ListenerWatchdog)
+class ListenerWatchdogTest extends Specification {
+
+    def watchdog = new ListenerWatchdog()
+
+    def handler = Mock(SlowListenerHandler)
+
+    def setup() {
+        watchdog.slowListenerHandler = handler
+    }
+
+    def cleanup() {
+        // Clear the interrupt flag of interrupted listener tasks
+        Thread.interrupted()
+    }
+
+    def 'fast listener tasks are not reported'() {
+        given:
+            def slot = watchdog.begin(null)
+            long startTime = slot.@startTime
+
+        when:
+            watchdog.check(startTime + TimeUnit.MILLISECONDS.toNanos(400))
+
+        then:
+            0 * handler._
+    }
+
+    def 'every threshold is reported once'() {
+        given:
+            def slot = watchdog.begin(null)
+            long startTime = slot.@startTime
+
+        when:
+            watchdog.check(startTime + TimeUnit.MILLISECONDS.toNanos(600))
+            watchdog.check(startTime + TimeUnit.MILLISECONDS.toNanos(800))
+
+        then:
+            1 * handler.onSlowListener(Thread.currentThread(), Duration.ofMillis(600))
+
+        when:
+            watchdog.check(startTime + TimeUnit.SECONDS.toNanos(11))
+            watchdog.check(startTime + TimeUnit.SECONDS.toNanos(12))
+
+        then:
+            1 * handler.onSlowListener(Thread.currentThread(), Duration.ofSeconds(11))
+            !Thread.currentThread().isInterrupted()
+
+        when:
+            watchdog.check(startTime + TimeUnit.MINUTES.toNanos(3))
+            watchdog.check(startTime + TimeUnit.MINUTES.toNanos(4))
+
+        then:
+            1 * handler.onSlowListener(Thread.currentThread(), Duration.ofMinutes(3))
+            Thread.currentThread().isInterrupted()
+    }
+
+    def 'ended listener tasks are not reported'() {
+        given:
+            def slot = watchdog.begin(null)
+            long startTime = slot.@startTime
+            watchdog.end(slot)
+
+        when:
+            watchdog.check(startTime + TimeUnit.MINUTES.toNanos(3))
+
+        then:
+            0 * handler._
+            !Thread.currentThread().isInterrupted()
+    }
+
+    def 'a new listener task on the same thread is reported again'() {
+        given:
+            def slot = watchdog.begin(null)
+            long firstStartTime = slot.@startTime
+            watchdog.check(firstStartTime + TimeUnit.SECONDS.toNanos(1))
+            watchdog.end(slot)
+            sleep(1)
+            watchdog.begin(null)
+            long secondStartTime = slot.@startTime
+
+        when:
+            watchdog.check(secondStartTime + TimeUnit.SECONDS.toNanos(1))
+
+        then:
+            1 * handler.onSlowListener(Thread.currentThread(), Duration.ofSeconds(1))
+    }
+
+    def 'the interrupt of an interrupted listener task is cleared when it ends'() {
+        given:
+            def slot = watchdog.begin(null)
+            long startTime = slot.@startTime
+
+        when:
+            watchdog.check(startTime + TimeUnit.MINUTES.toNanos(3))
+
+        then:
+            Thread.currentThread().isInterrupted()
+
+        when:
+            watchdog.end(slot)
+
+        then:
+            !Thread.currentThread().isInterrupted()
+    }
+
+    def 'a later listener task on the same thread is not interrupted'() {
+        given:
+            def slot = watchdog.begin(null)
+            long firstTask = slot.@task.get()
+            watchdog.end(slot)
+            watchdog.begin(null)
+
+        when:
+            watchdog.check(slot, firstTask, TimeUnit.MINUTES.toNanos(3), System.nanoTime())
+
+        then:
+            !Thread.currentThread().isInterrupted()
+            // Only the warnings, but not the interruption are reported
+            2 * handler.onSlowListener(Thread.currentThread(), Duration.ofMinutes(3))
+    }
+
+    def 'threads share no slots and dead threads are removed'() {
+        given:
+            def threads = (0..<20).collect { new Thread({ watchdog.end(watchdog.begin(null)) }) }
+
+        when:
+            threads*.start()
+            threads*.join()
+
+        then:
+            watchdog.slotCount == 20
+
+        when:
+            watchdog.check(System.nanoTime())
+
+        then:
+            watchdog.slotCount == 0
+    }
+
+}
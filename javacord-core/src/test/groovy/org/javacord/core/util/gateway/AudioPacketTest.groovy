@@ -0,0 +1,53 @@
+package org.javacord.core.util.gateway
+
+import com.codahale.xsalsa20poly1305.SecretBox
+import org.javacord.api.audio.SilentAudioSource
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.ByteBuffer
+
+@Subject(AudioPacket)
+class AudioPacketTest extends Specification {
+
+    def key = (0..<32).collect { it as byte } as byte[]
+
+    def packet = new AudioPacket(42, new InetSocketAddress('localhost', 1234))
+
+    def setup() {
+        packet.secretKey = key
+    }
+
+    def 'packets are encrypted like a secret box'() {
+        given:
+            def frame = (0..<frameLength).collect { (it * 7) as byte } as byte[]
+
+        when:
+            def udpPacket = packet.encrypt(frame, 3 as char, 3 * 960)
+            def data = Arrays.copyOfRange(udpPacket.data, udpPacket.offset, udpPacket.offset + udpPacket.length)
+
+        then:
+            def header = ByteBuffer.allocate(12)
+                    .put(0, 0x80 as byte).put(1, 0x78 as byte).putChar(2, 3 as char).putInt(4, 3 * 960).putInt(8, 42)
+                    .array()
+            data as List == (header as List) + (new SecretBox(key).seal(Arrays.copyOf(header, 24), frame) as List)
+            udpPacket.socketAddress == new InetSocketAddress('localhost', 1234)
+
+        where:
+            frameLength << [0, 1, 160, 2000]
+    }
+
+    def 'silent packets contain the silence frame'() {
+        when:
+            def udpPacket = packet.encrypt(null, 0 as char, 0)
+
+        then:
+            udpPacket.length == 12 + 16 + SilentAudioSource.SILENCE_FRAME.length
+    }
+
+    def 'the datagram packet is reused'() {
+        expect:
+            packet.encrypt(new byte[10], 0 as char, 0).is(packet.encrypt(new byte[20], 1 as char, 960))
+    }
+
+}
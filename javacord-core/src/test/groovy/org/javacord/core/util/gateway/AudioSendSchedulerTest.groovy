@@ -0,0 +1,173 @@
+package org.javacord.core.util.gateway
+
+import org.javacord.core.util.concurrent.ThreadPoolImpl
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static org.javacord.core.util.gateway.AudioSendScheduler.FRAME_DURATION
+
+@Subject(AudioSendScheduler)
+class AudioSendSchedulerTest extends Specification {
+
+    @AutoCleanup('shutdown')
+    def threadPool = new ThreadPoolImpl()
+
+    def scheduler = new AudioSendScheduler(threadPool, 2)
+
+    def 'frames are sent at the requested times'() {
+        given:
+            def sendTimes = new ConcurrentLinkedQueue<Long>()
+            def done = new CountDownLatch(10)
+            long nextFrameTime = 0
+
+        when:
+            def registration = scheduler.register { currentNanoTime ->
+                sendTimes << currentNanoTime
+                done.countDown()
+                nextFrameTime = (nextFrameTime == 0 ? currentNanoTime : nextFrameTime) + FRAME_DURATION
+                nextFrameTime
+            }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            def times = sendTimes as List<Long>
+            // A late frame shortens the gap to the next one, but no frame is sent before its scheduled time
+            (1..<times.size()).every { times[it] - times.first() >= it * FRAME_DURATION }
+
+        cleanup:
+            registration?.cancel()
+    }
+
+    def 'many senders share the worker threads'() {
+        given:
+            def threads = ConcurrentHashMap.newKeySet()
+            def done = new CountDownLatch(100)
+
+        when:
+            def registrations = (0..<100).collect {
+                boolean counted = false
+                scheduler.register { currentNanoTime ->
+                    threads << Thread.currentThread()
+                    if (!counted) {
+                        counted = true
+                        done.countDown()
+                    }
+                    currentNanoTime + FRAME_DURATION
+                }
+            }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            threads.size() == 2
+
+        cleanup:
+            registrations*.cancel()
+    }
+
+    def 'cancelled senders are not called anymore'() {
+        given:
+            def calls = new ConcurrentLinkedQueue()
+            def called = new CountDownLatch(1)
+            def registration = scheduler.register { currentNanoTime ->
+                calls << currentNanoTime
+                called.countDown()
+                currentNanoTime + TimeUnit.MILLISECONDS.toNanos(1)
+            }
+            called.await(10, TimeUnit.SECONDS)
+
+        when:
+            registration.cancel()
+            sleep(50)
+            def callCount = calls.size()
+            sleep(50)
+
+        then:
+            calls.size() == callCount
+    }
+
+    def 'failing senders are retried with the next frame'() {
+        given:
+            def done = new CountDownLatch(3)
+
+        when:
+            def registration = scheduler.register { currentNanoTime ->
+                done.countDown()
+                throw new IllegalStateException('expected')
+            }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+
+        cleanup:
+            registration?.cancel()
+    }
+
+    def 'senders that repeatedly take too long are moved to a dedicated thread'() {
+        given:
+            def scheduler = new AudioSendScheduler(threadPool, 1)
+            def fastThreads = ConcurrentHashMap.newKeySet()
+            def slowThreads = new ConcurrentLinkedQueue<Thread>()
+            def fastRegistration = scheduler.register { currentNanoTime ->
+                fastThreads << Thread.currentThread()
+                currentNanoTime + FRAME_DURATION
+            }
+
+        when:
+            def slowRegistration = scheduler.register { currentNanoTime ->
+                slowThreads << Thread.currentThread()
+                sleep(TimeUnit.NANOSECONDS.toMillis(AudioSendScheduler.OVERRUN_THRESHOLD) + 5)
+                currentNanoTime + FRAME_DURATION
+            }
+
+        then:
+            new PollingConditions(timeout: 10).eventually {
+                assert slowThreads.size() > AudioSendScheduler.OVERRUN_LIMIT
+            }
+            def threads = slowThreads as List<Thread>
+            threads.take(AudioSendScheduler.OVERRUN_LIMIT).every { it in fastThreads }
+            threads.last().name.contains('Audio Send Thread (dedicated) #0')
+            fastThreads.size() == 1
+
+        when:
+            slowRegistration.cancel()
+
+        then:
+            new PollingConditions(timeout: 10).eventually {
+                assert !threads.last().alive
+            }
+
+        cleanup:
+            fastRegistration?.cancel()
+            slowRegistration?.cancel()
+    }
+
+    def 'cancelled senders are not moved to a dedicated thread'() {
+        given:
+            def scheduler = new AudioSendScheduler(threadPool, 1)
+            def calls = new CountDownLatch(AudioSendScheduler.OVERRUN_LIMIT)
+            def registration
+            registration = scheduler.register { currentNanoTime ->
+                if (calls.count == 1) {
+                    registration.cancel()
+                }
+                sleep(TimeUnit.NANOSECONDS.toMillis(AudioSendScheduler.OVERRUN_THRESHOLD) + 5)
+                calls.countDown()
+                currentNanoTime + FRAME_DURATION
+            }
+
+        when:
+            calls.await(10, TimeUnit.SECONDS)
+            sleep(50)
+
+        then:
+            !threadPool.removeAndShutdownSingleThreadExecutorService('Audio Send Thread (dedicated) #0').present
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.javacord.core.util.gateway
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.zip.Deflater
+
+@Subject(EtfDecoder)
+class EtfDecoderTest extends Specification {
+
+    def mapper = new ObjectMapper()
+
+    def 'terms are decoded'() {
+        expect:
+            EtfDecoder.decode(toBytes(bytes), 0, bytes.size()) == mapper.readTree(json)
+
+        where:
+            bytes                                                              || json
+            [131, 97, 42]                                                      || '42'
+            [131, 98, 0xff, 0xff, 0xff, 0xfe]                                  || '-2'
+            [131, 70, 0x3f, 0xf8, 0, 0, 0, 0, 0, 0]                            || '1.5'
+            [131, 119, 3, 'n', 'i', 'l']                                       || 'null'
+            [131, 100, 0, 4, 't', 'r', 'u', 'e']                               || 'true'
+            [131, 115, 5, 'f', 'a', 'l', 's', 'e']                             || 'false'
+            [131, 109, 0, 0, 0, 2, 'h', 'i']                                   || '"hi"'
+            [131, 106]                                                         || '[]'
+            [131, 107, 0, 2, 1, 2]                                             || '[1,2]'
+            [131, 108, 0, 0, 0, 2, 97, 1, 97, 2, 106]                          || '[1,2]'
+            [131, 104, 2, 97, 1, 97, 2]                                        || '[1,2]'
+            // snowflake 175928847299117063
+            [131, 110, 8, 0, 0x07, 0, 0x02, 0xc1, 0x5a, 0x06, 0x71, 0x02]      || '175928847299117063'
+            [131, 116, 0, 0, 0, 1, 109, 0, 0, 0, 2, 'o', 'p', 97, 10]          || '{"op":10}'
+            [131, 116, 0, 0, 0, 1, 119, 1, 'd', 119, 3, 'n', 'i', 'l']         || '{"d":null}'
+    }
+
+    def 'compressed terms are decoded'() {
+        given:
+            def term = EtfEncoder.encode(mapper.readTree('{"t":"READY","s":1,"op":0,"d":{"guilds":[]}}'))
+            def deflater = new Deflater()
+            deflater.setInput(term, 1, term.length - 1)
+            deflater.finish()
+            def compressed = new byte[1024]
+            def compressedLength = deflater.deflate(compressed)
+            deflater.end()
+            def bytes = new ByteArrayOutputStream()
+            def output = new DataOutputStream(bytes)
+            output.writeByte(131)
+            output.writeByte(80)
+            output.writeInt(term.length - 1)
+            output.write(compressed, 0, compressedLength)
+            def data = bytes.toByteArray()
+
+        expect:
+            EtfDecoder.decode(data, 0, data.length) ==
+                    mapper.readTree('{"t":"READY","s":1,"op":0,"d":{"guilds":[]}}')
+    }
+
+    def 'encoded packets are decoded to the same packets'() {
+        given:
+            def packet = mapper.readTree(json)
+            def data = EtfEncoder.encode(packet)
+
+        expect:
+            EtfDecoder.decode(data, 0, data.length) == packet
+
+        where:
+            json << [
+                    '{"op":1,"d":null}',
+                    '{"op":1,"d":251}',
+                    '{"op":2,"d":{"token":"Bot abc","compress":false,"large_threshold":250,"shard":[0,1],'
+                            + '"properties":{"os":"Linux","browser":"Javacord","device":"Javacord"},"intents":3276799}}',
+                    '{"op":3,"d":{"since":null,"activities":[{"name":"Hällo","type":0}],"status":"online","afk":false}}',
+                    '{"op":0,"d":{"id":-5,"big":1234567890123,"huge":12345678901234567890123,"float":0.25}}'
+            ]
+    }
+
+    def 'invalid terms throw an exception'() {
+        when:
+            EtfDecoder.decode(toBytes(bytes), 0, bytes.size())
+
+        then:
+            thrown(IOException)
+
+        where:
+            bytes << [
+                    [130, 97, 1],
+                    [131, 109, 0, 0, 0, 5, 'h', 'i'],
+                    [131, 88]
+            ]
+    }
+
+    private static byte[] toBytes(List bytes) {
+        bytes.collect { it instanceof String ? (int) it.charAt(0) : it } as byte[]
+    }
+
+}
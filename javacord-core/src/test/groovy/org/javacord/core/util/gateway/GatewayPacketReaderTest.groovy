@@ -0,0 +1,50 @@
+package org.javacord.core.util.gateway
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+
+@Subject(GatewayPacketReader)
+class GatewayPacketReaderTest extends Specification {
+
+    def mapper = new ObjectMapper()
+
+    def reader = new GatewayPacketReader(mapper, { it != 'UNHANDLED' })
+
+    def 'packets are read like a full tree'() {
+        expect:
+            reader.read(packet) == mapper.readTree(packet)
+
+        and:
+            def bytes = packet.getBytes(StandardCharsets.UTF_8)
+            reader.read(bytes, 0, bytes.length) == mapper.readTree(packet)
+
+        where:
+            packet << [
+                    '{"t":null,"s":null,"op":10,"d":{"heartbeat_interval":41250}}',
+                    '{"op":11}',
+                    '{"t":"READY","s":1,"op":0,"d":{"v":10,"session_id":"abc","guilds":[{"id":"1","unavailable":true}]}}',
+                    '{"t":"MESSAGE_CREATE","s":2,"op":0,"d":{"id":"2","content":"Hällo \\"World\\"","embeds":[]}}',
+                    '{"op":0,"d":{"id":"3","roles":[{"id":"4","permissions":"8"}]},"s":3,"t":"GUILD_CREATE"}'
+            ]
+    }
+
+    def 'the data of packets that are not needed is skipped'() {
+        when:
+            def packet = reader.read('{"t":"UNHANDLED","s":4,"op":0,"d":{"nested":{"array":[1,2,{"a":"b"}]}}}')
+
+        then:
+            !packet.has('d')
+            packet.get('t').asText() == 'UNHANDLED'
+            packet.get('s').asInt() == 4
+            packet.get('op').asInt() == 0
+    }
+
+    def 'the data of packets is not skipped if the type is received after the data'() {
+        expect:
+            reader.read('{"op":0,"d":{"id":"1"},"s":5,"t":"UNHANDLED"}').get('d').get('id').asText() == '1'
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.javacord.core.util.gateway
+
+import org.javacord.core.util.concurrent.ThreadPoolImpl
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Subject(PacketHandlerExecutor)
+class PacketHandlerExecutorTest extends Specification {
+
+    @AutoCleanup('shutdown')
+    def threadPool = new ThreadPoolImpl()
+
+    def 'thread count must be at least 1'() {
+        when:
+            new PacketHandlerExecutor(threadPool, 0)
+
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def 'tasks with the same key are executed in order'() {
+        given:
+            def executor = new PacketHandlerExecutor(threadPool, 4)
+            def executed = new ConcurrentLinkedQueue()
+            def done = new CountDownLatch(100)
+
+        when:
+            (0..<100).each { i ->
+                executor.execute(123456789012345678L, {
+                    executed << i
+                    done.countDown()
+                })
+            }
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            executed as List == (0..<100) as List
+    }
+
+    def 'global tasks are executed after all previous and before all later tasks'() {
+        given:
+            def executor = new PacketHandlerExecutor(threadPool, 4)
+            def executed = new ConcurrentLinkedQueue()
+            def done = new CountDownLatch(1)
+
+        when:
+            (0..<20).each { i ->
+                executor.execute(i << 22, { sleep(5); executed << 'before' })
+            }
+            executor.executeGlobal({ executed << 'global' })
+            (0..<20).each { i ->
+                executor.execute(i << 22, { executed << 'after' })
+            }
+            executor.executeGlobal({ done.countDown() })
+
+        then:
+            done.await(10, TimeUnit.SECONDS)
+            def order = executed as List
+            order.indexOf('global') == 20
+            order.findAll { it == 'before' }.size() == 20
+            order.findAll { it == 'after' }.size() == 20
+    }
+
+    def 'global tasks that are waited for run in the calling thread after all previous tasks'() {
+        given:
+            def executor = new PacketHandlerExecutor(threadPool, 4)
+            def executed = new ConcurrentLinkedQueue()
+            Thread thread = null
+
+        when:
+            (0..<20).each { i ->
+                executor.execute(i << 22, { sleep(5); executed << 'before' })
+            }
+            executor.executeGlobalAndWait({
+                thread = Thread.currentThread()
+                executed << 'global'
+            })
+
+        then:
+            thread == Thread.currentThread()
+            executed.size() == 21
+            (executed as List).last() == 'global'
+    }
+
+}
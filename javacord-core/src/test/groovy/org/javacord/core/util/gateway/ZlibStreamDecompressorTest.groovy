@@ -0,0 +1,79 @@
+package org.javacord.core.util.gateway
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.util.zip.DataFormatException
+import java.util.zip.Deflater
+
+@Subject(ZlibStreamDecompressor)
+class ZlibStreamDecompressorTest extends Specification {
+
+    def deflater = new Deflater()
+
+    def decompressor = new ZlibStreamDecompressor()
+
+    def cleanup() {
+        deflater.end()
+        decompressor.close()
+    }
+
+    def 'messages that share one zlib context are decompressed'() {
+        expect:
+            asString(decompressor.decompress(compress('{"op":10}'))) == '{"op":10}'
+            asString(decompressor.decompress(compress('{"op":11}'))) == '{"op":11}'
+            asString(decompressor.decompress(compress('{"op":0}'))) == '{"op":0}'
+    }
+
+    def 'messages that are split across frames are decompressed once complete'() {
+        given:
+            def compressed = compress('{"op":0,"d":{"content":"Hello World"}}')
+            def split = compressed.length.intdiv(2)
+
+        expect:
+            !decompressor.decompress(Arrays.copyOfRange(compressed, 0, split)).present
+            asString(decompressor.decompress(Arrays.copyOfRange(compressed, split, compressed.length))) ==
+                    '{"op":0,"d":{"content":"Hello World"}}'
+            asString(decompressor.decompress(compress('{"op":11}'))) == '{"op":11}'
+    }
+
+    def 'messages that are larger than the output buffer are decompressed'() {
+        given:
+            def random = new Random(42)
+            def message = (1..100_000).collect { (char) (97 + random.nextInt(26)) }.join()
+
+        expect:
+            asString(decompressor.decompress(compress(message))) == message
+            asString(decompressor.decompress(compress('{"op":11}'))) == '{"op":11}'
+    }
+
+    def 'invalid data throws an exception'() {
+        when:
+            decompressor.decompress([1, 2, 3, 4, 0, 0, 0xff, 0xff] as byte[])
+
+        then:
+            thrown(DataFormatException)
+    }
+
+    private byte[] compress(String message) {
+        deflater.setInput(message.getBytes(StandardCharsets.UTF_8))
+        def output = new ByteArrayOutputStream()
+        def buffer = new byte[1024]
+        int count
+        while ((count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH)) > 0) {
+            output.write(buffer, 0, count)
+            if (count < buffer.length) {
+                break
+            }
+        }
+        output.toByteArray()
+    }
+
+    private static String asString(Optional<ByteBuffer> message) {
+        def buffer = message.get()
+        new String(buffer.array(), buffer.position(), buffer.remaining(), StandardCharsets.UTF_8)
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.javacord.core.util.http
+
+import okhttp3.OkHttpClient
+import org.mockserver.integration.ClientAndServer
+import org.mockserver.model.HttpRequest
+import org.mockserver.model.HttpResponse
+import org.mockserver.verify.VerificationTimes
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.CompletionException
+
+@Subject(CdnFetcher)
+class CdnFetcherTest extends Specification {
+
+    @Shared
+    @AutoCleanup('stop')
+    def server = ClientAndServer.startClientAndServer()
+
+    def httpClient = new OkHttpClient()
+
+    def setup() {
+        server.reset()
+        ['a', 'b', 'c'].each { name ->
+            server.when(HttpRequest.request("/${name}.png")) respond HttpResponse.response().withBody(name * 4)
+        }
+        server.when(HttpRequest.request('/missing.png')) respond HttpResponse.response().withStatusCode(404)
+    }
+
+    def 'files are downloaded only once if the cache is enabled'() {
+        given:
+            def fetcher = new CdnFetcher(httpClient, 1024)
+
+        when:
+            def first = fetcher.fetch(url('a')).join()
+            def second = fetcher.fetch(url('a')).join()
+            def third = fetcher.openStream(url('a')).bytes
+
+        then:
+            [first, second, third].every { new String(it) == 'aaaa' }
+            fetcher.cacheSize == 4
+            server.verify HttpRequest.request('/a.png'), VerificationTimes.once()
+    }
+
+    def 'files are downloaded every time if the cache is disabled'() {
+        given:
+            def fetcher = new CdnFetcher(httpClient, 0)
+
+        when:
+            fetcher.fetch(url('a')).join()
+            fetcher.openStream(url('a')).withCloseable { it.bytes }
+
+        then:
+            fetcher.cacheSize == 0
+            server.verify HttpRequest.request('/a.png'), VerificationTimes.exactly(2)
+    }
+
+    def 'the least recently used files are evicted if the cache is full'() {
+        given:
+            def fetcher = new CdnFetcher(httpClient, 10)
+
+        when:
+            fetcher.fetch(url('a')).join()
+            fetcher.fetch(url('b')).join()
+            fetcher.fetch(url('a')).join()
+            fetcher.fetch(url('c')).join()
+            fetcher.fetch(url('a')).join()
+            fetcher.fetch(url('b')).join()
+
+        then:
+            fetcher.cacheSize == 8
+            server.verify HttpRequest.request('/a.png'), VerificationTimes.once()
+            server.verify HttpRequest.request('/b.png'), VerificationTimes.exactly(2)
+            server.verify HttpRequest.request('/c.png'), VerificationTimes.once()
+    }
+
+    def 'cached files can not be modified by callers'() {
+        given:
+            def fetcher = new CdnFetcher(httpClient, 1024)
+
+        when:
+            fetcher.fetch(url('a')).join()[0] = (byte) 'x'
+
+        then:
+            new String(fetcher.fetch(url('a')).join()) == 'aaaa'
+    }
+
+    def 'unsuccessful downloads fail and are not cached'() {
+        given:
+            def fetcher = new CdnFetcher(httpClient, 1024)
+
+        when:
+            fetcher.fetch(url('missing')).join()
+
+        then:
+            CompletionException ce = thrown()
+            ce.cause instanceof IOException
+
+        when:
+            fetcher.openStream(url('missing'))
+
+        then:
+            thrown(IOException)
+            fetcher.cacheSize == 0
+    }
+
+    private URL url(String name) {
+        new URL("http://localhost:${server.localPort}/${name}.png")
+    }
+
+}
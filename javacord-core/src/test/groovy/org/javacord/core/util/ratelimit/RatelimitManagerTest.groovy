@@ -1,12 +1,19 @@
 package org.javacord.core.util.ratelimit
 
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
 import org.apache.logging.log4j.test.appender.ListAppender
 import org.javacord.api.exception.DiscordException
+import org.javacord.api.util.ratelimit.InMemoryRatelimitStore
 import org.javacord.core.DiscordApiImpl
 import org.javacord.core.util.concurrent.ThreadPoolImpl
+import org.javacord.core.util.rest.RestEndpoint
 import org.javacord.core.util.rest.RestRequest
+import org.javacord.core.util.rest.RestRequestResult
 import spock.lang.Specification
 import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
 
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionException
@@ -15,16 +22,20 @@ import java.util.concurrent.TimeUnit
 @Subject(RatelimitManager)
 class RatelimitManagerTest extends Specification {
 
-    def 'executeBlocking() throwing a DiscordException without result does not cause an Exception'() {
+    def 'executeAsync() failing with a DiscordException without result does not cause an Exception'() {
         given:
+            def execution = new CompletableFuture<>()
+            execution.completeExceptionally(new DiscordException(null, null, null, null))
             RestRequest request = Stub {
-                executeBlocking() >> { throw new DiscordException(null, null, null, null) }
+                executeAsync() >> execution
                 getResult() >> new CompletableFuture<>()
             }
             def threadPool = new ThreadPoolImpl()
+            def ratelimitStore = new InMemoryRatelimitStore()
             DiscordApiImpl api = Stub {
                 getThreadPool() >> threadPool
                 getTimeOffset() >> null
+                getRatelimitStore() >> ratelimitStore
             }
             new RatelimitManager(api).queueRequest request
 
@@ -47,4 +58,121 @@ class RatelimitManagerTest extends Specification {
             threadPool?.shutdown()
     }
 
+    def 'endpoints with the same bucket hash share their ratelimit bucket'() {
+        given:
+            def threadPool = new ThreadPoolImpl()
+            def ratelimitStore = new InMemoryRatelimitStore()
+            DiscordApiImpl api = Stub {
+                getThreadPool() >> threadPool
+                getTimeOffset() >> null
+                getRatelimitStore() >> ratelimitStore
+                getToken() >> 'token'
+            }
+            def ratelimitManager = new RatelimitManager(api)
+            def conditions = new PollingConditions(timeout: 10)
+
+        when: 'both endpoints told us their bucket hash'
+            def firstRequest = request(RestEndpoint.MESSAGE, completedExecution('abc', 5))
+            def secondRequest = request(RestEndpoint.MESSAGE_DELETE, completedExecution('abc', 5))
+            ratelimitManager.queueRequest firstRequest
+            ratelimitManager.queueRequest secondRequest
+            firstRequest.result.join()
+            secondRequest.result.join()
+
+        then:
+            conditions.eventually {
+                assert ratelimitManager.getBucketHash(RestEndpoint.MESSAGE) == Optional.of('abc')
+                assert ratelimitManager.getBucketHash(RestEndpoint.MESSAGE_DELETE) == Optional.of('abc')
+                assert ratelimitManager.buckets.empty
+            }
+
+        when: 'requests to both endpoints are queued'
+            def pendingExecution = new CompletableFuture<RestRequestResult>()
+            def thirdRequest = request(RestEndpoint.MESSAGE, pendingExecution)
+            def fourthRequest = request(RestEndpoint.MESSAGE_DELETE, completedExecution('abc', 5))
+            ratelimitManager.queueRequest thirdRequest
+            ratelimitManager.queueRequest fourthRequest
+
+        then: 'they are queued in the same bucket'
+            ratelimitManager.buckets.size() == 1
+            ratelimitManager.buckets.first().bucketHash == Optional.of('abc')
+            !fourthRequest.result.done
+
+        when: 'the first request finishes'
+            pendingExecution.complete(result('abc', 5))
+            fourthRequest.result.join()
+
+        then: 'the second request is executed afterwards'
+            thirdRequest.result.done
+
+        cleanup:
+            threadPool?.shutdown()
+    }
+
+    def 'queued requests and the ratelimit information are moved to the bucket with the received hash'() {
+        given:
+            def threadPool = new ThreadPoolImpl()
+            def ratelimitStore = new InMemoryRatelimitStore()
+            DiscordApiImpl api = Stub {
+                getThreadPool() >> threadPool
+                getTimeOffset() >> null
+                getRatelimitStore() >> ratelimitStore
+                getToken() >> 'token'
+            }
+            def ratelimitManager = new RatelimitManager(api)
+            def conditions = new PollingConditions(timeout: 10)
+            def pendingExecution = new CompletableFuture<RestRequestResult>()
+            def firstRequest = request(RestEndpoint.MESSAGE, pendingExecution)
+            def secondRequest = request(RestEndpoint.MESSAGE, completedExecution('abc', 5))
+            ratelimitManager.queueRequest firstRequest
+            ratelimitManager.queueRequest secondRequest
+
+        expect:
+            ratelimitManager.buckets.first().bucketHash == Optional.empty()
+
+        when: 'the first request tells us that the bucket is exhausted'
+            pendingExecution.complete(result('abc', 0))
+            firstRequest.result.join()
+
+        then:
+            conditions.eventually {
+                assert ratelimitManager.buckets.size() == 1
+                assert ratelimitManager.buckets.first().bucketHash == Optional.of('abc')
+            }
+            ratelimitManager.buckets.first().tryAcquireSpace() > 0
+            !secondRequest.result.done
+
+        cleanup:
+            threadPool?.shutdown()
+    }
+
+    private RestRequest request(RestEndpoint endpoint, CompletableFuture<RestRequestResult> execution) {
+        def result = new CompletableFuture<RestRequestResult>()
+        Stub(RestRequest) {
+            getEndpoint() >> endpoint
+            getMajorUrlParameter() >> Optional.of('123')
+            executeAsync() >> execution
+            getResult() >> result
+        }
+    }
+
+    private CompletableFuture<RestRequestResult> completedExecution(String bucketHash, int remaining) {
+        CompletableFuture.completedFuture(result(bucketHash, remaining))
+    }
+
+    private RestRequestResult result(String bucketHash, int remaining) {
+        def response = new Response.Builder()
+                .request(new Request.Builder().url('https://discord.com/api/v9').build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message('OK')
+                .header('X-RateLimit-Bucket', bucketHash)
+                .header('X-RateLimit-Remaining', remaining as String)
+                .header('X-RateLimit-Reset', ((System.currentTimeMillis() + 3_600_000) / 1000) as String)
+                .build()
+        Stub(RestRequestResult) {
+            getResponse() >> response
+        }
+    }
+
 }
@@ -1,9 +1,11 @@
 package org.javacord.core.util.rest
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import okhttp3.Protocol
 import okhttp3.Request
 import okhttp3.Response
 import okhttp3.ResponseBody
+import org.javacord.core.DiscordApiImpl
 import spock.lang.Specification
 import spock.lang.Subject
 
@@ -31,4 +33,71 @@ class RestRequestResultTest extends Specification {
             result.jsonBody.isMissingNode()
     }
 
+    def 'successful responses are parsed without keeping the string body'() {
+        when:
+            def result = new RestRequestResult(restRequest, response(200, '[{"id":"1"},{"id":"2"}]'), false, false)
+
+        then:
+            !result.stringBody.present
+            result.jsonBody*.get('id')*.asText() == ['1', '2']
+    }
+
+    def 'unsuccessful responses always keep the string body'() {
+        when:
+            def result = new RestRequestResult(restRequest, response(404, '{"code":10008}'), true, false)
+
+        then:
+            !result.streamed
+            result.stringBody.get() == '{"code":10008}'
+            result.jsonBody.get('code').asInt() == 10008
+    }
+
+    def 'streamed json arrays are read element by element'() {
+        given:
+            def result = new RestRequestResult(restRequest, response(200, '[{"id":"1"},{"id":"2"},[3]]'), true, true)
+            def elements = []
+
+        when:
+            result.readJsonArray { elements << it }
+
+        then:
+            result.streamed
+            result.jsonBody.isNull()
+            !result.stringBody.present
+            elements*.toString() == ['{"id":"1"}', '{"id":"2"}', '[3]']
+    }
+
+    def 'streamed bodies that are not json arrays cannot be read as arrays'() {
+        given:
+            def result = new RestRequestResult(restRequest, response(200, body), true, false)
+
+        when:
+            result.readJsonArray { }
+
+        then:
+            thrown(IOException)
+
+        where:
+            body << ['{"id":"1"}', '[{"id":"1"}', '']
+    }
+
+    private getRestRequest() {
+        def api = Stub(DiscordApiImpl) {
+            getObjectMapper() >> new ObjectMapper()
+        }
+        Stub(RestRequest) {
+            getApi() >> api
+        }
+    }
+
+    private static Response response(int code, String body) {
+        new Response.Builder()
+                .request(new Request.Builder().url('http://localhost').build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message('')
+                .body(ResponseBody.create(body, null))
+                .build()
+    }
+
 }